@@ -13,16 +13,23 @@
  */
 package com.facebook.presto.plugin.jdbc;
 
+import com.facebook.presto.spi.AggregateFunction;
+import com.facebook.presto.spi.ColumnHandle;
 import com.facebook.presto.spi.ColumnMetadata;
+import com.facebook.presto.spi.ConnectorAggregationPushDownResult;
+import com.facebook.presto.spi.ConnectorSplit;
 import com.facebook.presto.spi.ConnectorSplitSource;
 import com.facebook.presto.spi.ConnectorTableMetadata;
 import com.facebook.presto.spi.FixedSplitSource;
 import com.facebook.presto.spi.PrestoException;
 import com.facebook.presto.spi.SchemaTableName;
+import com.facebook.presto.spi.SortingProperty;
 import com.facebook.presto.spi.TableNotFoundException;
+import com.facebook.presto.spi.predicate.Domain;
 import com.facebook.presto.spi.type.CharType;
 import com.facebook.presto.spi.type.Type;
 import com.facebook.presto.spi.type.VarcharType;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
@@ -42,10 +49,13 @@ import java.sql.Types;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.Properties;
 import java.util.Set;
 import java.util.UUID;
 
+import static com.facebook.presto.plugin.jdbc.JdbcColumnReaders.columnReader;
 import static com.facebook.presto.plugin.jdbc.JdbcErrorCode.JDBC_ERROR;
 import static com.facebook.presto.spi.StandardErrorCode.NOT_FOUND;
 import static com.facebook.presto.spi.StandardErrorCode.NOT_SUPPORTED;
@@ -67,6 +77,7 @@ import static com.facebook.presto.spi.type.VarcharType.createUnboundedVarcharTyp
 import static com.facebook.presto.spi.type.VarcharType.createVarcharType;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Strings.isNullOrEmpty;
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.collect.Iterables.getOnlyElement;
 import static com.google.common.collect.Maps.fromProperties;
 import static java.lang.Math.min;
@@ -101,6 +112,8 @@ public class BaseJdbcClient
     protected final String connectionUrl;
     protected final Properties connectionProperties;
     protected final String identifierQuote;
+    protected final Optional<Integer> fetchSize;
+    protected final int maxSplitsPerTable;
 
     public BaseJdbcClient(JdbcConnectorId connectorId, BaseJdbcConfig config, String identifierQuote, Driver driver)
     {
@@ -110,6 +123,8 @@ public class BaseJdbcClient
 
         requireNonNull(config, "config is null");
         connectionUrl = config.getConnectionUrl();
+        fetchSize = Optional.ofNullable(config.getFetchSize());
+        maxSplitsPerTable = config.getMaxSplitsPerTable();
 
         connectionProperties = new Properties();
         if (config.getConnectionUser() != null) {
@@ -231,15 +246,274 @@ public class BaseJdbcClient
     public ConnectorSplitSource getSplits(JdbcTableLayoutHandle layoutHandle)
     {
         JdbcTableHandle tableHandle = layoutHandle.getTable();
-        JdbcSplit jdbcSplit = new JdbcSplit(
-                connectorId,
-                tableHandle.getCatalogName(),
-                tableHandle.getSchemaName(),
-                tableHandle.getTableName(),
-                connectionUrl,
-                fromProperties(connectionProperties),
-                layoutHandle.getTupleDomain());
-        return new FixedSplitSource(ImmutableList.of(jdbcSplit));
+        List<Optional<String>> predicates = ImmutableList.of(Optional.empty());
+        if (maxSplitsPerTable > 1) {
+            predicates = getRangePredicates(tableHandle, maxSplitsPerTable);
+        }
+
+        ImmutableList.Builder<ConnectorSplit> splits = ImmutableList.builder();
+        for (Optional<String> predicate : predicates) {
+            splits.add(new JdbcSplit(
+                    connectorId,
+                    tableHandle.getCatalogName(),
+                    tableHandle.getSchemaName(),
+                    tableHandle.getTableName(),
+                    connectionUrl,
+                    fromProperties(connectionProperties),
+                    layoutHandle.getTupleDomain(),
+                    predicate,
+                    layoutHandle.getGroupingColumns(),
+                    layoutHandle.getSortOrder(),
+                    layoutHandle.getLimit()));
+        }
+        return new FixedSplitSource(splits.build());
+    }
+
+    @Override
+    public Optional<JdbcTableLayoutHandle> pushDownLimit(JdbcTableLayoutHandle layoutHandle, long limit)
+    {
+        if (layoutHandle.getGroupingColumns().isPresent()) {
+            return Optional.empty();
+        }
+        if (layoutHandle.getLimit().isPresent() && layoutHandle.getLimit().getAsLong() <= limit) {
+            return Optional.empty();
+        }
+        return Optional.of(new JdbcTableLayoutHandle(
+                layoutHandle.getTable(),
+                layoutHandle.getTupleDomain(),
+                Optional.empty(),
+                layoutHandle.getSortOrder(),
+                OptionalLong.of(limit)));
+    }
+
+    @Override
+    public Optional<JdbcTableLayoutHandle> pushDownTopN(JdbcTableLayoutHandle layoutHandle, long count, List<SortingProperty<ColumnHandle>> ordering)
+    {
+        if (layoutHandle.getGroupingColumns().isPresent() || !layoutHandle.getSortOrder().isEmpty() || layoutHandle.getLimit().isPresent()) {
+            return Optional.empty();
+        }
+
+        ImmutableList.Builder<JdbcSortItem> sortOrder = ImmutableList.builder();
+        for (SortingProperty<ColumnHandle> property : ordering) {
+            JdbcColumnHandle column = (JdbcColumnHandle) property.getColumn();
+            if (!isOrderingSupported(column.getColumnType())) {
+                return Optional.empty();
+            }
+            sortOrder.add(new JdbcSortItem(column, property.getOrder()));
+        }
+        return Optional.of(new JdbcTableLayoutHandle(
+                layoutHandle.getTable(),
+                layoutHandle.getTupleDomain(),
+                Optional.empty(),
+                sortOrder.build(),
+                OptionalLong.of(count)));
+    }
+
+    @Override
+    public Optional<ConnectorAggregationPushDownResult> pushDownPartialAggregation(JdbcTableLayoutHandle layoutHandle, List<ColumnHandle> groupingColumns, List<AggregateFunction> aggregates)
+    {
+        if (layoutHandle.getGroupingColumns().isPresent() || !layoutHandle.getSortOrder().isEmpty() || layoutHandle.getLimit().isPresent()) {
+            return Optional.empty();
+        }
+
+        List<JdbcColumnHandle> jdbcGroupingColumns = groupingColumns.stream()
+                .map(JdbcColumnHandle.class::cast)
+                .collect(toImmutableList());
+        for (JdbcColumnHandle column : jdbcGroupingColumns) {
+            if (!isGroupingSupported(column.getColumnType())) {
+                return Optional.empty();
+            }
+        }
+
+        // the query only filters on the columns it selects, which are the grouping columns
+        Optional<Map<ColumnHandle, Domain>> domains = layoutHandle.getTupleDomain().getDomains();
+        if (domains.isPresent() && !jdbcGroupingColumns.containsAll(domains.get().keySet())) {
+            return Optional.empty();
+        }
+
+        ImmutableList.Builder<ColumnHandle> aggregateColumns = ImmutableList.builder();
+        for (int i = 0; i < aggregates.size(); i++) {
+            Optional<String> expression = toAggregateSql(aggregates.get(i));
+            if (!expression.isPresent()) {
+                return Optional.empty();
+            }
+            aggregateColumns.add(new JdbcColumnHandle(connectorId, "_pushdown_aggregate_" + i, aggregates.get(i).getIntermediateType(), expression));
+        }
+
+        JdbcTableLayoutHandle aggregatedLayout = new JdbcTableLayoutHandle(
+                layoutHandle.getTable(),
+                layoutHandle.getTupleDomain(),
+                Optional.of(jdbcGroupingColumns),
+                ImmutableList.of(),
+                OptionalLong.empty());
+        return Optional.of(new ConnectorAggregationPushDownResult(aggregatedLayout, aggregateColumns.build()));
+    }
+
+    /**
+     * Returns the SQL expression that computes the partial result of the aggregate
+     * in its intermediate type, or empty if the database can not compute it.
+     */
+    protected Optional<String> toAggregateSql(AggregateFunction aggregate)
+    {
+        Type intermediateType = aggregate.getIntermediateType();
+        List<ColumnHandle> arguments = aggregate.getArguments();
+        if (aggregate.getName().equals("count") && intermediateType.equals(BIGINT)) {
+            if (arguments.isEmpty()) {
+                return Optional.of("count(*)");
+            }
+            if (arguments.size() == 1) {
+                return Optional.of(format("count(%s)", quoted(((JdbcColumnHandle) arguments.get(0)).getColumnName())));
+            }
+            return Optional.empty();
+        }
+        if (arguments.size() != 1) {
+            return Optional.empty();
+        }
+
+        JdbcColumnHandle argument = (JdbcColumnHandle) arguments.get(0);
+        Type argumentType = argument.getColumnType();
+        switch (aggregate.getName()) {
+            case "sum":
+                if ((isIntegralType(argumentType) && intermediateType.equals(BIGINT)) || (argumentType.equals(DOUBLE) && intermediateType.equals(DOUBLE))) {
+                    return Optional.of(format("sum(%s)", quoted(argument.getColumnName())));
+                }
+                return Optional.empty();
+            case "min":
+            case "max":
+                if (isOrderingSupported(argumentType) && intermediateType.equals(argumentType)) {
+                    return Optional.of(format("%s(%s)", aggregate.getName(), quoted(argument.getColumnName())));
+                }
+                return Optional.empty();
+            default:
+                return Optional.empty();
+        }
+    }
+
+    /**
+     * Types whose ordering in the database matches the ordering in Presto. Floating point
+     * types are excluded because databases order NaN differently.
+     */
+    protected boolean isOrderingSupported(Type type)
+    {
+        return isIntegralType(type) || type.equals(DATE);
+    }
+
+    /**
+     * Types whose equality in the database matches the equality in Presto. Character
+     * types are excluded because the database may compare them with a case or accent
+     * insensitive collation.
+     */
+    protected boolean isGroupingSupported(Type type)
+    {
+        return isIntegralType(type) || type.equals(DATE) || type.equals(BOOLEAN);
+    }
+
+    private static boolean isIntegralType(Type type)
+    {
+        return type.equals(TINYINT) || type.equals(SMALLINT) || type.equals(INTEGER) || type.equals(BIGINT);
+    }
+
+    /**
+     * Divides a table with a single integral primary key column into ranges of that
+     * column, so that the ranges can be read in parallel. The first and the last range
+     * are unbounded, so rows written after the bounds were computed are still read.
+     */
+    protected List<Optional<String>> getRangePredicates(JdbcTableHandle tableHandle, int maxRanges)
+    {
+        try (Connection connection = driver.connect(connectionUrl, connectionProperties)) {
+            Optional<String> keyColumn = getIntegralPrimaryKey(connection, tableHandle);
+            if (!keyColumn.isPresent()) {
+                return ImmutableList.of(Optional.empty());
+            }
+
+            String column = quoted(keyColumn.get());
+            String sql = format(
+                    "SELECT min(%s), max(%s) FROM %s",
+                    column,
+                    column,
+                    quoted(tableHandle.getCatalogName(), tableHandle.getSchemaName(), tableHandle.getTableName()));
+            long min;
+            long max;
+            try (Statement statement = connection.createStatement();
+                    ResultSet resultSet = statement.executeQuery(sql)) {
+                if (!resultSet.next()) {
+                    return ImmutableList.of(Optional.empty());
+                }
+                min = resultSet.getLong(1);
+                if (resultSet.wasNull()) {
+                    // the table is empty
+                    return ImmutableList.of(Optional.empty());
+                }
+                max = resultSet.getLong(2);
+            }
+
+            List<Long> boundaries = getRangeBoundaries(min, max, maxRanges);
+            if (boundaries.isEmpty()) {
+                return ImmutableList.of(Optional.empty());
+            }
+
+            ImmutableList.Builder<Optional<String>> predicates = ImmutableList.builder();
+            predicates.add(Optional.of(format("%s < %s", column, boundaries.get(0))));
+            for (int i = 1; i < boundaries.size(); i++) {
+                predicates.add(Optional.of(format("%s >= %s AND %s < %s", column, boundaries.get(i - 1), column, boundaries.get(i))));
+            }
+            predicates.add(Optional.of(format("%s >= %s", column, boundaries.get(boundaries.size() - 1))));
+            return predicates.build();
+        }
+        catch (SQLException e) {
+            throw new PrestoException(JDBC_ERROR, e);
+        }
+    }
+
+    private Optional<String> getIntegralPrimaryKey(Connection connection, JdbcTableHandle tableHandle)
+            throws SQLException
+    {
+        DatabaseMetaData metadata = connection.getMetaData();
+        List<String> keyColumns = new ArrayList<>();
+        try (ResultSet resultSet = metadata.getPrimaryKeys(tableHandle.getCatalogName(), tableHandle.getSchemaName(), tableHandle.getTableName())) {
+            while (resultSet.next()) {
+                keyColumns.add(resultSet.getString("COLUMN_NAME"));
+            }
+        }
+        if (keyColumns.size() != 1) {
+            return Optional.empty();
+        }
+
+        String keyColumn = getOnlyElement(keyColumns);
+        try (ResultSet resultSet = getColumns(tableHandle, metadata)) {
+            while (resultSet.next()) {
+                if (resultSet.getString("COLUMN_NAME").equals(keyColumn)) {
+                    int dataType = resultSet.getInt("DATA_TYPE");
+                    if (dataType == Types.TINYINT || dataType == Types.SMALLINT || dataType == Types.INTEGER || dataType == Types.BIGINT) {
+                        return Optional.of(keyColumn);
+                    }
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Returns the values that divide [min, max] into at most the given number of ranges of similar width.
+     */
+    @VisibleForTesting
+    static List<Long> getRangeBoundaries(long min, long max, int ranges)
+    {
+        checkArgument(min <= max, "min is greater than max");
+        checkArgument(ranges > 0, "ranges must be at least one");
+
+        // computed with doubles, as the width of the range may not fit in a long
+        double width = ((double) max - (double) min + 1) / ranges;
+        ImmutableList.Builder<Long> boundaries = ImmutableList.builder();
+        long previous = min;
+        for (int i = 1; i < ranges; i++) {
+            long boundary = (long) (min + width * i);
+            if (boundary > previous && boundary <= max) {
+                boundaries.add(boundary);
+                previous = boundary;
+            }
+        }
+        return boundaries.build();
     }
 
     @Override
@@ -268,7 +542,17 @@ public class BaseJdbcClient
                 split.getSchemaName(),
                 split.getTableName(),
                 columnHandles,
-                split.getTupleDomain());
+                split.getTupleDomain(),
+                split.getAdditionalPredicate(),
+                split.getGroupingColumns(),
+                split.getSortOrder(),
+                split.getLimit());
+    }
+
+    @Override
+    public JdbcColumnReader getColumnReader(JdbcColumnHandle columnHandle)
+    {
+        return columnReader(columnHandle.getColumnType());
     }
 
     @Override
@@ -431,7 +715,11 @@ public class BaseJdbcClient
     public PreparedStatement getPreparedStatement(Connection connection, String sql)
             throws SQLException
     {
-        return connection.prepareStatement(sql);
+        PreparedStatement statement = connection.prepareStatement(sql);
+        if (fetchSize.isPresent()) {
+            statement.setFetchSize(fetchSize.get());
+        }
+        return statement;
     }
 
     protected ResultSet getTables(Connection connection, String schemaName, String tableName)
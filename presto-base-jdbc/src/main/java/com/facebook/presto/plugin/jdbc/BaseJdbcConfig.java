@@ -14,8 +14,10 @@
 package com.facebook.presto.plugin.jdbc;
 
 import io.airlift.configuration.Config;
+import io.airlift.configuration.ConfigDescription;
 import io.airlift.configuration.ConfigSecuritySensitive;
 
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 
 public class BaseJdbcConfig
@@ -23,6 +25,8 @@ public class BaseJdbcConfig
     private String connectionUrl;
     private String connectionUser;
     private String connectionPassword;
+    private Integer fetchSize;
+    private int maxSplitsPerTable = 1;
 
     @NotNull
     public String getConnectionUrl()
@@ -61,4 +65,32 @@ public class BaseJdbcConfig
         this.connectionPassword = connectionPassword;
         return this;
     }
+
+    @Min(1)
+    public Integer getFetchSize()
+    {
+        return fetchSize;
+    }
+
+    @Config("fetch-size")
+    @ConfigDescription("Number of rows fetched from the remote database per round trip (driver default if not set)")
+    public BaseJdbcConfig setFetchSize(Integer fetchSize)
+    {
+        this.fetchSize = fetchSize;
+        return this;
+    }
+
+    @Min(1)
+    public int getMaxSplitsPerTable()
+    {
+        return maxSplitsPerTable;
+    }
+
+    @Config("max-splits-per-table")
+    @ConfigDescription("Maximum number of splits a table with a single integral primary key column is divided into")
+    public BaseJdbcConfig setMaxSplitsPerTable(int maxSplitsPerTable)
+    {
+        this.maxSplitsPerTable = maxSplitsPerTable;
+        return this;
+    }
 }
@@ -13,9 +13,13 @@
  */
 package com.facebook.presto.plugin.jdbc;
 
+import com.facebook.presto.spi.AggregateFunction;
+import com.facebook.presto.spi.ColumnHandle;
+import com.facebook.presto.spi.ConnectorAggregationPushDownResult;
 import com.facebook.presto.spi.ConnectorSplitSource;
 import com.facebook.presto.spi.ConnectorTableMetadata;
 import com.facebook.presto.spi.SchemaTableName;
+import com.facebook.presto.spi.SortingProperty;
 
 import javax.annotation.Nullable;
 
@@ -23,6 +27,7 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 
 public interface JdbcClient
@@ -38,12 +43,20 @@ public interface JdbcClient
 
     ConnectorSplitSource getSplits(JdbcTableLayoutHandle layoutHandle);
 
+    Optional<JdbcTableLayoutHandle> pushDownLimit(JdbcTableLayoutHandle layoutHandle, long limit);
+
+    Optional<JdbcTableLayoutHandle> pushDownTopN(JdbcTableLayoutHandle layoutHandle, long count, List<SortingProperty<ColumnHandle>> ordering);
+
+    Optional<ConnectorAggregationPushDownResult> pushDownPartialAggregation(JdbcTableLayoutHandle layoutHandle, List<ColumnHandle> groupingColumns, List<AggregateFunction> aggregates);
+
     Connection getConnection(JdbcSplit split)
             throws SQLException;
 
     PreparedStatement buildSql(Connection connection, JdbcSplit split, List<JdbcColumnHandle> columnHandles)
             throws SQLException;
 
+    JdbcColumnReader getColumnReader(JdbcColumnHandle columnHandle);
+
     JdbcOutputTableHandle beginCreateTable(ConnectorTableMetadata tableMetadata);
 
     void commitCreateTable(JdbcOutputTableHandle handle);
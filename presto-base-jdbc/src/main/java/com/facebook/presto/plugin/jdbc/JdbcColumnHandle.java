@@ -20,6 +20,7 @@ import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.util.Objects;
+import java.util.Optional;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
 import static java.util.Objects.requireNonNull;
@@ -30,16 +31,24 @@ public final class JdbcColumnHandle
     private final String connectorId;
     private final String columnName;
     private final Type columnType;
+    private final Optional<String> expression;
+
+    public JdbcColumnHandle(String connectorId, String columnName, Type columnType)
+    {
+        this(connectorId, columnName, columnType, Optional.empty());
+    }
 
     @JsonCreator
     public JdbcColumnHandle(
             @JsonProperty("connectorId") String connectorId,
             @JsonProperty("columnName") String columnName,
-            @JsonProperty("columnType") Type columnType)
+            @JsonProperty("columnType") Type columnType,
+            @JsonProperty("expression") Optional<String> expression)
     {
         this.connectorId = requireNonNull(connectorId, "connectorId is null");
         this.columnName = requireNonNull(columnName, "columnName is null");
         this.columnType = requireNonNull(columnType, "columnType is null");
+        this.expression = requireNonNull(expression, "expression is null");
     }
 
     @JsonProperty
@@ -60,6 +69,16 @@ public final class JdbcColumnHandle
         return columnType;
     }
 
+    /**
+     * SQL expression that computes the column, such as a pushed down aggregate,
+     * or empty if the column is read from the table.
+     */
+    @JsonProperty
+    public Optional<String> getExpression()
+    {
+        return expression;
+    }
+
     public ColumnMetadata getColumnMetadata()
     {
         return new ColumnMetadata(columnName, columnType);
@@ -76,13 +95,14 @@ public final class JdbcColumnHandle
         }
         JdbcColumnHandle o = (JdbcColumnHandle) obj;
         return Objects.equals(this.connectorId, o.connectorId) &&
-                Objects.equals(this.columnName, o.columnName);
+                Objects.equals(this.columnName, o.columnName) &&
+                Objects.equals(this.expression, o.expression);
     }
 
     @Override
     public int hashCode()
     {
-        return Objects.hash(connectorId, columnName);
+        return Objects.hash(connectorId, columnName, expression);
     }
 
     @Override
@@ -92,6 +112,8 @@ public final class JdbcColumnHandle
                 .add("connectorId", connectorId)
                 .add("columnName", columnName)
                 .add("columnType", columnType)
+                .add("expression", expression.orElse(null))
+                .omitNullValues()
                 .toString();
     }
 }
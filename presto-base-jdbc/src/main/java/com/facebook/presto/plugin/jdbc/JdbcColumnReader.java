@@ -0,0 +1,35 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.plugin.jdbc;
+
+import com.facebook.presto.spi.block.BlockBuilder;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Copies one column of the current row of a {@link ResultSet} into a block.
+ * A reader is bound to the column type once per split, so rows are read
+ * without looking at the type again.
+ */
+public interface JdbcColumnReader
+{
+    /**
+     * Appends the value of the column, or a null, to the output.
+     *
+     * @param columnIndex the one based index of the column in the result set
+     */
+    void read(ResultSet resultSet, int columnIndex, BlockBuilder output)
+            throws SQLException;
+}
@@ -0,0 +1,204 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.plugin.jdbc;
+
+import com.facebook.presto.spi.PrestoException;
+import com.facebook.presto.spi.type.CharType;
+import com.facebook.presto.spi.type.Type;
+import com.facebook.presto.spi.type.VarcharType;
+import com.google.common.base.CharMatcher;
+import org.joda.time.chrono.ISOChronology;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.concurrent.TimeUnit;
+
+import static com.facebook.presto.spi.StandardErrorCode.GENERIC_INTERNAL_ERROR;
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.spi.type.BooleanType.BOOLEAN;
+import static com.facebook.presto.spi.type.DateType.DATE;
+import static com.facebook.presto.spi.type.DoubleType.DOUBLE;
+import static com.facebook.presto.spi.type.IntegerType.INTEGER;
+import static com.facebook.presto.spi.type.RealType.REAL;
+import static com.facebook.presto.spi.type.SmallintType.SMALLINT;
+import static com.facebook.presto.spi.type.TimeType.TIME;
+import static com.facebook.presto.spi.type.TimestampType.TIMESTAMP;
+import static com.facebook.presto.spi.type.TinyintType.TINYINT;
+import static com.facebook.presto.spi.type.VarbinaryType.VARBINARY;
+import static io.airlift.slice.Slices.utf8Slice;
+import static io.airlift.slice.Slices.wrappedBuffer;
+import static java.lang.Float.floatToRawIntBits;
+import static org.joda.time.DateTimeZone.UTC;
+
+/**
+ * Column readers for the types produced by {@link BaseJdbcClient#toPrestoType}.
+ */
+public final class JdbcColumnReaders
+{
+    private static final ISOChronology UTC_CHRONOLOGY = ISOChronology.getInstance(UTC);
+    private static final CharMatcher TRAILING_SPACES = CharMatcher.is(' ');
+
+    private JdbcColumnReaders() {}
+
+    public static JdbcColumnReader columnReader(Type type)
+    {
+        if (type.equals(BOOLEAN)) {
+            return (resultSet, columnIndex, output) -> {
+                boolean value = resultSet.getBoolean(columnIndex);
+                if (resultSet.wasNull()) {
+                    output.appendNull();
+                }
+                else {
+                    BOOLEAN.writeBoolean(output, value);
+                }
+            };
+        }
+        if (type.equals(TINYINT)) {
+            return (resultSet, columnIndex, output) -> {
+                byte value = resultSet.getByte(columnIndex);
+                if (resultSet.wasNull()) {
+                    output.appendNull();
+                }
+                else {
+                    TINYINT.writeLong(output, value);
+                }
+            };
+        }
+        if (type.equals(SMALLINT)) {
+            return (resultSet, columnIndex, output) -> {
+                short value = resultSet.getShort(columnIndex);
+                if (resultSet.wasNull()) {
+                    output.appendNull();
+                }
+                else {
+                    SMALLINT.writeLong(output, value);
+                }
+            };
+        }
+        if (type.equals(INTEGER)) {
+            return (resultSet, columnIndex, output) -> {
+                int value = resultSet.getInt(columnIndex);
+                if (resultSet.wasNull()) {
+                    output.appendNull();
+                }
+                else {
+                    INTEGER.writeLong(output, value);
+                }
+            };
+        }
+        if (type.equals(BIGINT)) {
+            return (resultSet, columnIndex, output) -> {
+                long value = resultSet.getLong(columnIndex);
+                if (resultSet.wasNull()) {
+                    output.appendNull();
+                }
+                else {
+                    BIGINT.writeLong(output, value);
+                }
+            };
+        }
+        if (type.equals(REAL)) {
+            return (resultSet, columnIndex, output) -> {
+                float value = resultSet.getFloat(columnIndex);
+                if (resultSet.wasNull()) {
+                    output.appendNull();
+                }
+                else {
+                    REAL.writeLong(output, floatToRawIntBits(value));
+                }
+            };
+        }
+        if (type.equals(DOUBLE)) {
+            return (resultSet, columnIndex, output) -> {
+                double value = resultSet.getDouble(columnIndex);
+                if (resultSet.wasNull()) {
+                    output.appendNull();
+                }
+                else {
+                    DOUBLE.writeDouble(output, value);
+                }
+            };
+        }
+        if (type.equals(DATE)) {
+            return (resultSet, columnIndex, output) -> {
+                Date value = resultSet.getDate(columnIndex);
+                if (value == null) {
+                    output.appendNull();
+                }
+                else {
+                    // JDBC returns a date using a timestamp at midnight in the JVM timezone
+                    long utcMillis = ISOChronology.getInstance().getZone().getMillisKeepLocal(UTC, value.getTime());
+                    DATE.writeLong(output, TimeUnit.MILLISECONDS.toDays(utcMillis));
+                }
+            };
+        }
+        if (type.equals(TIME)) {
+            return (resultSet, columnIndex, output) -> {
+                Time value = resultSet.getTime(columnIndex);
+                if (value == null) {
+                    output.appendNull();
+                }
+                else {
+                    TIME.writeLong(output, UTC_CHRONOLOGY.millisOfDay().get(value.getTime()));
+                }
+            };
+        }
+        if (type.equals(TIMESTAMP)) {
+            return (resultSet, columnIndex, output) -> {
+                Timestamp value = resultSet.getTimestamp(columnIndex);
+                if (value == null) {
+                    output.appendNull();
+                }
+                else {
+                    TIMESTAMP.writeLong(output, value.getTime());
+                }
+            };
+        }
+        if (type instanceof VarcharType) {
+            return (resultSet, columnIndex, output) -> {
+                String value = resultSet.getString(columnIndex);
+                if (value == null) {
+                    output.appendNull();
+                }
+                else {
+                    type.writeSlice(output, utf8Slice(value));
+                }
+            };
+        }
+        if (type instanceof CharType) {
+            return (resultSet, columnIndex, output) -> {
+                String value = resultSet.getString(columnIndex);
+                if (value == null) {
+                    output.appendNull();
+                }
+                else {
+                    type.writeSlice(output, utf8Slice(TRAILING_SPACES.trimTrailingFrom(value)));
+                }
+            };
+        }
+        if (type.equals(VARBINARY)) {
+            return (resultSet, columnIndex, output) -> {
+                byte[] value = resultSet.getBytes(columnIndex);
+                if (value == null) {
+                    output.appendNull();
+                }
+                else {
+                    VARBINARY.writeSlice(output, wrappedBuffer(value));
+                }
+            };
+        }
+        throw new PrestoException(GENERIC_INTERNAL_ERROR, "Unhandled type: " + type.getTypeSignature());
+    }
+}
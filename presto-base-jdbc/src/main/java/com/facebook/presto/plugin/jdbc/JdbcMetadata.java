@@ -13,8 +13,10 @@
  */
 package com.facebook.presto.plugin.jdbc;
 
+import com.facebook.presto.spi.AggregateFunction;
 import com.facebook.presto.spi.ColumnHandle;
 import com.facebook.presto.spi.ColumnMetadata;
+import com.facebook.presto.spi.ConnectorAggregationPushDownResult;
 import com.facebook.presto.spi.ConnectorInsertTableHandle;
 import com.facebook.presto.spi.ConnectorNewTableLayout;
 import com.facebook.presto.spi.ConnectorOutputTableHandle;
@@ -28,6 +30,7 @@ import com.facebook.presto.spi.Constraint;
 import com.facebook.presto.spi.PrestoException;
 import com.facebook.presto.spi.SchemaTableName;
 import com.facebook.presto.spi.SchemaTablePrefix;
+import com.facebook.presto.spi.SortingProperty;
 import com.facebook.presto.spi.TableNotFoundException;
 import com.facebook.presto.spi.connector.ConnectorMetadata;
 import com.facebook.presto.spi.connector.ConnectorOutputMetadata;
@@ -86,6 +89,26 @@ public class JdbcMetadata
         return new ConnectorTableLayout(handle);
     }
 
+    @Override
+    public Optional<ConnectorTableLayoutHandle> pushDownLimit(ConnectorSession session, ConnectorTableLayoutHandle tableLayoutHandle, long limit)
+    {
+        return jdbcClient.pushDownLimit((JdbcTableLayoutHandle) tableLayoutHandle, limit)
+                .map(ConnectorTableLayoutHandle.class::cast);
+    }
+
+    @Override
+    public Optional<ConnectorTableLayoutHandle> pushDownTopN(ConnectorSession session, ConnectorTableLayoutHandle tableLayoutHandle, long count, List<SortingProperty<ColumnHandle>> ordering)
+    {
+        return jdbcClient.pushDownTopN((JdbcTableLayoutHandle) tableLayoutHandle, count, ordering)
+                .map(ConnectorTableLayoutHandle.class::cast);
+    }
+
+    @Override
+    public Optional<ConnectorAggregationPushDownResult> pushDownPartialAggregation(ConnectorSession session, ConnectorTableLayoutHandle tableLayoutHandle, List<ColumnHandle> groupingColumns, List<AggregateFunction> aggregates)
+    {
+        return jdbcClient.pushDownPartialAggregation((JdbcTableLayoutHandle) tableLayoutHandle, groupingColumns, aggregates);
+    }
+
     @Override
     public ConnectorTableMetadata getTableMetadata(ConnectorSession session, ConnectorTableHandle table)
     {
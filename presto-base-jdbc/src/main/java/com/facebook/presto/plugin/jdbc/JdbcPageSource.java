@@ -0,0 +1,177 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.plugin.jdbc;
+
+import com.facebook.presto.spi.ConnectorPageSource;
+import com.facebook.presto.spi.Page;
+import com.facebook.presto.spi.PageBuilder;
+import com.facebook.presto.spi.type.Type;
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableList;
+import io.airlift.log.Logger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Reads the result set of a split straight into pages. Every column is read
+ * by a {@link JdbcColumnReader} chosen once for the column type, instead of
+ * going through the {@link com.facebook.presto.spi.RecordCursor} methods,
+ * which look at the type and the nullness of every value separately.
+ */
+public class JdbcPageSource
+        implements ConnectorPageSource
+{
+    private static final Logger log = Logger.get(JdbcPageSource.class);
+
+    private static final int ROWS_PER_REQUEST = 4096;
+
+    private final JdbcColumnReader[] columnReaders;
+    private final PageBuilder pageBuilder;
+
+    private final Connection connection;
+    private final PreparedStatement statement;
+    private final ResultSet resultSet;
+
+    private long completedBytes;
+    private long readTimeNanos;
+    private boolean closed;
+
+    public JdbcPageSource(JdbcClient jdbcClient, JdbcSplit split, List<JdbcColumnHandle> columnHandles)
+    {
+        requireNonNull(jdbcClient, "jdbcClient is null");
+        requireNonNull(split, "split is null");
+        requireNonNull(columnHandles, "columnHandles is null");
+
+        ImmutableList.Builder<Type> types = ImmutableList.builder();
+        columnReaders = new JdbcColumnReader[columnHandles.size()];
+        for (int i = 0; i < columnHandles.size(); i++) {
+            JdbcColumnHandle column = columnHandles.get(i);
+            types.add(column.getColumnType());
+            columnReaders[i] = jdbcClient.getColumnReader(column);
+        }
+        pageBuilder = new PageBuilder(types.build());
+
+        try {
+            connection = jdbcClient.getConnection(split);
+            statement = jdbcClient.buildSql(connection, split, columnHandles);
+            log.debug("Executing: %s", statement.toString());
+            resultSet = statement.executeQuery();
+        }
+        catch (SQLException | RuntimeException e) {
+            throw handleSqlException(e);
+        }
+    }
+
+    @Override
+    public long getCompletedBytes()
+    {
+        return completedBytes;
+    }
+
+    @Override
+    public long getReadTimeNanos()
+    {
+        return readTimeNanos;
+    }
+
+    @Override
+    public long getSystemMemoryUsage()
+    {
+        return pageBuilder.getSizeInBytes();
+    }
+
+    @Override
+    public boolean isFinished()
+    {
+        return closed && pageBuilder.isEmpty();
+    }
+
+    @Override
+    public Page getNextPage()
+    {
+        if (!closed) {
+            long start = System.nanoTime();
+            try {
+                for (int row = 0; row < ROWS_PER_REQUEST && !pageBuilder.isFull(); row++) {
+                    if (!resultSet.next()) {
+                        close();
+                        break;
+                    }
+
+                    pageBuilder.declarePosition();
+                    for (int column = 0; column < columnReaders.length; column++) {
+                        columnReaders[column].read(resultSet, column + 1, pageBuilder.getBlockBuilder(column));
+                    }
+                }
+            }
+            catch (SQLException | RuntimeException e) {
+                throw handleSqlException(e);
+            }
+            finally {
+                readTimeNanos += System.nanoTime() - start;
+            }
+        }
+
+        // only return a page if the buffer is full or we are finishing
+        if (pageBuilder.isEmpty() || (!closed && !pageBuilder.isFull())) {
+            return null;
+        }
+
+        Page page = pageBuilder.build();
+        pageBuilder.reset();
+        completedBytes += page.getSizeInBytes();
+        return page;
+    }
+
+    @SuppressWarnings({"UnusedDeclaration", "EmptyTryBlock"})
+    @Override
+    public void close()
+    {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        // use try with resources to close everything properly
+        try (Connection connection = this.connection;
+                Statement statement = this.statement;
+                ResultSet resultSet = this.resultSet) {
+            // do nothing
+        }
+        catch (SQLException e) {
+            throw Throwables.propagate(e);
+        }
+    }
+
+    private RuntimeException handleSqlException(Exception e)
+    {
+        try {
+            close();
+        }
+        catch (Exception closeException) {
+            // Self-suppression not permitted
+            if (e != closeException) {
+                e.addSuppressed(closeException);
+            }
+        }
+        return Throwables.propagate(e);
+    }
+}
@@ -26,6 +26,8 @@ import javax.annotation.Nullable;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
 
 import static java.util.Objects.requireNonNull;
 
@@ -39,6 +41,10 @@ public class JdbcSplit
     private final String connectionUrl;
     private final Map<String, String> connectionProperties;
     private final TupleDomain<ColumnHandle> tupleDomain;
+    private final Optional<String> additionalPredicate;
+    private final Optional<List<JdbcColumnHandle>> groupingColumns;
+    private final List<JdbcSortItem> sortOrder;
+    private final OptionalLong limit;
 
     @JsonCreator
     public JdbcSplit(
@@ -48,7 +54,11 @@ public class JdbcSplit
             @JsonProperty("tableName") String tableName,
             @JsonProperty("connectionUrl") String connectionUrl,
             @JsonProperty("connectionProperties") Map<String, String> connectionProperties,
-            @JsonProperty("tupleDomain") TupleDomain<ColumnHandle> tupleDomain)
+            @JsonProperty("tupleDomain") TupleDomain<ColumnHandle> tupleDomain,
+            @JsonProperty("additionalPredicate") Optional<String> additionalPredicate,
+            @JsonProperty("groupingColumns") Optional<List<JdbcColumnHandle>> groupingColumns,
+            @JsonProperty("sortOrder") List<JdbcSortItem> sortOrder,
+            @JsonProperty("limit") OptionalLong limit)
     {
         this.connectorId = requireNonNull(connectorId, "connector id is null");
         this.catalogName = catalogName;
@@ -57,6 +67,10 @@ public class JdbcSplit
         this.connectionUrl = requireNonNull(connectionUrl, "connectionUrl is null");
         this.connectionProperties = ImmutableMap.copyOf(requireNonNull(connectionProperties, "connectionProperties is null"));
         this.tupleDomain = requireNonNull(tupleDomain, "tupleDomain is null");
+        this.additionalPredicate = requireNonNull(additionalPredicate, "additionalPredicate is null");
+        this.groupingColumns = requireNonNull(groupingColumns, "groupingColumns is null").map(ImmutableList::copyOf);
+        this.sortOrder = ImmutableList.copyOf(requireNonNull(sortOrder, "sortOrder is null"));
+        this.limit = requireNonNull(limit, "limit is null");
     }
 
     @JsonProperty
@@ -103,6 +117,39 @@ public class JdbcSplit
         return tupleDomain;
     }
 
+    /**
+     * SQL condition that restricts this split to a part of the table, in addition to the tuple domain.
+     */
+    @JsonProperty
+    public Optional<String> getAdditionalPredicate()
+    {
+        return additionalPredicate;
+    }
+
+    /**
+     * Columns to group the rows of this split by, when the split computes a partial aggregation.
+     */
+    @JsonProperty
+    public Optional<List<JdbcColumnHandle>> getGroupingColumns()
+    {
+        return groupingColumns;
+    }
+
+    @JsonProperty
+    public List<JdbcSortItem> getSortOrder()
+    {
+        return sortOrder;
+    }
+
+    /**
+     * Maximum number of rows read by this split.
+     */
+    @JsonProperty
+    public OptionalLong getLimit()
+    {
+        return limit;
+    }
+
     @Override
     public boolean isRemotelyAccessible()
     {
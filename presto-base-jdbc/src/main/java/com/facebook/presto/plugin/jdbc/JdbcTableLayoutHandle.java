@@ -18,9 +18,14 @@ import com.facebook.presto.spi.ConnectorTableLayoutHandle;
 import com.facebook.presto.spi.predicate.TupleDomain;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.ImmutableList;
 
+import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalLong;
 
+import static com.google.common.base.MoreObjects.toStringHelper;
 import static java.util.Objects.requireNonNull;
 
 public class JdbcTableLayoutHandle
@@ -28,14 +33,28 @@ public class JdbcTableLayoutHandle
 {
     private final JdbcTableHandle table;
     private final TupleDomain<ColumnHandle> tupleDomain;
+    private final Optional<List<JdbcColumnHandle>> groupingColumns;
+    private final List<JdbcSortItem> sortOrder;
+    private final OptionalLong limit;
+
+    public JdbcTableLayoutHandle(JdbcTableHandle table, TupleDomain<ColumnHandle> domain)
+    {
+        this(table, domain, Optional.empty(), ImmutableList.of(), OptionalLong.empty());
+    }
 
     @JsonCreator
     public JdbcTableLayoutHandle(
             @JsonProperty("table") JdbcTableHandle table,
-            @JsonProperty("tupleDomain") TupleDomain<ColumnHandle> domain)
+            @JsonProperty("tupleDomain") TupleDomain<ColumnHandle> domain,
+            @JsonProperty("groupingColumns") Optional<List<JdbcColumnHandle>> groupingColumns,
+            @JsonProperty("sortOrder") List<JdbcSortItem> sortOrder,
+            @JsonProperty("limit") OptionalLong limit)
     {
         this.table = requireNonNull(table, "table is null");
         this.tupleDomain = requireNonNull(domain, "tupleDomain is null");
+        this.groupingColumns = requireNonNull(groupingColumns, "groupingColumns is null").map(ImmutableList::copyOf);
+        this.sortOrder = ImmutableList.copyOf(requireNonNull(sortOrder, "sortOrder is null"));
+        this.limit = requireNonNull(limit, "limit is null");
     }
 
     @JsonProperty
@@ -50,6 +69,30 @@ public class JdbcTableLayoutHandle
         return tupleDomain;
     }
 
+    /**
+     * Columns to group the rows of each split by, when the split computes a partial aggregation.
+     */
+    @JsonProperty
+    public Optional<List<JdbcColumnHandle>> getGroupingColumns()
+    {
+        return groupingColumns;
+    }
+
+    @JsonProperty
+    public List<JdbcSortItem> getSortOrder()
+    {
+        return sortOrder;
+    }
+
+    /**
+     * Maximum number of rows read by each split.
+     */
+    @JsonProperty
+    public OptionalLong getLimit()
+    {
+        return limit;
+    }
+
     @Override
     public boolean equals(Object o)
     {
@@ -61,18 +104,30 @@ public class JdbcTableLayoutHandle
         }
         JdbcTableLayoutHandle that = (JdbcTableLayoutHandle) o;
         return Objects.equals(table, that.table) &&
-                Objects.equals(tupleDomain, that.tupleDomain);
+                Objects.equals(tupleDomain, that.tupleDomain) &&
+                Objects.equals(groupingColumns, that.groupingColumns) &&
+                Objects.equals(sortOrder, that.sortOrder) &&
+                Objects.equals(limit, that.limit);
     }
 
     @Override
     public int hashCode()
     {
-        return Objects.hash(table, tupleDomain);
+        return Objects.hash(table, tupleDomain, groupingColumns, sortOrder, limit);
     }
 
     @Override
     public String toString()
     {
-        return table.toString();
+        if (!groupingColumns.isPresent() && sortOrder.isEmpty() && !limit.isPresent()) {
+            return table.toString();
+        }
+        return toStringHelper(this)
+                .add("table", table)
+                .add("groupingColumns", groupingColumns.orElse(null))
+                .add("sortOrder", sortOrder.isEmpty() ? null : sortOrder)
+                .add("limit", limit.isPresent() ? limit.getAsLong() : null)
+                .omitNullValues()
+                .toString();
     }
 }
@@ -14,6 +14,7 @@
 package com.facebook.presto.plugin.jdbc;
 
 import com.facebook.presto.spi.ColumnHandle;
+import com.facebook.presto.spi.block.SortOrder;
 import com.facebook.presto.spi.predicate.Domain;
 import com.facebook.presto.spi.predicate.Range;
 import com.facebook.presto.spi.predicate.TupleDomain;
@@ -44,6 +45,8 @@ import java.sql.Time;
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
 
 import static com.facebook.presto.spi.type.DateTimeEncoding.unpackMillisUtc;
 import static com.google.common.base.Preconditions.checkArgument;
@@ -51,6 +54,7 @@ import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.base.Strings.isNullOrEmpty;
 import static com.google.common.collect.Iterables.getOnlyElement;
 import static java.lang.Float.intBitsToFloat;
+import static java.lang.String.format;
 import static java.util.Collections.nCopies;
 import static java.util.Objects.requireNonNull;
 import static java.util.concurrent.TimeUnit.DAYS;
@@ -88,14 +92,30 @@ public class QueryBuilder
         this.quote = requireNonNull(quote, "quote is null");
     }
 
-    public PreparedStatement buildSql(JdbcClient client, Connection connection, String catalog, String schema, String table, List<JdbcColumnHandle> columns, TupleDomain<ColumnHandle> tupleDomain)
+    public PreparedStatement buildSql(JdbcClient client, Connection connection, String catalog, String schema, String table, List<JdbcColumnHandle> columns, TupleDomain<ColumnHandle> tupleDomain, Optional<String> additionalPredicate)
+            throws SQLException
+    {
+        return buildSql(client, connection, catalog, schema, table, columns, tupleDomain, additionalPredicate, Optional.empty(), ImmutableList.of(), OptionalLong.empty());
+    }
+
+    public PreparedStatement buildSql(
+            JdbcClient client,
+            Connection connection,
+            String catalog,
+            String schema,
+            String table,
+            List<JdbcColumnHandle> columns,
+            TupleDomain<ColumnHandle> tupleDomain,
+            Optional<String> additionalPredicate,
+            Optional<List<JdbcColumnHandle>> groupingColumns,
+            List<JdbcSortItem> sortOrder,
+            OptionalLong limit)
             throws SQLException
     {
         StringBuilder sql = new StringBuilder();
 
         String columnNames = columns.stream()
-                .map(JdbcColumnHandle::getColumnName)
-                .map(this::quote)
+                .map(column -> column.getExpression().orElseGet(() -> quote(column.getColumnName())))
                 .collect(joining(", "));
 
         sql.append("SELECT ");
@@ -115,12 +135,31 @@ public class QueryBuilder
 
         List<TypeAndValue> accumulator = new ArrayList<>();
 
-        List<String> clauses = toConjuncts(columns, tupleDomain, accumulator);
+        List<String> clauses = new ArrayList<>(toConjuncts(columns, tupleDomain, accumulator));
+        additionalPredicate.ifPresent(predicate -> clauses.add("(" + predicate + ")"));
         if (!clauses.isEmpty()) {
             sql.append(" WHERE ")
                     .append(Joiner.on(" AND ").join(clauses));
         }
 
+        if (groupingColumns.isPresent() && !groupingColumns.get().isEmpty()) {
+            sql.append(" GROUP BY ")
+                    .append(groupingColumns.get().stream()
+                            .map(column -> quote(column.getColumnName()))
+                            .collect(joining(", ")));
+        }
+
+        if (!sortOrder.isEmpty()) {
+            sql.append(" ORDER BY ")
+                    .append(sortOrder.stream()
+                            .map(this::toOrderBy)
+                            .collect(joining(", ")));
+        }
+
+        if (limit.isPresent()) {
+            sql.append(" LIMIT ").append(limit.getAsLong());
+        }
+
         PreparedStatement statement = client.getPreparedStatement(connection, sql.toString());
 
         for (int i = 0; i < accumulator.size(); i++) {
@@ -196,7 +235,7 @@ public class QueryBuilder
         ImmutableList.Builder<String> builder = ImmutableList.builder();
         for (JdbcColumnHandle column : columns) {
             Type type = column.getColumnType();
-            if (isAcceptedType(type)) {
+            if (!column.getExpression().isPresent() && isAcceptedType(type)) {
                 Domain domain = tupleDomain.getDomains().get().get(column);
                 if (domain != null) {
                     builder.add(toPredicate(column.getColumnName(), domain, type, accumulator));
@@ -288,6 +327,20 @@ public class QueryBuilder
         return quote(columnName) + " " + operator + " ?";
     }
 
+    private String toOrderBy(JdbcSortItem sortItem)
+    {
+        // not every database supports NULLS FIRST and NULLS LAST, so the nulls are ordered by a separate key
+        String column = quote(sortItem.getColumn().getColumnName());
+        SortOrder sortOrder = sortItem.getSortOrder();
+        return format(
+                "CASE WHEN %s IS NULL THEN %s ELSE %s END, %s %s",
+                column,
+                sortOrder.isNullsFirst() ? 0 : 1,
+                sortOrder.isNullsFirst() ? 1 : 0,
+                column,
+                sortOrder.isAscending() ? "ASC" : "DESC");
+    }
+
     private String quote(String name)
     {
         name = name.replace(quote, quote + quote);
@@ -27,7 +27,9 @@ public class TestBaseJdbcConfig
         ConfigAssertions.assertRecordedDefaults(ConfigAssertions.recordDefaults(BaseJdbcConfig.class)
                 .setConnectionUrl(null)
                 .setConnectionUser(null)
-                .setConnectionPassword(null));
+                .setConnectionPassword(null)
+                .setFetchSize(null)
+                .setMaxSplitsPerTable(1));
     }
 
     @Test
@@ -37,12 +39,16 @@ public class TestBaseJdbcConfig
                 .put("connection-url", "jdbc:h2:mem:config")
                 .put("connection-user", "user")
                 .put("connection-password", "password")
+                .put("fetch-size", "500")
+                .put("max-splits-per-table", "8")
                 .build();
 
         BaseJdbcConfig expected = new BaseJdbcConfig()
                 .setConnectionUrl("jdbc:h2:mem:config")
                 .setConnectionUser("user")
-                .setConnectionPassword("password");
+                .setConnectionPassword("password")
+                .setFetchSize(500)
+                .setMaxSplitsPerTable(8);
 
         ConfigAssertions.assertFullMapping(properties, expected);
     }
@@ -13,21 +13,40 @@
  */
 package com.facebook.presto.plugin.jdbc;
 
+import com.facebook.presto.spi.AggregateFunction;
+import com.facebook.presto.spi.ConnectorAggregationPushDownResult;
+import com.facebook.presto.spi.ConnectorSplitSource;
 import com.facebook.presto.spi.SchemaTableName;
+import com.facebook.presto.spi.SortingProperty;
+import com.facebook.presto.spi.predicate.Domain;
+import com.facebook.presto.spi.predicate.TupleDomain;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import org.h2.Driver;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
+import java.sql.Connection;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+
 import static com.facebook.presto.plugin.jdbc.TestingDatabase.CONNECTOR_ID;
+import static com.facebook.presto.spi.block.SortOrder.ASC_NULLS_FIRST;
+import static com.facebook.presto.spi.block.SortOrder.DESC_NULLS_LAST;
 import static com.facebook.presto.spi.type.BigintType.BIGINT;
 import static com.facebook.presto.spi.type.DoubleType.DOUBLE;
 import static com.facebook.presto.spi.type.RealType.REAL;
 import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
 import static com.facebook.presto.spi.type.VarcharType.createVarcharType;
+import static com.google.common.collect.Iterables.getOnlyElement;
+import static io.airlift.concurrent.MoreFutures.getFutureValue;
 import static java.util.Locale.ENGLISH;
+import static java.util.stream.Collectors.toList;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertNotNull;
 import static org.testng.Assert.assertTrue;
 
@@ -105,4 +124,88 @@ public class TestJdbcClient
                 new JdbcColumnHandle(CONNECTOR_ID, "COL3", DOUBLE),
                 new JdbcColumnHandle(CONNECTOR_ID, "COL4", REAL)));
     }
+
+    @Test
+    public void testRangeSplits()
+            throws Exception
+    {
+        Connection connection = database.getConnection();
+        connection.createStatement().execute("CREATE SCHEMA ranged");
+        connection.createStatement().execute("CREATE TABLE ranged.keyed(id bigint primary key, value varchar)");
+        connection.createStatement().execute("INSERT INTO ranged.keyed(id, value) VALUES (1, 'one'), (50, 'fifty'), (100, 'hundred')");
+        connection.createStatement().execute("CREATE TABLE ranged.unkeyed(id bigint, value varchar)");
+        connection.commit();
+
+        JdbcClient client = new BaseJdbcClient(
+                new JdbcConnectorId(CONNECTOR_ID),
+                new BaseJdbcConfig()
+                        .setConnectionUrl(connection.getMetaData().getURL())
+                        .setMaxSplitsPerTable(4),
+                "\"",
+                new Driver());
+
+        List<JdbcSplit> splits = getSplits(client, new SchemaTableName("ranged", "keyed"));
+        assertEquals(splits.stream().map(JdbcSplit::getAdditionalPredicate).collect(toList()), ImmutableList.of(
+                Optional.of("\"ID\" < 26"),
+                Optional.of("\"ID\" >= 26 AND \"ID\" < 51"),
+                Optional.of("\"ID\" >= 51 AND \"ID\" < 76"),
+                Optional.of("\"ID\" >= 76")));
+
+        splits = getSplits(client, new SchemaTableName("ranged", "unkeyed"));
+        assertEquals(getOnlyElement(splits).getAdditionalPredicate(), Optional.empty());
+    }
+
+    @Test
+    public void testRangeBoundaries()
+    {
+        assertEquals(BaseJdbcClient.getRangeBoundaries(1, 100, 4), ImmutableList.of(26L, 51L, 76L));
+        assertEquals(BaseJdbcClient.getRangeBoundaries(0, 2, 8), ImmutableList.of(1L, 2L));
+        assertEquals(BaseJdbcClient.getRangeBoundaries(5, 5, 4), ImmutableList.of());
+        assertEquals(BaseJdbcClient.getRangeBoundaries(Long.MIN_VALUE, Long.MAX_VALUE, 2).size(), 1);
+    }
+
+    @Test
+    public void testPushDown()
+    {
+        JdbcTableHandle table = jdbcClient.getTableHandle(new SchemaTableName("example", "numbers"));
+        JdbcColumnHandle text = new JdbcColumnHandle(CONNECTOR_ID, "TEXT", VARCHAR);
+        JdbcColumnHandle value = new JdbcColumnHandle(CONNECTOR_ID, "VALUE", BIGINT);
+        JdbcTableLayoutHandle layout = new JdbcTableLayoutHandle(table, TupleDomain.all());
+
+        JdbcTableLayoutHandle limited = jdbcClient.pushDownLimit(layout, 10).get();
+        assertEquals(limited.getLimit(), OptionalLong.of(10));
+        assertEquals(jdbcClient.pushDownLimit(limited, 5).get().getLimit(), OptionalLong.of(5));
+        assertFalse(jdbcClient.pushDownLimit(limited, 20).isPresent());
+
+        JdbcTableLayoutHandle sorted = jdbcClient.pushDownTopN(layout, 3, ImmutableList.of(new SortingProperty<>(value, DESC_NULLS_LAST))).get();
+        assertEquals(sorted.getSortOrder(), ImmutableList.of(new JdbcSortItem(value, DESC_NULLS_LAST)));
+        assertEquals(sorted.getLimit(), OptionalLong.of(3));
+        // the database may order text with a different collation
+        assertFalse(jdbcClient.pushDownTopN(layout, 3, ImmutableList.of(new SortingProperty<>(text, ASC_NULLS_FIRST))).isPresent());
+
+        List<AggregateFunction> aggregates = ImmutableList.of(
+                new AggregateFunction("count", ImmutableList.of(), BIGINT),
+                new AggregateFunction("max", ImmutableList.of(value), BIGINT));
+        ConnectorAggregationPushDownResult result = jdbcClient.pushDownPartialAggregation(layout, ImmutableList.of(), aggregates).get();
+        assertEquals(((JdbcTableLayoutHandle) result.getLayoutHandle()).getGroupingColumns(), Optional.of(ImmutableList.of()));
+        assertEquals(result.getAggregateColumns().stream()
+                        .map(column -> ((JdbcColumnHandle) column).getExpression().get())
+                        .collect(toList()),
+                ImmutableList.of("count(*)", "max(\"VALUE\")"));
+
+        assertFalse(jdbcClient.pushDownPartialAggregation(layout, ImmutableList.of(text), aggregates).isPresent());
+        assertFalse(jdbcClient.pushDownPartialAggregation(limited, ImmutableList.of(), aggregates).isPresent());
+        assertFalse(jdbcClient.pushDownPartialAggregation(layout, ImmutableList.of(), ImmutableList.of(new AggregateFunction("avg", ImmutableList.of(value), DOUBLE))).isPresent());
+        JdbcTableLayoutHandle filtered = new JdbcTableLayoutHandle(table, TupleDomain.withColumnDomains(ImmutableMap.of(value, Domain.singleValue(BIGINT, 1L))));
+        assertFalse(jdbcClient.pushDownPartialAggregation(filtered, ImmutableList.of(), aggregates).isPresent());
+    }
+
+    private static List<JdbcSplit> getSplits(JdbcClient client, SchemaTableName schemaTableName)
+    {
+        JdbcTableHandle table = client.getTableHandle(schemaTableName);
+        ConnectorSplitSource splitSource = client.getSplits(new JdbcTableLayoutHandle(table, TupleDomain.all()));
+        return getFutureValue(splitSource.getNextBatch(1000)).stream()
+                .map(JdbcSplit.class::cast)
+                .collect(toList());
+    }
 }
@@ -0,0 +1,178 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.plugin.jdbc;
+
+import com.facebook.presto.spi.ConnectorPageSource;
+import com.facebook.presto.spi.Page;
+import com.facebook.presto.spi.block.Block;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.spi.type.BooleanType.BOOLEAN;
+import static com.facebook.presto.spi.type.DoubleType.DOUBLE;
+import static com.facebook.presto.spi.type.IntegerType.INTEGER;
+import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
+import static com.facebook.presto.spi.type.VarcharType.createVarcharType;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+@Test
+public class TestJdbcPageSource
+{
+    private TestingDatabase database;
+    private JdbcClient jdbcClient;
+    private Map<String, JdbcColumnHandle> columnHandles;
+
+    @BeforeClass
+    public void setUp()
+            throws Exception
+    {
+        database = new TestingDatabase();
+        jdbcClient = database.getJdbcClient();
+        columnHandles = database.getColumnHandles("example", "numbers");
+
+        Connection connection = database.getConnection();
+        connection.createStatement().execute("CREATE SCHEMA nullable");
+        connection.createStatement().execute("CREATE TABLE nullable.sample(id integer, flag boolean, amount double, name varchar)");
+        connection.createStatement().execute("INSERT INTO nullable.sample(id, flag, amount, name) VALUES " +
+                "(1, true, 1.5, 'one')," +
+                "(2, null, null, null)," +
+                "(null, false, 3.5, 'three')");
+        connection.commit();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown()
+            throws Exception
+    {
+        database.close();
+    }
+
+    @Test
+    public void testReadPages()
+            throws Exception
+    {
+        try (ConnectorPageSource pageSource = new JdbcPageSource(jdbcClient, database.getSplit("example", "numbers"), ImmutableList.of(
+                columnHandles.get("text"),
+                columnHandles.get("text_short"),
+                columnHandles.get("value")))) {
+            Map<String, Long> data = new LinkedHashMap<>();
+            for (Page page : readPages(pageSource)) {
+                assertEquals(page.getChannelCount(), 3);
+                for (int position = 0; position < page.getPositionCount(); position++) {
+                    String text = VARCHAR.getSlice(page.getBlock(0), position).toStringUtf8();
+                    assertEquals(createVarcharType(32).getSlice(page.getBlock(1), position).toStringUtf8(), text);
+                    data.put(text, BIGINT.getLong(page.getBlock(2), position));
+                }
+            }
+            assertTrue(pageSource.isFinished());
+            assertTrue(pageSource.getCompletedBytes() > 0);
+
+            assertEquals(data, ImmutableMap.<String, Long>builder()
+                    .put("one", 1L)
+                    .put("two", 2L)
+                    .put("three", 3L)
+                    .put("ten", 10L)
+                    .put("eleven", 11L)
+                    .put("twelve", 12L)
+                    .build());
+        }
+    }
+
+    @Test
+    public void testNoColumns()
+            throws Exception
+    {
+        try (ConnectorPageSource pageSource = new JdbcPageSource(jdbcClient, database.getSplit("example", "numbers"), ImmutableList.of())) {
+            int positions = 0;
+            for (Page page : readPages(pageSource)) {
+                assertEquals(page.getChannelCount(), 0);
+                positions += page.getPositionCount();
+            }
+            assertEquals(positions, 6);
+        }
+    }
+
+    @Test
+    public void testNulls()
+            throws Exception
+    {
+        Map<String, JdbcColumnHandle> columns = database.getColumnHandles("nullable", "sample");
+        try (ConnectorPageSource pageSource = new JdbcPageSource(jdbcClient, database.getSplit("nullable", "sample"), ImmutableList.of(
+                columns.get("id"),
+                columns.get("flag"),
+                columns.get("amount"),
+                columns.get("name")))) {
+            List<Page> pages = readPages(pageSource);
+            assertEquals(pages.size(), 1);
+            Page page = pages.get(0);
+            assertEquals(page.getPositionCount(), 3);
+
+            Block id = page.getBlock(0);
+            Block flag = page.getBlock(1);
+            Block amount = page.getBlock(2);
+            Block name = page.getBlock(3);
+
+            assertEquals(INTEGER.getLong(id, 0), 1);
+            assertEquals(BOOLEAN.getBoolean(flag, 0), true);
+            assertEquals(DOUBLE.getDouble(amount, 0), 1.5);
+            assertEquals(VARCHAR.getSlice(name, 0).toStringUtf8(), "one");
+
+            assertFalse(id.isNull(1));
+            assertTrue(flag.isNull(1));
+            assertTrue(amount.isNull(1));
+            assertTrue(name.isNull(1));
+
+            assertTrue(id.isNull(2));
+            assertEquals(BOOLEAN.getBoolean(flag, 2), false);
+            assertEquals(DOUBLE.getDouble(amount, 2), 3.5);
+            assertEquals(VARCHAR.getSlice(name, 2).toStringUtf8(), "three");
+        }
+    }
+
+    @Test
+    public void testIdempotentClose()
+            throws Exception
+    {
+        ConnectorPageSource pageSource = new JdbcPageSource(jdbcClient, database.getSplit("example", "numbers"), ImmutableList.of(
+                columnHandles.get("value"),
+                columnHandles.get("text")));
+        pageSource.close();
+        pageSource.close();
+        assertTrue(pageSource.isFinished());
+    }
+
+    private static List<Page> readPages(ConnectorPageSource pageSource)
+    {
+        List<Page> pages = new ArrayList<>();
+        while (!pageSource.isFinished()) {
+            Page page = pageSource.getNextPage();
+            if (page != null) {
+                pages.add(page);
+            }
+        }
+        return pages;
+    }
+}
@@ -13,7 +13,10 @@
  */
 package com.facebook.presto.plugin.jdbc;
 
+import com.facebook.presto.spi.AggregateFunction;
 import com.facebook.presto.spi.ColumnHandle;
+import com.facebook.presto.spi.ConnectorAggregationPushDownResult;
+import com.facebook.presto.spi.SchemaTableName;
 import com.facebook.presto.spi.predicate.Domain;
 import com.facebook.presto.spi.predicate.Range;
 import com.facebook.presto.spi.predicate.SortedRangeSet;
@@ -36,7 +39,10 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Locale;
+import java.util.Optional;
+import java.util.OptionalLong;
 
+import static com.facebook.presto.spi.block.SortOrder.DESC_NULLS_LAST;
 import static com.facebook.presto.spi.type.BigintType.BIGINT;
 import static com.facebook.presto.spi.type.BooleanType.BOOLEAN;
 import static com.facebook.presto.spi.type.DateType.DATE;
@@ -48,12 +54,14 @@ import static com.facebook.presto.spi.type.TimeType.TIME;
 import static com.facebook.presto.spi.type.TimestampType.TIMESTAMP;
 import static com.facebook.presto.spi.type.TinyintType.TINYINT;
 import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static io.airlift.slice.Slices.utf8Slice;
 import static io.airlift.testing.Assertions.assertContains;
 import static java.lang.Float.floatToRawIntBits;
 import static java.lang.String.format;
 import static java.time.temporal.ChronoUnit.DAYS;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
 
 @Test(singleThreaded = true)
 public class TestJdbcQueryBuilder
@@ -179,7 +187,7 @@ public class TestJdbcQueryBuilder
                 .build());
 
         Connection connection = database.getConnection();
-        try (PreparedStatement preparedStatement = new QueryBuilder("\"").buildSql(jdbcClient, connection, "", "", "test_table", columns, tupleDomain);
+        try (PreparedStatement preparedStatement = new QueryBuilder("\"").buildSql(jdbcClient, connection, "", "", "test_table", columns, tupleDomain, Optional.empty());
                 ResultSet resultSet = preparedStatement.executeQuery()) {
             ImmutableSet.Builder<Long> builder = ImmutableSet.builder();
             while (resultSet.next()) {
@@ -202,7 +210,7 @@ public class TestJdbcQueryBuilder
                         false)));
 
         Connection connection = database.getConnection();
-        try (PreparedStatement preparedStatement = new QueryBuilder("\"").buildSql(jdbcClient, connection, "", "", "test_table", columns, tupleDomain);
+        try (PreparedStatement preparedStatement = new QueryBuilder("\"").buildSql(jdbcClient, connection, "", "", "test_table", columns, tupleDomain, Optional.empty());
                 ResultSet resultSet = preparedStatement.executeQuery()) {
             ImmutableSet.Builder<Long> longBuilder = ImmutableSet.builder();
             ImmutableSet.Builder<Float> floatBuilder = ImmutableSet.builder();
@@ -228,7 +236,7 @@ public class TestJdbcQueryBuilder
                         false)));
 
         Connection connection = database.getConnection();
-        try (PreparedStatement preparedStatement = new QueryBuilder("\"").buildSql(jdbcClient, connection, "", "", "test_table", columns, tupleDomain);
+        try (PreparedStatement preparedStatement = new QueryBuilder("\"").buildSql(jdbcClient, connection, "", "", "test_table", columns, tupleDomain, Optional.empty());
                 ResultSet resultSet = preparedStatement.executeQuery()) {
             ImmutableSet.Builder<String> builder = ImmutableSet.builder();
             while (resultSet.next()) {
@@ -261,7 +269,7 @@ public class TestJdbcQueryBuilder
                         false)));
 
         Connection connection = database.getConnection();
-        try (PreparedStatement preparedStatement = new QueryBuilder("\"").buildSql(jdbcClient, connection, "", "", "test_table", columns, tupleDomain);
+        try (PreparedStatement preparedStatement = new QueryBuilder("\"").buildSql(jdbcClient, connection, "", "", "test_table", columns, tupleDomain, Optional.empty());
                 ResultSet resultSet = preparedStatement.executeQuery()) {
             ImmutableSet.Builder<Date> dateBuilder = ImmutableSet.builder();
             ImmutableSet.Builder<Time> timeBuilder = ImmutableSet.builder();
@@ -294,7 +302,7 @@ public class TestJdbcQueryBuilder
                         false)));
 
         Connection connection = database.getConnection();
-        try (PreparedStatement preparedStatement = new QueryBuilder("\"").buildSql(jdbcClient, connection, "", "", "test_table", columns, tupleDomain);
+        try (PreparedStatement preparedStatement = new QueryBuilder("\"").buildSql(jdbcClient, connection, "", "", "test_table", columns, tupleDomain, Optional.empty());
                 ResultSet resultSet = preparedStatement.executeQuery()) {
             ImmutableSet.Builder<Timestamp> builder = ImmutableSet.builder();
             while (resultSet.next()) {
@@ -321,12 +329,83 @@ public class TestJdbcQueryBuilder
                 columns.get(1), Domain.onlyNull(DOUBLE)));
 
         Connection connection = database.getConnection();
-        try (PreparedStatement preparedStatement = new QueryBuilder("\"").buildSql(jdbcClient, connection, "", "", "test_table", columns, tupleDomain);
+        try (PreparedStatement preparedStatement = new QueryBuilder("\"").buildSql(jdbcClient, connection, "", "", "test_table", columns, tupleDomain, Optional.empty());
                 ResultSet resultSet = preparedStatement.executeQuery()) {
             assertEquals(resultSet.next(), false);
         }
     }
 
+    @Test
+    public void testBuildSqlWithAdditionalPredicate()
+            throws SQLException
+    {
+        TupleDomain<ColumnHandle> tupleDomain = TupleDomain.withColumnDomains(ImmutableMap.of(
+                columns.get(2), Domain.create(SortedRangeSet.copyOf(BOOLEAN,
+                        ImmutableList.of(Range.equal(BOOLEAN, true))),
+                        false)));
+
+        Connection connection = database.getConnection();
+        try (PreparedStatement preparedStatement = new QueryBuilder("\"").buildSql(jdbcClient, connection, "", "", "test_table", columns, tupleDomain, Optional.of("\"col_0\" >= 10 AND \"col_0\" < 15"));
+                ResultSet resultSet = preparedStatement.executeQuery()) {
+            ImmutableSet.Builder<Long> builder = ImmutableSet.builder();
+            while (resultSet.next()) {
+                builder.add((Long) resultSet.getObject("col_0"));
+            }
+            assertEquals(builder.build(), ImmutableSet.of(10L, 12L, 14L));
+        }
+    }
+
+    @Test
+    public void testBuildSqlWithTopN()
+            throws SQLException
+    {
+        List<JdbcSortItem> sortOrder = ImmutableList.of(new JdbcSortItem(columns.get(9), DESC_NULLS_LAST));
+
+        Connection connection = database.getConnection();
+        try (PreparedStatement preparedStatement = new QueryBuilder("\"").buildSql(jdbcClient, connection, "", "", "test_table", columns, TupleDomain.all(), Optional.empty(), Optional.empty(), sortOrder, OptionalLong.of(3));
+                ResultSet resultSet = preparedStatement.executeQuery()) {
+            ImmutableList.Builder<Long> builder = ImmutableList.builder();
+            while (resultSet.next()) {
+                builder.add((Long) resultSet.getObject("col_0"));
+            }
+            assertEquals(builder.build(), ImmutableList.of(999L, 998L, 997L));
+        }
+    }
+
+    @Test
+    public void testBuildSqlWithPartialAggregation()
+            throws SQLException
+    {
+        JdbcTableHandle table = new JdbcTableHandle("test_id", new SchemaTableName("test_schema", "test_table"), "", "", "test_table");
+        Optional<ConnectorAggregationPushDownResult> result = jdbcClient.pushDownPartialAggregation(
+                new JdbcTableLayoutHandle(table, TupleDomain.all()),
+                ImmutableList.of(columns.get(2)),
+                ImmutableList.of(
+                        new AggregateFunction("count", ImmutableList.of(), BIGINT),
+                        new AggregateFunction("sum", ImmutableList.of(columns.get(0)), BIGINT)));
+        assertTrue(result.isPresent());
+        JdbcTableLayoutHandle layout = (JdbcTableLayoutHandle) result.get().getLayoutHandle();
+        List<JdbcColumnHandle> aggregateColumns = result.get().getAggregateColumns().stream()
+                .map(JdbcColumnHandle.class::cast)
+                .collect(toImmutableList());
+        List<JdbcColumnHandle> selected = ImmutableList.<JdbcColumnHandle>builder()
+                .add(columns.get(2))
+                .addAll(aggregateColumns)
+                .build();
+
+        Connection connection = database.getConnection();
+        try (PreparedStatement preparedStatement = new QueryBuilder("\"").buildSql(jdbcClient, connection, "", "", "test_table", selected, layout.getTupleDomain(), Optional.empty(), layout.getGroupingColumns(), layout.getSortOrder(), layout.getLimit());
+                ResultSet resultSet = preparedStatement.executeQuery()) {
+            ImmutableMap.Builder<Boolean, List<Long>> builder = ImmutableMap.builder();
+            while (resultSet.next()) {
+                builder.put(resultSet.getBoolean(1), ImmutableList.of(resultSet.getLong(2), resultSet.getLong(3)));
+            }
+            assertEquals(builder.build(), ImmutableMap.of(
+                    true, ImmutableList.of(500L, 249500L),
+                    false, ImmutableList.of(500L, 250000L)));
+        }
+    }
+
     private static Timestamp toTimestamp(int year, int month, int day, int hour, int minute, int second)
     {
         return Timestamp.valueOf(LocalDateTime.of(year, month, day, hour, minute, second));
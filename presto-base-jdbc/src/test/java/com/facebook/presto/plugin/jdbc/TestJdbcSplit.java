@@ -19,12 +19,15 @@ import com.google.common.collect.ImmutableMap;
 import io.airlift.json.JsonCodec;
 import org.testng.annotations.Test;
 
+import java.util.Optional;
+import java.util.OptionalLong;
+
 import static io.airlift.json.JsonCodec.jsonCodec;
 import static org.testng.Assert.assertEquals;
 
 public class TestJdbcSplit
 {
-    private final JdbcSplit split = new JdbcSplit("connectorId", "catalog", "schemaName", "tableName", "connectionUrl", ImmutableMap.of(), TupleDomain.all());
+    private final JdbcSplit split = new JdbcSplit("connectorId", "catalog", "schemaName", "tableName", "connectionUrl", ImmutableMap.of(), TupleDomain.all(), Optional.empty(), Optional.empty(), ImmutableList.of(), OptionalLong.empty());
 
     @Test
     public void testAddresses()
@@ -33,7 +36,7 @@ public class TestJdbcSplit
         assertEquals(split.getAddresses(), ImmutableList.of());
         assertEquals(split.isRemotelyAccessible(), true);
 
-        JdbcSplit jdbcSplit = new JdbcSplit("connectorId", "catalog", "schemaName", "tableName", "connectionUrl", ImmutableMap.of(), TupleDomain.all());
+        JdbcSplit jdbcSplit = new JdbcSplit("connectorId", "catalog", "schemaName", "tableName", "connectionUrl", ImmutableMap.of(), TupleDomain.all(), Optional.empty(), Optional.empty(), ImmutableList.of(), OptionalLong.empty());
         assertEquals(jdbcSplit.getAddresses(), ImmutableList.of());
     }
 
@@ -46,8 +49,29 @@ public class TestJdbcSplit
         assertEquals(copy.getConnectorId(), split.getConnectorId());
         assertEquals(copy.getSchemaName(), split.getSchemaName());
         assertEquals(copy.getTableName(), split.getTableName());
+        assertEquals(copy.getAdditionalPredicate(), split.getAdditionalPredicate());
 
         assertEquals(copy.getAddresses(), ImmutableList.of());
         assertEquals(copy.isRemotelyAccessible(), true);
     }
+
+    @Test
+    public void testJsonRoundTripWithAdditionalPredicate()
+    {
+        JdbcSplit rangeSplit = new JdbcSplit("connectorId", "catalog", "schemaName", "tableName", "connectionUrl", ImmutableMap.of(), TupleDomain.all(), Optional.of("\"id\" >= 10 AND \"id\" < 20"), Optional.empty(), ImmutableList.of(), OptionalLong.empty());
+        JsonCodec<JdbcSplit> codec = jsonCodec(JdbcSplit.class);
+        JdbcSplit copy = codec.fromJson(codec.toJson(rangeSplit));
+        assertEquals(copy.getAdditionalPredicate(), Optional.of("\"id\" >= 10 AND \"id\" < 20"));
+    }
+
+    @Test
+    public void testJsonRoundTripWithLimit()
+    {
+        JdbcSplit limitedSplit = new JdbcSplit("connectorId", "catalog", "schemaName", "tableName", "connectionUrl", ImmutableMap.of(), TupleDomain.all(), Optional.empty(), Optional.empty(), ImmutableList.of(), OptionalLong.of(100));
+        JsonCodec<JdbcSplit> codec = jsonCodec(JdbcSplit.class);
+        JdbcSplit copy = codec.fromJson(codec.toJson(limitedSplit));
+        assertEquals(copy.getLimit(), OptionalLong.of(100));
+        assertEquals(copy.getGroupingColumns(), Optional.empty());
+        assertEquals(copy.getSortOrder(), ImmutableList.of());
+    }
 }
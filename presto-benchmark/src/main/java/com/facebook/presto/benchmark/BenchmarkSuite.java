@@ -72,9 +72,15 @@ public class BenchmarkSuite
                 new SqlTpchQuery1(localQueryRunner),
                 new SqlTpchQuery6(localQueryRunner),
                 new SqlLikeBenchmark(localQueryRunner),
+                new SqlLikePatternBenchmarks.LikePrefixBenchmark(localQueryRunner),
+                new SqlLikePatternBenchmarks.LikeSuffixBenchmark(localQueryRunner),
+                new SqlLikePatternBenchmarks.LikeContainsBenchmark(localQueryRunner),
+                new SqlLikePatternBenchmarks.LikeExactBenchmark(localQueryRunner),
+                new SqlLikePatternBenchmarks.LikeSingleCharacterBenchmark(localQueryRunner),
                 new SqlInBenchmark(localQueryRunner),
                 new SqlSemiJoinInPredicateBenchmark(localQueryRunner),
                 new SqlRegexpLikeBenchmark(localQueryRunner),
+                new SqlLikePatternBenchmarks.RegexpLikeLiteralBenchmark(localQueryRunner),
                 new SqlApproximatePercentileBenchmark(localQueryRunner),
                 new SqlBetweenBenchmark(localQueryRunner),
 
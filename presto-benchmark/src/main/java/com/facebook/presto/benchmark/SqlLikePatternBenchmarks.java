@@ -0,0 +1,89 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.benchmark;
+
+import com.facebook.presto.testing.LocalQueryRunner;
+
+import static com.facebook.presto.benchmark.BenchmarkQueryRunner.createLocalQueryRunner;
+
+public abstract class SqlLikePatternBenchmarks
+{
+    public static void main(String... args)
+    {
+        LocalQueryRunner localQueryRunner = createLocalQueryRunner();
+        new SqlLikeBenchmark(localQueryRunner).runBenchmark(new SimpleLineBenchmarkResultWriter(System.out));
+        new LikePrefixBenchmark(localQueryRunner).runBenchmark(new SimpleLineBenchmarkResultWriter(System.out));
+        new LikeSuffixBenchmark(localQueryRunner).runBenchmark(new SimpleLineBenchmarkResultWriter(System.out));
+        new LikeContainsBenchmark(localQueryRunner).runBenchmark(new SimpleLineBenchmarkResultWriter(System.out));
+        new LikeExactBenchmark(localQueryRunner).runBenchmark(new SimpleLineBenchmarkResultWriter(System.out));
+        new LikeSingleCharacterBenchmark(localQueryRunner).runBenchmark(new SimpleLineBenchmarkResultWriter(System.out));
+        new SqlRegexpLikeBenchmark(localQueryRunner).runBenchmark(new SimpleLineBenchmarkResultWriter(System.out));
+        new RegexpLikeLiteralBenchmark(localQueryRunner).runBenchmark(new SimpleLineBenchmarkResultWriter(System.out));
+    }
+
+    public static class LikePrefixBenchmark
+            extends AbstractSqlBenchmark
+    {
+        public LikePrefixBenchmark(LocalQueryRunner localQueryRunner)
+        {
+            super(localQueryRunner, "sql_like_prefix", 4, 5, "SELECT orderkey FROM lineitem WHERE comment LIKE 'carefully%'");
+        }
+    }
+
+    public static class LikeSuffixBenchmark
+            extends AbstractSqlBenchmark
+    {
+        public LikeSuffixBenchmark(LocalQueryRunner localQueryRunner)
+        {
+            super(localQueryRunner, "sql_like_suffix", 4, 5, "SELECT orderkey FROM lineitem WHERE comment LIKE '%deposits'");
+        }
+    }
+
+    public static class LikeContainsBenchmark
+            extends AbstractSqlBenchmark
+    {
+        public LikeContainsBenchmark(LocalQueryRunner localQueryRunner)
+        {
+            super(localQueryRunner, "sql_like_contains", 4, 5, "SELECT orderkey FROM lineitem WHERE comment LIKE '%furious%'");
+        }
+    }
+
+    public static class LikeExactBenchmark
+            extends AbstractSqlBenchmark
+    {
+        public LikeExactBenchmark(LocalQueryRunner localQueryRunner)
+        {
+            super(localQueryRunner, "sql_like_exact", 4, 5, "SELECT orderkey FROM lineitem WHERE shipinstruct LIKE 'DELIVER IN PERSON'");
+        }
+    }
+
+    // single character wildcards are evaluated with the regular expression
+    public static class LikeSingleCharacterBenchmark
+            extends AbstractSqlBenchmark
+    {
+        public LikeSingleCharacterBenchmark(LocalQueryRunner localQueryRunner)
+        {
+            super(localQueryRunner, "sql_like_single_character", 4, 5, "SELECT orderkey FROM lineitem WHERE comment LIKE '%f_rious%'");
+        }
+    }
+
+    public static class RegexpLikeLiteralBenchmark
+            extends AbstractSqlBenchmark
+    {
+        public RegexpLikeLiteralBenchmark(LocalQueryRunner localQueryRunner)
+        {
+            super(localQueryRunner, "sql_regexp_like_literal", 4, 5, "SELECT count(*) FROM orders WHERE regexp_like(comment, 'furious[a-z]* (deposits|requests)')");
+        }
+    }
+}
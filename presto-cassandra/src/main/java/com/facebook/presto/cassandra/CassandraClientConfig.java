@@ -47,6 +47,7 @@ public class CassandraClientConfig
     private List<String> contactPoints = ImmutableList.of();
     private int nativeProtocolPort = 9042;
     private int partitionSizeForBatchSelect = 100;
+    private int partitionQueryConcurrency = 1;
     private int splitSize = 1_024;
     private boolean allowDropTable;
     private String username;
@@ -139,6 +140,20 @@ public class CassandraClientConfig
         return this;
     }
 
+    @Min(1)
+    public int getPartitionQueryConcurrency()
+    {
+        return partitionQueryConcurrency;
+    }
+
+    @Config("cassandra.partition-query-concurrency")
+    @ConfigDescription("Number of partitions of a batch select that are queried in parallel, instead of with a single IN predicate")
+    public CassandraClientConfig setPartitionQueryConcurrency(int partitionQueryConcurrency)
+    {
+        this.partitionQueryConcurrency = partitionQueryConcurrency;
+        return this;
+    }
+
     @Min(1)
     public int getSplitSize()
     {
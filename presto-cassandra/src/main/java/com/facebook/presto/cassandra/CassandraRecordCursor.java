@@ -14,46 +14,87 @@
 package com.facebook.presto.cassandra;
 
 import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.ResultSetFuture;
 import com.datastax.driver.core.Row;
+import com.datastax.driver.core.Statement;
 import com.facebook.presto.spi.RecordCursor;
 import com.facebook.presto.spi.predicate.NullableValue;
 import com.facebook.presto.spi.type.Type;
+import com.google.common.collect.ImmutableList;
 import io.airlift.slice.Slice;
 
+import java.util.ArrayDeque;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Queue;
 
 import static io.airlift.slice.Slices.utf8Slice;
 import static java.lang.Float.floatToRawIntBits;
-
+import static java.lang.Math.max;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Reads the rows of one or more queries. Up to {@code queryConcurrency} queries are
+ * executed at the same time, and the next page of a result is requested before the
+ * rows of the current page are all consumed, so the cursor does not wait for
+ * Cassandra at every page boundary. A query that found no host available is run
+ * again by {@link CassandraSession#getResult}.
+ */
 public class CassandraRecordCursor
         implements RecordCursor
 {
+    private final CassandraSession cassandraSession;
     private final List<FullCassandraType> fullCassandraTypes;
-    private final ResultSet rs;
+    private final Iterator<Statement> pendingQueries;
+    private final Queue<RunningQuery> runningQueries = new ArrayDeque<>();
+    private final int prefetchThreshold;
+    private ResultSet rs;
     private Row currentRow;
     private long count;
 
-    public CassandraRecordCursor(CassandraSession cassandraSession, List<FullCassandraType> fullCassandraTypes, String cql)
+    public CassandraRecordCursor(CassandraSession cassandraSession, List<FullCassandraType> fullCassandraTypes, List<Statement> statements, int fetchSize, int queryConcurrency)
     {
-        this.fullCassandraTypes = fullCassandraTypes;
-        rs = cassandraSession.execute(cql);
+        this.cassandraSession = requireNonNull(cassandraSession, "cassandraSession is null");
+        this.fullCassandraTypes = requireNonNull(fullCassandraTypes, "fullCassandraTypes is null");
+        this.pendingQueries = ImmutableList.copyOf(requireNonNull(statements, "statements is null")).iterator();
+        this.prefetchThreshold = max(1, fetchSize / 2);
+        while (runningQueries.size() < queryConcurrency && pendingQueries.hasNext()) {
+            runningQueries.add(new RunningQuery(pendingQueries.next()));
+        }
         currentRow = null;
     }
 
     @Override
     public boolean advanceNextPosition()
     {
-        if (!rs.isExhausted()) {
-            currentRow = rs.one();
-            count++;
-            return true;
+        while (rs == null || rs.isExhausted()) {
+            RunningQuery query = runningQueries.poll();
+            if (query == null) {
+                return false;
+            }
+            if (pendingQueries.hasNext()) {
+                runningQueries.add(new RunningQuery(pendingQueries.next()));
+            }
+            rs = cassandraSession.getResult(query.statement, query.future);
         }
-        return false;
+
+        // request the next page while the rest of the current page is consumed
+        if (rs.getAvailableWithoutFetching() <= prefetchThreshold && !rs.isFullyFetched()) {
+            rs.fetchMoreResults();
+        }
+
+        currentRow = rs.one();
+        count++;
+        return true;
     }
 
     @Override
     public void close()
     {
+        for (RunningQuery query : runningQueries) {
+            query.future.cancel(true);
+        }
+        runningQueries.clear();
     }
 
     @Override
@@ -139,4 +180,16 @@ public class CassandraRecordCursor
     {
         return currentRow.isNull(i);
     }
+
+    private class RunningQuery
+    {
+        private final Statement statement;
+        private final ResultSetFuture future;
+
+        public RunningQuery(Statement statement)
+        {
+            this.statement = requireNonNull(statement, "statement is null");
+            this.future = cassandraSession.executeAsync(statement);
+        }
+    }
 }
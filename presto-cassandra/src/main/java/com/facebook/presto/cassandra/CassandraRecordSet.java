@@ -13,6 +13,7 @@
  */
 package com.facebook.presto.cassandra;
 
+import com.datastax.driver.core.Statement;
 import com.facebook.presto.spi.RecordCursor;
 import com.facebook.presto.spi.RecordSet;
 import com.facebook.presto.spi.type.Type;
@@ -21,6 +22,7 @@ import com.google.common.collect.ImmutableList;
 import java.util.List;
 import java.util.function.Function;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.Objects.requireNonNull;
 import static java.util.stream.Collectors.toList;
 
@@ -28,14 +30,21 @@ public class CassandraRecordSet
         implements RecordSet
 {
     private final CassandraSession cassandraSession;
-    private final String cql;
+    private final List<Statement> statements;
     private final List<FullCassandraType> cassandraTypes;
     private final List<Type> columnTypes;
+    private final int fetchSize;
+    private final int queryConcurrency;
 
-    public CassandraRecordSet(CassandraSession cassandraSession, String cql, List<CassandraColumnHandle> cassandraColumns)
+    public CassandraRecordSet(CassandraSession cassandraSession, List<Statement> statements, List<CassandraColumnHandle> cassandraColumns, int fetchSize, int queryConcurrency)
     {
         this.cassandraSession = requireNonNull(cassandraSession, "cassandraSession is null");
-        this.cql = requireNonNull(cql, "cql is null");
+        this.statements = ImmutableList.copyOf(requireNonNull(statements, "statements is null"));
+        checkArgument(!statements.isEmpty(), "statements is empty");
+        checkArgument(fetchSize > 0, "fetchSize must be positive");
+        checkArgument(queryConcurrency > 0, "queryConcurrency must be positive");
+        this.fetchSize = fetchSize;
+        this.queryConcurrency = queryConcurrency;
 
         requireNonNull(cassandraColumns, "cassandraColumns is null");
         this.cassandraTypes = transformList(cassandraColumns, CassandraColumnHandle::getFullType);
@@ -51,7 +60,7 @@ public class CassandraRecordSet
     @Override
     public RecordCursor cursor()
     {
-        return new CassandraRecordCursor(cassandraSession, cassandraTypes, cql);
+        return new CassandraRecordCursor(cassandraSession, cassandraTypes, statements, fetchSize, queryConcurrency);
     }
 
     private static <T, R> List<R> transformList(List<T> list, Function<T, R> function)
@@ -13,6 +13,8 @@
  */
 package com.facebook.presto.cassandra;
 
+import com.datastax.driver.core.SimpleStatement;
+import com.datastax.driver.core.Statement;
 import com.facebook.presto.cassandra.util.CassandraCqlUtils;
 import com.facebook.presto.spi.ColumnHandle;
 import com.facebook.presto.spi.ConnectorSession;
@@ -20,10 +22,12 @@ import com.facebook.presto.spi.ConnectorSplit;
 import com.facebook.presto.spi.RecordSet;
 import com.facebook.presto.spi.connector.ConnectorRecordSetProvider;
 import com.facebook.presto.spi.connector.ConnectorTransactionHandle;
+import com.google.common.collect.ImmutableList;
 import io.airlift.log.Logger;
 
 import javax.inject.Inject;
 
+import java.nio.ByteBuffer;
 import java.util.List;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
@@ -37,12 +41,17 @@ public class CassandraRecordSetProvider
 
     private final String connectorId;
     private final CassandraSession cassandraSession;
+    private final int fetchSize;
+    private final int partitionQueryConcurrency;
 
     @Inject
-    public CassandraRecordSetProvider(CassandraConnectorId connectorId, CassandraSession cassandraSession)
+    public CassandraRecordSetProvider(CassandraConnectorId connectorId, CassandraSession cassandraSession, CassandraClientConfig cassandraClientConfig)
     {
         this.connectorId = requireNonNull(connectorId, "connectorId is null").toString();
         this.cassandraSession = requireNonNull(cassandraSession, "cassandraSession is null");
+        requireNonNull(cassandraClientConfig, "cassandraClientConfig is null");
+        this.fetchSize = cassandraClientConfig.getFetchSize();
+        this.partitionQueryConcurrency = cassandraClientConfig.getPartitionQueryConcurrency();
     }
 
     @Override
@@ -55,15 +64,26 @@ public class CassandraRecordSetProvider
                 .collect(toList());
 
         String selectCql = CassandraCqlUtils.selectFrom(cassandraSplit.getCassandraTableHandle(), cassandraColumns).getQueryString();
-        StringBuilder sb = new StringBuilder(selectCql);
-        if (sb.charAt(sb.length() - 1) == ';') {
-            sb.setLength(sb.length() - 1);
+        if (selectCql.endsWith(";")) {
+            selectCql = selectCql.substring(0, selectCql.length() - 1);
         }
-        sb.append(cassandraSplit.getWhereClause());
-        String cql = sb.toString();
-        log.debug("Creating record set: %s", cql);
 
-        return new CassandraRecordSet(cassandraSession, cql, cassandraColumns);
+        List<String> whereClauses = cassandraSplit.getWhereClauses();
+        List<byte[]> routingKeys = cassandraSplit.getBatchPartitionKeys();
+        ImmutableList.Builder<Statement> statements = ImmutableList.builder();
+        for (int i = 0; i < whereClauses.size(); i++) {
+            String cql = selectCql + whereClauses.get(i);
+            log.debug("Creating record set: %s", cql);
+            SimpleStatement statement = new SimpleStatement(cql);
+            if (!routingKeys.isEmpty()) {
+                // lets a token aware load balancing policy send the query to a replica of its partition
+                statement.setKeyspace(cassandraSplit.getSchema());
+                statement.setRoutingKey(ByteBuffer.wrap(routingKeys.get(i)));
+            }
+            statements.add(statement);
+        }
+
+        return new CassandraRecordSet(cassandraSession, statements.build(), cassandraColumns, fetchSize, partitionQueryConcurrency);
     }
 
     @Override
@@ -17,6 +17,7 @@ import com.datastax.driver.core.Host;
 import com.datastax.driver.core.PreparedStatement;
 import com.datastax.driver.core.RegularStatement;
 import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.ResultSetFuture;
 import com.datastax.driver.core.Statement;
 import com.datastax.driver.core.TokenRange;
 import com.datastax.driver.core.VersionNumber;
@@ -56,6 +57,14 @@ public interface CassandraSession
 
     ResultSet execute(String cql, Object... values);
 
+    ResultSetFuture executeAsync(Statement statement);
+
+    /**
+     * Waits for a query started with {@link #executeAsync(Statement)}. If no host was available
+     * to run it, the statement is executed again, retrying like the synchronous methods do.
+     */
+    ResultSet getResult(Statement statement, ResultSetFuture future);
+
     List<SizeEstimate> getSizeEstimates(String keyspaceName, String tableName);
 
     PreparedStatement prepare(RegularStatement statement);
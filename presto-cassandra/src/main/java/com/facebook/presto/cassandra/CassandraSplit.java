@@ -23,6 +23,8 @@ import com.google.common.collect.ImmutableMap;
 import java.util.List;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static java.util.Objects.requireNonNull;
 
 public class CassandraSplit
@@ -34,6 +36,19 @@ public class CassandraSplit
     private final String schema;
     private final String table;
     private final String splitCondition;
+    private final List<String> batchPartitionIds;
+    private final List<byte[]> batchPartitionKeys;
+
+    public CassandraSplit(
+            String connectorId,
+            String schema,
+            String table,
+            String partitionId,
+            String splitCondition,
+            List<HostAddress> addresses)
+    {
+        this(connectorId, schema, table, partitionId, splitCondition, addresses, ImmutableList.of(), ImmutableList.of());
+    }
 
     @JsonCreator
     public CassandraSplit(
@@ -42,13 +57,18 @@ public class CassandraSplit
             @JsonProperty("table") String table,
             @JsonProperty("partitionId") String partitionId,
             @JsonProperty("splitCondition") String splitCondition,
-            @JsonProperty("addresses") List<HostAddress> addresses)
+            @JsonProperty("addresses") List<HostAddress> addresses,
+            @JsonProperty("batchPartitionIds") List<String> batchPartitionIds,
+            @JsonProperty("batchPartitionKeys") List<byte[]> batchPartitionKeys)
     {
         requireNonNull(connectorId, "connectorId is null");
         requireNonNull(schema, "schema is null");
         requireNonNull(table, "table is null");
         requireNonNull(partitionId, "partitionName is null");
         requireNonNull(addresses, "addresses is null");
+        requireNonNull(batchPartitionIds, "batchPartitionIds is null");
+        requireNonNull(batchPartitionKeys, "batchPartitionKeys is null");
+        checkArgument(batchPartitionKeys.size() == batchPartitionIds.size(), "batchPartitionKeys and batchPartitionIds have different sizes");
 
         this.connectorId = connectorId;
         this.schema = schema;
@@ -56,6 +76,8 @@ public class CassandraSplit
         this.partitionId = partitionId;
         this.addresses = ImmutableList.copyOf(addresses);
         this.splitCondition = splitCondition;
+        this.batchPartitionIds = ImmutableList.copyOf(batchPartitionIds);
+        this.batchPartitionKeys = ImmutableList.copyOf(batchPartitionKeys);
     }
 
     @JsonProperty
@@ -88,6 +110,26 @@ public class CassandraSplit
         return partitionId;
     }
 
+    /**
+     * The partitions of a split that selects a batch of partitions, each of which
+     * can be queried separately instead of with a single IN predicate.
+     */
+    @JsonProperty
+    public List<String> getBatchPartitionIds()
+    {
+        return batchPartitionIds;
+    }
+
+    /**
+     * The serialized partition keys of {@link #getBatchPartitionIds()}, used to route each
+     * partition query to a replica of the partition.
+     */
+    @JsonProperty
+    public List<byte[]> getBatchPartitionKeys()
+    {
+        return batchPartitionKeys;
+    }
+
     @JsonProperty
     @Override
     public List<HostAddress> getAddresses()
@@ -121,7 +163,22 @@ public class CassandraSplit
                 .toString();
     }
 
+    public List<String> getWhereClauses()
+    {
+        if (batchPartitionIds.isEmpty()) {
+            return ImmutableList.of(getWhereClause());
+        }
+        return batchPartitionIds.stream()
+                .map(id -> getWhereClause(id, splitCondition))
+                .collect(toImmutableList());
+    }
+
     public String getWhereClause()
+    {
+        return getWhereClause(partitionId, splitCondition);
+    }
+
+    private static String getWhereClause(String partitionId, String splitCondition)
     {
         if (partitionId.equals(CassandraPartition.UNPARTITIONED_ID)) {
             if (splitCondition != null) {
@@ -29,12 +29,13 @@ import com.google.common.collect.ImmutableSet;
 import javax.inject.Inject;
 
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static java.util.Objects.requireNonNull;
 
 public class CassandraSplitManager
@@ -43,6 +44,7 @@ public class CassandraSplitManager
     private final String connectorId;
     private final CassandraSession cassandraSession;
     private final int partitionSizeForBatchSelect;
+    private final int partitionQueryConcurrency;
     private final CassandraTokenSplitManager tokenSplitMgr;
 
     @Inject
@@ -55,6 +57,7 @@ public class CassandraSplitManager
         this.connectorId = requireNonNull(connectorId, "connectorId is null").toString();
         this.cassandraSession = requireNonNull(cassandraSession, "cassandraSession is null");
         this.partitionSizeForBatchSelect = cassandraClientConfig.getPartitionSizeForBatchSelect();
+        this.partitionQueryConcurrency = cassandraClientConfig.getPartitionQueryConcurrency();
         this.tokenSplitMgr = tokenSplitMgr;
     }
 
@@ -124,7 +127,7 @@ public class CassandraSplitManager
                 partitionKeyColumnName = partitionId.substring(0, partitionId.lastIndexOf('=') - 1);
             }
         }
-        Map<Set<String>, Set<String>> hostsToPartitionKeys = new HashMap<>();
+        Map<Set<String>, Map<String, byte[]>> hostsToPartitionKeys = new HashMap<>();
         Map<Set<String>, List<HostAddress>> hostMap = new HashMap<>();
 
         for (CassandraPartition cassandraPartition : partitions) {
@@ -138,12 +141,12 @@ public class CassandraSplitManager
                 }
                 Set<String> hostAddresses = sb.build();
                 // partition key values
-                Set<String> values = hostsToPartitionKeys.get(hostAddresses);
+                Map<String, byte[]> values = hostsToPartitionKeys.get(hostAddresses);
                 if (values == null) {
-                    values = new HashSet<>();
+                    values = new HashMap<>();
                 }
                 String partitionId = cassandraPartition.getPartitionId();
-                values.add(partitionId.substring(partitionId.lastIndexOf('=') + 2));
+                values.put(partitionId.substring(partitionId.lastIndexOf('=') + 2), cassandraPartition.getKey());
                 hostsToPartitionKeys.put(hostAddresses, values);
                 hostMap.put(hostAddresses, addresses);
             }
@@ -152,46 +155,69 @@ public class CassandraSplitManager
             }
         }
         if (singlePartitionKeyColumn) {
-            for (Map.Entry<Set<String>, Set<String>> entry : hostsToPartitionKeys.entrySet()) {
-                StringBuilder sb = new StringBuilder(partitionSizeForBatchSelect);
-                int size = 0;
-                for (String value : entry.getValue()) {
-                    if (size > 0) {
-                        sb.append(",");
-                    }
-                    sb.append(value);
-                    size++;
-                    if (size > partitionSizeForBatchSelect) {
-                        String partitionId = String.format("%s in (%s)", partitionKeyColumnName, sb.toString());
-                        builder.add(createSplitForClusteringPredicates(cassTableHandle, partitionId, hostMap.get(entry.getKey()), clusteringPredicates));
-                        size = 0;
-                        sb.setLength(0);
-                        sb.trimToSize();
+            for (Map.Entry<Set<String>, Map<String, byte[]>> entry : hostsToPartitionKeys.entrySet()) {
+                Map<String, byte[]> values = new LinkedHashMap<>();
+                for (Map.Entry<String, byte[]> value : entry.getValue().entrySet()) {
+                    values.put(value.getKey(), value.getValue());
+                    if (values.size() > partitionSizeForBatchSelect) {
+                        builder.add(createSplitForBatch(cassTableHandle, partitionKeyColumnName, values, hostMap.get(entry.getKey()), clusteringPredicates));
+                        values.clear();
                     }
                 }
-                if (size > 0) {
-                    String partitionId = String.format("%s in (%s)", partitionKeyColumnName, sb.toString());
-                    builder.add(createSplitForClusteringPredicates(cassTableHandle, partitionId, hostMap.get(entry.getKey()), clusteringPredicates));
+                if (!values.isEmpty()) {
+                    builder.add(createSplitForBatch(cassTableHandle, partitionKeyColumnName, values, hostMap.get(entry.getKey()), clusteringPredicates));
                 }
             }
         }
         return builder.build();
     }
 
+    private CassandraSplit createSplitForBatch(
+            CassandraTableHandle tableHandle,
+            String partitionKeyColumnName,
+            Map<String, byte[]> values,
+            List<HostAddress> hosts,
+            String clusteringPredicates)
+    {
+        String partitionId = String.format("%s in (%s)", partitionKeyColumnName, String.join(",", values.keySet()));
+
+        // with parallel partition queries, every partition of the batch is read with its own query
+        List<String> batchPartitionIds = ImmutableList.of();
+        List<byte[]> batchPartitionKeys = ImmutableList.of();
+        if (partitionQueryConcurrency > 1 && values.size() > 1) {
+            batchPartitionIds = values.keySet().stream()
+                    .map(value -> String.format("%s = %s", partitionKeyColumnName, value))
+                    .collect(toImmutableList());
+            batchPartitionKeys = ImmutableList.copyOf(values.values());
+        }
+        return createSplitForClusteringPredicates(tableHandle, partitionId, hosts, clusteringPredicates, batchPartitionIds, batchPartitionKeys);
+    }
+
     private CassandraSplit createSplitForClusteringPredicates(
             CassandraTableHandle tableHandle,
             String partitionId,
             List<HostAddress> hosts,
             String clusteringPredicates)
+    {
+        return createSplitForClusteringPredicates(tableHandle, partitionId, hosts, clusteringPredicates, ImmutableList.of(), ImmutableList.of());
+    }
+
+    private CassandraSplit createSplitForClusteringPredicates(
+            CassandraTableHandle tableHandle,
+            String partitionId,
+            List<HostAddress> hosts,
+            String clusteringPredicates,
+            List<String> batchPartitionIds,
+            List<byte[]> batchPartitionKeys)
     {
         String schema = tableHandle.getSchemaName();
         String table = tableHandle.getTableName();
 
         if (clusteringPredicates.isEmpty()) {
-            return new CassandraSplit(connectorId, schema, table, partitionId, null, hosts);
+            return new CassandraSplit(connectorId, schema, table, partitionId, null, hosts, batchPartitionIds, batchPartitionKeys);
         }
 
-        return new CassandraSplit(connectorId, schema, table, partitionId, clusteringPredicates, hosts);
+        return new CassandraSplit(connectorId, schema, table, partitionId, clusteringPredicates, hosts, batchPartitionIds, batchPartitionKeys);
     }
 
     @Override
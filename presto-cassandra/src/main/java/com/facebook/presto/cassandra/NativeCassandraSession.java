@@ -22,6 +22,7 @@ import com.datastax.driver.core.KeyspaceMetadata;
 import com.datastax.driver.core.PreparedStatement;
 import com.datastax.driver.core.RegularStatement;
 import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.ResultSetFuture;
 import com.datastax.driver.core.Row;
 import com.datastax.driver.core.Session;
 import com.datastax.driver.core.Statement;
@@ -394,6 +395,25 @@ public class NativeCassandraSession
         return executeWithSession(session -> session.execute(cql, values));
     }
 
+    @Override
+    public ResultSetFuture executeAsync(Statement statement)
+    {
+        return executeWithSession(session -> session.executeAsync(statement));
+    }
+
+    @Override
+    public ResultSet getResult(Statement statement, ResultSetFuture future)
+    {
+        try {
+            return future.getUninterruptibly();
+        }
+        catch (NoHostAvailableException e) {
+            log.warn(e.getCustomMessage(10, true, true));
+            log.warn("Retrying asynchronous query");
+            return executeWithSession(session -> session.execute(statement));
+        }
+    }
+
     @Override
     public PreparedStatement prepare(RegularStatement statement)
     {
@@ -20,6 +20,7 @@ import com.google.common.collect.ImmutableMap;
 import io.airlift.tpch.TpchTable;
 
 import java.util.List;
+import java.util.Map;
 
 import static com.facebook.presto.cassandra.CassandraTestingUtils.createKeyspace;
 import static com.facebook.presto.testing.TestingSession.testSessionBuilder;
@@ -34,7 +35,13 @@ public final class CassandraQueryRunner
 
     private static boolean tpchLoaded = false;
 
-    public static synchronized DistributedQueryRunner createCassandraQueryRunner()
+    public static DistributedQueryRunner createCassandraQueryRunner()
+            throws Exception
+    {
+        return createCassandraQueryRunner(ImmutableMap.of());
+    }
+
+    public static synchronized DistributedQueryRunner createCassandraQueryRunner(Map<String, String> extraCatalogProperties)
             throws Exception
     {
         EmbeddedCassandra.start();
@@ -45,10 +52,12 @@ public final class CassandraQueryRunner
         queryRunner.createCatalog("tpch", "tpch");
 
         queryRunner.installPlugin(new CassandraPlugin());
-        queryRunner.createCatalog("cassandra", "cassandra", ImmutableMap.of(
-                "cassandra.contact-points", EmbeddedCassandra.getHost(),
-                "cassandra.native-protocol-port", Integer.toString(EmbeddedCassandra.getPort()),
-                "cassandra.allow-drop-table", "true"));
+        queryRunner.createCatalog("cassandra", "cassandra", ImmutableMap.<String, String>builder()
+                .put("cassandra.contact-points", EmbeddedCassandra.getHost())
+                .put("cassandra.native-protocol-port", Integer.toString(EmbeddedCassandra.getPort()))
+                .put("cassandra.allow-drop-table", "true")
+                .putAll(extraCatalogProperties)
+                .build());
 
         if (!tpchLoaded) {
             createKeyspace(EmbeddedCassandra.getSession(), "tpch");
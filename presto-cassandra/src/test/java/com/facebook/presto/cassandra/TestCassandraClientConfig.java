@@ -37,6 +37,7 @@ public class TestCassandraClientConfig
                 .setContactPoints("")
                 .setNativeProtocolPort(9042)
                 .setPartitionSizeForBatchSelect(100)
+                .setPartitionQueryConcurrency(1)
                 .setSplitSize(1_024)
                 .setAllowDropTable(false)
                 .setUsername(null)
@@ -67,6 +68,7 @@ public class TestCassandraClientConfig
                 .put("cassandra.fetch-size", "10000")
                 .put("cassandra.consistency-level", "TWO")
                 .put("cassandra.partition-size-for-batch-select", "77")
+                .put("cassandra.partition-query-concurrency", "8")
                 .put("cassandra.split-size", "1025")
                 .put("cassandra.allow-drop-table", "true")
                 .put("cassandra.username", "my_username")
@@ -94,6 +96,7 @@ public class TestCassandraClientConfig
                 .setFetchSize(10_000)
                 .setConsistencyLevel(ConsistencyLevel.TWO)
                 .setPartitionSizeForBatchSelect(77)
+                .setPartitionQueryConcurrency(8)
                 .setSplitSize(1_025)
                 .setAllowDropTable(true)
                 .setUsername("my_username")
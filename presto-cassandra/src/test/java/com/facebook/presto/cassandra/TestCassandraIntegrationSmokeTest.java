@@ -75,7 +75,12 @@ public class TestCassandraIntegrationSmokeTest
     public TestCassandraIntegrationSmokeTest()
             throws Exception
     {
-        super(CassandraQueryRunner::createCassandraQueryRunner);
+        this(CassandraQueryRunner::createCassandraQueryRunner);
+    }
+
+    protected TestCassandraIntegrationSmokeTest(QueryRunnerSupplier supplier)
+    {
+        super(supplier);
     }
 
     @BeforeClass
@@ -0,0 +1,30 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.cassandra;
+
+import com.google.common.collect.ImmutableMap;
+import org.testng.annotations.Test;
+
+import static com.facebook.presto.cassandra.CassandraQueryRunner.createCassandraQueryRunner;
+
+@Test(singleThreaded = true)
+public class TestCassandraIntegrationSmokeTestPartitionQueryConcurrency
+        extends TestCassandraIntegrationSmokeTest
+{
+    public TestCassandraIntegrationSmokeTestPartitionQueryConcurrency()
+            throws Exception
+    {
+        super(() -> createCassandraQueryRunner(ImmutableMap.of("cassandra.partition-query-concurrency", "4")));
+    }
+}
@@ -41,6 +41,30 @@ public class TestCassandraSplit
         assertEquals(actual.getTable(), expected.getTable());
         assertEquals(actual.getSplitCondition(), expected.getSplitCondition());
         assertEquals(actual.getAddresses(), expected.getAddresses());
+        assertEquals(actual.getBatchPartitionIds(), expected.getBatchPartitionIds());
+    }
+
+    @Test
+    public void testJsonRoundTripWithBatchPartitionIds()
+    {
+        CassandraSplit expected = new CassandraSplit(
+                "connectorId",
+                "schema1",
+                "table1",
+                "key in (1,2)",
+                null,
+                addresses,
+                ImmutableList.of("key = 1", "key = 2"),
+                ImmutableList.of(new byte[] {0, 0, 0, 1}, new byte[] {0, 0, 0, 2}));
+
+        String json = codec.toJson(expected);
+        CassandraSplit actual = codec.fromJson(json);
+
+        assertEquals(actual.getPartitionId(), expected.getPartitionId());
+        assertEquals(actual.getBatchPartitionIds(), expected.getBatchPartitionIds());
+        assertEquals(actual.getBatchPartitionKeys().size(), 2);
+        assertEquals(actual.getBatchPartitionKeys().get(0), new byte[] {0, 0, 0, 1});
+        assertEquals(actual.getBatchPartitionKeys().get(1), new byte[] {0, 0, 0, 2});
     }
 
     @Test
@@ -64,5 +88,18 @@ public class TestCassandraSplit
                 null,
                 addresses);
         assertEquals(split.getWhereClause(), " WHERE key = 123");
+        assertEquals(split.getWhereClauses(), ImmutableList.of(" WHERE key = 123"));
+
+        split = new CassandraSplit(
+                "connectorId",
+                "schema1",
+                "table1",
+                "key in (1,2)",
+                "c > 5",
+                addresses,
+                ImmutableList.of("key = 1", "key = 2"),
+                ImmutableList.of(new byte[] {0, 0, 0, 1}, new byte[] {0, 0, 0, 2}));
+        assertEquals(split.getWhereClause(), " WHERE key in (1,2) AND c > 5");
+        assertEquals(split.getWhereClauses(), ImmutableList.of(" WHERE key = 1 AND c > 5", " WHERE key = 2 AND c > 5"));
     }
 }
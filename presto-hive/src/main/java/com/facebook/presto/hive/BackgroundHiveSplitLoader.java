@@ -376,7 +376,7 @@ public class BackgroundHiveSplitLoader
         // If table is bucketed: list the directory, sort, tag with bucket id
         if (bucketHandle.isPresent()) {
             // HiveFileIterator skips hidden files automatically.
-            int bucketCount = bucketHandle.get().getBucketCount();
+            int bucketCount = bucketHandle.get().getTableBucketCount();
             List<LocatedFileStatus> list = listAndSortBucketFiles(iterator, bucketCount);
             List<Iterator<InternalHiveSplit>> iteratorList = new ArrayList<>();
 
@@ -24,13 +24,21 @@ import static java.util.stream.Collectors.toList;
 public class HiveBucketHandle
 {
     private final List<HiveColumnHandle> columns;
-    private final int bucketCount;
+    // Number of buckets in the table, as specified in table metadata
+    private final int tableBucketCount;
+    // Number of buckets the table will appear to have when the Hive connector
+    // presents the table to the engine for read.
+    private final int readBucketCount;
 
     @JsonCreator
-    public HiveBucketHandle(@JsonProperty("columns") List<HiveColumnHandle> columns, @JsonProperty("bucketCount") int bucketCount)
+    public HiveBucketHandle(
+            @JsonProperty("columns") List<HiveColumnHandle> columns,
+            @JsonProperty("tableBucketCount") int tableBucketCount,
+            @JsonProperty("readBucketCount") int readBucketCount)
     {
         this.columns = requireNonNull(columns, "columns is null");
-        this.bucketCount = requireNonNull(bucketCount, "bucketCount is null");
+        this.tableBucketCount = tableBucketCount;
+        this.readBucketCount = readBucketCount;
     }
 
     @JsonProperty
@@ -40,9 +48,20 @@ public class HiveBucketHandle
     }
 
     @JsonProperty
-    public int getBucketCount()
+    public int getTableBucketCount()
     {
-        return bucketCount;
+        return tableBucketCount;
+    }
+
+    @JsonProperty
+    public int getReadBucketCount()
+    {
+        return readBucketCount;
+    }
+
+    public HiveBucketHandle withReadBucketCount(int readBucketCount)
+    {
+        return new HiveBucketHandle(columns, tableBucketCount, readBucketCount);
     }
 
     public HiveBucketProperty toBucketProperty()
@@ -51,6 +70,6 @@ public class HiveBucketHandle
                 columns.stream()
                         .map(HiveColumnHandle::getName)
                         .collect(toList()),
-                bucketCount);
+                tableBucketCount);
     }
 }
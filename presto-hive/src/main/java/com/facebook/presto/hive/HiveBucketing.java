@@ -209,7 +209,8 @@ final class HiveBucketing
             bucketColumns.add(bucketColumnHandle);
         }
 
-        return Optional.of(new HiveBucketHandle(bucketColumns.build(), hiveBucketProperty.get().getBucketCount()));
+        int bucketCount = hiveBucketProperty.get().getBucketCount();
+        return Optional.of(new HiveBucketHandle(bucketColumns.build(), bucketCount, bucketCount));
     }
 
     public static List<HiveBucket> getHiveBucketNumbers(Table table, TupleDomain<ColumnHandle> effectivePredicate)
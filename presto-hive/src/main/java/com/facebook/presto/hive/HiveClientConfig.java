@@ -111,6 +111,7 @@ public class HiveClientConfig
 
     private boolean bucketExecutionEnabled = true;
     private boolean bucketWritingEnabled = true;
+    private boolean optimizeMismatchedBucketCount;
 
     private int fileSystemMaxCacheSize = 1000;
 
@@ -853,6 +854,19 @@ public class HiveClientConfig
         return this;
     }
 
+    public boolean isOptimizeMismatchedBucketCount()
+    {
+        return optimizeMismatchedBucketCount;
+    }
+
+    @Config("hive.optimize-mismatched-bucket-count")
+    @ConfigDescription("Enable bucket-aware execution for tables whose bucket counts are multiples of each other")
+    public HiveClientConfig setOptimizeMismatchedBucketCount(boolean optimizeMismatchedBucketCount)
+    {
+        this.optimizeMismatchedBucketCount = optimizeMismatchedBucketCount;
+        return this;
+    }
+
     public boolean isBucketWritingEnabled()
     {
         return bucketWritingEnabled;
@@ -82,7 +82,9 @@ public class HiveNodePartitioningProvider
             ConnectorSession session,
             ConnectorPartitioningHandle partitioningHandle)
     {
-        return value -> ((HiveSplit) value).getBucketNumber().getAsInt();
+        // a table may be read with fewer buckets than it has, if its bucket count is a multiple of the read bucket count
+        int readBucketCount = ((HivePartitioningHandle) partitioningHandle).getBucketCount();
+        return value -> ((HiveSplit) value).getBucketNumber().getAsInt() % readBucketCount;
     }
 
     private static <T> List<T> shuffle(Collection<T> items)
@@ -28,6 +28,7 @@ import static com.facebook.presto.spi.type.VarcharType.createUnboundedVarcharTyp
 public final class HiveSessionProperties
 {
     private static final String BUCKET_EXECUTION_ENABLED = "bucket_execution_enabled";
+    private static final String OPTIMIZE_MISMATCHED_BUCKET_COUNT = "optimize_mismatched_bucket_count";
     private static final String FORCE_LOCAL_SCHEDULING = "force_local_scheduling";
     private static final String ORC_BLOOM_FILTERS_ENABLED = "orc_bloom_filters_enabled";
     private static final String ORC_MAX_MERGE_DISTANCE = "orc_max_merge_distance";
@@ -56,6 +57,11 @@ public final class HiveSessionProperties
                         "Enable bucket-aware execution: only use a single worker per bucket",
                         config.isBucketExecutionEnabled(),
                         false),
+                booleanSessionProperty(
+                        OPTIMIZE_MISMATCHED_BUCKET_COUNT,
+                        "Enable bucket-aware execution for tables whose bucket counts are multiples of each other",
+                        config.isOptimizeMismatchedBucketCount(),
+                        false),
                 booleanSessionProperty(
                         FORCE_LOCAL_SCHEDULING,
                         "Only schedule splits on workers colocated with data node",
@@ -148,6 +154,11 @@ public final class HiveSessionProperties
         return session.getProperty(BUCKET_EXECUTION_ENABLED, Boolean.class);
     }
 
+    public static boolean isOptimizedMismatchedBucketCount(ConnectorSession session)
+    {
+        return session.getProperty(OPTIMIZE_MISMATCHED_BUCKET_COUNT, Boolean.class);
+    }
+
     public static boolean isForceLocalScheduling(ConnectorSession session)
     {
         return session.getProperty(FORCE_LOCAL_SCHEDULING, Boolean.class);
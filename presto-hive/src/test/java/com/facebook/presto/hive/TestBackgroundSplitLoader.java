@@ -153,6 +153,7 @@ public class TestBackgroundSplitLoader
                 Optional.of(
                         new HiveBucketHandle(
                                 getRegularColumnHandles(TEST_CONNECTOR_ID, PARTITIONED_TABLE),
+                                BUCKET_COUNT,
                                 BUCKET_COUNT)));
 
         HiveSplitSource hiveSplitSource = hiveSplitSource(backgroundHiveSplitLoader, RETURNED_PATH_DOMAIN);
@@ -90,6 +90,7 @@ public class TestHiveClientConfig
                 .setHdfsImpersonationEnabled(false)
                 .setSkipDeletionForAlter(false)
                 .setBucketExecutionEnabled(true)
+                .setOptimizeMismatchedBucketCount(false)
                 .setBucketWritingEnabled(true)
                 .setFileSystemMaxCacheSize(1000)
                 .setTableStatisticsEnabled(true)
@@ -154,6 +155,7 @@ public class TestHiveClientConfig
                 .put("hive.hdfs.impersonation.enabled", "true")
                 .put("hive.skip-deletion-for-alter", "true")
                 .put("hive.bucket-execution", "false")
+                .put("hive.optimize-mismatched-bucket-count", "true")
                 .put("hive.bucket-writing", "false")
                 .put("hive.fs.cache.max-size", "1010")
                 .put("hive.table-statistics-enabled", "false")
@@ -215,6 +217,7 @@ public class TestHiveClientConfig
                 .setHdfsImpersonationEnabled(true)
                 .setSkipDeletionForAlter(true)
                 .setBucketExecutionEnabled(false)
+                .setOptimizeMismatchedBucketCount(true)
                 .setBucketWritingEnabled(false)
                 .setFileSystemMaxCacheSize(1010)
                 .setTableStatisticsEnabled(false)
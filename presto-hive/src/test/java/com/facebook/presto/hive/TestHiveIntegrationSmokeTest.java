@@ -20,8 +20,10 @@ import com.facebook.presto.metadata.TableHandle;
 import com.facebook.presto.metadata.TableLayout;
 import com.facebook.presto.metadata.TableLayoutResult;
 import com.facebook.presto.metadata.TableMetadata;
+import com.facebook.presto.operator.PipelineStats;
 import com.facebook.presto.spi.ColumnMetadata;
 import com.facebook.presto.spi.Constraint;
+import com.facebook.presto.spi.QueryId;
 import com.facebook.presto.spi.type.Type;
 import com.facebook.presto.spi.type.TypeSignature;
 import com.facebook.presto.testing.MaterializedResult;
@@ -46,6 +48,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.function.Function;
 
+import static com.facebook.presto.execution.StageInfo.getAllStages;
 import static com.facebook.presto.hive.HiveColumnHandle.BUCKET_COLUMN_NAME;
 import static com.facebook.presto.hive.HiveColumnHandle.PATH_COLUMN_NAME;
 import static com.facebook.presto.hive.HiveQueryRunner.HIVE_CATALOG;
@@ -1403,7 +1406,7 @@ public class TestHiveIntegrationSmokeTest
 
     private int getBucketCount(String tableName)
     {
-        return (int) getHiveTableProperty(tableName, (HiveTableLayoutHandle table) -> table.getBucketHandle().get().getBucketCount());
+        return (int) getHiveTableProperty(tableName, (HiveTableLayoutHandle table) -> table.getBucketHandle().get().getTableBucketCount());
     }
 
     @Test
@@ -1577,6 +1580,110 @@ public class TestHiveIntegrationSmokeTest
                 "SELECT custkey, COUNT(*) FROM orders GROUP BY custkey");
     }
 
+    @Test
+    public void testGroupedExecution()
+            throws Exception
+    {
+        Session groupedExecution = Session.builder(bucketedSession)
+                .setSystemProperty("colocated_join", "true")
+                .setSystemProperty("grouped_execution", "true")
+                .setSystemProperty("concurrent_lifespans_per_task", "1")
+                .build();
+
+        assertQuery(groupedExecution, "select count(*) a from orders t1 join orders t2 on t1.custkey=t2.custkey");
+        assertQuery(groupedExecution, "select count(*) a from orders t1 join customer t2 on t1.custkey=t2.custkey", "SELECT count(*) from orders");
+        assertQuery(groupedExecution, "select t1.custkey, count(*) from orders t1 left join customer t2 on t1.custkey=t2.custkey group by t1.custkey");
+        assertQuery(groupedExecution, "SELECT custkey, COUNT(*) FROM orders GROUP BY custkey");
+    }
+
+    @Test
+    public void testGroupedExecutionRunsOneLifespanPerBucket()
+            throws Exception
+    {
+        Session session = Session.builder(bucketedSession)
+                .setSystemProperty("colocated_join", "true")
+                .setSystemProperty("task_concurrency", "1")
+                .setSystemProperty("concurrent_lifespans_per_task", "1")
+                .build();
+        @Language("SQL") String query = "SELECT count(*) FROM orders t1 JOIN orders t2 ON t1.custkey = t2.custkey";
+
+        // The hash build pipeline reads from a local exchange, so it is neither an input nor an output
+        // pipeline. With grouped execution it is instantiated for every bucket, without it once per task.
+        int groupedBuildDrivers = countIntermediatePipelineDrivers(Session.builder(session).setSystemProperty("grouped_execution", "true").build(), query);
+        int ungroupedBuildDrivers = countIntermediatePipelineDrivers(Session.builder(session).setSystemProperty("grouped_execution", "false").build(), query);
+
+        assertEquals(groupedBuildDrivers, 11);
+        assertTrue(ungroupedBuildDrivers < groupedBuildDrivers, format("expected fewer than %s build drivers without grouped execution, got %s", groupedBuildDrivers, ungroupedBuildDrivers));
+    }
+
+    private int countIntermediatePipelineDrivers(Session session, @Language("SQL") String query)
+    {
+        DistributedQueryRunner queryRunner = (DistributedQueryRunner) getQueryRunner();
+        QueryId queryId = new QueryId(queryRunner.executeWithQueryId(session, query).getQueryId());
+        return getAllStages(queryRunner.getQueryInfo(queryId).getOutputStage()).stream()
+                .flatMap(stage -> stage.getTasks().stream())
+                .flatMap(task -> task.getStats().getPipelines().stream())
+                .filter(pipeline -> !pipeline.isInputPipeline() && !pipeline.isOutputPipeline())
+                .mapToInt(PipelineStats::getTotalDrivers)
+                .sum();
+    }
+
+    @Test
+    public void testMismatchedBucketCountJoin()
+            throws Exception
+    {
+        try {
+            assertUpdate("" +
+                            "CREATE TABLE test_mismatched_bucketing_8 " +
+                            "WITH (bucket_count = 8, bucketed_by = ARRAY['custkey']) AS " +
+                            "SELECT orderkey, custkey FROM tpch.tiny.orders",
+                    15000);
+            assertUpdate("" +
+                            "CREATE TABLE test_mismatched_bucketing_32 " +
+                            "WITH (bucket_count = 32, bucketed_by = ARRAY['custkey']) AS " +
+                            "SELECT custkey, name FROM tpch.tiny.customer",
+                    1500);
+
+            Session session = Session.builder(getSession())
+                    .setSystemProperty("distributed_join", "true")
+                    .setSystemProperty("colocated_join", "true")
+                    .build();
+            Session optimized = Session.builder(session)
+                    .setCatalogSessionProperty(catalog, "optimize_mismatched_bucket_count", "true")
+                    .build();
+            Session notOptimized = Session.builder(session)
+                    .setCatalogSessionProperty(catalog, "optimize_mismatched_bucket_count", "false")
+                    .build();
+
+            @Language("SQL") String query = "" +
+                    "SELECT o.orderkey, c.name " +
+                    "FROM test_mismatched_bucketing_8 o " +
+                    "JOIN test_mismatched_bucketing_32 c ON o.custkey = c.custkey";
+            @Language("SQL") String expectedQuery = "" +
+                    "SELECT o.orderkey, c.name " +
+                    "FROM orders o " +
+                    "JOIN customer c ON o.custkey = c.custkey";
+
+            assertQuery(optimized, query, expectedQuery);
+            assertQuery(notOptimized, query, expectedQuery);
+
+            // with the optimization, both tables are read with 8 buckets in a single fragment and the
+            // only remote source is the output stage; without it, one side is repartitioned
+            assertEquals(countRemoteSources(optimized, query), 1);
+            assertTrue(countRemoteSources(notOptimized, query) > 1);
+        }
+        finally {
+            assertUpdate("DROP TABLE IF EXISTS test_mismatched_bucketing_8");
+            assertUpdate("DROP TABLE IF EXISTS test_mismatched_bucketing_32");
+        }
+    }
+
+    private int countRemoteSources(Session session, @Language("SQL") String query)
+    {
+        String plan = (String) computeActual(session, "EXPLAIN (TYPE DISTRIBUTED) " + query).getOnlyValue();
+        return plan.split("RemoteSource\\[", -1).length - 1;
+    }
+
     @Test
     public void testShowCreateTable()
             throws Exception
@@ -22,6 +22,7 @@ import io.airlift.units.DataSize.Unit;
 import io.airlift.units.Duration;
 import io.airlift.units.MinDuration;
 
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Size;
 
@@ -69,6 +70,11 @@ public class KafkaConnectorConfig
      */
     private boolean hideInternalColumns = true;
 
+    /**
+     * Maximum number of messages read by a single split. Larger segments are read by several splits.
+     */
+    private long maxMessagesPerSplit = 1_000_000;
+
     @NotNull
     public File getTableDescriptionDir()
     {
@@ -158,6 +164,19 @@ public class KafkaConnectorConfig
         return this;
     }
 
+    @Min(1)
+    public long getMaxMessagesPerSplit()
+    {
+        return maxMessagesPerSplit;
+    }
+
+    @Config("kafka.max-messages-per-split")
+    public KafkaConnectorConfig setMaxMessagesPerSplit(long maxMessagesPerSplit)
+    {
+        this.maxMessagesPerSplit = maxMessagesPerSplit;
+        return this;
+    }
+
     public static ImmutableSet<HostAddress> parseNodes(String nodes)
     {
         Splitter splitter = Splitter.on(',').omitEmptyStrings().trimResults();
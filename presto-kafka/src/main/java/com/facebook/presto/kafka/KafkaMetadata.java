@@ -27,6 +27,10 @@ import com.facebook.presto.spi.SchemaTableName;
 import com.facebook.presto.spi.SchemaTablePrefix;
 import com.facebook.presto.spi.TableNotFoundException;
 import com.facebook.presto.spi.connector.ConnectorMetadata;
+import com.facebook.presto.spi.predicate.Domain;
+import com.facebook.presto.spi.predicate.Marker;
+import com.facebook.presto.spi.predicate.Range;
+import com.facebook.presto.spi.predicate.TupleDomain;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
@@ -41,6 +45,7 @@ import java.util.function.Supplier;
 
 import static com.facebook.presto.kafka.KafkaHandleResolver.convertColumnHandle;
 import static com.facebook.presto.kafka.KafkaHandleResolver.convertTableHandle;
+import static com.facebook.presto.kafka.KafkaInternalFieldDescription.PARTITION_OFFSET_FIELD;
 import static java.util.Objects.requireNonNull;
 
 /**
@@ -194,8 +199,39 @@ public class KafkaMetadata
     public List<ConnectorTableLayoutResult> getTableLayouts(ConnectorSession session, ConnectorTableHandle table, Constraint<ColumnHandle> constraint, Optional<Set<ColumnHandle>> desiredColumns)
     {
         KafkaTableHandle handle = convertTableHandle(table);
-        ConnectorTableLayout layout = new ConnectorTableLayout(new KafkaTableLayoutHandle(handle));
-        return ImmutableList.of(new ConnectorTableLayoutResult(layout, constraint.getSummary()));
+
+        long offsetStart = 0;
+        long offsetEnd = Long.MAX_VALUE;
+        TupleDomain<ColumnHandle> summary = constraint.getSummary();
+        if (summary.isNone()) {
+            offsetEnd = 0;
+        }
+        else {
+            for (Map.Entry<ColumnHandle, Domain> entry : summary.getDomains().get().entrySet()) {
+                KafkaColumnHandle column = convertColumnHandle(entry.getKey());
+                if (column.isInternal() && column.getName().equals(PARTITION_OFFSET_FIELD.getName())) {
+                    Domain domain = entry.getValue();
+                    if (domain.getValues().isNone()) {
+                        offsetEnd = 0;
+                    }
+                    else {
+                        // only the span is pushed down, the predicate itself is still evaluated by the engine
+                        Range span = domain.getValues().getRanges().getSpan();
+                        if (!span.getLow().isLowerUnbounded()) {
+                            long low = (long) span.getLow().getValue();
+                            offsetStart = span.getLow().getBound() == Marker.Bound.EXACTLY ? low : low + 1;
+                        }
+                        if (!span.getHigh().isUpperUnbounded()) {
+                            long high = (long) span.getHigh().getValue();
+                            offsetEnd = span.getHigh().getBound() == Marker.Bound.EXACTLY && high < Long.MAX_VALUE ? high + 1 : high;
+                        }
+                    }
+                }
+            }
+        }
+
+        ConnectorTableLayout layout = new ConnectorTableLayout(new KafkaTableLayoutHandle(handle, offsetStart, offsetEnd));
+        return ImmutableList.of(new ConnectorTableLayoutResult(layout, summary));
     }
 
     @Override
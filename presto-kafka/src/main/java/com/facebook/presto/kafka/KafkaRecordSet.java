@@ -13,6 +13,7 @@
  */
 package com.facebook.presto.kafka;
 
+import com.facebook.presto.decoder.BatchFieldValues;
 import com.facebook.presto.decoder.DecoderColumnHandle;
 import com.facebook.presto.decoder.FieldDecoder;
 import com.facebook.presto.decoder.FieldValueProvider;
@@ -34,9 +35,9 @@ import kafka.message.MessageAndOffset;
 
 import java.nio.ByteBuffer;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -80,8 +81,8 @@ public class KafkaRecordSet
 
         this.globalInternalFieldValueProviders = ImmutableSet.of(
                 KafkaInternalFieldDescription.PARTITION_ID_FIELD.forLongValue(split.getPartitionId()),
-                KafkaInternalFieldDescription.SEGMENT_START_FIELD.forLongValue(split.getStart()),
-                KafkaInternalFieldDescription.SEGMENT_END_FIELD.forLongValue(split.getEnd()));
+                KafkaInternalFieldDescription.SEGMENT_START_FIELD.forLongValue(split.getSegmentStart()),
+                KafkaInternalFieldDescription.SEGMENT_END_FIELD.forLongValue(split.getSegmentEnd()));
 
         this.consumerManager = requireNonNull(consumerManager, "consumerManager is null");
 
@@ -113,15 +114,31 @@ public class KafkaRecordSet
         return new KafkaRecordCursor();
     }
 
+    private static byte[] toByteArray(ByteBuffer buffer)
+    {
+        if (buffer == null) {
+            return EMPTY_BYTE_ARRAY;
+        }
+        byte[] data = new byte[buffer.remaining()];
+        buffer.get(data);
+        return data;
+    }
+
     public class KafkaRecordCursor
             implements RecordCursor
     {
         private long totalBytes;
         private long totalMessages;
         private long cursorOffset = split.getStart();
-        private Iterator<MessageAndOffset> messageAndOffsetIterator;
+        private List<MessageAndOffset> messageAndOffsets;
+        private int messageIndex;
         private final AtomicBoolean reported = new AtomicBoolean();
 
+        // decodes the message columns of all fetched messages at once, if the message decoder supports it
+        private final Optional<BatchFieldValues> batchMessageValues = BatchFieldValues.create(messageDecoder, columnHandles, messageFieldDecoders);
+        private int batchStart;
+        private List<byte[]> batchMessageData = ImmutableList.of();
+
         private FieldValueProvider[] fieldValueProviders;
 
         KafkaRecordCursor()
@@ -157,8 +174,9 @@ public class KafkaRecordSet
                 // Create a fetch request
                 openFetchRequest();
 
-                while (messageAndOffsetIterator.hasNext()) {
-                    MessageAndOffset currentMessageAndOffset = messageAndOffsetIterator.next();
+                while (messageIndex < messageAndOffsets.size()) {
+                    MessageAndOffset currentMessageAndOffset = messageAndOffsets.get(messageIndex);
+                    messageIndex++;
                     long messageOffset = currentMessageAndOffset.offset();
 
                     if (messageOffset >= split.getEnd()) {
@@ -166,10 +184,10 @@ public class KafkaRecordSet
                     }
 
                     if (messageOffset >= cursorOffset) {
-                        return nextRow(currentMessageAndOffset);
+                        return nextRow(currentMessageAndOffset, messageIndex - 1);
                     }
                 }
-                messageAndOffsetIterator = null;
+                messageAndOffsets = null;
             }
         }
 
@@ -183,37 +201,39 @@ public class KafkaRecordSet
             return false;
         }
 
-        private boolean nextRow(MessageAndOffset messageAndOffset)
+        private boolean nextRow(MessageAndOffset messageAndOffset, int index)
         {
             cursorOffset = messageAndOffset.offset() + 1; // Cursor now points to the next message.
             totalBytes += messageAndOffset.message().payloadSize();
             totalMessages++;
 
-            byte[] keyData = EMPTY_BYTE_ARRAY;
-            byte[] messageData = EMPTY_BYTE_ARRAY;
-            ByteBuffer key = messageAndOffset.message().key();
-            if (key != null) {
-                keyData = new byte[key.remaining()];
-                key.get(keyData);
+            byte[] keyData = toByteArray(messageAndOffset.message().key());
+            byte[] messageData;
+            if (batchMessageValues.isPresent()) {
+                batchMessageValues.get().setPosition(index - batchStart);
+                messageData = batchMessageData.get(index - batchStart);
             }
-
-            ByteBuffer message = messageAndOffset.message().payload();
-            if (message != null) {
-                messageData = new byte[message.remaining()];
-                message.get(messageData);
+            else {
+                messageData = toByteArray(messageAndOffset.message().payload());
             }
 
             Set<FieldValueProvider> fieldValueProviders = new HashSet<>();
 
             fieldValueProviders.addAll(globalInternalFieldValueProviders);
-            fieldValueProviders.add(KafkaInternalFieldDescription.SEGMENT_COUNT_FIELD.forLongValue(totalMessages));
+            // the split may start in the middle of the segment
+            fieldValueProviders.add(KafkaInternalFieldDescription.SEGMENT_COUNT_FIELD.forLongValue(split.getStart() - split.getSegmentStart() + totalMessages));
             fieldValueProviders.add(KafkaInternalFieldDescription.PARTITION_OFFSET_FIELD.forLongValue(messageAndOffset.offset()));
             fieldValueProviders.add(KafkaInternalFieldDescription.MESSAGE_FIELD.forByteValue(messageData));
             fieldValueProviders.add(KafkaInternalFieldDescription.MESSAGE_LENGTH_FIELD.forLongValue(messageData.length));
             fieldValueProviders.add(KafkaInternalFieldDescription.KEY_FIELD.forByteValue(keyData));
             fieldValueProviders.add(KafkaInternalFieldDescription.KEY_LENGTH_FIELD.forLongValue(keyData.length));
             fieldValueProviders.add(KafkaInternalFieldDescription.KEY_CORRUPT_FIELD.forBooleanValue(keyDecoder.decodeRow(keyData, null, fieldValueProviders, columnHandles, keyFieldDecoders)));
-            fieldValueProviders.add(KafkaInternalFieldDescription.MESSAGE_CORRUPT_FIELD.forBooleanValue(messageDecoder.decodeRow(messageData, null, fieldValueProviders, columnHandles, messageFieldDecoders)));
+            if (batchMessageValues.isPresent()) {
+                fieldValueProviders.add(KafkaInternalFieldDescription.MESSAGE_CORRUPT_FIELD.forBooleanValue(batchMessageValues.get().isCorrupt()));
+            }
+            else {
+                fieldValueProviders.add(KafkaInternalFieldDescription.MESSAGE_CORRUPT_FIELD.forBooleanValue(messageDecoder.decodeRow(messageData, null, fieldValueProviders, columnHandles, messageFieldDecoders)));
+            }
 
             this.fieldValueProviders = new FieldValueProvider[columnHandles.size()];
 
@@ -240,7 +260,13 @@ public class KafkaRecordSet
             checkArgument(field < columnHandles.size(), "Invalid field index");
 
             checkFieldType(field, boolean.class);
-            return isNull(field) ? false : fieldValueProviders[field].getBoolean();
+            if (isNull(field)) {
+                return false;
+            }
+            if (isBatchDecoded(field)) {
+                return batchMessageValues.get().getBoolean(field);
+            }
+            return fieldValueProviders[field].getBoolean();
         }
 
         @Override
@@ -249,7 +275,13 @@ public class KafkaRecordSet
             checkArgument(field < columnHandles.size(), "Invalid field index");
 
             checkFieldType(field, long.class);
-            return isNull(field) ? 0L : fieldValueProviders[field].getLong();
+            if (isNull(field)) {
+                return 0L;
+            }
+            if (isBatchDecoded(field)) {
+                return batchMessageValues.get().getLong(field);
+            }
+            return fieldValueProviders[field].getLong();
         }
 
         @Override
@@ -258,7 +290,13 @@ public class KafkaRecordSet
             checkArgument(field < columnHandles.size(), "Invalid field index");
 
             checkFieldType(field, double.class);
-            return isNull(field) ? 0.0d : fieldValueProviders[field].getDouble();
+            if (isNull(field)) {
+                return 0.0d;
+            }
+            if (isBatchDecoded(field)) {
+                return batchMessageValues.get().getDouble(field);
+            }
+            return fieldValueProviders[field].getDouble();
         }
 
         @Override
@@ -267,7 +305,13 @@ public class KafkaRecordSet
             checkArgument(field < columnHandles.size(), "Invalid field index");
 
             checkFieldType(field, Slice.class);
-            return isNull(field) ? Slices.EMPTY_SLICE : fieldValueProviders[field].getSlice();
+            if (isNull(field)) {
+                return Slices.EMPTY_SLICE;
+            }
+            if (isBatchDecoded(field)) {
+                return batchMessageValues.get().getSlice(field);
+            }
+            return fieldValueProviders[field].getSlice();
         }
 
         @Override
@@ -281,9 +325,17 @@ public class KafkaRecordSet
         {
             checkArgument(field < columnHandles.size(), "Invalid field index");
 
+            if (isBatchDecoded(field)) {
+                return batchMessageValues.get().isNull(field);
+            }
             return fieldValueProviders[field] == null || fieldValueProviders[field].isNull();
         }
 
+        private boolean isBatchDecoded(int field)
+        {
+            return batchMessageValues.isPresent() && batchMessageValues.get().isDecoded(field);
+        }
+
         private void checkFieldType(int field, Class<?> expected)
         {
             Class<?> actual = getType(field).getJavaType();
@@ -297,7 +349,7 @@ public class KafkaRecordSet
 
         private void openFetchRequest()
         {
-            if (messageAndOffsetIterator == null) {
+            if (messageAndOffsets == null) {
                 log.debug("Fetching %d bytes from offset %d (%d - %d). %d messages read so far", KAFKA_READ_BUFFER_SIZE, cursorOffset, split.getStart(), split.getEnd(), totalMessages);
                 FetchRequest req = new FetchRequestBuilder()
                         .clientId("presto-worker-" + Thread.currentThread().getName())
@@ -315,8 +367,27 @@ public class KafkaRecordSet
                     throw new PrestoException(KAFKA_SPLIT_ERROR, "could not fetch data from Kafka, error code is '" + errorCode + "'");
                 }
 
-                messageAndOffsetIterator = fetchResponse.messageSet(split.getTopicName(), split.getPartitionId()).iterator();
+                messageAndOffsets = ImmutableList.copyOf(fetchResponse.messageSet(split.getTopicName(), split.getPartitionId()));
+                messageIndex = 0;
+                if (batchMessageValues.isPresent()) {
+                    decodeMessages();
+                }
+            }
+        }
+
+        private void decodeMessages()
+        {
+            // only the messages within the split are read
+            batchStart = 0;
+            while (batchStart < messageAndOffsets.size() && messageAndOffsets.get(batchStart).offset() < cursorOffset) {
+                batchStart++;
+            }
+            ImmutableList.Builder<byte[]> messageData = ImmutableList.builder();
+            for (int i = batchStart; i < messageAndOffsets.size() && messageAndOffsets.get(i).offset() < split.getEnd(); i++) {
+                messageData.add(toByteArray(messageAndOffsets.get(i).message().payload()));
             }
+            batchMessageData = messageData.build();
+            batchMessageValues.get().decode(batchMessageData);
         }
     }
 }
@@ -41,6 +41,8 @@ public class KafkaSplit
     private final int partitionId;
     private final long start;
     private final long end;
+    private final long segmentStart;
+    private final long segmentEnd;
     private final HostAddress leader;
 
     @JsonCreator
@@ -52,6 +54,8 @@ public class KafkaSplit
             @JsonProperty("partitionId") int partitionId,
             @JsonProperty("start") long start,
             @JsonProperty("end") long end,
+            @JsonProperty("segmentStart") long segmentStart,
+            @JsonProperty("segmentEnd") long segmentEnd,
             @JsonProperty("leader") HostAddress leader)
     {
         this.connectorId = requireNonNull(connectorId, "connector id is null");
@@ -61,6 +65,8 @@ public class KafkaSplit
         this.partitionId = partitionId;
         this.start = start;
         this.end = end;
+        this.segmentStart = segmentStart;
+        this.segmentEnd = segmentEnd;
         this.leader = requireNonNull(leader, "leader address is null");
     }
 
@@ -82,6 +88,21 @@ public class KafkaSplit
         return end;
     }
 
+    /**
+     * First offset of the segment that contains this split. A large segment is read by several splits.
+     */
+    @JsonProperty
+    public long getSegmentStart()
+    {
+        return segmentStart;
+    }
+
+    @JsonProperty
+    public long getSegmentEnd()
+    {
+        return segmentEnd;
+    }
+
     @JsonProperty
     public String getTopicName()
     {
@@ -141,6 +162,8 @@ public class KafkaSplit
                 .add("partitionId", partitionId)
                 .add("start", start)
                 .add("end", end)
+                .add("segmentStart", segmentStart)
+                .add("segmentEnd", segmentEnd)
                 .add("leader", leader)
                 .toString();
     }
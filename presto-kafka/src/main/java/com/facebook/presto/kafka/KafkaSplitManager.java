@@ -22,6 +22,7 @@ import com.facebook.presto.spi.HostAddress;
 import com.facebook.presto.spi.PrestoException;
 import com.facebook.presto.spi.connector.ConnectorSplitManager;
 import com.facebook.presto.spi.connector.ConnectorTransactionHandle;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
@@ -40,11 +41,15 @@ import kafka.javaapi.consumer.SimpleConsumer;
 import javax.inject.Inject;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ThreadLocalRandom;
 
 import static com.facebook.presto.kafka.KafkaErrorCode.KAFKA_SPLIT_ERROR;
 import static com.facebook.presto.kafka.KafkaHandleResolver.convertLayout;
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
 import static java.util.Objects.requireNonNull;
 
 /**
@@ -58,6 +63,7 @@ public class KafkaSplitManager
     private final String connectorId;
     private final KafkaSimpleConsumerManager consumerManager;
     private final Set<HostAddress> nodes;
+    private final long maxMessagesPerSplit;
 
     @Inject
     public KafkaSplitManager(
@@ -70,12 +76,17 @@ public class KafkaSplitManager
 
         requireNonNull(kafkaConnectorConfig, "kafkaConfig is null");
         this.nodes = ImmutableSet.copyOf(kafkaConnectorConfig.getNodes());
+        this.maxMessagesPerSplit = kafkaConnectorConfig.getMaxMessagesPerSplit();
     }
 
     @Override
     public ConnectorSplitSource getSplits(ConnectorTransactionHandle transaction, ConnectorSession session, ConnectorTableLayoutHandle layout)
     {
-        KafkaTableHandle kafkaTableHandle = convertLayout(layout).getTable();
+        KafkaTableLayoutHandle layoutHandle = convertLayout(layout);
+        KafkaTableHandle kafkaTableHandle = layoutHandle.getTable();
+        if (layoutHandle.getOffsetStart() >= layoutHandle.getOffsetEnd()) {
+            return new FixedSplitSource(ImmutableList.of());
+        }
 
         SimpleConsumer simpleConsumer = consumerManager.getConsumer(selectRandom(nodes));
 
@@ -102,16 +113,22 @@ public class KafkaSplitManager
                 long[] offsets = findAllOffsets(leaderConsumer, metadata.topic(), part.partitionId());
 
                 for (int i = offsets.length - 1; i > 0; i--) {
-                    KafkaSplit split = new KafkaSplit(
-                            connectorId,
-                            metadata.topic(),
-                            kafkaTableHandle.getKeyDataFormat(),
-                            kafkaTableHandle.getMessageDataFormat(),
-                            part.partitionId(),
-                            offsets[i],
-                            offsets[i - 1],
-                            partitionLeader);
-                    splits.add(split);
+                    long segmentStart = offsets[i];
+                    long segmentEnd = offsets[i - 1];
+                    for (OffsetRange range : splitSegment(segmentStart, segmentEnd, layoutHandle.getOffsetStart(), layoutHandle.getOffsetEnd(), maxMessagesPerSplit)) {
+                        KafkaSplit split = new KafkaSplit(
+                                connectorId,
+                                metadata.topic(),
+                                kafkaTableHandle.getKeyDataFormat(),
+                                kafkaTableHandle.getMessageDataFormat(),
+                                part.partitionId(),
+                                range.getStart(),
+                                range.getEnd(),
+                                segmentStart,
+                                segmentEnd,
+                                partitionLeader);
+                        splits.add(split);
+                    }
                 }
             }
         }
@@ -119,6 +136,28 @@ public class KafkaSplitManager
         return new FixedSplitSource(splits.build());
     }
 
+    /**
+     * Returns the offset ranges to read from a segment. Only the offsets that can match
+     * the query are read, and every range has at most the given number of messages,
+     * so that a large segment is read by several workers in parallel.
+     */
+    @VisibleForTesting
+    static List<OffsetRange> splitSegment(long segmentStart, long segmentEnd, long offsetStart, long offsetEnd, long maxMessagesPerSplit)
+    {
+        checkArgument(maxMessagesPerSplit > 0, "maxMessagesPerSplit must be positive");
+
+        long start = max(segmentStart, offsetStart);
+        long end = min(segmentEnd, offsetEnd);
+
+        ImmutableList.Builder<OffsetRange> ranges = ImmutableList.builder();
+        while (start < end) {
+            long rangeEnd = start + min(maxMessagesPerSplit, end - start);
+            ranges.add(new OffsetRange(start, rangeEnd));
+            start = rangeEnd;
+        }
+        return ranges.build();
+    }
+
     private static long[] findAllOffsets(SimpleConsumer consumer, String topicName, int partitionId)
     {
         TopicAndPartition topicAndPartition = new TopicAndPartition(topicName, partitionId);
@@ -146,4 +185,53 @@ public class KafkaSplitManager
         List<T> list = ImmutableList.copyOf(iterable);
         return list.get(ThreadLocalRandom.current().nextInt(list.size()));
     }
+
+    @VisibleForTesting
+    static final class OffsetRange
+    {
+        private final long start;
+        private final long end;
+
+        OffsetRange(long start, long end)
+        {
+            checkArgument(start <= end, "start is greater than end");
+            this.start = start;
+            this.end = end;
+        }
+
+        public long getStart()
+        {
+            return start;
+        }
+
+        public long getEnd()
+        {
+            return end;
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            OffsetRange other = (OffsetRange) obj;
+            return start == other.start && end == other.end;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(start, end);
+        }
+
+        @Override
+        public String toString()
+        {
+            return start + "-" + end;
+        }
+    }
 }
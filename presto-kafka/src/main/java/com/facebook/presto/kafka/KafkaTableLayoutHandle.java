@@ -23,11 +23,18 @@ public class KafkaTableLayoutHandle
         implements ConnectorTableLayoutHandle
 {
     private final KafkaTableHandle table;
+    private final long offsetStart;
+    private final long offsetEnd;
 
     @JsonCreator
-    public KafkaTableLayoutHandle(@JsonProperty("table") KafkaTableHandle table)
+    public KafkaTableLayoutHandle(
+            @JsonProperty("table") KafkaTableHandle table,
+            @JsonProperty("offsetStart") long offsetStart,
+            @JsonProperty("offsetEnd") long offsetEnd)
     {
         this.table = requireNonNull(table, "table is null");
+        this.offsetStart = offsetStart;
+        this.offsetEnd = offsetEnd;
     }
 
     @JsonProperty
@@ -36,6 +43,24 @@ public class KafkaTableLayoutHandle
         return table;
     }
 
+    /**
+     * First partition offset that can match the query predicate.
+     */
+    @JsonProperty
+    public long getOffsetStart()
+    {
+        return offsetStart;
+    }
+
+    /**
+     * First partition offset after {@link #getOffsetStart()} that can not match the query predicate.
+     */
+    @JsonProperty
+    public long getOffsetEnd()
+    {
+        return offsetEnd;
+    }
+
     @Override
     public String toString()
     {
@@ -0,0 +1,56 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.kafka;
+
+import com.facebook.presto.kafka.KafkaSplitManager.OffsetRange;
+import com.google.common.collect.ImmutableList;
+import org.testng.annotations.Test;
+
+import static com.facebook.presto.kafka.KafkaSplitManager.splitSegment;
+import static org.testng.Assert.assertEquals;
+
+public class TestKafkaSplitManager
+{
+    @Test
+    public void testSplitSegment()
+    {
+        // small segments are read by a single split
+        assertEquals(splitSegment(0, 100, 0, Long.MAX_VALUE, 1000), ImmutableList.of(new OffsetRange(0, 100)));
+
+        // large segments are divided
+        assertEquals(splitSegment(100, 350, 0, Long.MAX_VALUE, 100), ImmutableList.of(
+                new OffsetRange(100, 200),
+                new OffsetRange(200, 300),
+                new OffsetRange(300, 350)));
+
+        // empty segments are skipped
+        assertEquals(splitSegment(100, 100, 0, Long.MAX_VALUE, 100), ImmutableList.of());
+    }
+
+    @Test
+    public void testSplitSegmentWithOffsetRange()
+    {
+        // only the offsets that can match are read
+        assertEquals(splitSegment(0, 1000, 250, 400, 100), ImmutableList.of(
+                new OffsetRange(250, 350),
+                new OffsetRange(350, 400)));
+
+        // the range starts in an earlier segment
+        assertEquals(splitSegment(500, 1000, 0, 600, 1000), ImmutableList.of(new OffsetRange(500, 600)));
+
+        // the range does not overlap the segment
+        assertEquals(splitSegment(0, 1000, 1000, 2000, 100), ImmutableList.of());
+        assertEquals(splitSegment(1000, 2000, 0, 1000, 100), ImmutableList.of());
+    }
+}
@@ -29,6 +29,7 @@ import javax.inject.Inject;
 import java.util.List;
 
 import static com.facebook.presto.spi.session.PropertyMetadata.booleanSessionProperty;
+import static com.facebook.presto.spi.session.PropertyMetadata.doubleSessionProperty;
 import static com.facebook.presto.spi.session.PropertyMetadata.integerSessionProperty;
 import static com.facebook.presto.spi.session.PropertyMetadata.stringSessionProperty;
 import static com.facebook.presto.spi.type.BigintType.BIGINT;
@@ -53,11 +54,14 @@ public final class SystemSessionProperties
     public static final String RESOURCE_OVERCOMMIT = "resource_overcommit";
     public static final String QUERY_MAX_CPU_TIME = "query_max_cpu_time";
     public static final String REDISTRIBUTE_WRITES = "redistribute_writes";
+    public static final String DISTRIBUTED_SORT = "distributed_sort";
     public static final String PUSH_TABLE_WRITE_THROUGH_UNION = "push_table_write_through_union";
     public static final String EXECUTION_POLICY = "execution_policy";
     public static final String DICTIONARY_AGGREGATION = "dictionary_aggregation";
     public static final String PLAN_WITH_TABLE_NODE_PARTITIONING = "plan_with_table_node_partitioning";
     public static final String COLOCATED_JOIN = "colocated_join";
+    public static final String GROUPED_EXECUTION = "grouped_execution";
+    public static final String CONCURRENT_LIFESPANS_PER_TASK = "concurrent_lifespans_per_task";
     public static final String REORDER_JOINS = "reorder_joins";
     public static final String INITIAL_SPLITS_PER_NODE = "initial_splits_per_node";
     public static final String SPLIT_CONCURRENCY_ADJUSTMENT_INTERVAL = "split_concurrency_adjustment_interval";
@@ -75,6 +79,9 @@ public final class SystemSessionProperties
     public static final String PUSH_AGGREGATION_THROUGH_JOIN = "push_aggregation_through_join";
     public static final String PUSH_PARTIAL_AGGREGATION_THROUGH_JOIN = "push_partial_aggregation_through_join";
     public static final String FORCE_SINGLE_NODE_OUTPUT = "force_single_node_output";
+    public static final String OPTIMIZE_COMMON_SUB_EXPRESSIONS = "optimize_common_sub_expressions";
+    public static final String STRAGGLER_MITIGATION_ENABLED = "straggler_mitigation_enabled";
+    public static final String STRAGGLER_SLOWDOWN_THRESHOLD = "straggler_slowdown_threshold";
 
     private final List<PropertyMetadata<?>> sessionProperties;
 
@@ -143,6 +150,11 @@ public final class SystemSessionProperties
                         "Force parallel distributed writes",
                         featuresConfig.isRedistributeWrites(),
                         false),
+                booleanSessionProperty(
+                        DISTRIBUTED_SORT,
+                        "Sort the rows of ORDER BY queries in parallel and merge the sorted streams on a single node",
+                        featuresConfig.isDistributedSortEnabled(),
+                        false),
                 booleanSessionProperty(
                         PUSH_TABLE_WRITE_THROUGH_UNION,
                         "Parallelize writes when using UNION ALL in queries that write data",
@@ -260,6 +272,16 @@ public final class SystemSessionProperties
                         "Experimental: Use a colocated join when possible",
                         featuresConfig.isColocatedJoinsEnabled(),
                         false),
+                booleanSessionProperty(
+                        GROUPED_EXECUTION,
+                        "Experimental: Execute colocated joins and aggregations on bucketed tables one bucket at a time",
+                        featuresConfig.isGroupedExecutionEnabled(),
+                        false),
+                integerSessionProperty(
+                        CONCURRENT_LIFESPANS_PER_TASK,
+                        "Experimental: Number of buckets a task processes concurrently when using grouped execution",
+                        featuresConfig.getConcurrentLifespansPerTask(),
+                        false),
                 new PropertyMetadata<>(
                         SPILL_ENABLED,
                         "Experimental: Enable spilling",
@@ -334,7 +356,22 @@ public final class SystemSessionProperties
                         FORCE_SINGLE_NODE_OUTPUT,
                         "Force single node output",
                         featuresConfig.isForceSingleNodeOutput(),
-                        true));
+                        true),
+                booleanSessionProperty(
+                        OPTIMIZE_COMMON_SUB_EXPRESSIONS,
+                        "Evaluate subexpressions shared by the filter and projections of an operator once per row",
+                        featuresConfig.isOptimizeCommonSubExpressions(),
+                        false),
+                booleanSessionProperty(
+                        STRAGGLER_MITIGATION_ENABLED,
+                        "Experimental: Stop placing splits on nodes that process splits much slower than the rest of the stage",
+                        queryManagerConfig.isStragglerMitigationEnabled(),
+                        false),
+                doubleSessionProperty(
+                        STRAGGLER_SLOWDOWN_THRESHOLD,
+                        "Experimental: Slowdown relative to the median split throughput of a stage at which a node is considered a straggler",
+                        queryManagerConfig.getStragglerSlowdownThreshold(),
+                        false));
     }
 
     public List<PropertyMetadata<?>> getSessionProperties()
@@ -382,6 +419,11 @@ public final class SystemSessionProperties
         return session.getSystemProperty(REDISTRIBUTE_WRITES, Boolean.class);
     }
 
+    public static boolean isDistributedSortEnabled(Session session)
+    {
+        return session.getSystemProperty(DISTRIBUTED_SORT, Boolean.class);
+    }
+
     public static boolean isPushTableWriteThroughUnion(Session session)
     {
         return session.getSystemProperty(PUSH_TABLE_WRITE_THROUGH_UNION, Boolean.class);
@@ -447,6 +489,18 @@ public final class SystemSessionProperties
         return session.getSystemProperty(COLOCATED_JOIN, Boolean.class);
     }
 
+    public static boolean isGroupedExecutionEnabled(Session session)
+    {
+        return session.getSystemProperty(GROUPED_EXECUTION, Boolean.class);
+    }
+
+    public static int getConcurrentLifespansPerTask(Session session)
+    {
+        Integer concurrentLifespansPerTask = session.getSystemProperty(CONCURRENT_LIFESPANS_PER_TASK, Integer.class);
+        checkArgument(concurrentLifespansPerTask >= 1, "%s must be at least 1", CONCURRENT_LIFESPANS_PER_TASK);
+        return concurrentLifespansPerTask;
+    }
+
     public static int getInitialSplitsPerNode(Session session)
     {
         return session.getSystemProperty(INITIAL_SPLITS_PER_NODE, Integer.class);
@@ -525,4 +579,21 @@ public final class SystemSessionProperties
     {
         return session.getSystemProperty(FORCE_SINGLE_NODE_OUTPUT, Boolean.class);
     }
+
+    public static boolean isOptimizeCommonSubExpressions(Session session)
+    {
+        return session.getSystemProperty(OPTIMIZE_COMMON_SUB_EXPRESSIONS, Boolean.class);
+    }
+
+    public static boolean isStragglerMitigationEnabled(Session session)
+    {
+        return session.getSystemProperty(STRAGGLER_MITIGATION_ENABLED, Boolean.class);
+    }
+
+    public static double getStragglerSlowdownThreshold(Session session)
+    {
+        double threshold = session.getSystemProperty(STRAGGLER_SLOWDOWN_THRESHOLD, Double.class);
+        checkArgument(threshold >= 1.0, "%s must be at least 1.0", STRAGGLER_SLOWDOWN_THRESHOLD);
+        return threshold;
+    }
 }
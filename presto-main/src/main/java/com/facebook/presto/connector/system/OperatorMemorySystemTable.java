@@ -0,0 +1,100 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.connector.system;
+
+import com.facebook.presto.memory.OperatorMemoryInfo;
+import com.facebook.presto.memory.OperatorMemoryTracker;
+import com.facebook.presto.spi.ConnectorSession;
+import com.facebook.presto.spi.ConnectorTableMetadata;
+import com.facebook.presto.spi.InMemoryRecordSet;
+import com.facebook.presto.spi.InMemoryRecordSet.Builder;
+import com.facebook.presto.spi.RecordCursor;
+import com.facebook.presto.spi.SchemaTableName;
+import com.facebook.presto.spi.SystemTable;
+import com.facebook.presto.spi.connector.ConnectorTransactionHandle;
+import com.facebook.presto.spi.predicate.TupleDomain;
+import io.airlift.node.NodeInfo;
+
+import javax.inject.Inject;
+
+import static com.facebook.presto.metadata.MetadataUtil.TableMetadataBuilder.tableMetadataBuilder;
+import static com.facebook.presto.spi.SystemTable.Distribution.ALL_NODES;
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.spi.type.VarcharType.createUnboundedVarcharType;
+import static java.util.Objects.requireNonNull;
+
+public class OperatorMemorySystemTable
+        implements SystemTable
+{
+    public static final SchemaTableName OPERATOR_MEMORY_TABLE_NAME = new SchemaTableName("runtime", "operator_memory");
+
+    public static final ConnectorTableMetadata OPERATOR_MEMORY_TABLE = tableMetadataBuilder(OPERATOR_MEMORY_TABLE_NAME)
+            .column("node_id", createUnboundedVarcharType())
+
+            .column("query_id", createUnboundedVarcharType())
+            .column("stage_id", createUnboundedVarcharType())
+            .column("task_id", createUnboundedVarcharType())
+            .column("pipeline_id", BIGINT)
+            .column("operator_type", createUnboundedVarcharType())
+
+            .column("user_memory_reservation_bytes", BIGINT)
+            .column("system_memory_reservation_bytes", BIGINT)
+            .column("revocable_memory_reservation_bytes", BIGINT)
+            .column("peak_memory_reservation_bytes", BIGINT)
+            .build();
+
+    private final OperatorMemoryTracker operatorMemoryTracker;
+    private final String nodeId;
+
+    @Inject
+    public OperatorMemorySystemTable(OperatorMemoryTracker operatorMemoryTracker, NodeInfo nodeInfo)
+    {
+        this.operatorMemoryTracker = requireNonNull(operatorMemoryTracker, "operatorMemoryTracker is null");
+        this.nodeId = requireNonNull(nodeInfo, "nodeInfo is null").getNodeId();
+    }
+
+    @Override
+    public Distribution getDistribution()
+    {
+        return ALL_NODES;
+    }
+
+    @Override
+    public ConnectorTableMetadata getTableMetadata()
+    {
+        return OPERATOR_MEMORY_TABLE;
+    }
+
+    @Override
+    public RecordCursor cursor(ConnectorTransactionHandle transactionHandle, ConnectorSession session, TupleDomain<Integer> constraint)
+    {
+        Builder table = InMemoryRecordSet.builder(OPERATOR_MEMORY_TABLE);
+        for (OperatorMemoryInfo info : operatorMemoryTracker.getOperatorMemoryInfos()) {
+            table.addRow(
+                    nodeId,
+
+                    info.getTaskId().getQueryId().toString(),
+                    info.getTaskId().getStageId().toString(),
+                    info.getTaskId().toString(),
+                    (long) info.getPipelineId(),
+                    info.getOperatorType(),
+
+                    info.getUserMemoryReservation(),
+                    info.getSystemMemoryReservation(),
+                    info.getRevocableMemoryReservation(),
+                    info.getPeakMemoryReservation());
+        }
+        return table.build().cursor();
+    }
+}
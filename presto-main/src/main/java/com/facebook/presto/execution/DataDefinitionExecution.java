@@ -216,6 +216,12 @@ public class DataDefinitionExecution<T extends Statement>
         return stateMachine.updateQueryInfo(Optional.empty());
     }
 
+    @Override
+    public QueryInfo getQueryInfoWithoutDetails()
+    {
+        return getQueryInfo();
+    }
+
     @Override
     public Plan getQueryPlan()
     {
@@ -65,6 +65,12 @@ public class FailedQueryExecution
         return queryInfo;
     }
 
+    @Override
+    public QueryInfo getQueryInfoWithoutDetails()
+    {
+        return queryInfo;
+    }
+
     @Override
     public QueryState getState()
     {
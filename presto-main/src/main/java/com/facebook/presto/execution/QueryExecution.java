@@ -42,6 +42,13 @@ public interface QueryExecution
 
     QueryInfo getQueryInfo();
 
+    /**
+     * Returns the query info without stage and task details. Unlike {@link #getQueryInfo()},
+     * this does not request task info from the workers, so periodic checks that only need the
+     * query state and timing should use it.
+     */
+    QueryInfo getQueryInfoWithoutDetails();
+
     QueryState getState();
 
     ListenableFuture<QueryState> getStateChange(QueryState currentState);
@@ -17,15 +17,19 @@ import io.airlift.configuration.Config;
 import io.airlift.configuration.ConfigDescription;
 import io.airlift.configuration.DefunctConfig;
 import io.airlift.configuration.LegacyConfig;
+import io.airlift.units.DataSize;
 import io.airlift.units.Duration;
 import io.airlift.units.MinDuration;
 
+import javax.validation.constraints.DecimalMin;
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 
 import java.util.concurrent.TimeUnit;
 
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+
 @DefunctConfig({
         "query.max-pending-splits-per-node",
         "experimental.big-query-initial-hash-partitions",
@@ -44,6 +48,7 @@ public class QueryManagerConfig
     private Duration minQueryExpireAge = new Duration(15, TimeUnit.MINUTES);
     private int maxQueryHistory = 100;
     private int maxQueryLength = 1_000_000;
+    private DataSize statementCacheMaxSize = new DataSize(16, MEGABYTE);
     private Duration clientTimeout = new Duration(5, TimeUnit.MINUTES);
 
     private int queryManagerExecutorPoolSize = 5;
@@ -60,6 +65,9 @@ public class QueryManagerConfig
     private int initializationRequiredWorkers = 1;
     private Duration initializationTimeout = new Duration(5, TimeUnit.MINUTES);
 
+    private boolean stragglerMitigationEnabled;
+    private double stragglerSlowdownThreshold = 3.0;
+
     @Deprecated
     public String getQueueConfigFile()
     {
@@ -184,6 +192,20 @@ public class QueryManagerConfig
         return this;
     }
 
+    @NotNull
+    public DataSize getStatementCacheMaxSize()
+    {
+        return statementCacheMaxSize;
+    }
+
+    @Config("query.statement-cache-max-size")
+    @ConfigDescription("Maximum total length of the query texts whose parsed statements are cached")
+    public QueryManagerConfig setStatementCacheMaxSize(DataSize statementCacheMaxSize)
+    {
+        this.statementCacheMaxSize = statementCacheMaxSize;
+        return this;
+    }
+
     @MinDuration("5s")
     @NotNull
     public Duration getClientTimeout()
@@ -332,4 +354,31 @@ public class QueryManagerConfig
         this.initializationTimeout = initializationTimeout;
         return this;
     }
+
+    public boolean isStragglerMitigationEnabled()
+    {
+        return stragglerMitigationEnabled;
+    }
+
+    @Config("query.straggler-mitigation-enabled")
+    @ConfigDescription("Stop placing new splits of source stages on nodes that process splits much slower than the rest of the stage")
+    public QueryManagerConfig setStragglerMitigationEnabled(boolean stragglerMitigationEnabled)
+    {
+        this.stragglerMitigationEnabled = stragglerMitigationEnabled;
+        return this;
+    }
+
+    @DecimalMin("1.0")
+    public double getStragglerSlowdownThreshold()
+    {
+        return stragglerSlowdownThreshold;
+    }
+
+    @Config("query.straggler-slowdown-threshold")
+    @ConfigDescription("How many times slower than the median split throughput of a stage a node must be to be considered a straggler")
+    public QueryManagerConfig setStragglerSlowdownThreshold(double stragglerSlowdownThreshold)
+    {
+        this.stragglerSlowdownThreshold = stragglerSlowdownThreshold;
+        return this;
+    }
 }
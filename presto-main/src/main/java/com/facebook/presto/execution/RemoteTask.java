@@ -26,6 +26,10 @@ public interface RemoteTask
 
     String getNodeId();
 
+    /**
+     * Returns the task info, refreshing it from the worker if it is stale. Checks that run
+     * periodically should use {@link #getTaskStatus()} instead.
+     */
     TaskInfo getTaskInfo();
 
     TaskStatus getTaskStatus();
@@ -560,6 +560,12 @@ public final class SqlQueryExecution
         }
     }
 
+    @Override
+    public QueryInfo getQueryInfoWithoutDetails()
+    {
+        return stateMachine.getFinalQueryInfo().orElseGet(stateMachine::getQueryInfoWithoutDetails);
+    }
+
     @Override
     public QueryState getState()
     {
@@ -31,6 +31,7 @@ import com.facebook.presto.spi.PrestoException;
 import com.facebook.presto.spi.QueryId;
 import com.facebook.presto.spi.resourceGroups.ResourceGroupId;
 import com.facebook.presto.sql.analyzer.SemanticException;
+import com.facebook.presto.sql.gen.CacheStatsMBean;
 import com.facebook.presto.sql.parser.ParsingException;
 import com.facebook.presto.sql.parser.SqlParser;
 import com.facebook.presto.sql.planner.Plan;
@@ -98,6 +99,7 @@ public class SqlQueryManager
     private static final Logger log = Logger.get(SqlQueryManager.class);
 
     private final SqlParser sqlParser;
+    private final StatementCache statementCache;
 
     private final ExecutorService queryExecutor;
     private final ThreadPoolExecutorMBean queryExecutorMBean;
@@ -155,6 +157,8 @@ public class SqlQueryManager
             Metadata metadata)
     {
         this.sqlParser = requireNonNull(sqlParser, "sqlParser is null");
+        requireNonNull(queryManagerConfig, "queryManagerConfig is null");
+        this.statementCache = new StatementCache(sqlParser, queryManagerConfig.getStatementCacheMaxSize());
 
         this.executionFactories = requireNonNull(executionFactories, "executionFactories is null");
 
@@ -162,7 +166,6 @@ public class SqlQueryManager
         this.queryExecutorMBean = new ThreadPoolExecutorMBean((ThreadPoolExecutor) queryExecutor);
 
         requireNonNull(nodeSchedulerConfig, "nodeSchedulerConfig is null");
-        requireNonNull(queryManagerConfig, "queryManagerConfig is null");
         this.queueManager = requireNonNull(queueManager, "queueManager is null");
         this.memoryManager = requireNonNull(memoryManager, "memoryManager is null");
 
@@ -393,8 +396,11 @@ public class SqlQueryManager
                 throw new PrestoException(QUERY_TEXT_TOO_LARGE, format("Query text length (%s) exceeds the maximum length (%s)", queryLength, maxQueryLength));
             }
 
-            Statement wrappedStatement = sqlParser.createStatement(query);
-            statement = unwrapExecuteStatement(wrappedStatement, sqlParser, session);
+            Statement wrappedStatement = statementCache.getStatement(query);
+            statement = wrappedStatement;
+            if (wrappedStatement instanceof Execute) {
+                statement = statementCache.getStatement(session.getPreparedStatementFromExecute((Execute) wrappedStatement));
+            }
             List<Expression> parameters = wrappedStatement instanceof Execute ? ((Execute) wrappedStatement).getParameters() : emptyList();
             validateParameters(statement, parameters);
             QueryExecutionFactory<?> queryExecutionFactory = executionFactories.get(statement.getClass());
@@ -526,6 +532,13 @@ public class SqlQueryManager
         return stats;
     }
 
+    @Managed(description = "Parsed statement cache")
+    @Nested
+    public CacheStatsMBean getStatementCache()
+    {
+        return statementCache.getStats();
+    }
+
     @Managed(description = "Query scheduler executor")
     @Nested
     public ThreadPoolExecutorMBean getExecutor()
@@ -561,8 +574,9 @@ public class SqlQueryManager
             }
             Duration queryMaxRunTime = SystemSessionProperties.getQueryMaxRunTime(query.getSession());
             Duration queryMaxExecutionTime = SystemSessionProperties.getQueryMaxExecutionTime(query.getSession());
-            DateTime executionStartTime = query.getQueryInfo().getQueryStats().getExecutionStartTime();
-            DateTime createTime = query.getQueryInfo().getQueryStats().getCreateTime();
+            QueryStats queryStats = query.getQueryInfoWithoutDetails().getQueryStats();
+            DateTime executionStartTime = queryStats.getExecutionStartTime();
+            DateTime createTime = queryStats.getCreateTime();
             if (executionStartTime != null && executionStartTime.plus(queryMaxExecutionTime.toMillis()).isBeforeNow()) {
                 query.fail(new PrestoException(EXCEEDED_TIME_LIMIT, "Query exceeded the maximum execution time limit of " + queryMaxExecutionTime));
             }
@@ -622,7 +636,7 @@ public class SqlQueryManager
     public void failAbandonedQueries()
     {
         for (QueryExecution queryExecution : queries.values()) {
-            QueryInfo queryInfo = queryExecution.getQueryInfo();
+            QueryInfo queryInfo = queryExecution.getQueryInfoWithoutDetails();
             if (queryInfo.getState().isDone()) {
                 continue;
             }
@@ -202,7 +202,7 @@ public final class SqlStageExecution
     public synchronized Duration getTotalCpuTime()
     {
         long millis = getAllTasks().stream()
-                .mapToLong(task -> task.getTaskInfo().getStats().getTotalCpuTime().toMillis())
+                .mapToLong(task -> task.getTaskStatus().getTotalCpuTime().toMillis())
                 .sum();
         return new Duration(millis, TimeUnit.MILLISECONDS);
     }
@@ -369,6 +369,11 @@ public final class SqlStageExecution
         stateMachine.recordGetSplitTime(start);
     }
 
+    public void recordDeferredStragglerSplits(int splits)
+    {
+        stateMachine.recordDeferredStragglerSplits(splits);
+    }
+
     private static Split createRemoteSplitFor(TaskId taskId, URI taskLocation)
     {
         // Fetch the results from the buffer assigned to the task based on id
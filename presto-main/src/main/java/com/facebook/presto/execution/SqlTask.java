@@ -21,9 +21,11 @@ import com.facebook.presto.execution.StateMachine.StateChangeListener;
 import com.facebook.presto.execution.buffer.BufferResult;
 import com.facebook.presto.execution.buffer.LazyOutputBuffer;
 import com.facebook.presto.execution.buffer.OutputBuffer;
+import com.facebook.presto.execution.buffer.OutputBufferSpillerFactory;
 import com.facebook.presto.memory.QueryContext;
 import com.facebook.presto.operator.PipelineContext;
 import com.facebook.presto.operator.PipelineStatus;
+import com.facebook.presto.operator.SpillContext;
 import com.facebook.presto.operator.TaskContext;
 import com.facebook.presto.operator.TaskStats;
 import com.facebook.presto.sql.planner.PlanFragment;
@@ -36,6 +38,7 @@ import com.google.common.util.concurrent.ListenableFuture;
 import io.airlift.concurrent.SetThreadName;
 import io.airlift.log.Logger;
 import io.airlift.units.DataSize;
+import io.airlift.units.Duration;
 import org.joda.time.DateTime;
 
 import javax.annotation.Nullable;
@@ -56,6 +59,8 @@ import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.util.concurrent.Futures.immediateFuture;
 import static io.airlift.units.DataSize.Unit.BYTE;
 import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
 public class SqlTask
 {
@@ -85,7 +90,8 @@ public class SqlTask
             SqlTaskExecutionFactory sqlTaskExecutionFactory,
             ExecutorService taskNotificationExecutor,
             final Function<SqlTask, ?> onDone,
-            DataSize maxBufferSize)
+            DataSize maxBufferSize,
+            Optional<OutputBufferSpillerFactory> outputBufferSpillerFactory)
     {
         this.taskId = requireNonNull(taskId, "taskId is null");
         this.taskInstanceId = UUID.randomUUID().toString();
@@ -96,8 +102,15 @@ public class SqlTask
         requireNonNull(taskNotificationExecutor, "taskNotificationExecutor is null");
         requireNonNull(onDone, "onDone is null");
         requireNonNull(maxBufferSize, "maxBufferSize is null");
+        requireNonNull(outputBufferSpillerFactory, "outputBufferSpillerFactory is null");
 
-        outputBuffer = new LazyOutputBuffer(taskId, taskInstanceId, taskNotificationExecutor, maxBufferSize, new UpdateSystemMemory(queryContext, taskId));
+        outputBuffer = new LazyOutputBuffer(
+                taskId,
+                taskInstanceId,
+                taskNotificationExecutor,
+                maxBufferSize,
+                new UpdateSystemMemory(queryContext, taskId),
+                outputBufferSpillerFactory.map(factory -> factory.create(new UpdateSpilledBytes(queryContext))));
         taskStateMachine = new TaskStateMachine(taskId, taskNotificationExecutor);
         taskStateMachine.addStateChangeListener(new StateChangeListener<TaskState>()
         {
@@ -169,6 +182,28 @@ public class SqlTask
         }
     }
 
+    private static final class UpdateSpilledBytes
+            implements SpillContext
+    {
+        private final QueryContext queryContext;
+
+        public UpdateSpilledBytes(QueryContext queryContext)
+        {
+            this.queryContext = requireNonNull(queryContext, "queryContext is null");
+        }
+
+        @Override
+        public void updateBytes(long bytes)
+        {
+            if (bytes >= 0) {
+                queryContext.reserveSpill(bytes);
+            }
+            else {
+                queryContext.freeSpill(-bytes);
+            }
+        }
+    }
+
     public SqlTaskIoStats getIoStats()
     {
         return taskHolderReference.get().getIoStats();
@@ -218,20 +253,25 @@ public class SqlTask
         int queuedPartitionedDrivers = 0;
         int runningPartitionedDrivers = 0;
         DataSize memoryReservation = new DataSize(0, BYTE);
+        Duration totalCpuTime = new Duration(0, MILLISECONDS);
         if (taskHolder.getFinalTaskInfo() != null) {
             TaskStats taskStats = taskHolder.getFinalTaskInfo().getStats();
             queuedPartitionedDrivers = taskStats.getQueuedPartitionedDrivers();
             runningPartitionedDrivers = taskStats.getRunningPartitionedDrivers();
             memoryReservation = taskStats.getMemoryReservation();
+            totalCpuTime = taskStats.getTotalCpuTime();
         }
         else if (taskHolder.getTaskExecution() != null) {
             TaskContext taskContext = taskHolder.getTaskExecution().getTaskContext();
+            long totalCpuNanos = 0;
             for (PipelineContext pipelineContext : taskContext.getPipelineContexts()) {
                 PipelineStatus pipelineStatus = pipelineContext.getPipelineStatus();
                 queuedPartitionedDrivers += pipelineStatus.getQueuedPartitionedDrivers();
                 runningPartitionedDrivers += pipelineStatus.getRunningPartitionedDrivers();
+                totalCpuNanos += pipelineContext.getTotalCpuNanos();
             }
             memoryReservation = taskContext.getMemoryReservation();
+            totalCpuTime = new Duration(totalCpuNanos, NANOSECONDS).convertToMostSuccinctTimeUnit();
         }
 
         return new TaskStatus(taskStateMachine.getTaskId(),
@@ -243,7 +283,8 @@ public class SqlTask
                 failures,
                 queuedPartitionedDrivers,
                 runningPartitionedDrivers,
-                memoryReservation);
+                memoryReservation,
+                totalCpuTime);
     }
 
     private TaskStats getTaskStats(TaskHolder taskHolder)
@@ -14,6 +14,7 @@
 package com.facebook.presto.execution;
 
 import com.facebook.presto.ScheduledSplit;
+import com.facebook.presto.Session;
 import com.facebook.presto.TaskSource;
 import com.facebook.presto.event.query.QueryMonitor;
 import com.facebook.presto.execution.StateMachine.StateChangeListener;
@@ -21,6 +22,7 @@ import com.facebook.presto.execution.buffer.BufferState;
 import com.facebook.presto.execution.buffer.OutputBuffer;
 import com.facebook.presto.execution.executor.TaskExecutor;
 import com.facebook.presto.execution.executor.TaskHandle;
+import com.facebook.presto.metadata.Split;
 import com.facebook.presto.operator.Driver;
 import com.facebook.presto.operator.DriverContext;
 import com.facebook.presto.operator.DriverFactory;
@@ -31,10 +33,13 @@ import com.facebook.presto.sql.planner.LocalExecutionPlanner;
 import com.facebook.presto.sql.planner.LocalExecutionPlanner.LocalExecutionPlan;
 import com.facebook.presto.sql.planner.PlanFragment;
 import com.facebook.presto.sql.planner.plan.PlanNodeId;
+import com.facebook.presto.sql.planner.plan.ValuesNode;
 import com.google.common.base.Throwables;
+import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ListMultimap;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
@@ -48,6 +53,7 @@ import java.lang.ref.WeakReference;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -55,16 +61,22 @@ import java.util.Optional;
 import java.util.OptionalInt;
 import java.util.Queue;
 import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToIntFunction;
 import java.util.stream.Collectors;
 
+import static com.facebook.presto.SystemSessionProperties.getConcurrentLifespansPerTask;
 import static com.facebook.presto.SystemSessionProperties.getInitialSplitsPerNode;
 import static com.facebook.presto.SystemSessionProperties.getSplitConcurrencyAdjustmentInterval;
+import static com.facebook.presto.SystemSessionProperties.isGroupedExecutionEnabled;
+import static com.facebook.presto.sql.planner.optimizations.PlanNodeSearcher.searchFrom;
 import static com.google.common.base.MoreObjects.toStringHelper;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
@@ -107,6 +119,12 @@ public class SqlTaskExecution
 
     private final List<DriverSplitRunnerFactory> unpartitionedDriverFactories;
 
+    // driver factories that may still create drivers
+    private final List<DriverFactory> driverFactories = new CopyOnWriteArrayList<>();
+
+    @Nullable
+    private final GroupedExecution groupedExecution;
+
     public static SqlTaskExecution createSqlTaskExecution(
             TaskStateMachine taskStateMachine,
             TaskContext taskContext,
@@ -158,19 +176,32 @@ public class SqlTaskExecution
         try (SetThreadName ignored = new SetThreadName("Task-%s", taskId)) {
             List<DriverFactory> driverFactories;
             try {
-                LocalExecutionPlan localExecutionPlan = planner.plan(
-                        taskContext,
-                        fragment.getRoot(),
-                        fragment.getSymbols(),
-                        fragment.getPartitioningScheme(),
-                        outputBuffer);
-                driverFactories = localExecutionPlan.getDriverFactories();
+                if (isGroupedExecution(taskContext.getSession(), fragment)) {
+                    // the fragment is planned separately for every bucket
+                    driverFactories = ImmutableList.of();
+                    groupedExecution = new GroupedExecution(
+                            planner,
+                            fragment,
+                            planner.getSplitBucketFunction(taskContext.getSession(), fragment.getPartitioning()),
+                            getConcurrentLifespansPerTask(taskContext.getSession()));
+                }
+                else {
+                    LocalExecutionPlan localExecutionPlan = planner.plan(
+                            taskContext,
+                            fragment.getRoot(),
+                            fragment.getSymbols(),
+                            fragment.getPartitioningScheme(),
+                            outputBuffer);
+                    driverFactories = localExecutionPlan.getDriverFactories();
+                    groupedExecution = null;
+                }
             }
             catch (Throwable e) {
                 // planning failed
                 taskStateMachine.failed(e);
                 throw Throwables.propagate(e);
             }
+            this.driverFactories.addAll(driverFactories);
 
             // index driver factories
             ImmutableMap.Builder<PlanNodeId, DriverSplitRunnerFactory> partitionedDriverFactories = ImmutableMap.builder();
@@ -188,7 +219,7 @@ public class SqlTaskExecution
             this.unpartitionedDriverFactories = unpartitionedDriverFactories.build();
             this.sourceStartOrder = new ArrayDeque<>(fragment.getPartitionedSources());
 
-            checkArgument(this.partitionedDriverFactories.keySet().equals(ImmutableSet.copyOf(fragment.getPartitionedSources())),
+            checkArgument(groupedExecution != null || this.partitionedDriverFactories.keySet().equals(ImmutableSet.copyOf(fragment.getPartitionedSources())),
                     "Fragment us partitioned, but all partitioned drivers were not found");
 
             // don't register the task if it is already completed (most likely failed during planning above)
@@ -197,7 +228,7 @@ public class SqlTaskExecution
                 taskStateMachine.addStateChangeListener(new RemoveTaskHandleWhenDone(taskExecutor, taskHandle));
                 taskStateMachine.addStateChangeListener(state -> {
                     if (state.isDone()) {
-                        for (DriverFactory factory : driverFactories) {
+                        for (DriverFactory factory : this.driverFactories) {
                             factory.noMoreDrivers();
                         }
                     }
@@ -290,6 +321,9 @@ public class SqlTaskExecution
             if (partitionedDriverFactories.containsKey(source.getPlanNodeId())) {
                 schedulePartitionedSource(source);
             }
+            else if (groupedExecution != null && groupedExecution.isPartitionedSource(source.getPlanNodeId())) {
+                groupedExecution.addSplits(source);
+            }
             else {
                 scheduleUnpartitionedSource(source, updatedUnpartitionedSources);
             }
@@ -360,6 +394,11 @@ public class SqlTaskExecution
     }
 
     private synchronized void enqueueDrivers(boolean forceRunSplit, List<DriverSplitRunner> runners)
+    {
+        enqueueDrivers(forceRunSplit, runners, () -> {});
+    }
+
+    private synchronized void enqueueDrivers(boolean forceRunSplit, List<DriverSplitRunner> runners, Runnable driverFinishedListener)
     {
         // schedule driver to be executed
         List<ListenableFuture<?>> finishedFutures = taskExecutor.enqueueSplits(taskHandle, forceRunSplit, runners);
@@ -380,6 +419,7 @@ public class SqlTaskExecution
                     try (SetThreadName ignored = new SetThreadName("Task-%s", taskId)) {
                         // record driver is finished
                         remainingDrivers.decrementAndGet();
+                        driverFinishedListener.run();
 
                         checkTaskCompletion();
 
@@ -432,6 +472,9 @@ public class SqlTaskExecution
                 noMoreSplits.add(taskSource.getPlanNodeId());
             }
         }
+        if (groupedExecution != null) {
+            noMoreSplits.addAll(groupedExecution.getNoMoreSplits());
+        }
         return noMoreSplits.build();
     }
 
@@ -445,6 +488,10 @@ public class SqlTaskExecution
         if (!partitionedDriverFactories.values().stream().allMatch(DriverSplitRunnerFactory::isNoMoreSplits)) {
             return;
         }
+        // are there buckets which have not finished?
+        if (groupedExecution != null && !groupedExecution.isFinished()) {
+            return;
+        }
         // do we still have running tasks?
         if (remainingDrivers.get() != 0) {
             return;
@@ -477,6 +524,17 @@ public class SqlTaskExecution
         }
     }
 
+    private static boolean isGroupedExecution(Session session, PlanFragment fragment)
+    {
+        // Every pipeline of the fragment is instantiated once per bucket, so all the data must come
+        // from bucketed tables. Pages from remote sources, or inline values, would be processed once
+        // for every bucket instead of once for the task.
+        return isGroupedExecutionEnabled(session) &&
+                fragment.getPartitioning().getConnectorId().isPresent() &&
+                fragment.getRemoteSourceNodes().isEmpty() &&
+                !searchFrom(fragment.getRoot()).where(ValuesNode.class::isInstance).matches();
+    }
+
     @Override
     public String toString()
     {
@@ -496,9 +554,14 @@ public class SqlTaskExecution
         private final AtomicBoolean noMoreSplits = new AtomicBoolean();
 
         private DriverSplitRunnerFactory(DriverFactory driverFactory)
+        {
+            this(driverFactory, taskContext.addPipelineContext(driverFactory.getPipelineId(), driverFactory.isInputDriver(), driverFactory.isOutputDriver()));
+        }
+
+        private DriverSplitRunnerFactory(DriverFactory driverFactory, PipelineContext pipelineContext)
         {
             this.driverFactory = driverFactory;
-            this.pipelineContext = taskContext.addPipelineContext(driverFactory.getPipelineId(), driverFactory.isInputDriver(), driverFactory.isOutputDriver());
+            this.pipelineContext = pipelineContext;
         }
 
         private DriverSplitRunner createDriverRunner(@Nullable ScheduledSplit partitionedSplit, boolean partitioned)
@@ -558,6 +621,156 @@ public class SqlTaskExecution
         }
     }
 
+    /**
+     * Executes a fragment over bucketed tables one bucket at a time, instead of running the
+     * splits of all buckets at once. Every bucket (lifespan) gets its own instance of the local
+     * execution plan, so the hash tables of a colocated join or the groups of an aggregation only
+     * hold the rows of the buckets that are currently running, and are released when the bucket
+     * finishes. A bucket is started once the splits of all partitioned sources are known.
+     */
+    private class GroupedExecution
+    {
+        private final LocalExecutionPlanner planner;
+        private final PlanFragment fragment;
+        private final ToIntFunction<Split> splitBucketFunction;
+        private final int concurrentLifespans;
+
+        // the pipelines of all buckets share the pipeline contexts, so stats are reported per pipeline
+        @GuardedBy("SqlTaskExecution.this")
+        private final Map<Integer, PipelineContext> pipelineContexts = new HashMap<>();
+        @GuardedBy("SqlTaskExecution.this")
+        private final SortedMap<Integer, ListMultimap<PlanNodeId, ScheduledSplit>> pendingLifespans = new TreeMap<>();
+        @GuardedBy("SqlTaskExecution.this")
+        private final Set<PlanNodeId> noMoreSplits = new HashSet<>();
+        @GuardedBy("SqlTaskExecution.this")
+        private int runningLifespans;
+
+        private GroupedExecution(LocalExecutionPlanner planner, PlanFragment fragment, ToIntFunction<Split> splitBucketFunction, int concurrentLifespans)
+        {
+            this.planner = requireNonNull(planner, "planner is null");
+            this.fragment = requireNonNull(fragment, "fragment is null");
+            this.splitBucketFunction = requireNonNull(splitBucketFunction, "splitBucketFunction is null");
+            checkArgument(concurrentLifespans > 0, "concurrentLifespans must be positive");
+            this.concurrentLifespans = concurrentLifespans;
+        }
+
+        private boolean isPartitionedSource(PlanNodeId sourceId)
+        {
+            return fragment.isPartitionedSources(sourceId);
+        }
+
+        private void addSplits(TaskSource source)
+        {
+            checkState(Thread.holdsLock(SqlTaskExecution.this), "Lock on the task must be held");
+            for (ScheduledSplit split : source.getSplits()) {
+                int bucket = splitBucketFunction.applyAsInt(split.getSplit());
+                pendingLifespans.computeIfAbsent(bucket, ignored -> ArrayListMultimap.create())
+                        .put(source.getPlanNodeId(), split);
+            }
+            if (source.isNoMoreSplits()) {
+                noMoreSplits.add(source.getPlanNodeId());
+            }
+            startLifespans();
+        }
+
+        private Set<PlanNodeId> getNoMoreSplits()
+        {
+            checkState(Thread.holdsLock(SqlTaskExecution.this), "Lock on the task must be held");
+            return ImmutableSet.copyOf(noMoreSplits);
+        }
+
+        private boolean isFinished()
+        {
+            checkState(Thread.holdsLock(SqlTaskExecution.this), "Lock on the task must be held");
+            return noMoreSplits.containsAll(fragment.getPartitionedSources()) && pendingLifespans.isEmpty() && runningLifespans == 0;
+        }
+
+        private void startLifespans()
+        {
+            // the build side of a join must see all splits of the bucket, so wait for the complete split assignment
+            if (!noMoreSplits.containsAll(fragment.getPartitionedSources())) {
+                return;
+            }
+            while (runningLifespans < concurrentLifespans && !pendingLifespans.isEmpty() && !taskStateMachine.getState().isDone()) {
+                startLifespan(pendingLifespans.remove(pendingLifespans.firstKey()));
+            }
+        }
+
+        private void startLifespan(ListMultimap<PlanNodeId, ScheduledSplit> splits)
+        {
+            List<DriverFactory> lifespanDriverFactories;
+            try {
+                lifespanDriverFactories = planner.plan(
+                        taskContext,
+                        fragment.getRoot(),
+                        fragment.getSymbols(),
+                        fragment.getPartitioningScheme(),
+                        outputBuffer)
+                        .getDriverFactories();
+            }
+            catch (Throwable e) {
+                taskStateMachine.failed(e);
+                return;
+            }
+            driverFactories.addAll(lifespanDriverFactories);
+
+            List<DriverSplitRunner> unpartitionedRunners = new ArrayList<>();
+            Map<PlanNodeId, DriverSplitRunnerFactory> partitionedRunnerFactories = new HashMap<>();
+            for (DriverFactory driverFactory : lifespanDriverFactories) {
+                PipelineContext pipelineContext = pipelineContexts.computeIfAbsent(
+                        driverFactory.getPipelineId(),
+                        pipelineId -> taskContext.addPipelineContext(pipelineId, driverFactory.isInputDriver(), driverFactory.isOutputDriver()));
+                DriverSplitRunnerFactory runnerFactory = new DriverSplitRunnerFactory(driverFactory, pipelineContext);
+                Optional<PlanNodeId> sourceId = driverFactory.getSourceId();
+                if (sourceId.isPresent() && isPartitionedSource(sourceId.get())) {
+                    partitionedRunnerFactories.put(sourceId.get(), runnerFactory);
+                }
+                else {
+                    for (int i = 0; i < runnerFactory.getDriverInstances().orElse(1); i++) {
+                        unpartitionedRunners.add(runnerFactory.createDriverRunner(null, false));
+                    }
+                    runnerFactory.setNoMoreSplits();
+                }
+            }
+
+            // enqueue the drivers in scheduling order, so the build side of a join gets ahead of the probe side
+            List<DriverSplitRunner> partitionedRunners = new ArrayList<>();
+            for (PlanNodeId sourceId : fragment.getPartitionedSources()) {
+                DriverSplitRunnerFactory runnerFactory = partitionedRunnerFactories.get(sourceId);
+                checkState(runnerFactory != null, "No driver factory for partitioned source %s", sourceId);
+                for (ScheduledSplit split : splits.get(sourceId)) {
+                    partitionedRunners.add(runnerFactory.createDriverRunner(split, true));
+                }
+                runnerFactory.setNoMoreSplits();
+            }
+
+            runningLifespans++;
+            AtomicInteger remainingLifespanDrivers = new AtomicInteger(unpartitionedRunners.size() + partitionedRunners.size());
+            if (remainingLifespanDrivers.get() == 0) {
+                lifespanFinished(lifespanDriverFactories);
+                return;
+            }
+            Runnable driverFinishedListener = () -> {
+                if (remainingLifespanDrivers.decrementAndGet() == 0) {
+                    synchronized (SqlTaskExecution.this) {
+                        lifespanFinished(lifespanDriverFactories);
+                    }
+                }
+            };
+            enqueueDrivers(true, unpartitionedRunners, driverFinishedListener);
+            enqueueDrivers(false, partitionedRunners, driverFinishedListener);
+        }
+
+        private void lifespanFinished(List<DriverFactory> lifespanDriverFactories)
+        {
+            checkState(Thread.holdsLock(SqlTaskExecution.this), "Lock on the task must be held");
+            runningLifespans--;
+            // release the operator factories, and the join hash tables they hold, of the finished bucket
+            driverFactories.removeAll(lifespanDriverFactories);
+            startLifespans();
+        }
+    }
+
     private static class DriverSplitRunner
             implements SplitRunner
     {
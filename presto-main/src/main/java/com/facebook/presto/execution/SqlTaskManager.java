@@ -20,16 +20,19 @@ import com.facebook.presto.TaskSource;
 import com.facebook.presto.event.query.QueryMonitor;
 import com.facebook.presto.execution.StateMachine.StateChangeListener;
 import com.facebook.presto.execution.buffer.BufferResult;
+import com.facebook.presto.execution.buffer.OutputBufferSpillerFactory;
 import com.facebook.presto.execution.executor.TaskExecutor;
 import com.facebook.presto.memory.LocalMemoryManager;
 import com.facebook.presto.memory.MemoryPoolAssignment;
 import com.facebook.presto.memory.MemoryPoolAssignmentsRequest;
 import com.facebook.presto.memory.NodeMemoryConfig;
+import com.facebook.presto.memory.OperatorMemoryTracker;
 import com.facebook.presto.memory.QueryContext;
 import com.facebook.presto.spi.PrestoException;
 import com.facebook.presto.spi.QueryId;
 import com.facebook.presto.spiller.LocalSpillManager;
 import com.facebook.presto.spiller.NodeSpillConfig;
+import com.facebook.presto.sql.analyzer.FeaturesConfig;
 import com.facebook.presto.sql.planner.LocalExecutionPlanner;
 import com.facebook.presto.sql.planner.PlanFragment;
 import com.google.common.base.Preconditions;
@@ -88,6 +91,7 @@ public class SqlTaskManager
     private final Duration clientTimeout;
 
     private final LocalMemoryManager localMemoryManager;
+    private final OperatorMemoryTracker operatorMemoryTracker;
     private final LoadingCache<QueryId, QueryContext> queryContexts;
     private final LoadingCache<TaskId, SqlTask> tasks;
 
@@ -107,11 +111,13 @@ public class SqlTaskManager
             QueryMonitor queryMonitor,
             NodeInfo nodeInfo,
             LocalMemoryManager localMemoryManager,
+            OperatorMemoryTracker operatorMemoryTracker,
             TaskManagementExecutor taskManagementExecutor,
             TaskManagerConfig config,
             NodeMemoryConfig nodeMemoryConfig,
             LocalSpillManager localSpillManager,
-            NodeSpillConfig nodeSpillConfig)
+            NodeSpillConfig nodeSpillConfig,
+            FeaturesConfig featuresConfig)
     {
         requireNonNull(nodeInfo, "nodeInfo is null");
         requireNonNull(config, "config is null");
@@ -119,6 +125,10 @@ public class SqlTaskManager
         clientTimeout = config.getClientTimeout();
 
         DataSize maxBufferSize = config.getSinkMaxBufferSize();
+        requireNonNull(featuresConfig, "featuresConfig is null");
+        Optional<OutputBufferSpillerFactory> outputBufferSpillerFactory = config.isSinkSpillEnabled()
+                ? Optional.of(new OutputBufferSpillerFactory(featuresConfig.getSpillerSpillPaths(), featuresConfig.getSpillMaxUsedSpaceThreshold()))
+                : Optional.empty();
 
         taskNotificationExecutor = newFixedThreadPool(config.getTaskNotificationThreads(), threadsNamed("task-notification-%s"));
         taskNotificationExecutorMBean = new ThreadPoolExecutorMBean((ThreadPoolExecutor) taskNotificationExecutor);
@@ -129,6 +139,7 @@ public class SqlTaskManager
         SqlTaskExecutionFactory sqlTaskExecutionFactory = new SqlTaskExecutionFactory(taskNotificationExecutor, taskExecutor, planner, queryMonitor, config);
 
         this.localMemoryManager = requireNonNull(localMemoryManager, "localMemoryManager is null");
+        this.operatorMemoryTracker = requireNonNull(operatorMemoryTracker, "operatorMemoryTracker is null");
         DataSize maxQueryMemoryPerNode = nodeMemoryConfig.getMaxQueryMemoryPerNode();
 
         DataSize maxQuerySpillPerNode = nodeSpillConfig.getQueryMaxSpillPerNode();
@@ -142,7 +153,8 @@ public class SqlTaskManager
                         taskNotificationExecutor,
                         driverYieldExecutor,
                         maxQuerySpillPerNode,
-                        localSpillManager.getSpillSpaceTracker())));
+                        localSpillManager.getSpillSpaceTracker(),
+                        operatorMemoryTracker)));
 
         tasks = CacheBuilder.newBuilder().build(CacheLoader.from(
                 taskId -> new SqlTask(
@@ -156,7 +168,8 @@ public class SqlTaskManager
                             finishedTaskStats.merge(sqlTask.getIoStats());
                             return null;
                         },
-                        maxBufferSize)));
+                        maxBufferSize,
+                        outputBufferSpillerFactory)));
     }
 
     @Override
@@ -201,6 +214,12 @@ public class SqlTaskManager
             catch (Throwable e) {
                 log.warn(e, "Error updating stats");
             }
+            try {
+                operatorMemoryTracker.sample();
+            }
+            catch (Throwable e) {
+                log.warn(e, "Error sampling operator memory");
+            }
         }, 0, 1, TimeUnit.SECONDS);
     }
 
@@ -366,6 +385,7 @@ public class SqlTaskManager
                 DateTime endTime = taskInfo.getStats().getEndTime();
                 if (endTime != null && endTime.isBefore(oldestAllowedTask)) {
                     tasks.asMap().remove(taskId);
+                    operatorMemoryTracker.removeTask(taskId);
                 }
             }
             catch (RuntimeException e) {
@@ -37,6 +37,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
@@ -79,6 +80,8 @@ public class StageStateMachine
     private final AtomicLong peakMemory = new AtomicLong();
     private final AtomicLong currentMemory = new AtomicLong();
 
+    private final AtomicInteger deferredStragglerSplits = new AtomicInteger();
+
     public StageStateMachine(
             StageId stageId,
             URI location,
@@ -303,6 +306,8 @@ public class StageStateMachine
                 blockedDrivers,
                 completedDrivers,
 
+                deferredStragglerSplits.get(),
+
                 cumulativeMemory,
                 succinctBytes(totalMemoryReservation),
                 succinctBytes(peakMemoryReservation),
@@ -344,6 +349,11 @@ public class StageStateMachine
         scheduledStats.getGetSplitTime().add(elapsedNanos, TimeUnit.NANOSECONDS);
     }
 
+    public void recordDeferredStragglerSplits(int splits)
+    {
+        deferredStragglerSplits.addAndGet(splits);
+    }
+
     public void recordScheduleTaskTime(long startNanos)
     {
         scheduleTaskDistribution.add(System.nanoTime() - startNanos);
@@ -52,6 +52,8 @@ public class StageStats
     private final int blockedDrivers;
     private final int completedDrivers;
 
+    private final int deferredStragglerSplits;
+
     private final double cumulativeMemory;
     private final DataSize totalMemoryReservation;
     private final DataSize peakMemoryReservation;
@@ -89,6 +91,7 @@ public class StageStats
         this.runningDrivers = 0;
         this.blockedDrivers = 0;
         this.completedDrivers = 0;
+        this.deferredStragglerSplits = 0;
         this.cumulativeMemory = 0.0;
         this.totalMemoryReservation = null;
         this.peakMemoryReservation = null;
@@ -126,6 +129,8 @@ public class StageStats
             @JsonProperty("blockedDrivers") int blockedDrivers,
             @JsonProperty("completedDrivers") int completedDrivers,
 
+            @JsonProperty("deferredStragglerSplits") int deferredStragglerSplits,
+
             @JsonProperty("cumulativeMemory") double cumulativeMemory,
             @JsonProperty("totalMemoryReservation") DataSize totalMemoryReservation,
             @JsonProperty("peakMemoryReservation") DataSize peakMemoryReservation,
@@ -171,6 +176,9 @@ public class StageStats
         checkArgument(completedDrivers >= 0, "completedDrivers is negative");
         this.completedDrivers = completedDrivers;
 
+        checkArgument(deferredStragglerSplits >= 0, "deferredStragglerSplits is negative");
+        this.deferredStragglerSplits = deferredStragglerSplits;
+
         this.cumulativeMemory = requireNonNull(cumulativeMemory, "cumulativeMemory is null");
         this.totalMemoryReservation = requireNonNull(totalMemoryReservation, "totalMemoryReservation is null");
         this.peakMemoryReservation = requireNonNull(peakMemoryReservation, "peakMemoryReservation is null");
@@ -269,6 +277,12 @@ public class StageStats
         return completedDrivers;
     }
 
+    @JsonProperty
+    public int getDeferredStragglerSplits()
+    {
+        return deferredStragglerSplits;
+    }
+
     @JsonProperty
     public double getCumulativeMemory()
     {
@@ -0,0 +1,69 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.execution;
+
+import com.facebook.presto.sql.gen.CacheStatsMBean;
+import com.facebook.presto.sql.parser.SqlParser;
+import com.facebook.presto.sql.tree.Statement;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import io.airlift.units.DataSize;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import static com.google.common.base.Throwables.throwIfUnchecked;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Caches parsed statements by query text. Statements are immutable, so queries with the
+ * same text can share a single parse tree. The size of a parse tree grows with the length
+ * of the query text, so the cache is bounded by the total length of the cached query texts
+ * rather than by the number of entries. Parse failures are not cached.
+ */
+@ThreadSafe
+public class StatementCache
+{
+    private final LoadingCache<String, Statement> cache;
+    private final CacheStatsMBean stats;
+
+    public StatementCache(SqlParser sqlParser, DataSize maxSize)
+    {
+        requireNonNull(sqlParser, "sqlParser is null");
+        requireNonNull(maxSize, "maxSize is null");
+        this.cache = CacheBuilder.newBuilder()
+                .recordStats()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((String sql, Statement statement) -> sql.length())
+                .build(CacheLoader.from(sqlParser::createStatement));
+        this.stats = new CacheStatsMBean(cache);
+    }
+
+    public Statement getStatement(String sql)
+    {
+        try {
+            return cache.getUnchecked(sql);
+        }
+        catch (UncheckedExecutionException e) {
+            throwIfUnchecked(e.getCause());
+            throw e;
+        }
+    }
+
+    public CacheStatsMBean getStats()
+    {
+        return stats;
+    }
+}
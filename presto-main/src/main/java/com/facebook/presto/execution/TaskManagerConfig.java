@@ -50,6 +50,7 @@ public class TaskManagerConfig
     private Duration splitConcurrencyAdjustmentInterval = new Duration(100, TimeUnit.MILLISECONDS);
 
     private DataSize sinkMaxBufferSize = new DataSize(32, Unit.MEGABYTE);
+    private boolean sinkSpillEnabled;
     private DataSize maxPagePartitioningBufferSize = new DataSize(32, Unit.MEGABYTE);
 
     private Duration clientTimeout = new Duration(2, TimeUnit.MINUTES);
@@ -266,6 +267,19 @@ public class TaskManagerConfig
         return this;
     }
 
+    public boolean isSinkSpillEnabled()
+    {
+        return sinkSpillEnabled;
+    }
+
+    @Config("sink.spill-enabled")
+    @ConfigDescription("Spill output buffer pages over sink.max-buffer-size to disk instead of blocking producers")
+    public TaskManagerConfig setSinkSpillEnabled(boolean sinkSpillEnabled)
+    {
+        this.sinkSpillEnabled = sinkSpillEnabled;
+        return this;
+    }
+
     @NotNull
     public DataSize getMaxPagePartitioningBufferSize()
     {
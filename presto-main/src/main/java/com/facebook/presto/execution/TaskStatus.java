@@ -17,6 +17,7 @@ import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.collect.ImmutableList;
 import io.airlift.units.DataSize;
+import io.airlift.units.Duration;
 
 import java.net.URI;
 import java.util.List;
@@ -27,6 +28,7 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
 import static io.airlift.units.DataSize.Unit.BYTE;
 import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 public class TaskStatus
 {
@@ -57,6 +59,7 @@ public class TaskStatus
     private final int queuedPartitionedDrivers;
     private final int runningPartitionedDrivers;
     private final DataSize memoryReservation;
+    private final Duration totalCpuTime;
 
     private final List<ExecutionFailureInfo> failures;
 
@@ -70,7 +73,8 @@ public class TaskStatus
             @JsonProperty("failures") List<ExecutionFailureInfo> failures,
             @JsonProperty("queuedPartitionedDrivers") int queuedPartitionedDrivers,
             @JsonProperty("runningPartitionedDrivers") int runningPartitionedDrivers,
-            @JsonProperty("memoryReservation") DataSize memoryReservation)
+            @JsonProperty("memoryReservation") DataSize memoryReservation,
+            @JsonProperty("totalCpuTime") Duration totalCpuTime)
     {
         this.taskId = requireNonNull(taskId, "taskId is null");
         this.taskInstanceId = requireNonNull(taskInstanceId, "taskInstanceId is null");
@@ -88,6 +92,7 @@ public class TaskStatus
         this.runningPartitionedDrivers = runningPartitionedDrivers;
 
         this.memoryReservation = requireNonNull(memoryReservation, "memoryReservation is null");
+        this.totalCpuTime = requireNonNull(totalCpuTime, "totalCpuTime is null");
         this.failures = ImmutableList.copyOf(requireNonNull(failures, "failures is null"));
     }
 
@@ -151,6 +156,12 @@ public class TaskStatus
         return memoryReservation;
     }
 
+    @JsonProperty
+    public Duration getTotalCpuTime()
+    {
+        return totalCpuTime;
+    }
+
     @Override
     public String toString()
     {
@@ -162,7 +173,7 @@ public class TaskStatus
 
     public static TaskStatus initialTaskStatus(TaskId taskId, URI location, String nodeId)
     {
-        return new TaskStatus(taskId, "", MIN_VERSION, PLANNED, location, nodeId, ImmutableList.of(), 0, 0, new DataSize(0, BYTE));
+        return new TaskStatus(taskId, "", MIN_VERSION, PLANNED, location, nodeId, ImmutableList.of(), 0, 0, new DataSize(0, BYTE), new Duration(0, MILLISECONDS));
     }
 
     public static TaskStatus failWith(TaskStatus taskStatus, TaskState state, List<ExecutionFailureInfo> exceptions)
@@ -177,6 +188,7 @@ public class TaskStatus
                 exceptions,
                 taskStatus.getQueuedPartitionedDrivers(),
                 taskStatus.getRunningPartitionedDrivers(),
-                taskStatus.getMemoryReservation());
+                taskStatus.getMemoryReservation(),
+                taskStatus.getTotalCpuTime());
     }
 }
@@ -18,7 +18,6 @@ import com.facebook.presto.OutputBuffers.OutputBufferId;
 import com.facebook.presto.execution.StateMachine;
 import com.facebook.presto.execution.StateMachine.StateChangeListener;
 import com.facebook.presto.execution.SystemMemoryUsageListener;
-import com.facebook.presto.execution.buffer.ClientBuffer.PagesSupplier;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Sets;
 import com.google.common.collect.Sets.SetView;
@@ -26,17 +25,13 @@ import com.google.common.util.concurrent.ListenableFuture;
 import io.airlift.units.DataSize;
 
 import javax.annotation.concurrent.GuardedBy;
-import javax.annotation.concurrent.ThreadSafe;
 
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executor;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
 import static com.facebook.presto.OutputBuffers.BufferType.ARBITRARY;
@@ -47,10 +42,8 @@ import static com.facebook.presto.execution.buffer.BufferState.FLUSHING;
 import static com.facebook.presto.execution.buffer.BufferState.NO_MORE_BUFFERS;
 import static com.facebook.presto.execution.buffer.BufferState.NO_MORE_PAGES;
 import static com.facebook.presto.execution.buffer.BufferState.OPEN;
-import static com.google.common.base.MoreObjects.toStringHelper;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
-import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.util.concurrent.Futures.immediateFuture;
 import static java.util.Objects.requireNonNull;
 
@@ -65,7 +58,8 @@ public class ArbitraryOutputBuffer
     @GuardedBy("this")
     private OutputBuffers outputBuffers = createInitialEmptyOutputBuffers(ARBITRARY);
 
-    private final MasterBuffer masterBuffer;
+    private final SpillablePageBuffer masterBuffer;
+    private final boolean spillEnabled;
 
     @GuardedBy("this")
     private final ConcurrentMap<OutputBufferId, ClientBuffer> buffers = new ConcurrentHashMap<>();
@@ -81,7 +75,8 @@ public class ArbitraryOutputBuffer
             StateMachine<BufferState> state,
             DataSize maxBufferSize,
             SystemMemoryUsageListener systemMemoryUsageListener,
-            Executor notificationExecutor)
+            Executor notificationExecutor,
+            Optional<OutputBufferSpiller> spiller)
     {
         this.taskInstanceId = requireNonNull(taskInstanceId, "taskInstanceId is null");
         this.state = requireNonNull(state, "state is null");
@@ -91,7 +86,9 @@ public class ArbitraryOutputBuffer
                 maxBufferSize.toBytes(),
                 requireNonNull(systemMemoryUsageListener, "systemMemoryUsageListener is null"),
                 requireNonNull(notificationExecutor, "notificationExecutor is null"));
-        this.masterBuffer = new MasterBuffer();
+        requireNonNull(spiller, "spiller is null");
+        this.masterBuffer = new SpillablePageBuffer(memoryManager, spiller);
+        this.spillEnabled = spiller.isPresent();
     }
 
     @Override
@@ -198,22 +195,13 @@ public class ArbitraryOutputBuffer
             return immediateFuture(true);
         }
 
-        // reserve memory
-        long bytesAdded = pages.stream().mapToLong(SerializedPage::getRetainedSizeInBytes).sum();
-        memoryManager.updateMemoryUsage(bytesAdded);
-
         // update stats
         long rowCount = pages.stream().mapToLong(SerializedPage::getPositionCount).sum();
         totalRowsAdded.addAndGet(rowCount);
         totalPagesAdded.addAndGet(pages.size());
 
-        // create page reference counts with an initial single reference
-        List<SerializedPageReference> serializedPageReferences = pages.stream()
-                .map(pageSplit -> new SerializedPageReference(pageSplit, 1, () -> memoryManager.updateMemoryUsage(-pageSplit.getRetainedSizeInBytes())))
-                .collect(toImmutableList());
-
-        // add pages to the buffer (this will increase the reference count by one)
-        masterBuffer.addPages(serializedPageReferences);
+        // add pages to the buffer (this will reserve memory for the pages kept in memory)
+        masterBuffer.addPages(pages);
 
         // process any pending reads from the client buffers
         for (ClientBuffer clientBuffer : safeGetBuffersSnapshot()) {
@@ -223,6 +211,10 @@ public class ArbitraryOutputBuffer
             clientBuffer.loadPagesIfNecessary(masterBuffer);
         }
 
+        if (spillEnabled) {
+            // pages over the memory limit are spilled, so there is no need to block the producer
+            return immediateFuture(true);
+        }
         return memoryManager.getNotFullFuture();
     }
 
@@ -349,93 +341,4 @@ public class ArbitraryOutputBuffer
             destroy();
         }
     }
-
-    @ThreadSafe
-    private static class MasterBuffer
-            implements PagesSupplier
-    {
-        @GuardedBy("this")
-        private final LinkedList<SerializedPageReference> masterBuffer = new LinkedList<>();
-
-        @GuardedBy("this")
-        private boolean noMorePages;
-
-        private final AtomicInteger bufferedPages = new AtomicInteger();
-
-        public synchronized void addPages(List<SerializedPageReference> pages)
-        {
-            masterBuffer.addAll(pages);
-            bufferedPages.set(masterBuffer.size());
-        }
-
-        public synchronized boolean isEmpty()
-        {
-            return masterBuffer.isEmpty();
-        }
-
-        @Override
-        public synchronized boolean mayHaveMorePages()
-        {
-            return !noMorePages || !masterBuffer.isEmpty();
-        }
-
-        public synchronized void setNoMorePages()
-        {
-            this.noMorePages = true;
-        }
-
-        @Override
-        public synchronized List<SerializedPageReference> getPages(DataSize maxSize)
-        {
-            long maxBytes = maxSize.toBytes();
-            List<SerializedPageReference> pages = new ArrayList<>();
-            long bytesRemoved = 0;
-
-            while (true) {
-                SerializedPageReference page = masterBuffer.peek();
-                if (page == null) {
-                    break;
-                }
-                bytesRemoved += page.getRetainedSizeInBytes();
-                // break (and don't add) if this page would exceed the limit
-                if (!pages.isEmpty() && bytesRemoved > maxBytes) {
-                    break;
-                }
-                // this should not happen since we have a lock
-                checkState(masterBuffer.poll() == page, "Master buffer corrupted");
-                pages.add(page);
-            }
-
-            bufferedPages.set(masterBuffer.size());
-
-            return ImmutableList.copyOf(pages);
-        }
-
-        public void destroy()
-        {
-            checkState(!Thread.holdsLock(this), "Can not destroy master buffer while holding a lock on this");
-            List<SerializedPageReference> pages;
-            synchronized (this) {
-                pages = ImmutableList.copyOf(masterBuffer);
-                masterBuffer.clear();
-                bufferedPages.set(0);
-            }
-
-            // dereference outside of synchronized to avoid making a callback while holding a lock
-            pages.forEach(SerializedPageReference::dereferencePage);
-        }
-
-        public int getBufferedPages()
-        {
-            return bufferedPages.get();
-        }
-
-        @Override
-        public String toString()
-        {
-            return toStringHelper(this)
-                    .add("bufferedPages", bufferedPages.get())
-                    .toString();
-        }
-    }
 }
@@ -30,6 +30,7 @@ import javax.annotation.concurrent.GuardedBy;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.Executor;
 
@@ -51,6 +52,7 @@ public class LazyOutputBuffer
     private final DataSize maxBufferSize;
     private final SystemMemoryUsageListener systemMemoryUsageListener;
     private final Executor executor;
+    private final Optional<OutputBufferSpiller> spiller;
 
     @GuardedBy("this")
     private OutputBuffer delegate;
@@ -66,7 +68,8 @@ public class LazyOutputBuffer
             String taskInstanceId,
             Executor executor,
             DataSize maxBufferSize,
-            SystemMemoryUsageListener systemMemoryUsageListener)
+            SystemMemoryUsageListener systemMemoryUsageListener,
+            Optional<OutputBufferSpiller> spiller)
     {
         requireNonNull(taskId, "taskId is null");
         this.taskInstanceId = requireNonNull(taskInstanceId, "taskInstanceId is null");
@@ -75,6 +78,7 @@ public class LazyOutputBuffer
         this.maxBufferSize = requireNonNull(maxBufferSize, "maxBufferSize is null");
         checkArgument(maxBufferSize.toBytes() > 0, "maxBufferSize must be at least 1");
         this.systemMemoryUsageListener = requireNonNull(systemMemoryUsageListener, "systemMemoryUsageListener is null");
+        this.spiller = requireNonNull(spiller, "spiller is null");
     }
 
     @Override
@@ -146,13 +150,13 @@ public class LazyOutputBuffer
                 }
                 switch (newOutputBuffers.getType()) {
                     case PARTITIONED:
-                        delegate = new PartitionedOutputBuffer(taskInstanceId, state, newOutputBuffers, maxBufferSize, systemMemoryUsageListener, executor);
+                        delegate = new PartitionedOutputBuffer(taskInstanceId, state, newOutputBuffers, maxBufferSize, systemMemoryUsageListener, executor, spiller);
                         break;
                     case BROADCAST:
                         delegate = new BroadcastOutputBuffer(taskInstanceId, state, maxBufferSize, systemMemoryUsageListener, executor);
                         break;
                     case ARBITRARY:
-                        delegate = new ArbitraryOutputBuffer(taskInstanceId, state, maxBufferSize, systemMemoryUsageListener, executor);
+                        delegate = new ArbitraryOutputBuffer(taskInstanceId, state, maxBufferSize, systemMemoryUsageListener, executor, spiller);
                         break;
                 }
 
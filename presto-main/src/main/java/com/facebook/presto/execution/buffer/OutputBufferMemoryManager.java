@@ -93,8 +93,13 @@ class OutputBufferMemoryManager
         return bufferedBytes.get() / (double) maxBufferedBytes;
     }
 
+    public boolean isOverLimit()
+    {
+        return bufferedBytes.get() > maxBufferedBytes;
+    }
+
     private boolean isFull()
     {
-        return bufferedBytes.get() > maxBufferedBytes && blockOnFull.get();
+        return isOverLimit() && blockOnFull.get();
     }
 }
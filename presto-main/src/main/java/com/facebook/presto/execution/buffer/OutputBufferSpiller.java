@@ -0,0 +1,38 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.execution.buffer;
+
+import com.facebook.presto.operator.SpillContext;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Creates the spill files of the output buffer of a single task.
+ */
+public final class OutputBufferSpiller
+{
+    private final OutputBufferSpillerFactory factory;
+    private final SpillContext spillContext;
+
+    OutputBufferSpiller(OutputBufferSpillerFactory factory, SpillContext spillContext)
+    {
+        this.factory = requireNonNull(factory, "factory is null");
+        this.spillContext = requireNonNull(spillContext, "spillContext is null");
+    }
+
+    SerializedPageSpillFile createSpillFile()
+    {
+        return factory.createSpillFile(spillContext);
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.execution.buffer;
+
+import com.facebook.presto.operator.SpillContext;
+import com.facebook.presto.spi.PrestoException;
+import com.google.common.collect.ImmutableList;
+
+import java.io.IOException;
+import java.nio.file.FileStore;
+import java.nio.file.Path;
+import java.util.List;
+
+import static com.facebook.presto.spi.StandardErrorCode.OUT_OF_SPILL_SPACE;
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.lang.String.format;
+import static java.nio.file.Files.createDirectories;
+import static java.nio.file.Files.getFileStore;
+import static java.util.Objects.requireNonNull;
+
+public class OutputBufferSpillerFactory
+{
+    // the spill file names match the pattern cleaned up by FileSingleStreamSpillerFactory on startup
+    static final String SPILL_FILE_PREFIX = "spill-output-buffer";
+    static final String SPILL_FILE_SUFFIX = ".bin";
+
+    private final List<Path> spillPaths;
+    private final double maxUsedSpaceThreshold;
+    private int roundRobinIndex;
+
+    public OutputBufferSpillerFactory(List<Path> spillPaths, double maxUsedSpaceThreshold)
+    {
+        requireNonNull(spillPaths, "spillPaths is null");
+        checkArgument(!spillPaths.isEmpty(), "output buffer spilling requires experimental.spiller-spill-path to be set");
+        this.spillPaths = ImmutableList.copyOf(spillPaths);
+        spillPaths.forEach(path -> {
+            try {
+                createDirectories(path);
+            }
+            catch (IOException e) {
+                throw new IllegalArgumentException(
+                        format("could not create spill path %s; adjust experimental.spiller-spill-path config property or filesystem permissions", path), e);
+            }
+            if (!path.toFile().canWrite()) {
+                throw new IllegalArgumentException(
+                        format("spill path %s is not writable; adjust experimental.spiller-spill-path config property or filesystem permissions", path));
+            }
+        });
+        this.maxUsedSpaceThreshold = maxUsedSpaceThreshold;
+    }
+
+    public OutputBufferSpiller create(SpillContext spillContext)
+    {
+        return new OutputBufferSpiller(this, spillContext);
+    }
+
+    SerializedPageSpillFile createSpillFile(SpillContext spillContext)
+    {
+        return new SerializedPageSpillFile(getNextSpillPath(), spillContext);
+    }
+
+    private synchronized Path getNextSpillPath()
+    {
+        int spillPathsCount = spillPaths.size();
+        for (int i = 0; i < spillPathsCount; ++i) {
+            int pathIndex = (roundRobinIndex + i) % spillPathsCount;
+            Path path = spillPaths.get(pathIndex);
+            if (hasEnoughDiskSpace(path)) {
+                roundRobinIndex = (roundRobinIndex + i + 1) % spillPathsCount;
+                return path;
+            }
+        }
+        throw new PrestoException(OUT_OF_SPILL_SPACE, "No free space available for output buffer spill");
+    }
+
+    private boolean hasEnoughDiskSpace(Path path)
+    {
+        try {
+            FileStore fileStore = getFileStore(path);
+            return fileStore.getUsableSpace() > fileStore.getTotalSpace() * (1.0 - maxUsedSpaceThreshold);
+        }
+        catch (IOException e) {
+            throw new PrestoException(OUT_OF_SPILL_SPACE, "Cannot determine free space for output buffer spill", e);
+        }
+    }
+}
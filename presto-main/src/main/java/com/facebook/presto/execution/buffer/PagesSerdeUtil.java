@@ -26,12 +26,17 @@ import java.util.Iterator;
 import static com.facebook.presto.block.BlockSerdeUtil.readBlock;
 import static com.facebook.presto.block.BlockSerdeUtil.writeBlock;
 import static com.facebook.presto.execution.buffer.PageCompression.lookupCodecFromMarker;
+import static io.airlift.slice.SizeOf.SIZE_OF_BYTE;
+import static io.airlift.slice.SizeOf.SIZE_OF_INT;
 import static java.lang.Math.toIntExact;
 import static java.util.Arrays.asList;
 import static java.util.Objects.requireNonNull;
 
 public class PagesSerdeUtil
 {
+    // position count, compression marker, uncompressed size and size
+    static final int SERIALIZED_PAGE_HEADER_SIZE = SIZE_OF_INT + SIZE_OF_BYTE + SIZE_OF_INT + SIZE_OF_INT;
+
     private PagesSerdeUtil()
     {
     }
@@ -65,7 +70,7 @@ public class PagesSerdeUtil
         output.writeBytes(page.getSlice());
     }
 
-    private static SerializedPage readSerializedPage(SliceInput sliceInput)
+    static SerializedPage readSerializedPage(SliceInput sliceInput)
     {
         int positionCount = sliceInput.readInt();
         byte codecMarker = sliceInput.readByte();
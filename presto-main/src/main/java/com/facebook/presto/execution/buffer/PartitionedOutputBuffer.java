@@ -23,6 +23,7 @@ import com.google.common.util.concurrent.ListenableFuture;
 import io.airlift.units.DataSize;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -47,6 +48,8 @@ public class PartitionedOutputBuffer
     private final OutputBufferMemoryManager memoryManager;
 
     private final List<ClientBuffer> partitions;
+    // pages waiting to be loaded into each partition; only used when spilling is enabled
+    private final Optional<List<SpillablePageBuffer>> pageBuffers;
 
     private final AtomicLong totalPagesAdded = new AtomicLong();
     private final AtomicLong totalRowsAdded = new AtomicLong();
@@ -57,7 +60,8 @@ public class PartitionedOutputBuffer
             OutputBuffers outputBuffers,
             DataSize maxBufferSize,
             SystemMemoryUsageListener systemMemoryUsageListener,
-            Executor notificationExecutor)
+            Executor notificationExecutor,
+            Optional<OutputBufferSpiller> spiller)
     {
         this.state = requireNonNull(state, "state is null");
 
@@ -78,6 +82,11 @@ public class PartitionedOutputBuffer
         }
         this.partitions = partitions.build();
 
+        requireNonNull(spiller, "spiller is null");
+        this.pageBuffers = spiller.map(outputBufferSpiller -> this.partitions.stream()
+                .map(partition -> new SpillablePageBuffer(memoryManager, Optional.of(outputBufferSpiller)))
+                .collect(toImmutableList()));
+
         state.compareAndSet(OPEN, NO_MORE_BUFFERS);
         state.compareAndSet(NO_MORE_PAGES, FLUSHING);
         checkFlushComplete();
@@ -111,7 +120,7 @@ public class PartitionedOutputBuffer
         // always get the state first before any other stats
         BufferState state = this.state.get();
 
-        int totalBufferedPages = 0;
+        int totalBufferedPages = pageBuffers.map(buffers -> buffers.stream().mapToInt(SpillablePageBuffer::getBufferedPages).sum()).orElse(0);
         ImmutableList.Builder<BufferInfo> infos = ImmutableList.builder();
         for (ClientBuffer partition : partitions) {
             BufferInfo bufferInfo = partition.getInfo();
@@ -166,15 +175,25 @@ public class PartitionedOutputBuffer
             return immediateFuture(true);
         }
 
-        // reserve memory
-        long bytesAdded = pages.stream().mapToLong(SerializedPage::getRetainedSizeInBytes).sum();
-        memoryManager.updateMemoryUsage(bytesAdded);
-
         // update stats
         long rowCount = pages.stream().mapToLong(SerializedPage::getPositionCount).sum();
         totalRowsAdded.addAndGet(rowCount);
         totalPagesAdded.addAndGet(pages.size());
 
+        if (pageBuffers.isPresent()) {
+            // add pages to the page buffer of the partition (this will reserve memory or spill the pages)
+            SpillablePageBuffer pageBuffer = pageBuffers.get().get(partitionNumber);
+            pageBuffer.addPages(pages);
+            partitions.get(partitionNumber).loadPagesIfNecessary(pageBuffer);
+
+            // pages over the memory limit are spilled, so there is no need to block the producer
+            return immediateFuture(true);
+        }
+
+        // reserve memory
+        long bytesAdded = pages.stream().mapToLong(SerializedPage::getRetainedSizeInBytes).sum();
+        memoryManager.updateMemoryUsage(bytesAdded);
+
         // create page reference counts with an initial single reference
         List<SerializedPageReference> serializedPageReferences = pages.stream()
                 .map(bufferedPage -> new SerializedPageReference(bufferedPage, 1, () -> memoryManager.updateMemoryUsage(-bufferedPage.getRetainedSizeInBytes())))
@@ -195,7 +214,8 @@ public class PartitionedOutputBuffer
         requireNonNull(outputBufferId, "outputBufferId is null");
         checkArgument(maxSize.toBytes() > 0, "maxSize must be at least 1 byte");
 
-        return partitions.get(outputBufferId.getId()).getPages(startingSequenceId, maxSize);
+        int partition = outputBufferId.getId();
+        return partitions.get(partition).getPages(startingSequenceId, maxSize, pageBuffers.map(buffers -> buffers.get(partition)));
     }
 
     @Override
@@ -204,6 +224,7 @@ public class PartitionedOutputBuffer
         requireNonNull(bufferId, "bufferId is null");
 
         partitions.get(bufferId.getId()).destroy();
+        pageBuffers.ifPresent(buffers -> buffers.get(bufferId.getId()).destroy());
 
         checkFlushComplete();
     }
@@ -215,7 +236,17 @@ public class PartitionedOutputBuffer
         state.compareAndSet(NO_MORE_BUFFERS, FLUSHING);
         memoryManager.setNoBlockOnFull();
 
-        partitions.forEach(ClientBuffer::setNoMorePages);
+        if (pageBuffers.isPresent()) {
+            // client buffers learn that there are no more pages once their page buffer is drained
+            for (int partition = 0; partition < partitions.size(); partition++) {
+                SpillablePageBuffer pageBuffer = pageBuffers.get().get(partition);
+                pageBuffer.setNoMorePages();
+                partitions.get(partition).loadPagesIfNecessary(pageBuffer);
+            }
+        }
+        else {
+            partitions.forEach(ClientBuffer::setNoMorePages);
+        }
 
         checkFlushComplete();
     }
@@ -226,6 +257,7 @@ public class PartitionedOutputBuffer
         // ignore destroy if the buffer already in a terminal state.
         if (state.setIf(FINISHED, oldState -> !oldState.isTerminal())) {
             partitions.forEach(ClientBuffer::destroy);
+            pageBuffers.ifPresent(buffers -> buffers.forEach(SpillablePageBuffer::destroy));
             memoryManager.setNoBlockOnFull();
         }
     }
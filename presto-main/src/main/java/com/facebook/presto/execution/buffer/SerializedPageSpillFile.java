@@ -0,0 +1,181 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.execution.buffer;
+
+import com.facebook.presto.operator.SpillContext;
+import com.facebook.presto.spi.PrestoException;
+import com.google.common.collect.ImmutableList;
+import io.airlift.slice.DynamicSliceOutput;
+import io.airlift.slice.Slice;
+import io.airlift.slice.Slices;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static com.facebook.presto.execution.buffer.PagesSerdeUtil.SERIALIZED_PAGE_HEADER_SIZE;
+import static com.facebook.presto.execution.buffer.PagesSerdeUtil.readSerializedPage;
+import static com.facebook.presto.execution.buffer.PagesSerdeUtil.writeSerializedPages;
+import static com.facebook.presto.spi.StandardErrorCode.GENERIC_INTERNAL_ERROR;
+import static io.airlift.slice.SizeOf.SIZE_OF_INT;
+import static java.lang.Math.toIntExact;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A first in, first out queue of serialized pages backed by a local file. Pages
+ * can be appended while earlier pages are still being read, and the file is
+ * truncated every time the reader catches up with the writer.
+ */
+@NotThreadSafe
+class SerializedPageSpillFile
+        implements Closeable
+{
+    // the size of the page is the last field of the page header
+    private static final int PAGE_SIZE_OFFSET = SERIALIZED_PAGE_HEADER_SIZE - SIZE_OF_INT;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final SpillContext spillContext;
+
+    private long writePosition;
+    private long readPosition;
+    private int spilledPages;
+    private boolean closed;
+
+    public SerializedPageSpillFile(Path spillPath, SpillContext spillContext)
+    {
+        requireNonNull(spillPath, "spillPath is null");
+        this.spillContext = requireNonNull(spillContext, "spillContext is null").newLocalSpillContext();
+        try {
+            this.path = Files.createTempFile(spillPath, OutputBufferSpillerFactory.SPILL_FILE_PREFIX, OutputBufferSpillerFactory.SPILL_FILE_SUFFIX);
+            this.channel = FileChannel.open(path, READ, WRITE);
+        }
+        catch (IOException e) {
+            throw new PrestoException(GENERIC_INTERNAL_ERROR, "Failed to create output buffer spill file", e);
+        }
+    }
+
+    public boolean isEmpty()
+    {
+        return spilledPages == 0;
+    }
+
+    public int getSpilledPages()
+    {
+        return spilledPages;
+    }
+
+    public long getSpilledBytes()
+    {
+        return writePosition - readPosition;
+    }
+
+    public void append(List<SerializedPage> pages)
+    {
+        long size = 0;
+        for (SerializedPage page : pages) {
+            size += SERIALIZED_PAGE_HEADER_SIZE + page.getSizeInBytes();
+        }
+        DynamicSliceOutput output = new DynamicSliceOutput(toIntExact(size));
+        writeSerializedPages(output, pages);
+        Slice slice = output.slice();
+
+        try {
+            ByteBuffer buffer = slice.toByteBuffer();
+            while (buffer.hasRemaining()) {
+                writePosition += channel.write(buffer, writePosition);
+            }
+        }
+        catch (IOException e) {
+            throw new PrestoException(GENERIC_INTERNAL_ERROR, "Failed to spill output buffer pages", e);
+        }
+        spillContext.updateBytes(slice.length());
+        spilledPages += pages.size();
+    }
+
+    /**
+     * Reads pages up to the specified size limit or a single page that exceeds the size limit.
+     */
+    public List<SerializedPage> read(long maxBytes)
+    {
+        ImmutableList.Builder<SerializedPage> pages = ImmutableList.builder();
+        try {
+            long bytesRead = 0;
+            while (spilledPages > 0) {
+                Slice header = readFully(readPosition, SERIALIZED_PAGE_HEADER_SIZE);
+                int pageSize = header.getInt(PAGE_SIZE_OFFSET);
+                // stop (and don't read) if this page would exceed the limit
+                if (bytesRead > 0 && bytesRead + pageSize > maxBytes) {
+                    break;
+                }
+                Slice page = readFully(readPosition, SERIALIZED_PAGE_HEADER_SIZE + pageSize);
+                pages.add(readSerializedPage(page.getInput()));
+                readPosition += page.length();
+                bytesRead += pageSize;
+                spilledPages--;
+            }
+
+            if (spilledPages == 0) {
+                // reader caught up with the writer, so reclaim the disk space
+                channel.truncate(0);
+                spillContext.updateBytes(-writePosition);
+                writePosition = 0;
+                readPosition = 0;
+            }
+        }
+        catch (IOException e) {
+            throw new PrestoException(GENERIC_INTERNAL_ERROR, "Failed to read spilled output buffer pages", e);
+        }
+        return pages.build();
+    }
+
+    private Slice readFully(long position, int length)
+            throws IOException
+    {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Unexpected end of output buffer spill file " + path);
+            }
+        }
+        return Slices.wrappedBuffer(buffer.array());
+    }
+
+    @Override
+    public void close()
+    {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        spilledPages = 0;
+
+        try (SpillContext ignored = spillContext) {
+            channel.close();
+            Files.deleteIfExists(path);
+        }
+        catch (IOException e) {
+            throw new PrestoException(GENERIC_INTERNAL_ERROR, "Failed to delete output buffer spill file", e);
+        }
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.execution.buffer;
+
+import com.facebook.presto.execution.buffer.ClientBuffer.PagesSupplier;
+import com.google.common.collect.ImmutableList;
+import io.airlift.units.DataSize;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Holds the pages that have not been handed to a client buffer yet. When a spiller
+ * is provided and the output buffer is over its memory limit, new pages are written
+ * to a spill file instead of being kept in memory, and they are read back (and
+ * accounted as buffered memory again) only when a client asks for them. Once a page
+ * has been spilled, all following pages are spilled until the spill file drains, so
+ * pages are always supplied in the order they were added.
+ * <p>
+ * The spill file is written and read under a separate lock, so that disk I/O does not
+ * block the readers and writers of the pages held in memory.
+ */
+@ThreadSafe
+class SpillablePageBuffer
+        implements PagesSupplier
+{
+    private final OutputBufferMemoryManager memoryManager;
+    private final Optional<OutputBufferSpiller> spiller;
+
+    @GuardedBy("this")
+    private final LinkedList<SerializedPageReference> pages = new LinkedList<>();
+
+    // number of pages that are written, or about to be written, to the spill file
+    @GuardedBy("this")
+    private int spilledPages;
+
+    @GuardedBy("this")
+    private boolean noMorePages;
+
+    @GuardedBy("this")
+    private boolean destroyed;
+
+    private final Object spillLock = new Object();
+
+    @GuardedBy("spillLock")
+    @Nullable
+    private SerializedPageSpillFile spillFile;
+
+    @GuardedBy("spillLock")
+    private boolean spillFileClosed;
+
+    private final AtomicInteger bufferedPages = new AtomicInteger();
+
+    public SpillablePageBuffer(OutputBufferMemoryManager memoryManager, Optional<OutputBufferSpiller> spiller)
+    {
+        this.memoryManager = requireNonNull(memoryManager, "memoryManager is null");
+        this.spiller = requireNonNull(spiller, "spiller is null");
+    }
+
+    public void addPages(List<SerializedPage> newPages)
+    {
+        synchronized (this) {
+            if (destroyed) {
+                return;
+            }
+
+            if (!isSpilling() && !(spiller.isPresent() && memoryManager.isOverLimit())) {
+                // reserve memory
+                long bytesAdded = newPages.stream().mapToLong(SerializedPage::getRetainedSizeInBytes).sum();
+                memoryManager.updateMemoryUsage(bytesAdded);
+
+                // create page reference counts with an initial single reference
+                for (SerializedPage page : newPages) {
+                    pages.add(createPageReference(page));
+                }
+                updateBufferedPages();
+                return;
+            }
+
+            spilledPages += newPages.size();
+            updateBufferedPages();
+        }
+
+        synchronized (spillLock) {
+            if (spillFileClosed) {
+                return;
+            }
+            if (spillFile == null) {
+                spillFile = spiller.get().createSpillFile();
+            }
+            spillFile.append(newPages);
+        }
+    }
+
+    public synchronized boolean isEmpty()
+    {
+        return pages.isEmpty() && !isSpilling();
+    }
+
+    @Override
+    public synchronized boolean mayHaveMorePages()
+    {
+        return !noMorePages || !isEmpty();
+    }
+
+    public synchronized void setNoMorePages()
+    {
+        this.noMorePages = true;
+    }
+
+    @Override
+    public List<SerializedPageReference> getPages(DataSize maxSize)
+    {
+        long maxBytes = maxSize.toBytes();
+        List<SerializedPageReference> result = new ArrayList<>();
+        long bytesRemoved = 0;
+        boolean readSpillFile;
+
+        synchronized (this) {
+            while (true) {
+                SerializedPageReference page = pages.peek();
+                if (page == null) {
+                    break;
+                }
+                bytesRemoved += page.getRetainedSizeInBytes();
+                // break (and don't add) if this page would exceed the limit
+                if (!result.isEmpty() && bytesRemoved > maxBytes) {
+                    break;
+                }
+                // this should not happen since we have a lock
+                checkState(pages.poll() == page, "Page buffer corrupted");
+                result.add(page);
+            }
+            updateBufferedPages();
+
+            // spilled pages are always newer than the pages held in memory, so they
+            // are only read back once all pages held in memory have been handed out
+            readSpillFile = pages.isEmpty() && isSpilling() && bytesRemoved < maxBytes;
+        }
+
+        if (readSpillFile) {
+            // the spill file may return a single page over the remaining limit, which
+            // the client buffer simply keeps until the next read
+            List<SerializedPage> unspilledPages = readSpillFile(maxBytes - bytesRemoved);
+            memoryManager.updateMemoryUsage(unspilledPages.stream().mapToLong(SerializedPage::getRetainedSizeInBytes).sum());
+            for (SerializedPage page : unspilledPages) {
+                result.add(createPageReference(page));
+            }
+            synchronized (this) {
+                spilledPages -= unspilledPages.size();
+                updateBufferedPages();
+            }
+        }
+
+        return ImmutableList.copyOf(result);
+    }
+
+    private List<SerializedPage> readSpillFile(long maxBytes)
+    {
+        synchronized (spillLock) {
+            if (spillFile == null) {
+                // the pages are still being written
+                return ImmutableList.of();
+            }
+            return spillFile.read(maxBytes);
+        }
+    }
+
+    public void destroy()
+    {
+        checkState(!Thread.holdsLock(this), "Can not destroy page buffer while holding a lock on this");
+        List<SerializedPageReference> pages;
+        synchronized (this) {
+            destroyed = true;
+            pages = ImmutableList.copyOf(this.pages);
+            this.pages.clear();
+            spilledPages = 0;
+            bufferedPages.set(0);
+        }
+
+        synchronized (spillLock) {
+            spillFileClosed = true;
+            if (spillFile != null) {
+                spillFile.close();
+                spillFile = null;
+            }
+        }
+
+        // dereference outside of synchronized to avoid making a callback while holding a lock
+        pages.forEach(SerializedPageReference::dereferencePage);
+    }
+
+    public int getBufferedPages()
+    {
+        return bufferedPages.get();
+    }
+
+    private SerializedPageReference createPageReference(SerializedPage page)
+    {
+        return new SerializedPageReference(page, 1, () -> memoryManager.updateMemoryUsage(-page.getRetainedSizeInBytes()));
+    }
+
+    @GuardedBy("this")
+    private boolean isSpilling()
+    {
+        return spilledPages > 0;
+    }
+
+    @GuardedBy("this")
+    private void updateBufferedPages()
+    {
+        bufferedPages.set(pages.size() + spilledPages);
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("bufferedPages", bufferedPages.get())
+                .toString();
+    }
+}
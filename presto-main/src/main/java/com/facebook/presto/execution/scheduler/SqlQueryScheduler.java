@@ -66,6 +66,8 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 
+import static com.facebook.presto.SystemSessionProperties.getStragglerSlowdownThreshold;
+import static com.facebook.presto.SystemSessionProperties.isStragglerMitigationEnabled;
 import static com.facebook.presto.connector.ConnectorId.isInternalSystemConnector;
 import static com.facebook.presto.execution.StageState.ABORTED;
 import static com.facebook.presto.execution.StageState.CANCELED;
@@ -262,6 +264,9 @@ public class SqlQueryScheduler
             }
             NodeSelector nodeSelector = nodeScheduler.createNodeSelector(connectorId);
             SplitPlacementPolicy placementPolicy = new DynamicSplitPlacementPolicy(nodeSelector, stage::getAllTasks);
+            if (isStragglerMitigationEnabled(session)) {
+                placementPolicy = new StragglerAwareSplitPlacementPolicy(placementPolicy, stage::getAllTasks, getStragglerSlowdownThreshold(session), stage::recordDeferredStragglerSplits);
+            }
             stageSchedulers.put(stageId, new SourcePartitionedScheduler(stage, entry.getKey(), entry.getValue(), placementPolicy, splitBatchSize));
             bucketToPartition = Optional.of(new int[1]);
         }
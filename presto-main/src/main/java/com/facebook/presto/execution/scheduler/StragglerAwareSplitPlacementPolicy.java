@@ -0,0 +1,224 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.execution.scheduler;
+
+import com.facebook.presto.execution.RemoteTask;
+import com.facebook.presto.metadata.Split;
+import com.facebook.presto.spi.Node;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
+import com.google.common.collect.ImmutableMultimap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Multimap;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Keeps new splits of a source partitioned stage away from nodes that complete
+ * splits much slower than the other nodes running the stage. The throughput of
+ * every task is tracked as the number of completed splits over the time since
+ * its first split was assigned, and a task is a straggler when its throughput
+ * falls below the median throughput of the stage divided by the slowdown threshold.
+ * <p>
+ * Splits which have already been sent to a straggler cannot be recalled, since the
+ * output of a task is not attributable to individual splits, but the remaining splits
+ * of the stage are deferred until a healthy node has room for them.
+ */
+public class StragglerAwareSplitPlacementPolicy
+        implements SplitPlacementPolicy
+{
+    private static final long MIN_OBSERVATION_NANOS = SECONDS.toNanos(5);
+    private static final int MIN_TASKS_FOR_COMPARISON = 3;
+
+    private final SplitPlacementPolicy delegate;
+    private final Supplier<? extends List<RemoteTask>> remoteTasks;
+    private final double slowdownThreshold;
+    private final IntConsumer deferredSplitsListener;
+    private final Ticker ticker;
+
+    private final Map<String, TaskProgress> taskProgress = new HashMap<>();
+
+    public StragglerAwareSplitPlacementPolicy(
+            SplitPlacementPolicy delegate,
+            Supplier<? extends List<RemoteTask>> remoteTasks,
+            double slowdownThreshold,
+            IntConsumer deferredSplitsListener)
+    {
+        this(delegate, remoteTasks, slowdownThreshold, deferredSplitsListener, Ticker.systemTicker());
+    }
+
+    @VisibleForTesting
+    StragglerAwareSplitPlacementPolicy(
+            SplitPlacementPolicy delegate,
+            Supplier<? extends List<RemoteTask>> remoteTasks,
+            double slowdownThreshold,
+            IntConsumer deferredSplitsListener,
+            Ticker ticker)
+    {
+        this.delegate = requireNonNull(delegate, "delegate is null");
+        this.remoteTasks = requireNonNull(remoteTasks, "remoteTasks is null");
+        checkArgument(slowdownThreshold >= 1.0, "slowdownThreshold must be at least 1.0");
+        this.slowdownThreshold = slowdownThreshold;
+        this.deferredSplitsListener = requireNonNull(deferredSplitsListener, "deferredSplitsListener is null");
+        this.ticker = requireNonNull(ticker, "ticker is null");
+    }
+
+    @Override
+    public synchronized SplitPlacementResult computeAssignments(Set<Split> splits)
+    {
+        SplitPlacementResult result = delegate.computeAssignments(splits);
+
+        Set<String> stragglers = findStragglerNodes();
+        if (stragglers.isEmpty()) {
+            recordAssignments(result.getAssignments());
+            return result;
+        }
+
+        ImmutableMultimap.Builder<Node, Split> assignments = ImmutableMultimap.builder();
+        int deferredSplits = 0;
+        for (Entry<Node, Split> entry : result.getAssignments().entries()) {
+            // splits that can only run on specific nodes must go there regardless of speed
+            if (entry.getValue().isRemotelyAccessible() && stragglers.contains(entry.getKey().getNodeIdentifier())) {
+                deferredSplits++;
+            }
+            else {
+                assignments.put(entry);
+            }
+        }
+
+        if (deferredSplits == 0) {
+            recordAssignments(result.getAssignments());
+            return result;
+        }
+
+        deferredSplitsListener.accept(deferredSplits);
+        Multimap<Node, Split> acceptedAssignments = assignments.build();
+        recordAssignments(acceptedAssignments);
+
+        ListenableFuture<?> blocked = result.getBlocked();
+        if (blocked.isDone()) {
+            // Nothing signals when a healthy node frees up a slot for the deferred splits, so
+            // rely on the query scheduler, which never waits on a blocked stage for more than
+            // a second, to retry them. The scheduler cancels this future once it wakes up.
+            blocked = SettableFuture.create();
+        }
+        return new SplitPlacementResult(blocked, acceptedAssignments);
+    }
+
+    @Override
+    public void lockDownNodes()
+    {
+        delegate.lockDownNodes();
+    }
+
+    @Override
+    public List<Node> allNodes()
+    {
+        return delegate.allNodes();
+    }
+
+    private void recordAssignments(Multimap<Node, Split> assignments)
+    {
+        long now = ticker.read();
+        for (Entry<Node, Collection<Split>> entry : assignments.asMap().entrySet()) {
+            taskProgress.computeIfAbsent(entry.getKey().getNodeIdentifier(), nodeId -> new TaskProgress(now))
+                    .addAssignedSplits(entry.getValue().size());
+        }
+    }
+
+    private Set<String> findStragglerNodes()
+    {
+        long now = ticker.read();
+        Map<String, Double> throughputByNode = new HashMap<>();
+        Set<String> nodesWithPendingSplits = new HashSet<>();
+        for (RemoteTask task : remoteTasks.get()) {
+            TaskProgress progress = taskProgress.get(task.getNodeId());
+            if (progress == null || task.getTaskStatus().getState().isDone()) {
+                continue;
+            }
+            long elapsedNanos = now - progress.getFirstAssignmentNanos();
+            if (elapsedNanos < MIN_OBSERVATION_NANOS) {
+                continue;
+            }
+            int pendingSplits = task.getPartitionedSplitCount();
+            long completedSplits = Math.max(progress.getAssignedSplits() - pendingSplits, 0);
+            throughputByNode.put(task.getNodeId(), completedSplits / (double) elapsedNanos);
+            if (pendingSplits > 0) {
+                nodesWithPendingSplits.add(task.getNodeId());
+            }
+        }
+
+        if (throughputByNode.size() < MIN_TASKS_FOR_COMPARISON) {
+            return ImmutableSet.of();
+        }
+
+        List<Double> throughputs = new ArrayList<>(throughputByNode.values());
+        Collections.sort(throughputs);
+        double medianThroughput = throughputs.get(throughputs.size() / 2);
+        if (medianThroughput == 0) {
+            // no task of the stage has completed enough splits to tell slow nodes apart
+            return ImmutableSet.of();
+        }
+
+        ImmutableSet.Builder<String> stragglers = ImmutableSet.builder();
+        for (Entry<String, Double> entry : throughputByNode.entrySet()) {
+            if (nodesWithPendingSplits.contains(entry.getKey()) && entry.getValue() * slowdownThreshold < medianThroughput) {
+                stragglers.add(entry.getKey());
+            }
+        }
+        return stragglers.build();
+    }
+
+    private static class TaskProgress
+    {
+        private final long firstAssignmentNanos;
+        private long assignedSplits;
+
+        public TaskProgress(long firstAssignmentNanos)
+        {
+            this.firstAssignmentNanos = firstAssignmentNanos;
+        }
+
+        public long getFirstAssignmentNanos()
+        {
+            return firstAssignmentNanos;
+        }
+
+        public long getAssignedSplits()
+        {
+            return assignedSplits;
+        }
+
+        public void addAssignedSplits(int splits)
+        {
+            assignedSplits += splits;
+        }
+    }
+}
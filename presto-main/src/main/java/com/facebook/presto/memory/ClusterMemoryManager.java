@@ -18,6 +18,7 @@ import com.facebook.presto.execution.LocationFactory;
 import com.facebook.presto.execution.QueryExecution;
 import com.facebook.presto.execution.QueryIdGenerator;
 import com.facebook.presto.execution.QueryManagerConfig;
+import com.facebook.presto.memory.LowMemoryKiller.QueryMemoryInfo;
 import com.facebook.presto.metadata.InternalNodeManager;
 import com.facebook.presto.server.ServerConfig;
 import com.facebook.presto.spi.Node;
@@ -30,6 +31,7 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Streams;
 import io.airlift.http.client.HttpClient;
 import io.airlift.json.JsonCodec;
 import io.airlift.log.Logger;
@@ -59,6 +61,7 @@ import static com.facebook.presto.ExceededMemoryLimitException.exceededGlobalLim
 import static com.facebook.presto.SystemSessionProperties.RESOURCE_OVERCOMMIT;
 import static com.facebook.presto.SystemSessionProperties.getQueryMaxCpuTime;
 import static com.facebook.presto.SystemSessionProperties.getQueryMaxMemory;
+import static com.facebook.presto.SystemSessionProperties.getQueryPriority;
 import static com.facebook.presto.SystemSessionProperties.resourceOvercommit;
 import static com.facebook.presto.memory.LocalMemoryManager.GENERAL_POOL;
 import static com.facebook.presto.memory.LocalMemoryManager.RESERVED_POOL;
@@ -84,6 +87,7 @@ public class ClusterMemoryManager
     private final MBeanExporter exporter;
     private final JsonCodec<MemoryInfo> memoryInfoCodec;
     private final JsonCodec<MemoryPoolAssignmentsRequest> assignmentsRequestJsonCodec;
+    private final LowMemoryKiller lowMemoryKiller;
     private final DataSize maxQueryMemory;
     private final Duration maxQueryCpuTime;
     private final boolean enabled;
@@ -108,6 +112,9 @@ public class ClusterMemoryManager
     @GuardedBy("this")
     private QueryId lastKilledQuery;
 
+    @GuardedBy("this")
+    private long lastRevocableMemoryBytes;
+
     @Inject
     public ClusterMemoryManager(
             @ForMemoryManager HttpClient httpClient,
@@ -116,6 +123,7 @@ public class ClusterMemoryManager
             MBeanExporter exporter,
             JsonCodec<MemoryInfo> memoryInfoCodec,
             JsonCodec<MemoryPoolAssignmentsRequest> assignmentsRequestJsonCodec,
+            LowMemoryKiller lowMemoryKiller,
             QueryIdGenerator queryIdGenerator,
             ServerConfig serverConfig,
             MemoryManagerConfig config,
@@ -128,6 +136,7 @@ public class ClusterMemoryManager
         this.exporter = requireNonNull(exporter, "exporter is null");
         this.memoryInfoCodec = requireNonNull(memoryInfoCodec, "memoryInfoCodec is null");
         this.assignmentsRequestJsonCodec = requireNonNull(assignmentsRequestJsonCodec, "assignmentsRequestJsonCodec is null");
+        this.lowMemoryKiller = requireNonNull(lowMemoryKiller, "lowMemoryKiller is null");
         this.maxQueryMemory = config.getMaxQueryMemory();
         this.maxQueryCpuTime = queryManagerConfig.getQueryMaxCpuTime();
         this.coordinatorId = queryIdGenerator.getCoordinatorId();
@@ -179,29 +188,21 @@ public class ClusterMemoryManager
             boolean shouldKillQuery = nanosSince(lastTimeNotOutOfMemory).compareTo(killOnOutOfMemoryDelay) > 0 && outOfMemory;
             boolean lastKilledQueryIsGone = (lastKilledQuery == null);
 
+            ClusterMemoryPool generalPool = pools.get(GENERAL_POOL);
             if (!lastKilledQueryIsGone) {
-                ClusterMemoryPool generalPool = pools.get(GENERAL_POOL);
                 if (generalPool != null) {
-                    lastKilledQueryIsGone = generalPool.getQueryMemoryReservations().containsKey(lastKilledQuery);
+                    lastKilledQueryIsGone = !generalPool.getQueryMemoryReservations().containsKey(lastKilledQuery);
                 }
             }
 
-            if (shouldKillQuery && lastKilledQueryIsGone && !queryKilled) {
-                // Kill the biggest query in the general pool
-                QueryExecution biggestQuery = null;
-                long maxMemory = -1;
-                for (QueryExecution query : queries) {
-                    long bytesUsed = query.getTotalMemoryReservation();
-                    if (bytesUsed > maxMemory && query.getMemoryPool().getId().equals(GENERAL_POOL)) {
-                        biggestQuery = query;
-                        maxMemory = bytesUsed;
-                    }
-                }
-                if (biggestQuery != null) {
-                    biggestQuery.fail(new PrestoException(CLUSTER_OUT_OF_MEMORY, "The cluster is out of memory, and your query was killed. Please try again in a few minutes."));
-                    queriesKilledDueToOutOfMemory.incrementAndGet();
-                    lastKilledQuery = biggestQuery.getQueryId();
-                }
+            // Workers revoke (spill) revocable memory on their own when their pools fill up,
+            // so don't kill anything while that is still releasing memory
+            long revocableMemoryBytes = generalPool == null ? 0 : generalPool.getReservedRevocableDistributedBytes();
+            boolean revokingMemory = revocableMemoryBytes > 0 && revocableMemoryBytes < lastRevocableMemoryBytes;
+            lastRevocableMemoryBytes = revocableMemoryBytes;
+
+            if (shouldKillQuery && lastKilledQueryIsGone && !queryKilled && !revokingMemory) {
+                callLowMemoryKiller(queries);
             }
         }
 
@@ -226,6 +227,42 @@ public class ClusterMemoryManager
         }
     }
 
+    private synchronized void callLowMemoryKiller(Iterable<QueryExecution> queries)
+    {
+        List<QueryMemoryInfo> queryMemoryInfoList = Streams.stream(queries)
+                .map(query -> new QueryMemoryInfo(
+                        query.getQueryId(),
+                        query.getMemoryPool().getId(),
+                        query.getTotalMemoryReservation(),
+                        query.getTotalCpuTime(),
+                        getQueryPriority(query.getSession())))
+                .collect(toImmutableList());
+        List<MemoryInfo> nodeMemoryInfos = nodes.values().stream()
+                .map(RemoteNodeMemory::getInfo)
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .collect(toImmutableList());
+
+        Optional<QueryId> chosenQueryId = lowMemoryKiller.chooseQueryToKill(queryMemoryInfoList, nodeMemoryInfos);
+        if (!chosenQueryId.isPresent()) {
+            log.warn("Cluster is out of memory, but %s did not choose a query to kill", lowMemoryKiller.getClass().getSimpleName());
+            return;
+        }
+        for (QueryExecution query : queries) {
+            if (query.getQueryId().equals(chosenQueryId.get())) {
+                log.info("Killing query %s using %s of memory and %s of CPU time to free memory in the cluster (chosen by %s)",
+                        query.getQueryId(),
+                        succinctBytes(query.getTotalMemoryReservation()),
+                        query.getTotalCpuTime(),
+                        lowMemoryKiller.getClass().getSimpleName());
+                query.fail(new PrestoException(CLUSTER_OUT_OF_MEMORY, "The cluster is out of memory, and your query was killed. Please try again in a few minutes."));
+                queriesKilledDueToOutOfMemory.incrementAndGet();
+                lastKilledQuery = query.getQueryId();
+                return;
+            }
+        }
+    }
+
     @VisibleForTesting
     synchronized Map<MemoryPoolId, ClusterMemoryPool> getPools()
     {
@@ -0,0 +1,50 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.memory;
+
+import com.facebook.presto.spi.QueryId;
+
+import java.util.List;
+import java.util.Optional;
+
+import static com.facebook.presto.memory.LocalMemoryManager.GENERAL_POOL;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Kills the query in the general pool that has spent the least CPU time per
+ * byte of memory it would release, so that long running queries which are
+ * close to completion are only chosen if they also hold most of the memory.
+ */
+public class LeastWastedWorkLowMemoryKiller
+        implements LowMemoryKiller
+{
+    @Override
+    public Optional<QueryId> chooseQueryToKill(List<QueryMemoryInfo> runningQueries, List<MemoryInfo> nodes)
+    {
+        QueryId cheapestQuery = null;
+        double minWastedWork = Double.POSITIVE_INFINITY;
+        for (QueryMemoryInfo query : runningQueries) {
+            long bytesUsed = query.getMemoryReservation();
+            if (bytesUsed <= 0 || !GENERAL_POOL.equals(query.getMemoryPoolId())) {
+                continue;
+            }
+            double wastedWork = query.getCpuTime().getValue(NANOSECONDS) / bytesUsed;
+            if (wastedWork < minWastedWork) {
+                cheapestQuery = query.getQueryId();
+                minWastedWork = wastedWork;
+            }
+        }
+        return Optional.ofNullable(cheapestQuery);
+    }
+}
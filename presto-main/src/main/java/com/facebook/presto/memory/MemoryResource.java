@@ -17,11 +17,14 @@ import com.facebook.presto.execution.TaskManager;
 
 import javax.inject.Inject;
 import javax.ws.rs.Consumes;
+import javax.ws.rs.GET;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.MediaType;
 
+import java.util.List;
+
 import static java.util.Objects.requireNonNull;
 
 /**
@@ -32,12 +35,14 @@ public class MemoryResource
 {
     private final LocalMemoryManager memoryManager;
     private final TaskManager taskManager;
+    private final OperatorMemoryTracker operatorMemoryTracker;
 
     @Inject
-    public MemoryResource(LocalMemoryManager memoryManager, TaskManager taskManager)
+    public MemoryResource(LocalMemoryManager memoryManager, TaskManager taskManager, OperatorMemoryTracker operatorMemoryTracker)
     {
         this.memoryManager = requireNonNull(memoryManager, "memoryManager is null");
         this.taskManager = requireNonNull(taskManager, "taskManager is null");
+        this.operatorMemoryTracker = requireNonNull(operatorMemoryTracker, "operatorMemoryTracker is null");
     }
 
     @POST
@@ -48,4 +53,20 @@ public class MemoryResource
         taskManager.updateMemoryPoolAssignments(request);
         return memoryManager.getInfo();
     }
+
+    @GET
+    @Path("operators")
+    @Produces(MediaType.APPLICATION_JSON)
+    public List<OperatorMemoryInfo> getOperatorMemoryInfos()
+    {
+        return operatorMemoryTracker.getOperatorMemoryInfos();
+    }
+
+    @GET
+    @Path("operators/history")
+    @Produces(MediaType.APPLICATION_JSON)
+    public List<OperatorMemorySample> getOperatorMemorySamples()
+    {
+        return operatorMemoryTracker.getSamples();
+    }
 }
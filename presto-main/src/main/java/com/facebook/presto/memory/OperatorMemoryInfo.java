@@ -0,0 +1,110 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.memory;
+
+import com.facebook.presto.execution.TaskId;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Memory currently held by all operators of one type in a pipeline of a task.
+ */
+public class OperatorMemoryInfo
+{
+    private final TaskId taskId;
+    private final int pipelineId;
+    private final String operatorType;
+    private final long userMemoryReservation;
+    private final long systemMemoryReservation;
+    private final long revocableMemoryReservation;
+    private final long peakMemoryReservation;
+
+    @JsonCreator
+    public OperatorMemoryInfo(
+            @JsonProperty("taskId") TaskId taskId,
+            @JsonProperty("pipelineId") int pipelineId,
+            @JsonProperty("operatorType") String operatorType,
+            @JsonProperty("userMemoryReservation") long userMemoryReservation,
+            @JsonProperty("systemMemoryReservation") long systemMemoryReservation,
+            @JsonProperty("revocableMemoryReservation") long revocableMemoryReservation,
+            @JsonProperty("peakMemoryReservation") long peakMemoryReservation)
+    {
+        this.taskId = requireNonNull(taskId, "taskId is null");
+        this.pipelineId = pipelineId;
+        this.operatorType = requireNonNull(operatorType, "operatorType is null");
+        this.userMemoryReservation = userMemoryReservation;
+        this.systemMemoryReservation = systemMemoryReservation;
+        this.revocableMemoryReservation = revocableMemoryReservation;
+        this.peakMemoryReservation = peakMemoryReservation;
+    }
+
+    @JsonProperty
+    public TaskId getTaskId()
+    {
+        return taskId;
+    }
+
+    @JsonProperty
+    public int getPipelineId()
+    {
+        return pipelineId;
+    }
+
+    @JsonProperty
+    public String getOperatorType()
+    {
+        return operatorType;
+    }
+
+    @JsonProperty
+    public long getUserMemoryReservation()
+    {
+        return userMemoryReservation;
+    }
+
+    @JsonProperty
+    public long getSystemMemoryReservation()
+    {
+        return systemMemoryReservation;
+    }
+
+    @JsonProperty
+    public long getRevocableMemoryReservation()
+    {
+        return revocableMemoryReservation;
+    }
+
+    @JsonProperty
+    public long getPeakMemoryReservation()
+    {
+        return peakMemoryReservation;
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("taskId", taskId)
+                .add("pipelineId", pipelineId)
+                .add("operatorType", operatorType)
+                .add("userMemoryReservation", userMemoryReservation)
+                .add("systemMemoryReservation", systemMemoryReservation)
+                .add("revocableMemoryReservation", revocableMemoryReservation)
+                .add("peakMemoryReservation", peakMemoryReservation)
+                .toString();
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.memory;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.joda.time.DateTime;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Memory held by all operators of one type on this node at a point in time.
+ */
+public class OperatorMemorySample
+{
+    private final DateTime time;
+    private final String operatorType;
+    private final long userMemoryReservation;
+    private final long systemMemoryReservation;
+    private final long revocableMemoryReservation;
+
+    @JsonCreator
+    public OperatorMemorySample(
+            @JsonProperty("time") DateTime time,
+            @JsonProperty("operatorType") String operatorType,
+            @JsonProperty("userMemoryReservation") long userMemoryReservation,
+            @JsonProperty("systemMemoryReservation") long systemMemoryReservation,
+            @JsonProperty("revocableMemoryReservation") long revocableMemoryReservation)
+    {
+        this.time = requireNonNull(time, "time is null");
+        this.operatorType = requireNonNull(operatorType, "operatorType is null");
+        this.userMemoryReservation = userMemoryReservation;
+        this.systemMemoryReservation = systemMemoryReservation;
+        this.revocableMemoryReservation = revocableMemoryReservation;
+    }
+
+    @JsonProperty
+    public DateTime getTime()
+    {
+        return time;
+    }
+
+    @JsonProperty
+    public String getOperatorType()
+    {
+        return operatorType;
+    }
+
+    @JsonProperty
+    public long getUserMemoryReservation()
+    {
+        return userMemoryReservation;
+    }
+
+    @JsonProperty
+    public long getSystemMemoryReservation()
+    {
+        return systemMemoryReservation;
+    }
+
+    @JsonProperty
+    public long getRevocableMemoryReservation()
+    {
+        return revocableMemoryReservation;
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("time", time)
+                .add("operatorType", operatorType)
+                .add("userMemoryReservation", userMemoryReservation)
+                .add("systemMemoryReservation", systemMemoryReservation)
+                .add("revocableMemoryReservation", revocableMemoryReservation)
+                .toString();
+    }
+}
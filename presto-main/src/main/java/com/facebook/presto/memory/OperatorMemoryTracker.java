@@ -0,0 +1,223 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.memory;
+
+import com.facebook.presto.execution.TaskId;
+import com.google.common.collect.ImmutableList;
+import org.joda.time.DateTime;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Attributes the memory reserved on this node to the operators holding it.
+ * Operator contexts update the counters as they reserve and free memory, so
+ * reading the current state does not require walking the query context trees.
+ */
+@ThreadSafe
+public class OperatorMemoryTracker
+{
+    private static final int MAX_SAMPLES = 600;
+
+    private final ConcurrentMap<UsageKey, OperatorMemoryUsage> usages = new ConcurrentHashMap<>();
+
+    @GuardedBy("this")
+    private final Deque<List<OperatorMemorySample>> samples = new ArrayDeque<>();
+
+    public OperatorMemoryUsage getOperatorMemoryUsage(TaskId taskId, int pipelineId, String operatorType)
+    {
+        return usages.computeIfAbsent(new UsageKey(taskId, pipelineId, operatorType), key -> new OperatorMemoryUsage());
+    }
+
+    public List<OperatorMemoryInfo> getOperatorMemoryInfos()
+    {
+        return usages.entrySet().stream()
+                .map(entry -> entry.getValue().getInfo(entry.getKey()))
+                .collect(toImmutableList());
+    }
+
+    public void removeTask(TaskId taskId)
+    {
+        usages.keySet().removeIf(key -> key.getTaskId().equals(taskId));
+    }
+
+    /**
+     * Records the memory currently held by each operator type, discarding the oldest samples
+     * once the history is full.
+     */
+    public synchronized void sample()
+    {
+        Map<String, long[]> memoryByOperatorType = new TreeMap<>();
+        for (Map.Entry<UsageKey, OperatorMemoryUsage> entry : usages.entrySet()) {
+            long[] memory = memoryByOperatorType.computeIfAbsent(entry.getKey().getOperatorType(), operatorType -> new long[3]);
+            memory[0] += entry.getValue().getUserMemoryReservation();
+            memory[1] += entry.getValue().getSystemMemoryReservation();
+            memory[2] += entry.getValue().getRevocableMemoryReservation();
+        }
+
+        DateTime now = DateTime.now();
+        ImmutableList.Builder<OperatorMemorySample> sample = ImmutableList.builder();
+        for (Map.Entry<String, long[]> entry : memoryByOperatorType.entrySet()) {
+            long[] memory = entry.getValue();
+            sample.add(new OperatorMemorySample(now, entry.getKey(), memory[0], memory[1], memory[2]));
+        }
+
+        if (samples.size() == MAX_SAMPLES) {
+            samples.removeFirst();
+        }
+        samples.addLast(sample.build());
+    }
+
+    public synchronized List<OperatorMemorySample> getSamples()
+    {
+        return samples.stream()
+                .flatMap(List::stream)
+                .collect(toImmutableList());
+    }
+
+    @ThreadSafe
+    public static class OperatorMemoryUsage
+    {
+        private final AtomicLong userMemoryReservation = new AtomicLong();
+        private final AtomicLong systemMemoryReservation = new AtomicLong();
+        private final AtomicLong revocableMemoryReservation = new AtomicLong();
+        private final AtomicLong peakMemoryReservation = new AtomicLong();
+
+        public void updateUserMemory(long delta)
+        {
+            updatePeak(userMemoryReservation.addAndGet(delta) + systemMemoryReservation.get() + revocableMemoryReservation.get());
+        }
+
+        public void updateSystemMemory(long delta)
+        {
+            updatePeak(userMemoryReservation.get() + systemMemoryReservation.addAndGet(delta) + revocableMemoryReservation.get());
+        }
+
+        public void updateRevocableMemory(long delta)
+        {
+            updatePeak(userMemoryReservation.get() + systemMemoryReservation.get() + revocableMemoryReservation.addAndGet(delta));
+        }
+
+        private void updatePeak(long totalMemoryReservation)
+        {
+            peakMemoryReservation.accumulateAndGet(totalMemoryReservation, Math::max);
+        }
+
+        public long getUserMemoryReservation()
+        {
+            return userMemoryReservation.get();
+        }
+
+        public long getSystemMemoryReservation()
+        {
+            return systemMemoryReservation.get();
+        }
+
+        public long getRevocableMemoryReservation()
+        {
+            return revocableMemoryReservation.get();
+        }
+
+        public long getPeakMemoryReservation()
+        {
+            return peakMemoryReservation.get();
+        }
+
+        private OperatorMemoryInfo getInfo(UsageKey key)
+        {
+            return new OperatorMemoryInfo(
+                    key.getTaskId(),
+                    key.getPipelineId(),
+                    key.getOperatorType(),
+                    getUserMemoryReservation(),
+                    getSystemMemoryReservation(),
+                    getRevocableMemoryReservation(),
+                    getPeakMemoryReservation());
+        }
+    }
+
+    private static class UsageKey
+    {
+        private final TaskId taskId;
+        private final int pipelineId;
+        private final String operatorType;
+
+        public UsageKey(TaskId taskId, int pipelineId, String operatorType)
+        {
+            this.taskId = requireNonNull(taskId, "taskId is null");
+            this.pipelineId = pipelineId;
+            this.operatorType = requireNonNull(operatorType, "operatorType is null");
+        }
+
+        public TaskId getTaskId()
+        {
+            return taskId;
+        }
+
+        public int getPipelineId()
+        {
+            return pipelineId;
+        }
+
+        public String getOperatorType()
+        {
+            return operatorType;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            UsageKey that = (UsageKey) o;
+            return pipelineId == that.pipelineId &&
+                    Objects.equals(taskId, that.taskId) &&
+                    Objects.equals(operatorType, that.operatorType);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(taskId, pipelineId, operatorType);
+        }
+
+        @Override
+        public String toString()
+        {
+            return toStringHelper(this)
+                    .add("taskId", taskId)
+                    .add("pipelineId", pipelineId)
+                    .add("operatorType", operatorType)
+                    .toString();
+        }
+    }
+}
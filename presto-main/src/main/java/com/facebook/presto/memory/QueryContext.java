@@ -55,6 +55,7 @@ public class QueryContext
     private final SpillSpaceTracker spillSpaceTracker;
     private final Map<TaskId, TaskContext> taskContexts = new ConcurrentHashMap();
     private final MemoryPool systemMemoryPool;
+    private final OperatorMemoryTracker operatorMemoryTracker;
 
     // TODO: This field should be final. However, due to the way QueryContext is constructed the memory limit is not known in advance
     @GuardedBy("this")
@@ -76,6 +77,20 @@ public class QueryContext
     private long spillUsed;
 
     public QueryContext(QueryId queryId, DataSize maxMemory, MemoryPool memoryPool, MemoryPool systemMemoryPool, Executor notificationExecutor, ScheduledExecutorService yieldExecutor, DataSize maxSpill, SpillSpaceTracker spillSpaceTracker)
+    {
+        this(queryId, maxMemory, memoryPool, systemMemoryPool, notificationExecutor, yieldExecutor, maxSpill, spillSpaceTracker, new OperatorMemoryTracker());
+    }
+
+    public QueryContext(
+            QueryId queryId,
+            DataSize maxMemory,
+            MemoryPool memoryPool,
+            MemoryPool systemMemoryPool,
+            Executor notificationExecutor,
+            ScheduledExecutorService yieldExecutor,
+            DataSize maxSpill,
+            SpillSpaceTracker spillSpaceTracker,
+            OperatorMemoryTracker operatorMemoryTracker)
     {
         this.queryId = requireNonNull(queryId, "queryId is null");
         this.maxMemory = requireNonNull(maxMemory, "maxMemory is null").toBytes();
@@ -85,6 +100,7 @@ public class QueryContext
         this.yieldExecutor = requireNonNull(yieldExecutor, "yieldExecutor is null");
         this.maxSpill = requireNonNull(maxSpill, "maxSpill is null").toBytes();
         this.spillSpaceTracker = requireNonNull(spillSpaceTracker, "spillSpaceTracker is null");
+        this.operatorMemoryTracker = requireNonNull(operatorMemoryTracker, "operatorMemoryTracker is null");
     }
 
     // TODO: This method should be removed, and the correct limit set in the constructor. However, due to the way QueryContext is constructed the memory limit is not known in advance
@@ -219,6 +235,11 @@ public class QueryContext
         return memoryPool;
     }
 
+    public OperatorMemoryTracker getOperatorMemoryTracker()
+    {
+        return operatorMemoryTracker;
+    }
+
     public TaskContext addTaskContext(TaskStateMachine taskStateMachine, Session session, boolean verboseStats, boolean cpuTimerEnabled)
     {
         TaskContext taskContext = new TaskContext(this, taskStateMachine, notificationExecutor, yieldExecutor, session, verboseStats, cpuTimerEnabled);
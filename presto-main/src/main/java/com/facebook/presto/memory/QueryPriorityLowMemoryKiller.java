@@ -0,0 +1,42 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.memory;
+
+import com.facebook.presto.spi.QueryId;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+import static com.facebook.presto.memory.LocalMemoryManager.GENERAL_POOL;
+
+/**
+ * Kills the largest query in the general pool among the queries with the
+ * lowest query priority, which is the priority used by resource groups to
+ * order queries.
+ */
+public class QueryPriorityLowMemoryKiller
+        implements LowMemoryKiller
+{
+    @Override
+    public Optional<QueryId> chooseQueryToKill(List<QueryMemoryInfo> runningQueries, List<MemoryInfo> nodes)
+    {
+        return runningQueries.stream()
+                .filter(query -> GENERAL_POOL.equals(query.getMemoryPoolId()))
+                .filter(query -> query.getMemoryReservation() > 0)
+                .min(Comparator.comparingInt(QueryMemoryInfo::getPriority)
+                        .thenComparing(Comparator.comparingLong(QueryMemoryInfo::getMemoryReservation).reversed()))
+                .map(QueryMemoryInfo::getQueryId);
+    }
+}
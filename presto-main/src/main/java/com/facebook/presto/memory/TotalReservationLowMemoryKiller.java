@@ -0,0 +1,43 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.memory;
+
+import com.facebook.presto.spi.QueryId;
+
+import java.util.List;
+import java.util.Optional;
+
+import static com.facebook.presto.memory.LocalMemoryManager.GENERAL_POOL;
+
+/**
+ * Kills the query with the largest reservation in the general pool.
+ */
+public class TotalReservationLowMemoryKiller
+        implements LowMemoryKiller
+{
+    @Override
+    public Optional<QueryId> chooseQueryToKill(List<QueryMemoryInfo> runningQueries, List<MemoryInfo> nodes)
+    {
+        QueryId biggestQuery = null;
+        long maxMemory = -1;
+        for (QueryMemoryInfo query : runningQueries) {
+            long bytesUsed = query.getMemoryReservation();
+            if (bytesUsed > maxMemory && GENERAL_POOL.equals(query.getMemoryPoolId())) {
+                biggestQuery = query.getQueryId();
+                maxMemory = bytesUsed;
+            }
+        }
+        return Optional.ofNullable(biggestQuery);
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.memory;
+
+import com.facebook.presto.spi.QueryId;
+import com.facebook.presto.spi.memory.MemoryPoolInfo;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.facebook.presto.memory.LocalMemoryManager.GENERAL_POOL;
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
+
+/**
+ * Kills the query in the general pool that reserves the most memory on the
+ * nodes whose general pool is blocked. Killing a query that is large overall
+ * but runs elsewhere does not unblock any of these nodes.
+ */
+public class TotalReservationOnBlockedNodesLowMemoryKiller
+        implements LowMemoryKiller
+{
+    @Override
+    public Optional<QueryId> chooseQueryToKill(List<QueryMemoryInfo> runningQueries, List<MemoryInfo> nodes)
+    {
+        Set<QueryId> generalPoolQueries = runningQueries.stream()
+                .filter(query -> GENERAL_POOL.equals(query.getMemoryPoolId()))
+                .map(QueryMemoryInfo::getQueryId)
+                .collect(toImmutableSet());
+
+        Map<QueryId, Long> memoryReservationOnBlockedNodes = new HashMap<>();
+        for (MemoryInfo node : nodes) {
+            MemoryPoolInfo generalPool = node.getPools().get(GENERAL_POOL);
+            if (generalPool == null || generalPool.getFreeBytes() + generalPool.getReservedRevocableBytes() > 0) {
+                continue;
+            }
+            for (Map.Entry<QueryId, Long> entry : generalPool.getQueryMemoryReservations().entrySet()) {
+                if (generalPoolQueries.contains(entry.getKey())) {
+                    memoryReservationOnBlockedNodes.merge(entry.getKey(), entry.getValue(), Long::sum);
+                }
+            }
+        }
+
+        return memoryReservationOnBlockedNodes.entrySet().stream()
+                .filter(entry -> entry.getValue() > 0)
+                .max(Map.Entry.comparingByValue())
+                .map(Map.Entry::getKey);
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.metadata;
+
+import com.facebook.presto.spi.ColumnHandle;
+import com.google.common.collect.ImmutableList;
+
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+public class AggregationPushDownResult
+{
+    private final TableLayoutHandle layout;
+    private final List<ColumnHandle> aggregateColumns;
+
+    public AggregationPushDownResult(TableLayoutHandle layout, List<ColumnHandle> aggregateColumns)
+    {
+        this.layout = requireNonNull(layout, "layout is null");
+        this.aggregateColumns = ImmutableList.copyOf(requireNonNull(aggregateColumns, "aggregateColumns is null"));
+    }
+
+    public TableLayoutHandle getLayout()
+    {
+        return layout;
+    }
+
+    public List<ColumnHandle> getAggregateColumns()
+    {
+        return aggregateColumns;
+    }
+}
@@ -15,6 +15,7 @@ package com.facebook.presto.metadata;
 
 import com.facebook.presto.Session;
 import com.facebook.presto.connector.ConnectorId;
+import com.facebook.presto.spi.AggregateFunction;
 import com.facebook.presto.spi.CatalogSchemaName;
 import com.facebook.presto.spi.ColumnHandle;
 import com.facebook.presto.spi.ColumnIdentity;
@@ -22,6 +23,7 @@ import com.facebook.presto.spi.ColumnMetadata;
 import com.facebook.presto.spi.ConnectorTableMetadata;
 import com.facebook.presto.spi.Constraint;
 import com.facebook.presto.spi.PrestoException;
+import com.facebook.presto.spi.SortingProperty;
 import com.facebook.presto.spi.TableIdentity;
 import com.facebook.presto.spi.block.BlockEncodingSerde;
 import com.facebook.presto.spi.connector.ConnectorOutputMetadata;
@@ -32,6 +34,7 @@ import com.facebook.presto.spi.statistics.TableStatistics;
 import com.facebook.presto.spi.type.Type;
 import com.facebook.presto.spi.type.TypeManager;
 import com.facebook.presto.spi.type.TypeSignature;
+import com.facebook.presto.sql.planner.PartitioningHandle;
 import com.facebook.presto.sql.tree.QualifiedName;
 import io.airlift.slice.Slice;
 
@@ -67,6 +70,35 @@ public interface Metadata
 
     TableLayout getLayout(Session session, TableLayoutHandle handle);
 
+    /**
+     * Return a table layout handle whose partitioning is converted to the provided partitioning handle,
+     * but otherwise identical to the provided table layout handle.
+     * The provided table layout handle must be one that the connector can transparently convert to from
+     * the original partitioning handle associated with the provided table layout handle,
+     * as promised by {@link #getCommonPartitioning}.
+     */
+    TableLayoutHandle getAlternativeLayoutHandle(Session session, TableLayoutHandle tableLayoutHandle, PartitioningHandle partitioningHandle);
+
+    /**
+     * Return a partitioning handle which the connector can transparently convert both {@code left} and {@code right} into.
+     */
+    Optional<PartitioningHandle> getCommonPartitioning(Session session, PartitioningHandle left, PartitioningHandle right);
+
+    /**
+     * Return a table layout handle whose splits each produce at most {@code limit} rows, if the connector supports it.
+     */
+    Optional<TableLayoutHandle> pushDownLimit(Session session, TableLayoutHandle tableLayoutHandle, long limit);
+
+    /**
+     * Return a table layout handle whose splits each produce only their first {@code count} rows in the provided ordering, if the connector supports it.
+     */
+    Optional<TableLayoutHandle> pushDownTopN(Session session, TableLayoutHandle tableLayoutHandle, long count, List<SortingProperty<ColumnHandle>> ordering);
+
+    /**
+     * Return a table layout handle whose splits each produce the partial results of the aggregates, if the connector supports it.
+     */
+    Optional<AggregationPushDownResult> pushDownPartialAggregation(Session session, TableLayoutHandle tableLayoutHandle, List<ColumnHandle> groupingColumns, List<AggregateFunction> aggregates);
+
     Optional<Object> getInfo(Session session, TableLayoutHandle handle);
 
     /**
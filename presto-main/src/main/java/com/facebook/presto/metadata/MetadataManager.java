@@ -16,6 +16,7 @@ package com.facebook.presto.metadata;
 import com.facebook.presto.Session;
 import com.facebook.presto.block.BlockEncodingManager;
 import com.facebook.presto.connector.ConnectorId;
+import com.facebook.presto.spi.AggregateFunction;
 import com.facebook.presto.spi.CatalogSchemaName;
 import com.facebook.presto.spi.ColumnHandle;
 import com.facebook.presto.spi.ColumnIdentity;
@@ -27,6 +28,7 @@ import com.facebook.presto.spi.ConnectorResolvedIndex;
 import com.facebook.presto.spi.ConnectorSession;
 import com.facebook.presto.spi.ConnectorTableHandle;
 import com.facebook.presto.spi.ConnectorTableLayout;
+import com.facebook.presto.spi.ConnectorTableLayoutHandle;
 import com.facebook.presto.spi.ConnectorTableLayoutResult;
 import com.facebook.presto.spi.ConnectorTableMetadata;
 import com.facebook.presto.spi.ConnectorViewDefinition;
@@ -35,10 +37,12 @@ import com.facebook.presto.spi.PrestoException;
 import com.facebook.presto.spi.QueryId;
 import com.facebook.presto.spi.SchemaTableName;
 import com.facebook.presto.spi.SchemaTablePrefix;
+import com.facebook.presto.spi.SortingProperty;
 import com.facebook.presto.spi.TableIdentity;
 import com.facebook.presto.spi.block.BlockEncodingSerde;
 import com.facebook.presto.spi.connector.ConnectorMetadata;
 import com.facebook.presto.spi.connector.ConnectorOutputMetadata;
+import com.facebook.presto.spi.connector.ConnectorPartitioningHandle;
 import com.facebook.presto.spi.connector.ConnectorTransactionHandle;
 import com.facebook.presto.spi.function.OperatorType;
 import com.facebook.presto.spi.predicate.TupleDomain;
@@ -49,6 +53,7 @@ import com.facebook.presto.spi.type.Type;
 import com.facebook.presto.spi.type.TypeManager;
 import com.facebook.presto.spi.type.TypeSignature;
 import com.facebook.presto.sql.analyzer.FeaturesConfig;
+import com.facebook.presto.sql.planner.PartitioningHandle;
 import com.facebook.presto.sql.tree.QualifiedName;
 import com.facebook.presto.transaction.TransactionManager;
 import com.facebook.presto.type.TypeDeserializer;
@@ -97,6 +102,7 @@ import static com.facebook.presto.spi.function.OperatorType.NOT_EQUAL;
 import static com.facebook.presto.spi.type.BigintType.BIGINT;
 import static com.facebook.presto.spi.type.BooleanType.BOOLEAN;
 import static com.facebook.presto.transaction.TransactionManager.createTestTransactionManager;
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.collect.ImmutableList.toImmutableList;
 import static java.lang.String.format;
 import static java.util.Locale.ENGLISH;
@@ -321,6 +327,67 @@ public class MetadataManager
         return fromConnectorLayout(connectorId, transaction, metadata.getTableLayout(session.toConnectorSession(connectorId), handle.getConnectorHandle()));
     }
 
+    @Override
+    public TableLayoutHandle getAlternativeLayoutHandle(Session session, TableLayoutHandle tableLayoutHandle, PartitioningHandle partitioningHandle)
+    {
+        checkArgument(partitioningHandle.getConnectorId().isPresent(), "Expected partitioning handle from connector, got system partitioning handle");
+        ConnectorId connectorId = partitioningHandle.getConnectorId().get();
+        checkArgument(connectorId.equals(tableLayoutHandle.getConnectorId()), "ConnectorId of tableLayoutHandle and partitioningHandle does not match");
+        CatalogMetadata catalogMetadata = getCatalogMetadata(session, connectorId);
+        ConnectorMetadata metadata = catalogMetadata.getMetadataFor(connectorId);
+        ConnectorTableLayoutHandle newTableLayoutHandle = metadata.getAlternativeLayoutHandle(session.toConnectorSession(connectorId), tableLayoutHandle.getConnectorHandle(), partitioningHandle.getConnectorHandle());
+        return new TableLayoutHandle(connectorId, tableLayoutHandle.getTransactionHandle(), newTableLayoutHandle);
+    }
+
+    @Override
+    public Optional<PartitioningHandle> getCommonPartitioning(Session session, PartitioningHandle left, PartitioningHandle right)
+    {
+        if (left.equals(right)) {
+            return Optional.of(left);
+        }
+
+        Optional<ConnectorId> leftConnectorId = left.getConnectorId();
+        Optional<ConnectorId> rightConnectorId = right.getConnectorId();
+        if (!leftConnectorId.isPresent() || !leftConnectorId.equals(rightConnectorId) || !left.getTransactionHandle().equals(right.getTransactionHandle())) {
+            return Optional.empty();
+        }
+
+        ConnectorId connectorId = leftConnectorId.get();
+        CatalogMetadata catalogMetadata = getCatalogMetadata(session, connectorId);
+        ConnectorMetadata metadata = catalogMetadata.getMetadataFor(connectorId);
+        Optional<ConnectorPartitioningHandle> commonHandle = metadata.getCommonPartitioningHandle(session.toConnectorSession(connectorId), left.getConnectorHandle(), right.getConnectorHandle());
+        return commonHandle.map(handle -> new PartitioningHandle(Optional.of(connectorId), left.getTransactionHandle(), handle));
+    }
+
+    @Override
+    public Optional<TableLayoutHandle> pushDownLimit(Session session, TableLayoutHandle tableLayoutHandle, long limit)
+    {
+        ConnectorId connectorId = tableLayoutHandle.getConnectorId();
+        ConnectorMetadata metadata = getMetadata(session, connectorId);
+        return metadata.pushDownLimit(session.toConnectorSession(connectorId), tableLayoutHandle.getConnectorHandle(), limit)
+                .map(handle -> new TableLayoutHandle(connectorId, tableLayoutHandle.getTransactionHandle(), handle));
+    }
+
+    @Override
+    public Optional<TableLayoutHandle> pushDownTopN(Session session, TableLayoutHandle tableLayoutHandle, long count, List<SortingProperty<ColumnHandle>> ordering)
+    {
+        ConnectorId connectorId = tableLayoutHandle.getConnectorId();
+        ConnectorMetadata metadata = getMetadata(session, connectorId);
+        return metadata.pushDownTopN(session.toConnectorSession(connectorId), tableLayoutHandle.getConnectorHandle(), count, ordering)
+                .map(handle -> new TableLayoutHandle(connectorId, tableLayoutHandle.getTransactionHandle(), handle));
+    }
+
+    @Override
+    public Optional<AggregationPushDownResult> pushDownPartialAggregation(Session session, TableLayoutHandle tableLayoutHandle, List<ColumnHandle> groupingColumns, List<AggregateFunction> aggregates)
+    {
+        ConnectorId connectorId = tableLayoutHandle.getConnectorId();
+        ConnectorMetadata metadata = getMetadata(session, connectorId);
+        return metadata.pushDownPartialAggregation(session.toConnectorSession(connectorId), tableLayoutHandle.getConnectorHandle(), groupingColumns, aggregates)
+                .map(result -> new AggregationPushDownResult(
+                        new TableLayoutHandle(connectorId, tableLayoutHandle.getTransactionHandle(), result.getLayoutHandle()),
+                        result.getAggregateColumns()));
+    }
+
     @Override
     public Optional<Object> getInfo(Session session, TableLayoutHandle handle)
     {
@@ -20,6 +20,8 @@ import com.facebook.presto.spi.PageBuilder;
 import com.facebook.presto.spi.PrestoException;
 import com.facebook.presto.spi.block.Block;
 import com.facebook.presto.spi.block.BlockBuilder;
+import com.facebook.presto.spi.block.DictionaryBlock;
+import com.facebook.presto.spi.block.RunLengthEncodedBlock;
 import com.facebook.presto.spi.type.BigintType;
 import com.facebook.presto.spi.type.Type;
 import com.facebook.presto.type.BigintOperators;
@@ -27,6 +29,7 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
 import org.openjdk.jol.info.ClassLayout;
 
+import java.util.Arrays;
 import java.util.List;
 
 import static com.facebook.presto.spi.StandardErrorCode.GENERIC_INSUFFICIENT_RESOURCES;
@@ -35,6 +38,7 @@ import static com.facebook.presto.type.TypeUtils.NULL_HASH_CODE;
 import static com.facebook.presto.util.HashCollisionsEstimator.estimateNumberOfHashCollisions;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
+import static io.airlift.slice.SizeOf.sizeOf;
 import static it.unimi.dsi.fastutil.HashCommon.arraySize;
 import static it.unimi.dsi.fastutil.HashCommon.murmurHash3;
 import static java.lang.Math.toIntExact;
@@ -51,6 +55,7 @@ public class BigintGroupByHash
 
     private final int hashChannel;
     private final boolean outputRawHash;
+    private final boolean processDictionary;
 
     private int hashCapacity;
     private int maxFill;
@@ -67,6 +72,7 @@ public class BigintGroupByHash
     private final LongBigArray valuesByGroupId;
 
     private int nextGroupId;
+    private DictionaryLookBack dictionaryLookBack;
     private long hashCollisions;
     private double expectedHashCollisions;
 
@@ -75,13 +81,14 @@ public class BigintGroupByHash
     private long preallocatedMemoryInBytes;
     private long currentPageSizeInBytes;
 
-    public BigintGroupByHash(int hashChannel, boolean outputRawHash, int expectedSize, UpdateMemory updateMemory)
+    public BigintGroupByHash(int hashChannel, boolean outputRawHash, int expectedSize, boolean processDictionary, UpdateMemory updateMemory)
     {
         checkArgument(hashChannel >= 0, "hashChannel must be at least zero");
         checkArgument(expectedSize > 0, "expectedSize must be greater than zero");
 
         this.hashChannel = hashChannel;
         this.outputRawHash = outputRawHash;
+        this.processDictionary = processDictionary;
 
         hashCapacity = arraySize(expectedSize, FILL_RATIO);
 
@@ -107,6 +114,7 @@ public class BigintGroupByHash
                 groupIds.sizeOf() +
                 values.sizeOf() +
                 valuesByGroupId.sizeOf() +
+                (dictionaryLookBack == null ? 0 : dictionaryLookBack.getRetainedSizeInBytes()) +
                 preallocatedMemoryInBytes;
     }
 
@@ -161,14 +169,28 @@ public class BigintGroupByHash
     public Work<?> addPage(Page page)
     {
         currentPageSizeInBytes = page.getRetainedSizeInBytes();
-        return new AddPageWork(page.getBlock(hashChannel));
+        Block block = page.getBlock(hashChannel);
+        if (block instanceof RunLengthEncodedBlock) {
+            return new AddRunLengthEncodedPageWork((RunLengthEncodedBlock) block);
+        }
+        if (canProcessDictionary(block)) {
+            return new AddDictionaryPageWork((DictionaryBlock) block);
+        }
+        return new AddPageWork(block);
     }
 
     @Override
     public Work<GroupByIdBlock> getGroupIds(Page page)
     {
         currentPageSizeInBytes = page.getRetainedSizeInBytes();
-        return new GetGroupIdsWork(page.getBlock(hashChannel));
+        Block block = page.getBlock(hashChannel);
+        if (block instanceof RunLengthEncodedBlock) {
+            return new GetRunLengthEncodedGroupIdsWork((RunLengthEncodedBlock) block);
+        }
+        if (canProcessDictionary(block)) {
+            return new GetDictionaryGroupIdsWork((DictionaryBlock) block);
+        }
+        return new GetGroupIdsWork(block);
     }
 
     @Override
@@ -243,6 +265,29 @@ public class BigintGroupByHash
         return addNewGroup(hashPosition, value);
     }
 
+    private boolean canProcessDictionary(Block block)
+    {
+        return processDictionary && block instanceof DictionaryBlock;
+    }
+
+    private void updateDictionaryLookBack(Block dictionary)
+    {
+        if (dictionaryLookBack == null || dictionaryLookBack.getDictionary() != dictionary) {
+            dictionaryLookBack = new DictionaryLookBack(dictionary);
+        }
+    }
+
+    private int getGroupId(Block dictionary, int positionInDictionary)
+    {
+        if (dictionaryLookBack.isProcessed(positionInDictionary)) {
+            return dictionaryLookBack.getGroupId(positionInDictionary);
+        }
+
+        int groupId = putIfAbsent(positionInDictionary, dictionary);
+        dictionaryLookBack.setProcessed(positionInDictionary, groupId);
+        return groupId;
+    }
+
     private int addNewGroup(long hashPosition, long value)
     {
         // record group id in hash
@@ -422,4 +467,225 @@ public class BigintGroupByHash
             return new GroupByIdBlock(nextGroupId, blockBuilder.build());
         }
     }
+
+    private static final class DictionaryLookBack
+    {
+        private static final int INSTANCE_SIZE = ClassLayout.parseClass(DictionaryLookBack.class).instanceSize();
+
+        private final Block dictionary;
+        private final int[] processed;
+
+        public DictionaryLookBack(Block dictionary)
+        {
+            this.dictionary = dictionary;
+            this.processed = new int[dictionary.getPositionCount()];
+            Arrays.fill(processed, -1);
+        }
+
+        public Block getDictionary()
+        {
+            return dictionary;
+        }
+
+        public int getGroupId(int position)
+        {
+            return processed[position];
+        }
+
+        public boolean isProcessed(int position)
+        {
+            return processed[position] != -1;
+        }
+
+        public void setProcessed(int position, int groupId)
+        {
+            processed[position] = groupId;
+        }
+
+        public long getRetainedSizeInBytes()
+        {
+            return INSTANCE_SIZE + sizeOf(processed);
+        }
+    }
+
+    private class AddRunLengthEncodedPageWork
+            implements Work<Void>
+    {
+        private final RunLengthEncodedBlock block;
+
+        private boolean finished;
+
+        public AddRunLengthEncodedPageWork(RunLengthEncodedBlock block)
+        {
+            this.block = requireNonNull(block, "block is null");
+        }
+
+        @Override
+        public boolean process()
+        {
+            checkState(!finished);
+            if (block.getPositionCount() == 0) {
+                finished = true;
+                return true;
+            }
+
+            // needRehash() == false indicates we have reached capacity boundary and a rehash is needed.
+            // We can only proceed if tryRehash() successfully did a rehash.
+            if (needRehash() && !tryRehash()) {
+                return false;
+            }
+
+            // all positions share the same value, so a single lookup adds the whole page
+            putIfAbsent(0, block.getValue());
+            finished = true;
+            return true;
+        }
+
+        @Override
+        public Void getResult()
+        {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private class GetRunLengthEncodedGroupIdsWork
+            implements Work<GroupByIdBlock>
+    {
+        private final RunLengthEncodedBlock block;
+
+        private int groupId = -1;
+        private boolean processFinished;
+        private boolean resultProduced;
+
+        public GetRunLengthEncodedGroupIdsWork(RunLengthEncodedBlock block)
+        {
+            this.block = requireNonNull(block, "block is null");
+        }
+
+        @Override
+        public boolean process()
+        {
+            checkState(!processFinished);
+            if (block.getPositionCount() == 0) {
+                processFinished = true;
+                return true;
+            }
+
+            // needRehash() == false indicates we have reached capacity boundary and a rehash is needed.
+            // We can only proceed if tryRehash() successfully did a rehash.
+            if (needRehash() && !tryRehash()) {
+                return false;
+            }
+
+            // all positions share the same value, so a single lookup gives the group id of the whole page
+            groupId = putIfAbsent(0, block.getValue());
+            processFinished = true;
+            return true;
+        }
+
+        @Override
+        public GroupByIdBlock getResult()
+        {
+            checkState(processFinished, "process has not yet finished");
+            checkState(!resultProduced, "result has produced");
+            resultProduced = true;
+            return new GroupByIdBlock(nextGroupId, RunLengthEncodedBlock.create(BIGINT, (long) groupId, block.getPositionCount()));
+        }
+    }
+
+    private class AddDictionaryPageWork
+            implements Work<Void>
+    {
+        private final DictionaryBlock block;
+        private final Block dictionary;
+
+        private int lastPosition;
+
+        public AddDictionaryPageWork(DictionaryBlock block)
+        {
+            this.block = requireNonNull(block, "block is null");
+            this.dictionary = block.getDictionary();
+            updateDictionaryLookBack(dictionary);
+        }
+
+        @Override
+        public boolean process()
+        {
+            int positionCount = block.getPositionCount();
+            checkState(lastPosition < positionCount, "position count out of bound");
+
+            // needRehash() == false indicates we have reached capacity boundary and a rehash is needed.
+            // We can only proceed if tryRehash() successfully did a rehash.
+            if (needRehash() && !tryRehash()) {
+                return false;
+            }
+
+            // putIfAbsent will rehash automatically if rehash is needed, unless there isn't enough memory to do so.
+            // Therefore needRehash will not generally return true even if we have just crossed the capacity boundary.
+            while (lastPosition < positionCount && !needRehash()) {
+                getGroupId(dictionary, block.getId(lastPosition));
+                lastPosition++;
+            }
+            return lastPosition == positionCount;
+        }
+
+        @Override
+        public Void getResult()
+        {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private class GetDictionaryGroupIdsWork
+            implements Work<GroupByIdBlock>
+    {
+        private final BlockBuilder blockBuilder;
+        private final DictionaryBlock block;
+        private final Block dictionary;
+
+        private boolean finished;
+        private int lastPosition;
+
+        public GetDictionaryGroupIdsWork(DictionaryBlock block)
+        {
+            this.block = requireNonNull(block, "block is null");
+            this.dictionary = block.getDictionary();
+            updateDictionaryLookBack(dictionary);
+
+            // we know the exact size required for the block
+            this.blockBuilder = BIGINT.createFixedSizeBlockBuilder(block.getPositionCount());
+        }
+
+        @Override
+        public boolean process()
+        {
+            int positionCount = block.getPositionCount();
+            checkState(lastPosition < positionCount, "position count out of bound");
+            checkState(!finished);
+
+            // needRehash() == false indicates we have reached capacity boundary and a rehash is needed.
+            // We can only proceed if tryRehash() successfully did a rehash.
+            if (needRehash() && !tryRehash()) {
+                return false;
+            }
+
+            // putIfAbsent will rehash automatically if rehash is needed, unless there isn't enough memory to do so.
+            // Therefore needRehash will not generally return true even if we have just crossed the capacity boundary.
+            while (lastPosition < positionCount && !needRehash()) {
+                // output the group id for this row
+                BIGINT.writeLong(blockBuilder, getGroupId(dictionary, block.getId(lastPosition)));
+                lastPosition++;
+            }
+            return lastPosition == positionCount;
+        }
+
+        @Override
+        public GroupByIdBlock getResult()
+        {
+            checkState(lastPosition == block.getPositionCount(), "process has not yet finished");
+            checkState(!finished, "result has produced");
+            finished = true;
+            return new GroupByIdBlock(nextGroupId, blockBuilder.build());
+        }
+    }
 }
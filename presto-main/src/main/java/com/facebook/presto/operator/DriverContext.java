@@ -364,6 +364,11 @@ public class DriverContext
         return blockedMonitor.get() != null;
     }
 
+    public long getTotalCpuNanos()
+    {
+        return processCpuNanos.get();
+    }
+
     public DriverStats getDriverStats()
     {
         long totalScheduledTime = processWallNanos.get();
@@ -0,0 +1,392 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator;
+
+import com.facebook.presto.execution.buffer.PagesSerde;
+import com.facebook.presto.execution.buffer.PagesSerdeFactory;
+import com.facebook.presto.execution.buffer.SerializedPage;
+import com.facebook.presto.metadata.Split;
+import com.facebook.presto.operator.ExchangeOperator.UpdateSystemMemory;
+import com.facebook.presto.spi.Page;
+import com.facebook.presto.spi.PageBuilder;
+import com.facebook.presto.spi.UpdatablePageSource;
+import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.block.SortOrder;
+import com.facebook.presto.spi.type.Type;
+import com.facebook.presto.split.RemoteSplit;
+import com.facebook.presto.sql.planner.plan.PlanNodeId;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+
+import java.io.Closeable;
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.function.Supplier;
+
+import static com.facebook.presto.operator.ExchangeOperator.REMOTE_CONNECTOR_ID;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Merges the sorted outputs of the tasks of a stage into a single sorted stream.
+ * Every remote location is read with its own exchange client, and a row is only
+ * produced once every stream that is not finished has a row available.
+ */
+public class MergeOperator
+        implements SourceOperator, Closeable
+{
+    public static class MergeOperatorFactory
+            implements SourceOperatorFactory
+    {
+        private final int operatorId;
+        private final PlanNodeId sourceId;
+        private final ExchangeClientSupplier exchangeClientSupplier;
+        private final PagesSerdeFactory serdeFactory;
+        private final List<Type> types;
+        private final List<Integer> sortChannels;
+        private final List<SortOrder> sortOrder;
+        private boolean closed;
+
+        public MergeOperatorFactory(
+                int operatorId,
+                PlanNodeId sourceId,
+                ExchangeClientSupplier exchangeClientSupplier,
+                PagesSerdeFactory serdeFactory,
+                List<Type> types,
+                List<Integer> sortChannels,
+                List<SortOrder> sortOrder)
+        {
+            this.operatorId = operatorId;
+            this.sourceId = requireNonNull(sourceId, "sourceId is null");
+            this.exchangeClientSupplier = requireNonNull(exchangeClientSupplier, "exchangeClientSupplier is null");
+            this.serdeFactory = requireNonNull(serdeFactory, "serdeFactory is null");
+            this.types = ImmutableList.copyOf(requireNonNull(types, "types is null"));
+            this.sortChannels = ImmutableList.copyOf(requireNonNull(sortChannels, "sortChannels is null"));
+            this.sortOrder = ImmutableList.copyOf(requireNonNull(sortOrder, "sortOrder is null"));
+            checkArgument(sortChannels.size() == sortOrder.size(), "sortChannels and sortOrder sizes don't match");
+        }
+
+        @Override
+        public PlanNodeId getSourceId()
+        {
+            return sourceId;
+        }
+
+        @Override
+        public List<Type> getTypes()
+        {
+            return types;
+        }
+
+        @Override
+        public SourceOperator createOperator(DriverContext driverContext)
+        {
+            checkState(!closed, "Factory is already closed");
+            OperatorContext operatorContext = driverContext.addOperatorContext(operatorId, sourceId, MergeOperator.class.getSimpleName());
+            return new MergeOperator(
+                    operatorContext,
+                    sourceId,
+                    () -> exchangeClientSupplier.get(new UpdateSystemMemory(driverContext.getPipelineContext())),
+                    serdeFactory.createPagesSerde(),
+                    types,
+                    sortChannels,
+                    sortOrder);
+        }
+
+        @Override
+        public void noMoreOperators()
+        {
+            closed = true;
+        }
+    }
+
+    private final OperatorContext operatorContext;
+    private final PlanNodeId sourceId;
+    private final Supplier<ExchangeClient> exchangeClientSupplier;
+    private final PagesSerde serde;
+    private final List<Type> types;
+    private final List<Integer> sortChannels;
+    private final List<SortOrder> sortOrder;
+
+    private final List<SortedStream> streams = new ArrayList<>();
+    // streams with a current row, ordered by that row
+    private final PriorityQueue<SortedStream> readyStreams;
+    // streams that are not finished, but need a new page to have a current row
+    private final Queue<SortedStream> pendingStreams = new ArrayDeque<>();
+    private final SettableFuture<?> noMoreSplitsFuture = SettableFuture.create();
+    private final PageBuilder pageBuilder;
+
+    private ListenableFuture<?> blocked = NOT_BLOCKED;
+    private boolean finished;
+
+    public MergeOperator(
+            OperatorContext operatorContext,
+            PlanNodeId sourceId,
+            Supplier<ExchangeClient> exchangeClientSupplier,
+            PagesSerde serde,
+            List<Type> types,
+            List<Integer> sortChannels,
+            List<SortOrder> sortOrder)
+    {
+        this.operatorContext = requireNonNull(operatorContext, "operatorContext is null");
+        this.sourceId = requireNonNull(sourceId, "sourceId is null");
+        this.exchangeClientSupplier = requireNonNull(exchangeClientSupplier, "exchangeClientSupplier is null");
+        this.serde = requireNonNull(serde, "serde is null");
+        this.types = ImmutableList.copyOf(requireNonNull(types, "types is null"));
+        this.sortChannels = ImmutableList.copyOf(requireNonNull(sortChannels, "sortChannels is null"));
+        this.sortOrder = ImmutableList.copyOf(requireNonNull(sortOrder, "sortOrder is null"));
+
+        this.readyStreams = new PriorityQueue<>(this::compareCurrentRows);
+        this.pageBuilder = new PageBuilder(types);
+    }
+
+    @Override
+    public PlanNodeId getSourceId()
+    {
+        return sourceId;
+    }
+
+    @Override
+    public Supplier<Optional<UpdatablePageSource>> addSplit(Split split)
+    {
+        requireNonNull(split, "split is null");
+        checkArgument(split.getConnectorId().equals(REMOTE_CONNECTOR_ID), "split is not a remote split");
+        checkState(!noMoreSplitsFuture.isDone(), "noMoreSplits has been called already");
+
+        URI location = ((RemoteSplit) split.getConnectorSplit()).getLocation();
+        ExchangeClient exchangeClient = exchangeClientSupplier.get();
+        exchangeClient.addLocation(location);
+        exchangeClient.noMoreLocations();
+        SortedStream stream = new SortedStream(exchangeClient);
+        streams.add(stream);
+        pendingStreams.add(stream);
+
+        return Optional::empty;
+    }
+
+    @Override
+    public void noMoreSplits()
+    {
+        noMoreSplitsFuture.set(null);
+    }
+
+    @Override
+    public OperatorContext getOperatorContext()
+    {
+        return operatorContext;
+    }
+
+    @Override
+    public List<Type> getTypes()
+    {
+        return types;
+    }
+
+    @Override
+    public void finish()
+    {
+        finished = true;
+        close();
+    }
+
+    @Override
+    public boolean isFinished()
+    {
+        return finished && pageBuilder.isEmpty();
+    }
+
+    @Override
+    public ListenableFuture<?> isBlocked()
+    {
+        if (!noMoreSplitsFuture.isDone()) {
+            // the streams can only be merged once all of them are known
+            return noMoreSplitsFuture;
+        }
+        if (blocked.isDone()) {
+            return NOT_BLOCKED;
+        }
+        return blocked;
+    }
+
+    @Override
+    public boolean needsInput()
+    {
+        return false;
+    }
+
+    @Override
+    public void addInput(Page page)
+    {
+        throw new UnsupportedOperationException(getClass().getName() + " can not take input");
+    }
+
+    @Override
+    public Page getOutput()
+    {
+        if (finished || !noMoreSplitsFuture.isDone()) {
+            return flush();
+        }
+
+        while (!pageBuilder.isFull()) {
+            if (!loadStreams()) {
+                // a stream is waiting for data, so the next row is not known yet
+                break;
+            }
+            SortedStream stream = readyStreams.poll();
+            if (stream == null) {
+                finished = true;
+                close();
+                break;
+            }
+
+            pageBuilder.declarePosition();
+            for (int channel = 0; channel < types.size(); channel++) {
+                types.get(channel).appendTo(stream.getBlock(channel), stream.getPosition(), pageBuilder.getBlockBuilder(channel));
+            }
+
+            if (stream.advance()) {
+                readyStreams.add(stream);
+            }
+            else {
+                pendingStreams.add(stream);
+            }
+        }
+
+        if (pageBuilder.isFull() || finished || !blocked.isDone()) {
+            return flush();
+        }
+        return null;
+    }
+
+    /**
+     * Makes sure that every stream that is not finished has a current row.
+     * Returns false if some stream is still waiting for data.
+     */
+    private boolean loadStreams()
+    {
+        // only the streams that ran out of rows need to be loaded, which is usually none or the
+        // one stream that was just advanced
+        while (!pendingStreams.isEmpty()) {
+            SortedStream stream = pendingStreams.peek();
+            SerializedPage serializedPage = stream.getExchangeClient().pollPage();
+            while (serializedPage != null && serializedPage.getPositionCount() == 0) {
+                serializedPage = stream.getExchangeClient().pollPage();
+            }
+
+            if (serializedPage != null) {
+                operatorContext.recordGeneratedInput(serializedPage.getSizeInBytes(), serializedPage.getPositionCount());
+                stream.setPage(serde.deserialize(serializedPage));
+                readyStreams.add(stream);
+                pendingStreams.remove();
+            }
+            else if (stream.getExchangeClient().isFinished()) {
+                pendingStreams.remove();
+            }
+            else {
+                blocked = stream.getExchangeClient().isBlocked();
+                return false;
+            }
+        }
+        blocked = NOT_BLOCKED;
+        return true;
+    }
+
+    private Page flush()
+    {
+        if (pageBuilder.isEmpty()) {
+            return null;
+        }
+        Page page = pageBuilder.build();
+        pageBuilder.reset();
+        return page;
+    }
+
+    private int compareCurrentRows(SortedStream left, SortedStream right)
+    {
+        for (int i = 0; i < sortChannels.size(); i++) {
+            int channel = sortChannels.get(i);
+            int compare = sortOrder.get(i).compareBlockValue(
+                    types.get(channel),
+                    left.getBlock(channel),
+                    left.getPosition(),
+                    right.getBlock(channel),
+                    right.getPosition());
+            if (compare != 0) {
+                return compare;
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public void close()
+    {
+        for (SortedStream stream : streams) {
+            stream.getExchangeClient().close();
+        }
+    }
+
+    private static final class SortedStream
+    {
+        private final ExchangeClient exchangeClient;
+        private Page page;
+        private int position;
+
+        private SortedStream(ExchangeClient exchangeClient)
+        {
+            this.exchangeClient = requireNonNull(exchangeClient, "exchangeClient is null");
+        }
+
+        public ExchangeClient getExchangeClient()
+        {
+            return exchangeClient;
+        }
+
+        public void setPage(Page page)
+        {
+            this.page = requireNonNull(page, "page is null");
+            this.position = 0;
+        }
+
+        public Block getBlock(int channel)
+        {
+            return page.getBlock(channel);
+        }
+
+        public int getPosition()
+        {
+            return position;
+        }
+
+        /**
+         * Moves to the next row, and returns false if the current page has no more rows.
+         */
+        public boolean advance()
+        {
+            position++;
+            if (position < page.getPositionCount()) {
+                return true;
+            }
+            page = null;
+            return false;
+        }
+    }
+}
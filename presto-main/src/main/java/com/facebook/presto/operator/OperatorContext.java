@@ -16,6 +16,7 @@ package com.facebook.presto.operator;
 import com.facebook.presto.ExceededMemoryLimitException;
 import com.facebook.presto.Session;
 import com.facebook.presto.memory.AbstractAggregatedMemoryContext;
+import com.facebook.presto.memory.OperatorMemoryTracker.OperatorMemoryUsage;
 import com.facebook.presto.memory.QueryContextVisitor;
 import com.facebook.presto.spi.Page;
 import com.facebook.presto.sql.planner.plan.PlanNodeId;
@@ -101,6 +102,7 @@ public class OperatorContext
     @GuardedBy("this")
     private long revocableMemoryReservation = 0;
     private final OperatorSystemMemoryContext systemMemoryContext;
+    private final OperatorMemoryUsage memoryUsage;
     private final SpillContext spillContext;
 
     private final AtomicReference<Supplier<OperatorInfo>> infoSupplier = new AtomicReference<>();
@@ -117,7 +119,10 @@ public class OperatorContext
         this.planNodeId = requireNonNull(planNodeId, "planNodeId is null");
         this.operatorType = requireNonNull(operatorType, "operatorType is null");
         this.driverContext = requireNonNull(driverContext, "driverContext is null");
-        this.systemMemoryContext = new OperatorSystemMemoryContext(this.driverContext);
+        PipelineContext pipelineContext = driverContext.getPipelineContext();
+        this.memoryUsage = pipelineContext.getTaskContext().getQueryContext().getOperatorMemoryTracker()
+                .getOperatorMemoryUsage(pipelineContext.getTaskId(), pipelineContext.getPipelineId(), operatorType);
+        this.systemMemoryContext = new OperatorSystemMemoryContext(this.driverContext, memoryUsage);
         this.spillContext = new OperatorSpillContext(this.driverContext);
         this.executor = requireNonNull(executor, "executor is null");
 
@@ -247,12 +252,14 @@ public class OperatorContext
     {
         updateMemoryFuture(driverContext.reserveMemory(bytes), memoryFuture);
         memoryReservation.addAndGet(bytes);
+        memoryUsage.updateUserMemory(bytes);
     }
 
     public synchronized void reserveRevocableMemory(long bytes)
     {
         updateMemoryFuture(driverContext.reserveRevocableMemory(bytes), revocableMemoryFuture);
         revocableMemoryReservation += bytes;
+        memoryUsage.updateRevocableMemory(bytes);
     }
 
     public synchronized long getReservedRevocableBytes()
@@ -314,6 +321,7 @@ public class OperatorContext
         checkArgument(bytes <= revocableMemoryReservation, "tried to free more revocable memory than is reserved");
         driverContext.freeRevocableMemory(bytes);
         revocableMemoryReservation -= bytes;
+        memoryUsage.updateRevocableMemory(-bytes);
     }
 
     public void freeMemory(long bytes)
@@ -322,6 +330,7 @@ public class OperatorContext
         checkArgument(bytes <= memoryReservation.get(), "tried to free more memory than is reserved");
         driverContext.freeMemory(bytes);
         memoryReservation.getAndAdd(-bytes);
+        memoryUsage.updateUserMemory(-bytes);
     }
 
     public AbstractAggregatedMemoryContext getSystemMemoryContext()
@@ -348,6 +357,7 @@ public class OperatorContext
     {
         long bytes = memoryReservation.getAndSet(0);
         driverContext.transferMemoryToTaskContext(bytes);
+        memoryUsage.updateUserMemory(-bytes);
 
         TaskContext taskContext = driverContext.getPipelineContext().getTaskContext();
         if (taskBytes > bytes) {
@@ -390,6 +400,7 @@ public class OperatorContext
             }
 
             memoryReservation.addAndGet(delta);
+            memoryUsage.updateUserMemory(delta);
         }
         else {
             freeMemory(-delta);
@@ -560,13 +571,15 @@ public class OperatorContext
         // TODO: remove this class. See comment in AbstractAggregatedMemoryContext
 
         private final DriverContext driverContext;
+        private final OperatorMemoryUsage memoryUsage;
 
         private boolean closed;
         private long reservedBytes;
 
-        public OperatorSystemMemoryContext(DriverContext driverContext)
+        public OperatorSystemMemoryContext(DriverContext driverContext, OperatorMemoryUsage memoryUsage)
         {
             this.driverContext = driverContext;
+            this.memoryUsage = memoryUsage;
         }
 
         public void close()
@@ -576,6 +589,7 @@ public class OperatorContext
             }
             closed = true;
             driverContext.freeSystemMemory(reservedBytes);
+            memoryUsage.updateSystemMemory(-reservedBytes);
             reservedBytes = 0;
         }
 
@@ -591,6 +605,7 @@ public class OperatorContext
                 driverContext.freeSystemMemory(-bytes);
             }
             reservedBytes += bytes;
+            memoryUsage.updateSystemMemory(bytes);
         }
 
         public long getReservedBytes()
@@ -348,6 +348,19 @@ public class PipelineContext
         return getPipelineStatus(ImmutableList.copyOf(drivers));
     }
 
+    /**
+     * Returns the CPU time of the completed and running drivers of this pipeline
+     * without building the full pipeline stats.
+     */
+    public long getTotalCpuNanos()
+    {
+        long totalCpuNanos = totalCpuTime.get();
+        for (DriverContext driverContext : drivers) {
+            totalCpuNanos += driverContext.getTotalCpuNanos();
+        }
+        return totalCpuNanos;
+    }
+
     public PipelineStats getPipelineStats()
     {
         // check for end state to avoid callback ordering problems
@@ -132,6 +132,11 @@ public class TaskContext
         return session;
     }
 
+    public QueryContext getQueryContext()
+    {
+        return queryContext;
+    }
+
     public void start()
     {
         DateTime now = DateTime.now();
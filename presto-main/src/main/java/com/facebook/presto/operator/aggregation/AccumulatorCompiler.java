@@ -68,6 +68,7 @@ import static com.facebook.presto.sql.gen.BytecodeUtils.invoke;
 import static com.facebook.presto.sql.gen.SqlTypeBytecodeExpression.constantType;
 import static com.google.common.base.Preconditions.checkState;
 import static java.lang.String.format;
+import static java.util.Collections.nCopies;
 
 public class AccumulatorCompiler
 {
@@ -397,9 +398,6 @@ public class AccumulatorCompiler
                 .putVariable(rowsVariable)
                 .initializeVariable(positionVariable);
 
-        BytecodeNode loopBody = generateInvokeInputFunction(scope, stateField, positionVariable, parameterVariables, parameterMetadatas, inputFunction, callSiteBinder, grouped);
-
-        //  Wrap with null checks
         List<Boolean> nullable = new ArrayList<>();
         for (ParameterMetadata metadata : parameterMetadatas) {
             switch (metadata.getParameterType()) {
@@ -414,6 +412,44 @@ public class AccumulatorCompiler
             }
         }
         checkState(nullable.size() == parameterVariables.size(), "Number of parameters does not match");
+
+        if (!nullable.contains(false)) {
+            block.append(generateInputLoop(stateField, parameterMetadatas, inputFunction, scope, parameterVariables, masksBlock, callSiteBinder, grouped, nullable));
+            return block;
+        }
+
+        // Pages without nulls in the non-nullable channels use a loop without the per position null checks
+        BytecodeExpression mayHaveNull = constantFalse();
+        for (int i = 0; i < parameterVariables.size(); i++) {
+            if (!nullable.get(i)) {
+                mayHaveNull = BytecodeExpressions.or(mayHaveNull, parameterVariables.get(i).invoke("mayHaveNull", boolean.class));
+            }
+        }
+        block.append(new IfStatement("if(mayHaveNull)")
+                .condition(mayHaveNull)
+                .ifTrue(generateInputLoop(stateField, parameterMetadatas, inputFunction, scope, parameterVariables, masksBlock, callSiteBinder, grouped, nullable))
+                .ifFalse(generateInputLoop(stateField, parameterMetadatas, inputFunction, scope, parameterVariables, masksBlock, callSiteBinder, grouped, nCopies(nullable.size(), true))));
+
+        return block;
+    }
+
+    private static BytecodeNode generateInputLoop(
+            FieldDefinition stateField,
+            List<ParameterMetadata> parameterMetadatas,
+            MethodHandle inputFunction,
+            Scope scope,
+            List<Variable> parameterVariables,
+            Variable masksBlock,
+            CallSiteBinder callSiteBinder,
+            boolean grouped,
+            List<Boolean> nullable)
+    {
+        Variable positionVariable = scope.getVariable("position");
+        Variable rowsVariable = scope.getVariable("rows");
+
+        BytecodeNode loopBody = generateInvokeInputFunction(scope, stateField, positionVariable, parameterVariables, parameterMetadatas, inputFunction, callSiteBinder, grouped);
+
+        //  Wrap with null checks
         for (int i = 0; i < parameterVariables.size(); i++) {
             if (!nullable.get(i)) {
                 Variable variableDefinition = parameterVariables.get(i);
@@ -433,16 +469,14 @@ public class AccumulatorCompiler
                         .invokeStatic(CompilerOperations.class, "testMask", boolean.class, Block.class, int.class))
                 .ifTrue(loopBody);
 
-        block.append(new ForLoop()
+        return new ForLoop()
                 .initialize(new BytecodeBlock().putVariable(positionVariable, 0))
                 .condition(new BytecodeBlock()
                         .getVariable(positionVariable)
                         .getVariable(rowsVariable)
                         .invokeStatic(CompilerOperations.class, "lessThan", boolean.class, int.class, int.class))
                 .update(new BytecodeBlock().incrementVariable(positionVariable, (byte) 1))
-                .body(loopBody));
-
-        return block;
+                .body(loopBody);
     }
 
     private static BytecodeBlock generateInvokeInputFunction(
@@ -23,9 +23,11 @@ import com.facebook.presto.spi.block.DictionaryId;
 import com.facebook.presto.spi.block.LazyBlock;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.ImmutableList;
 
 import javax.annotation.concurrent.NotThreadSafe;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -35,6 +37,7 @@ import java.util.function.Function;
 import static com.facebook.presto.operator.project.PageProcessorOutput.EMPTY_PAGE_PROCESSOR_OUTPUT;
 import static com.facebook.presto.operator.project.SelectedPositions.positionsRange;
 import static com.facebook.presto.spi.block.DictionaryId.randomDictionaryId;
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Verify.verify;
 import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.collect.Iterators.singletonIterator;
@@ -51,9 +54,31 @@ public class PageProcessor
     private final Optional<PageFilter> filter;
     private final List<PageProjection> projections;
 
+    // common subexpressions are appended to the first inputChannelCount channels of the input page
+    private final int inputChannelCount;
+    private final List<PageProjection> filterCommonSubExpressions;
+    private final List<PageProjection> projectionCommonSubExpressions;
+    // for each projection, the projection common subexpression it outputs unchanged, or -1
+    private final int[] projectionOutputCommonSubExpressions;
+
     private int projectBatchSize = MAX_BATCH_SIZE;
 
     public PageProcessor(Optional<PageFilter> filter, List<? extends PageProjection> projections)
+    {
+        this(filter, projections, 0, ImmutableList.of(), ImmutableList.of());
+    }
+
+    /**
+     * @param inputChannelCount number of channels of the input page that precede the channels of the common subexpressions
+     * @param filterCommonSubExpressions expressions shared with the filter, evaluated for all positions before the filter
+     * @param projectionCommonSubExpressions expressions shared by the projections, evaluated for the selected positions before the projections
+     */
+    public PageProcessor(
+            Optional<PageFilter> filter,
+            List<? extends PageProjection> projections,
+            int inputChannelCount,
+            List<? extends PageProjection> filterCommonSubExpressions,
+            List<? extends PageProjection> projectionCommonSubExpressions)
     {
         this.filter = requireNonNull(filter, "filter is null")
                 .map(pageFilter -> {
@@ -63,13 +88,38 @@ public class PageProcessor
                     return pageFilter;
                 });
         this.projections = requireNonNull(projections, "projections is null").stream()
-                .map(projection -> {
-                    if (projection.getInputChannels().size() == 1 && projection.isDeterministic()) {
-                        return new DictionaryAwarePageProjection(projection, dictionarySourceIdFunction);
-                    }
-                    return projection;
-                })
+                .map(this::dictionaryAware)
                 .collect(toImmutableList());
+
+        checkArgument(inputChannelCount >= 0, "inputChannelCount is negative");
+        this.inputChannelCount = inputChannelCount;
+        this.filterCommonSubExpressions = requireNonNull(filterCommonSubExpressions, "filterCommonSubExpressions is null").stream()
+                .map(this::dictionaryAware)
+                .collect(toImmutableList());
+        this.projectionCommonSubExpressions = requireNonNull(projectionCommonSubExpressions, "projectionCommonSubExpressions is null").stream()
+                .map(this::dictionaryAware)
+                .collect(toImmutableList());
+
+        int firstProjectionCommonSubExpressionChannel = inputChannelCount + filterCommonSubExpressions.size();
+        this.projectionOutputCommonSubExpressions = new int[projections.size()];
+        for (int i = 0; i < projections.size(); i++) {
+            projectionOutputCommonSubExpressions[i] = -1;
+            PageProjection projection = projections.get(i);
+            if (projection instanceof InputPageProjection) {
+                int channel = projection.getInputChannels().getInputChannels().get(0);
+                if (channel >= firstProjectionCommonSubExpressionChannel) {
+                    projectionOutputCommonSubExpressions[i] = channel - firstProjectionCommonSubExpressionChannel;
+                }
+            }
+        }
+    }
+
+    private PageProjection dictionaryAware(PageProjection projection)
+    {
+        if (projection.getInputChannels().size() == 1 && projection.isDeterministic()) {
+            return new DictionaryAwarePageProjection(projection, dictionarySourceIdFunction);
+        }
+        return projection;
     }
 
     public PageProcessorOutput process(ConnectorSession session, DriverYieldSignal yieldSignal, Page page)
@@ -81,6 +131,14 @@ public class PageProcessor
             return EMPTY_PAGE_PROCESSOR_OUTPUT;
         }
 
+        if (!filterCommonSubExpressions.isEmpty() || !projectionCommonSubExpressions.isEmpty()) {
+            return processPage(session, yieldSignal, evaluateFilterCommonSubExpressions(session, page));
+        }
+        return processPage(session, yieldSignal, page);
+    }
+
+    private PageProcessorOutput processPage(ConnectorSession session, DriverYieldSignal yieldSignal, Page page)
+    {
         if (filter.isPresent()) {
             SelectedPositions selectedPositions = filter.get().filter(session, filter.get().getInputChannels().getInputChannels(page));
             if (selectedPositions.isEmpty()) {
@@ -107,6 +165,21 @@ public class PageProcessor
         return projections;
     }
 
+    private Page evaluateFilterCommonSubExpressions(ConnectorSession session, Page page)
+    {
+        Block[] blocks = Arrays.copyOf(page.getBlocks(), inputChannelCount + filterCommonSubExpressions.size());
+        SelectedPositions allPositions = positionsRange(0, page.getPositionCount());
+        for (int i = 0; i < filterCommonSubExpressions.size(); i++) {
+            PageProjection expression = filterCommonSubExpressions.get(i);
+            Page input = expression.getInputChannels().getInputChannels(new Page(page.getPositionCount(), blocks));
+            // the filter runs to completion, so do the expressions it shares
+            Optional<Block> block = expression.project(session, new DriverYieldSignal(), input, allPositions).compute();
+            verify(block.isPresent(), "common subexpression yielded without a yield signal");
+            blocks[inputChannelCount + i] = block.get();
+        }
+        return new Page(page.getPositionCount(), blocks);
+    }
+
     private static boolean isUnloadedLazyBlock(Block block)
     {
         return (block instanceof LazyBlock) && !((LazyBlock) block).isLoaded();
@@ -147,7 +220,8 @@ public class PageProcessor
             this.yieldSignal = yieldSignal;
             this.page = page;
             this.selectedPositions = selectedPositions;
-            this.previouslyComputedResults = new Block[projections.size()];
+            // the results of the projection common subexpressions precede the results of the projections
+            this.previouslyComputedResults = new Block[projectionCommonSubExpressions.size() + projections.size()];
             updateRetainedSize();
         }
 
@@ -251,7 +325,14 @@ public class PageProcessor
 
             int pageSize = 0;
             SelectedPositions positionsBatch = selectedPositions.subRange(0, batchSize);
-            for (int i = 0; i < projections.size(); i++) {
+            Page inputPage = page;
+            int commonSubExpressionCount = projectionCommonSubExpressions.size();
+            Block[] inputBlocks = null;
+            if (commonSubExpressionCount > 0) {
+                inputBlocks = Arrays.copyOf(page.getBlocks(), page.getChannelCount() + commonSubExpressionCount);
+            }
+
+            for (int i = 0; i < previouslyComputedResults.length; i++) {
                 if (yieldSignal.isSet()) {
                     // save current batch size
                     forceYieldFinish = true;
@@ -259,18 +340,35 @@ public class PageProcessor
                     return Optional.empty();
                 }
 
-                if (positionsBatch.size() > 1 && pageSize > MAX_PAGE_SIZE_IN_BYTES) {
+                boolean commonSubExpression = i < commonSubExpressionCount;
+                int projectionIndex = i - commonSubExpressionCount;
+                if (i == commonSubExpressionCount && inputBlocks != null) {
+                    inputPage = new Page(page.getPositionCount(), inputBlocks);
+                }
+
+                if (!commonSubExpression && positionsBatch.size() > 1 && pageSize > MAX_PAGE_SIZE_IN_BYTES) {
                     return Optional.empty();
                 }
 
+                if (!commonSubExpression && projectionOutputCommonSubExpressions[projectionIndex] >= 0) {
+                    // the projection is a common subexpression that has been computed for this batch already
+                    blocks[projectionIndex] = previouslyComputedResults[projectionOutputCommonSubExpressions[projectionIndex]].getRegion(0, batchSize);
+                }
                 // if possible, use previouslyComputedResults produced in prior optimistic failure attempt
-                PageProjection projection = projections.get(i);
-                if (previouslyComputedResults[i] != null && previouslyComputedResults[i].getPositionCount() >= batchSize) {
-                    blocks[i] = previouslyComputedResults[i].getRegion(0, batchSize);
+                else if (previouslyComputedResults[i] != null && previouslyComputedResults[i].getPositionCount() >= batchSize) {
+                    Block block = previouslyComputedResults[i].getRegion(0, batchSize);
+                    if (commonSubExpression) {
+                        inputBlocks[page.getChannelCount() + i] = alignToPage(block, positionsBatch, page.getPositionCount());
+                    }
+                    else {
+                        blocks[projectionIndex] = block;
+                    }
                 }
                 else {
+                    PageProjection projection = commonSubExpression ? projectionCommonSubExpressions.get(i) : projections.get(projectionIndex);
                     if (!pageProjectOutput.isPresent()) {
-                        pageProjectOutput = Optional.of(projection.project(session, yieldSignal, projection.getInputChannels().getInputChannels(page), positionsBatch));
+                        Page projectionInput = commonSubExpression ? new Page(page.getPositionCount(), inputBlocks) : inputPage;
+                        pageProjectOutput = Optional.of(projection.project(session, yieldSignal, projection.getInputChannels().getInputChannels(projectionInput), positionsBatch));
                     }
                     Optional<Block> block = pageProjectOutput.get().compute();
                     if (!block.isPresent()) {
@@ -280,15 +378,45 @@ public class PageProcessor
                     }
                     pageProjectOutput = Optional.empty();
                     previouslyComputedResults[i] = block.get();
-                    blocks[i] = previouslyComputedResults[i];
+                    if (commonSubExpression) {
+                        inputBlocks[page.getChannelCount() + i] = alignToPage(block.get(), positionsBatch, page.getPositionCount());
+                    }
+                    else {
+                        blocks[projectionIndex] = block.get();
+                    }
                 }
 
-                pageSize += blocks[i].getSizeInBytes();
+                if (!commonSubExpression) {
+                    pageSize += blocks[projectionIndex].getSizeInBytes();
+                }
             }
             return Optional.of(new Page(positionsBatch.size(), blocks));
         }
     }
 
+    /**
+     * Wraps the values of an expression computed for the selected positions, so that they
+     * can be read at the same positions as the other channels of the page. Positions that
+     * are not selected are never read, and point to an arbitrary value.
+     */
+    private static Block alignToPage(Block block, SelectedPositions selectedPositions, int positionCount)
+    {
+        int[] ids = new int[positionCount];
+        int offset = selectedPositions.getOffset();
+        if (selectedPositions.isList()) {
+            int[] positions = selectedPositions.getPositions();
+            for (int i = 0; i < selectedPositions.size(); i++) {
+                ids[positions[offset + i]] = i;
+            }
+        }
+        else {
+            for (int i = 0; i < selectedPositions.size(); i++) {
+                ids[offset + i] = i;
+            }
+        }
+        return new DictionaryBlock(positionCount, block, ids);
+    }
+
     @NotThreadSafe
     private static class DictionarySourceIdFunction
             implements Function<DictionaryBlock, DictionaryId>
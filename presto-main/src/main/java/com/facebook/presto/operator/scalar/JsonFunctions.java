@@ -399,7 +399,7 @@ public final class JsonFunctions
     @SqlType("varchar(x)")
     public static Slice varcharJsonExtractScalar(@SqlType("varchar(x)") Slice json, @SqlType(JsonPathType.NAME) JsonPath jsonPath)
     {
-        return JsonExtract.extract(json, jsonPath.getScalarExtractor());
+        return jsonPath.extractScalar(json);
     }
 
     @ScalarFunction
@@ -407,7 +407,7 @@ public final class JsonFunctions
     @SqlType(StandardTypes.VARCHAR)
     public static Slice jsonExtractScalar(@SqlType(StandardTypes.JSON) Slice json, @SqlType(JsonPathType.NAME) JsonPath jsonPath)
     {
-        return JsonExtract.extract(json, jsonPath.getScalarExtractor());
+        return jsonPath.extractScalar(json);
     }
 
     @ScalarFunction("json_extract")
@@ -416,7 +416,7 @@ public final class JsonFunctions
     @SqlType(StandardTypes.JSON)
     public static Slice varcharJsonExtract(@SqlType("varchar(x)") Slice json, @SqlType(JsonPathType.NAME) JsonPath jsonPath)
     {
-        return JsonExtract.extract(json, jsonPath.getObjectExtractor());
+        return jsonPath.extractJson(json);
     }
 
     @ScalarFunction
@@ -424,7 +424,7 @@ public final class JsonFunctions
     @SqlType(StandardTypes.JSON)
     public static Slice jsonExtract(@SqlType(StandardTypes.JSON) Slice json, @SqlType(JsonPathType.NAME) JsonPath jsonPath)
     {
-        return JsonExtract.extract(json, jsonPath.getObjectExtractor());
+        return jsonPath.extractJson(json);
     }
 
     @ScalarFunction("json_size")
@@ -433,7 +433,7 @@ public final class JsonFunctions
     @SqlType(StandardTypes.BIGINT)
     public static Long varcharJsonSize(@SqlType("varchar(x)") Slice json, @SqlType(JsonPathType.NAME) JsonPath jsonPath)
     {
-        return JsonExtract.extract(json, jsonPath.getSizeExtractor());
+        return jsonPath.extractSize(json);
     }
 
     @ScalarFunction
@@ -441,7 +441,7 @@ public final class JsonFunctions
     @SqlType(StandardTypes.BIGINT)
     public static Long jsonSize(@SqlType(StandardTypes.JSON) Slice json, @SqlType(JsonPathType.NAME) JsonPath jsonPath)
     {
-        return JsonExtract.extract(json, jsonPath.getSizeExtractor());
+        return jsonPath.extractSize(json);
     }
 
     public static Object getJsonObjectValue(Type valueType, ConnectorSession session, Block block, int position)
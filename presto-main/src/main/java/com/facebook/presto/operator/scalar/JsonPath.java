@@ -13,19 +13,31 @@
  */
 package com.facebook.presto.operator.scalar;
 
+import com.google.common.collect.ImmutableList;
 import io.airlift.slice.Slice;
 
+import static com.facebook.presto.operator.scalar.JsonPathScanner.NOT_FOUND;
+import static com.facebook.presto.operator.scalar.JsonPathScanner.UNKNOWN;
+import static com.facebook.presto.operator.scalar.JsonPathScanner.decodeScalar;
+import static com.facebook.presto.operator.scalar.JsonPathScanner.getEnd;
+import static com.facebook.presto.operator.scalar.JsonPathScanner.getStart;
+
 public class JsonPath
 {
+    private static final JsonExtract.JsonExtractor<Slice> JSON_VALUE_EXTRACTOR = new JsonExtract.JsonValueJsonExtractor();
+    private static final JsonExtract.JsonExtractor<Long> JSON_SIZE_EXTRACTOR = new JsonExtract.JsonSizeExtractor();
+
     private final JsonExtract.JsonExtractor<Slice> scalarExtractor;
     private final JsonExtract.JsonExtractor<Slice> objectExtractor;
     private final JsonExtract.JsonExtractor<Long> sizeExtractor;
+    private final JsonPathScanner scanner;
 
     public JsonPath(String pattern)
     {
         scalarExtractor = JsonExtract.generateExtractor(pattern, new JsonExtract.ScalarValueJsonExtractor());
-        objectExtractor = JsonExtract.generateExtractor(pattern, new JsonExtract.JsonValueJsonExtractor());
-        sizeExtractor = JsonExtract.generateExtractor(pattern, new JsonExtract.JsonSizeExtractor());
+        objectExtractor = JsonExtract.generateExtractor(pattern, JSON_VALUE_EXTRACTOR);
+        sizeExtractor = JsonExtract.generateExtractor(pattern, JSON_SIZE_EXTRACTOR);
+        scanner = new JsonPathScanner(ImmutableList.copyOf(new JsonPathTokenizer(pattern)));
     }
 
     public JsonExtract.JsonExtractor<Slice> getScalarExtractor()
@@ -42,4 +54,46 @@ public class JsonPath
     {
         return sizeExtractor;
     }
+
+    public Slice extractScalar(Slice json)
+    {
+        long range = scanner.scan(json);
+        if (range == NOT_FOUND) {
+            return null;
+        }
+        if (range != UNKNOWN) {
+            int start = getStart(range);
+            byte first = json.getByte(start);
+            Slice value = decodeScalar(json, start, getEnd(range));
+            if (value != null || first != '"') {
+                return value;
+            }
+        }
+        return JsonExtract.extract(json, scalarExtractor);
+    }
+
+    public Slice extractJson(Slice json)
+    {
+        long range = scanner.scan(json);
+        if (range == NOT_FOUND) {
+            return null;
+        }
+        if (range == UNKNOWN) {
+            return JsonExtract.extract(json, objectExtractor);
+        }
+        // only the value itself needs to be parsed to format it
+        return JsonExtract.extract(json.slice(getStart(range), getEnd(range) - getStart(range)), JSON_VALUE_EXTRACTOR);
+    }
+
+    public Long extractSize(Slice json)
+    {
+        long range = scanner.scan(json);
+        if (range == NOT_FOUND) {
+            return null;
+        }
+        if (range == UNKNOWN) {
+            return JsonExtract.extract(json, sizeExtractor);
+        }
+        return JsonExtract.extract(json.slice(getStart(range), getEnd(range) - getStart(range)), JSON_SIZE_EXTRACTOR);
+    }
 }
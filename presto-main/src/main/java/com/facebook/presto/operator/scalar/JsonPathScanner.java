@@ -0,0 +1,671 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator.scalar;
+
+import io.airlift.slice.DynamicSliceOutput;
+import io.airlift.slice.Slice;
+import io.airlift.slice.Slices;
+
+import java.util.List;
+
+import static com.facebook.presto.operator.scalar.JsonExtract.tryParseInt;
+import static java.lang.Math.min;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Evaluates a JSON path directly on the UTF-8 bytes of a JSON document.
+ * Everything that is not on the path is validated and skipped without
+ * building tokens or allocating memory.
+ * <p/>
+ * The scanner only answers when it is certain that {@link JsonExtract}
+ * would see the document the same way. For anything else (malformed JSON,
+ * escaped field names, byte order marks, very deep nesting, ...) it returns
+ * {@link #UNKNOWN} and the caller must fall back to the Jackson based
+ * extractors.
+ */
+final class JsonPathScanner
+{
+    /**
+     * The path does not exist in the document, or the document is not valid
+     * up to the point where this was detected. {@link JsonExtract} returns
+     * null in both cases.
+     */
+    public static final long NOT_FOUND = -1;
+    public static final long UNKNOWN = -2;
+
+    // nesting levels are tracked in the bits of a long
+    private static final int MAX_SKIP_DEPTH = 64;
+
+    private static final int NOT_FOUND_POSITION = -1;
+    private static final int UNKNOWN_POSITION = -2;
+
+    private final boolean supported;
+    private final byte[][] fieldNames;
+    private final int[] indexes;
+
+    public JsonPathScanner(List<String> tokens)
+    {
+        boolean supported = true;
+        fieldNames = new byte[tokens.size()][];
+        indexes = new int[tokens.size()];
+        for (int i = 0; i < tokens.size(); i++) {
+            String token = tokens.get(i);
+            // a token that is not valid unicode can not be compared byte wise
+            supported &= UTF_8.newEncoder().canEncode(token);
+            fieldNames[i] = token.getBytes(UTF_8);
+            indexes[i] = tryParseInt(token, -1);
+        }
+        this.supported = supported;
+    }
+
+    /**
+     * Finds the value at the path.
+     *
+     * @return the start (in the high 32 bits) and the end (in the low 32 bits)
+     * of the value, {@link #NOT_FOUND} or {@link #UNKNOWN}
+     */
+    public long scan(Slice json)
+    {
+        if (!supported) {
+            return UNKNOWN;
+        }
+
+        int length = json.length();
+        // Jackson detects UTF-16 and UTF-32 input from zero bytes at the start of the document
+        for (int i = 0; i < min(4, length); i++) {
+            if (json.getByte(i) == 0) {
+                return UNKNOWN;
+            }
+        }
+
+        int position = skipWhitespace(json, 0);
+        if (position == length) {
+            return NOT_FOUND;
+        }
+
+        for (int i = 0; i < fieldNames.length; i++) {
+            byte current = json.getByte(position);
+            if (current == '{') {
+                position = findField(json, position + 1, fieldNames[i]);
+            }
+            else if (current == '[') {
+                position = findElement(json, position + 1, indexes[i]);
+            }
+            else if ((current & 0x80) == 0) {
+                // JsonExtract fails on anything but an object or an array here
+                return NOT_FOUND;
+            }
+            else {
+                // possibly a byte order mark
+                return UNKNOWN;
+            }
+
+            if (position == NOT_FOUND_POSITION) {
+                return NOT_FOUND;
+            }
+            if (position == UNKNOWN_POSITION) {
+                return UNKNOWN;
+            }
+        }
+
+        int start = position;
+        int end = skipValue(json, start);
+        if (end == UNKNOWN_POSITION) {
+            return UNKNOWN;
+        }
+
+        byte first = json.getByte(start);
+        if (fieldNames.length == 0 && first != '{' && first != '[' && first != '"' && end < length && !isWhitespace(json.getByte(end))) {
+            // Jackson requires white space after a number or literal at the root
+            return UNKNOWN;
+        }
+        return (((long) start) << 32) | end;
+    }
+
+    public static int getStart(long range)
+    {
+        return (int) (range >>> 32);
+    }
+
+    public static int getEnd(long range)
+    {
+        return (int) range;
+    }
+
+    /**
+     * Decodes the value of a scalar, or returns null if the value is not a
+     * scalar or if it can not be decoded exactly like Jackson would decode it.
+     */
+    public static Slice decodeScalar(Slice json, int start, int end)
+    {
+        byte first = json.getByte(start);
+        if (first == '{' || first == '[' || first == 'n') {
+            return null;
+        }
+        if (first != '"') {
+            // numbers and booleans are returned as written
+            return Slices.copyOf(json, start, end - start);
+        }
+
+        int contentStart = start + 1;
+        int contentEnd = end - 1;
+        int position = contentStart;
+        while (position < contentEnd && json.getByte(position) != '\\') {
+            position++;
+        }
+        if (position == contentEnd) {
+            return Slices.copyOf(json, contentStart, contentEnd - contentStart);
+        }
+
+        DynamicSliceOutput output = new DynamicSliceOutput(contentEnd - contentStart);
+        output.writeBytes(json, contentStart, position - contentStart);
+        while (position < contentEnd) {
+            byte current = json.getByte(position);
+            if (current != '\\') {
+                output.writeByte(current);
+                position++;
+                continue;
+            }
+
+            byte escaped = json.getByte(position + 1);
+            position += 2;
+            switch (escaped) {
+                case '"':
+                case '\\':
+                case '/':
+                    output.writeByte(escaped);
+                    break;
+                case 'b':
+                    output.writeByte('\b');
+                    break;
+                case 'f':
+                    output.writeByte('\f');
+                    break;
+                case 'n':
+                    output.writeByte('\n');
+                    break;
+                case 'r':
+                    output.writeByte('\r');
+                    break;
+                case 't':
+                    output.writeByte('\t');
+                    break;
+                case 'u':
+                    int codePoint = 0;
+                    for (int i = 0; i < 4; i++) {
+                        codePoint = (codePoint << 4) | hexValue(json.getByte(position + i));
+                    }
+                    position += 4;
+                    if (codePoint >= 0xD800 && codePoint <= 0xDFFF) {
+                        // leave surrogates to Jackson
+                        return null;
+                    }
+                    writeUtf8(output, codePoint);
+                    break;
+                default:
+                    throw new IllegalStateException("escape sequence was not validated");
+            }
+        }
+        return output.slice();
+    }
+
+    private static int findField(Slice json, int position, byte[] fieldName)
+    {
+        int length = json.length();
+        position = skipWhitespace(json, position);
+        if (position < length && json.getByte(position) == '}') {
+            return NOT_FOUND_POSITION;
+        }
+
+        while (true) {
+            if (position >= length || json.getByte(position) != '"') {
+                return UNKNOWN_POSITION;
+            }
+            int nameStart = position + 1;
+            int nameEnd = skipString(json, nameStart);
+            if (nameEnd == UNKNOWN_POSITION) {
+                return UNKNOWN_POSITION;
+            }
+            // the name without the closing quote
+            nameEnd--;
+            for (int i = nameStart; i < nameEnd; i++) {
+                if (json.getByte(i) == '\\') {
+                    return UNKNOWN_POSITION;
+                }
+            }
+            boolean matches = equals(json, nameStart, nameEnd, fieldName);
+
+            position = skipWhitespace(json, nameEnd + 1);
+            if (position >= length || json.getByte(position) != ':') {
+                return UNKNOWN_POSITION;
+            }
+            position = skipWhitespace(json, position + 1);
+            if (position >= length) {
+                return UNKNOWN_POSITION;
+            }
+            if (matches) {
+                return position;
+            }
+
+            position = skipValue(json, position);
+            if (position == UNKNOWN_POSITION) {
+                return UNKNOWN_POSITION;
+            }
+            position = skipWhitespace(json, position);
+            if (position >= length) {
+                return UNKNOWN_POSITION;
+            }
+            byte current = json.getByte(position);
+            if (current == '}') {
+                return NOT_FOUND_POSITION;
+            }
+            if (current != ',') {
+                return UNKNOWN_POSITION;
+            }
+            position = skipWhitespace(json, position + 1);
+        }
+    }
+
+    private static int findElement(Slice json, int position, int index)
+    {
+        int length = json.length();
+        position = skipWhitespace(json, position);
+        if (position < length && json.getByte(position) == ']') {
+            return NOT_FOUND_POSITION;
+        }
+
+        int currentIndex = 0;
+        while (true) {
+            if (position >= length) {
+                return UNKNOWN_POSITION;
+            }
+            if (currentIndex == index) {
+                return position;
+            }
+
+            position = skipValue(json, position);
+            if (position == UNKNOWN_POSITION) {
+                return UNKNOWN_POSITION;
+            }
+            position = skipWhitespace(json, position);
+            if (position >= length) {
+                return UNKNOWN_POSITION;
+            }
+            byte current = json.getByte(position);
+            if (current == ']') {
+                return NOT_FOUND_POSITION;
+            }
+            if (current != ',') {
+                return UNKNOWN_POSITION;
+            }
+            position = skipWhitespace(json, position + 1);
+            currentIndex++;
+        }
+    }
+
+    /**
+     * Skips the value starting at the position, and returns the position
+     * right after the value.
+     */
+    private static int skipValue(Slice json, int position)
+    {
+        int length = json.length();
+        // one bit per nesting level, set for objects and clear for arrays
+        long objects = 0;
+        int depth = 0;
+        while (true) {
+            // position is at the start of a value
+            if (position >= length) {
+                return UNKNOWN_POSITION;
+            }
+            byte current = json.getByte(position);
+            if (current == '{' || current == '[') {
+                if (depth == MAX_SKIP_DEPTH) {
+                    return UNKNOWN_POSITION;
+                }
+                boolean object = current == '{';
+                objects = object ? objects | (1L << depth) : objects & ~(1L << depth);
+                depth++;
+
+                position = skipWhitespace(json, position + 1);
+                if (position >= length) {
+                    return UNKNOWN_POSITION;
+                }
+                if (json.getByte(position) != (object ? '}' : ']')) {
+                    if (object) {
+                        position = skipFieldName(json, position);
+                        if (position == UNKNOWN_POSITION) {
+                            return UNKNOWN_POSITION;
+                        }
+                    }
+                    continue;
+                }
+                // empty object or array
+                position++;
+                depth--;
+            }
+            else {
+                position = skipScalar(json, position);
+                if (position == UNKNOWN_POSITION) {
+                    return UNKNOWN_POSITION;
+                }
+            }
+
+            // a value ends at position, so close the containers that end here
+            while (true) {
+                if (depth == 0) {
+                    return position;
+                }
+                boolean object = (objects & (1L << (depth - 1))) != 0;
+                position = skipWhitespace(json, position);
+                if (position >= length) {
+                    return UNKNOWN_POSITION;
+                }
+                byte next = json.getByte(position);
+                if (next == ',') {
+                    position = skipWhitespace(json, position + 1);
+                    if (object) {
+                        position = skipFieldName(json, position);
+                        if (position == UNKNOWN_POSITION) {
+                            return UNKNOWN_POSITION;
+                        }
+                    }
+                    break;
+                }
+                if (next != (object ? '}' : ']')) {
+                    return UNKNOWN_POSITION;
+                }
+                position++;
+                depth--;
+            }
+        }
+    }
+
+    /**
+     * Skips a field name and the following colon, and returns the position
+     * of the field value.
+     */
+    private static int skipFieldName(Slice json, int position)
+    {
+        int length = json.length();
+        if (position >= length || json.getByte(position) != '"') {
+            return UNKNOWN_POSITION;
+        }
+        position = skipString(json, position + 1);
+        if (position == UNKNOWN_POSITION) {
+            return UNKNOWN_POSITION;
+        }
+        position = skipWhitespace(json, position);
+        if (position >= length || json.getByte(position) != ':') {
+            return UNKNOWN_POSITION;
+        }
+        return skipWhitespace(json, position + 1);
+    }
+
+    private static int skipScalar(Slice json, int position)
+    {
+        byte current = json.getByte(position);
+        int end;
+        switch (current) {
+            case '"':
+                return skipString(json, position + 1);
+            case 't':
+                end = skipLiteral(json, position, "true");
+                break;
+            case 'f':
+                end = skipLiteral(json, position, "false");
+                break;
+            case 'n':
+                end = skipLiteral(json, position, "null");
+                break;
+            default:
+                end = skipNumber(json, position);
+        }
+
+        if (end == UNKNOWN_POSITION || end == json.length()) {
+            return end;
+        }
+        byte next = json.getByte(end);
+        if (isWhitespace(next) || next == ',' || next == '}' || next == ']') {
+            return end;
+        }
+        return UNKNOWN_POSITION;
+    }
+
+    private static int skipLiteral(Slice json, int position, String literal)
+    {
+        if (position + literal.length() > json.length()) {
+            return UNKNOWN_POSITION;
+        }
+        for (int i = 0; i < literal.length(); i++) {
+            if (json.getByte(position + i) != literal.charAt(i)) {
+                return UNKNOWN_POSITION;
+            }
+        }
+        return position + literal.length();
+    }
+
+    /**
+     * Skips a number that matches {@code -?(0|[1-9][0-9]*)(\.[0-9]+)?([eE][+-]?[0-9]+)?}.
+     */
+    private static int skipNumber(Slice json, int position)
+    {
+        int length = json.length();
+        if (position < length && json.getByte(position) == '-') {
+            position++;
+        }
+        if (position >= length || !isDigit(json.getByte(position))) {
+            return UNKNOWN_POSITION;
+        }
+        if (json.getByte(position) == '0') {
+            position++;
+        }
+        else {
+            position = skipDigits(json, position);
+        }
+
+        if (position < length && json.getByte(position) == '.') {
+            position++;
+            if (position >= length || !isDigit(json.getByte(position))) {
+                return UNKNOWN_POSITION;
+            }
+            position = skipDigits(json, position);
+        }
+
+        if (position < length && (json.getByte(position) == 'e' || json.getByte(position) == 'E')) {
+            position++;
+            if (position < length && (json.getByte(position) == '+' || json.getByte(position) == '-')) {
+                position++;
+            }
+            if (position >= length || !isDigit(json.getByte(position))) {
+                return UNKNOWN_POSITION;
+            }
+            position = skipDigits(json, position);
+        }
+        return position;
+    }
+
+    private static int skipDigits(Slice json, int position)
+    {
+        while (position < json.length() && isDigit(json.getByte(position))) {
+            position++;
+        }
+        return position;
+    }
+
+    /**
+     * Skips the rest of a string starting after the opening quote, and returns
+     * the position after the closing quote.
+     */
+    private static int skipString(Slice json, int position)
+    {
+        int length = json.length();
+        while (position < length) {
+            int current = json.getByte(position) & 0xFF;
+            if (current == '"') {
+                return position + 1;
+            }
+            if (current == '\\') {
+                if (position + 1 >= length) {
+                    return UNKNOWN_POSITION;
+                }
+                byte escaped = json.getByte(position + 1);
+                if (escaped == 'u') {
+                    if (position + 6 > length) {
+                        return UNKNOWN_POSITION;
+                    }
+                    for (int i = position + 2; i < position + 6; i++) {
+                        if (hexValue(json.getByte(i)) < 0) {
+                            return UNKNOWN_POSITION;
+                        }
+                    }
+                    position += 6;
+                }
+                else if (escaped == '"' || escaped == '\\' || escaped == '/' || escaped == 'b' || escaped == 'f' || escaped == 'n' || escaped == 'r' || escaped == 't') {
+                    position += 2;
+                }
+                else {
+                    return UNKNOWN_POSITION;
+                }
+            }
+            else if (current < 0x20) {
+                // Jackson rejects unescaped control characters
+                return UNKNOWN_POSITION;
+            }
+            else if (current < 0x80) {
+                position++;
+            }
+            else {
+                int sequenceLength = getUtf8SequenceLength(json, position);
+                if (sequenceLength < 0) {
+                    return UNKNOWN_POSITION;
+                }
+                position += sequenceLength;
+            }
+        }
+        return UNKNOWN_POSITION;
+    }
+
+    /**
+     * Returns the length of the well formed UTF-8 sequence at the position, or
+     * -1 if the sequence is malformed, overlong or encodes a surrogate.
+     */
+    private static int getUtf8SequenceLength(Slice json, int position)
+    {
+        int length = json.length();
+        int first = json.getByte(position) & 0xFF;
+        int sequenceLength;
+        int secondMin = 0x80;
+        int secondMax = 0xBF;
+        if (first >= 0xC2 && first <= 0xDF) {
+            sequenceLength = 2;
+        }
+        else if (first >= 0xE0 && first <= 0xEF) {
+            sequenceLength = 3;
+            if (first == 0xE0) {
+                secondMin = 0xA0;
+            }
+            else if (first == 0xED) {
+                secondMax = 0x9F;
+            }
+        }
+        else if (first >= 0xF0 && first <= 0xF4) {
+            sequenceLength = 4;
+            if (first == 0xF0) {
+                secondMin = 0x90;
+            }
+            else if (first == 0xF4) {
+                secondMax = 0x8F;
+            }
+        }
+        else {
+            return -1;
+        }
+
+        if (position + sequenceLength > length) {
+            return -1;
+        }
+        int second = json.getByte(position + 1) & 0xFF;
+        if (second < secondMin || second > secondMax) {
+            return -1;
+        }
+        for (int i = position + 2; i < position + sequenceLength; i++) {
+            if ((json.getByte(i) & 0xC0) != 0x80) {
+                return -1;
+            }
+        }
+        return sequenceLength;
+    }
+
+    private static int skipWhitespace(Slice json, int position)
+    {
+        while (position < json.length() && isWhitespace(json.getByte(position))) {
+            position++;
+        }
+        return position;
+    }
+
+    private static boolean isWhitespace(byte value)
+    {
+        return value == ' ' || value == '\t' || value == '\n' || value == '\r';
+    }
+
+    private static boolean isDigit(byte value)
+    {
+        return value >= '0' && value <= '9';
+    }
+
+    private static int hexValue(byte value)
+    {
+        if (value >= '0' && value <= '9') {
+            return value - '0';
+        }
+        if (value >= 'a' && value <= 'f') {
+            return value - 'a' + 10;
+        }
+        if (value >= 'A' && value <= 'F') {
+            return value - 'A' + 10;
+        }
+        return -1;
+    }
+
+    private static boolean equals(Slice json, int start, int end, byte[] value)
+    {
+        if (end - start != value.length) {
+            return false;
+        }
+        for (int i = 0; i < value.length; i++) {
+            if (json.getByte(start + i) != value[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void writeUtf8(DynamicSliceOutput output, int codePoint)
+    {
+        if (codePoint < 0x80) {
+            output.writeByte(codePoint);
+        }
+        else if (codePoint < 0x800) {
+            output.writeByte(0xC0 | (codePoint >>> 6));
+            output.writeByte(0x80 | (codePoint & 0x3F));
+        }
+        else {
+            output.writeByte(0xE0 | (codePoint >>> 12));
+            output.writeByte(0x80 | ((codePoint >>> 6) & 0x3F));
+            output.writeByte(0x80 | (codePoint & 0x3F));
+        }
+    }
+}
@@ -30,9 +30,13 @@ import static java.util.Objects.requireNonNull;
 public class AggregateWindowFunction
         implements WindowFunction
 {
+    // smaller frames are cheaper to aggregate again than to maintain incrementally
+    private static final int MIN_SLIDING_FRAME_SIZE = 32;
+
     private final InternalAggregationFunction function;
     private final List<Integer> argumentChannels;
     private final AccumulatorFactory accumulatorFactory;
+    private final Optional<SlidingWindowAggregation> slidingAggregation;
 
     private WindowIndex windowIndex;
     private Accumulator accumulator;
@@ -44,6 +48,12 @@ public class AggregateWindowFunction
         this.function = requireNonNull(function, "function is null");
         this.argumentChannels = ImmutableList.copyOf(argumentChannels);
         this.accumulatorFactory = function.bind(createArgs(function), Optional.empty());
+        if (SlidingWindowAggregation.isSupported(function)) {
+            slidingAggregation = Optional.of(SlidingWindowAggregation.create(function, accumulatorFactory, argumentChannels));
+        }
+        else {
+            slidingAggregation = Optional.empty();
+        }
     }
 
     @Override
@@ -51,6 +61,7 @@ public class AggregateWindowFunction
     {
         this.windowIndex = windowIndex;
         resetAccumulator();
+        slidingAggregation.ifPresent(aggregation -> aggregation.reset(windowIndex));
     }
 
     @Override
@@ -65,6 +76,11 @@ public class AggregateWindowFunction
             accumulate(currentEnd + 1, frameEnd);
             currentEnd = frameEnd;
         }
+        else if (slidingAggregation.isPresent() && (frameEnd - frameStart + 1 >= MIN_SLIDING_FRAME_SIZE)) {
+            // moving frame
+            slidingAggregation.get().evaluate(output, frameStart, frameEnd);
+            return;
+        }
         else {
             // different frame
             resetAccumulator();
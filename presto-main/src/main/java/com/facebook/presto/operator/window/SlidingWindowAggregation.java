@@ -0,0 +1,146 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator.window;
+
+import com.facebook.presto.operator.aggregation.Accumulator;
+import com.facebook.presto.operator.aggregation.AccumulatorFactory;
+import com.facebook.presto.operator.aggregation.InternalAggregationFunction;
+import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.block.BlockBuilder;
+import com.facebook.presto.spi.block.BlockBuilderStatus;
+import com.facebook.presto.spi.function.WindowIndex;
+import com.facebook.presto.spi.type.FixedWidthType;
+import com.facebook.presto.spi.type.RowType;
+import com.facebook.presto.spi.type.Type;
+import com.google.common.collect.ImmutableList;
+
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Evaluates an aggregation over a frame whose start and end only move forward, with an
+ * amortized constant number of accumulator operations per row, independent of the frame size.
+ * <p>
+ * The rows of the frame are split in two parts. The front part stores the intermediate state of
+ * every suffix of its rows, so rows leaving the frame are dropped by moving to a shorter suffix.
+ * The back part is a single accumulator that rows entering the frame are added to. When all rows
+ * of the front part have left the frame, the rows of the back part become the new front part.
+ * Each result combines the intermediate states of one suffix and of the back part.
+ */
+final class SlidingWindowAggregation
+{
+    private final AccumulatorFactory accumulatorFactory;
+    private final List<Integer> argumentChannels;
+    private final Type intermediateType;
+
+    private WindowIndex windowIndex;
+
+    // intermediate states of the rows [position, frontEnd], stored at index frontEnd - position
+    private Block suffixStates;
+    private int frontStart;
+    private int frontEnd;
+
+    // accumulator for the rows (frontEnd, backEnd]
+    private Accumulator backAccumulator;
+    private int backEnd;
+
+    private SlidingWindowAggregation(AccumulatorFactory accumulatorFactory, List<Integer> argumentChannels, Type intermediateType)
+    {
+        this.accumulatorFactory = requireNonNull(accumulatorFactory, "accumulatorFactory is null");
+        this.argumentChannels = ImmutableList.copyOf(requireNonNull(argumentChannels, "argumentChannels is null"));
+        this.intermediateType = requireNonNull(intermediateType, "intermediateType is null");
+    }
+
+    /**
+     * Only aggregations with small, fixed size intermediate states are supported, because a state
+     * is kept for every row of the front part, and combining them must not change the result.
+     */
+    public static boolean isSupported(InternalAggregationFunction function)
+    {
+        if (!function.isDecomposable()) {
+            return false;
+        }
+        Type intermediateType = function.getIntermediateType();
+        if (intermediateType instanceof RowType) {
+            return intermediateType.getTypeParameters().stream().allMatch(FixedWidthType.class::isInstance);
+        }
+        return intermediateType instanceof FixedWidthType;
+    }
+
+    public static SlidingWindowAggregation create(InternalAggregationFunction function, AccumulatorFactory accumulatorFactory, List<Integer> argumentChannels)
+    {
+        return new SlidingWindowAggregation(accumulatorFactory, argumentChannels, function.getIntermediateType());
+    }
+
+    public void reset(WindowIndex windowIndex)
+    {
+        this.windowIndex = requireNonNull(windowIndex, "windowIndex is null");
+        clear(0);
+    }
+
+    public void evaluate(BlockBuilder output, int frameStart, int frameEnd)
+    {
+        if (frameStart < frontStart || frameEnd < backEnd || frameStart > backEnd) {
+            // the frame moved backwards, or past all the rows that were added
+            clear(frameStart);
+        }
+
+        // rows entering the frame
+        if (frameEnd > backEnd) {
+            backAccumulator.addInput(windowIndex, argumentChannels, backEnd + 1, frameEnd);
+            backEnd = frameEnd;
+        }
+
+        // rows leaving the frame
+        if (frameStart > frontEnd) {
+            suffixStates = computeSuffixStates(frameStart, backEnd);
+            frontEnd = backEnd;
+            backAccumulator = accumulatorFactory.createAccumulator();
+        }
+        frontStart = frameStart;
+
+        Accumulator accumulator = accumulatorFactory.createAccumulator();
+        accumulator.addIntermediate(suffixStates.getRegion(frontEnd - frameStart, 1));
+        if (backEnd > frontEnd) {
+            BlockBuilder backState = intermediateType.createBlockBuilder(new BlockBuilderStatus(), 1);
+            backAccumulator.evaluateIntermediate(backState);
+            accumulator.addIntermediate(backState.build());
+        }
+        accumulator.evaluateFinal(output);
+    }
+
+    private void clear(int position)
+    {
+        suffixStates = null;
+        frontStart = position;
+        frontEnd = position - 1;
+        backAccumulator = accumulatorFactory.createAccumulator();
+        backEnd = position - 1;
+    }
+
+    private Block computeSuffixStates(int start, int end)
+    {
+        BlockBuilder states = intermediateType.createBlockBuilder(new BlockBuilderStatus(), end - start + 1);
+        for (int position = end; position >= start; position--) {
+            Accumulator accumulator = accumulatorFactory.createAccumulator();
+            accumulator.addInput(windowIndex, argumentChannels, position, position);
+            if (position < end) {
+                accumulator.addIntermediate(states.getSingleValueBlock(end - position - 1));
+            }
+            accumulator.evaluateIntermediate(states);
+        }
+        return states.build();
+    }
+}
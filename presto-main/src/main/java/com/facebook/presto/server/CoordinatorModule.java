@@ -58,6 +58,13 @@ import com.facebook.presto.execution.scheduler.PhasedExecutionPolicy;
 import com.facebook.presto.execution.scheduler.SplitSchedulerStats;
 import com.facebook.presto.memory.ClusterMemoryManager;
 import com.facebook.presto.memory.ForMemoryManager;
+import com.facebook.presto.memory.LeastWastedWorkLowMemoryKiller;
+import com.facebook.presto.memory.LowMemoryKiller;
+import com.facebook.presto.memory.MemoryManagerConfig;
+import com.facebook.presto.memory.MemoryManagerConfig.LowMemoryKillerPolicy;
+import com.facebook.presto.memory.QueryPriorityLowMemoryKiller;
+import com.facebook.presto.memory.TotalReservationLowMemoryKiller;
+import com.facebook.presto.memory.TotalReservationOnBlockedNodesLowMemoryKiller;
 import com.facebook.presto.operator.ForScheduler;
 import com.facebook.presto.server.remotetask.RemoteTaskStats;
 import com.facebook.presto.spi.memory.ClusterMemoryPoolManager;
@@ -121,6 +128,7 @@ import static com.facebook.presto.execution.QueryExecution.QueryExecutionFactory
 import static com.facebook.presto.execution.SqlQueryExecution.SqlQueryExecutionFactory;
 import static com.google.inject.multibindings.MapBinder.newMapBinder;
 import static io.airlift.concurrent.Threads.threadsNamed;
+import static io.airlift.configuration.ConditionalModule.installModuleIf;
 import static io.airlift.discovery.client.DiscoveryBinder.discoveryBinder;
 import static io.airlift.http.client.HttpClientBinder.httpClientBinder;
 import static io.airlift.http.server.HttpServerBinder.httpServerBinder;
@@ -183,6 +191,10 @@ public class CoordinatorModule
                     config.setRequestTimeout(new Duration(10, SECONDS));
                 });
         newExporter(binder).export(ClusterMemoryManager.class).withGeneratedName();
+        bindLowMemoryKiller(LowMemoryKillerPolicy.TOTAL_RESERVATION, TotalReservationLowMemoryKiller.class);
+        bindLowMemoryKiller(LowMemoryKillerPolicy.TOTAL_RESERVATION_ON_BLOCKED_NODES, TotalReservationOnBlockedNodesLowMemoryKiller.class);
+        bindLowMemoryKiller(LowMemoryKillerPolicy.LEAST_WASTED_WORK, LeastWastedWorkLowMemoryKiller.class);
+        bindLowMemoryKiller(LowMemoryKillerPolicy.QUERY_PRIORITY, QueryPriorityLowMemoryKiller.class);
 
         // cluster statistics
         jaxrsBinder(binder).bind(ClusterStatsResource.class);
@@ -267,6 +279,14 @@ public class CoordinatorModule
         binder.bind(ExecutorCleanup.class).in(Scopes.SINGLETON);
     }
 
+    private void bindLowMemoryKiller(String name, Class<? extends LowMemoryKiller> clazz)
+    {
+        install(installModuleIf(
+                MemoryManagerConfig.class,
+                config -> name.equalsIgnoreCase(config.getLowMemoryKillerPolicy()),
+                moduleBinder -> moduleBinder.bind(LowMemoryKiller.class).to(clazz).in(Scopes.SINGLETON)));
+    }
+
     private static <T extends Statement> void bindDataDefinitionTask(
             Binder binder,
             MapBinder<Class<? extends Statement>, QueryExecutionFactory<?>> executionBinder,
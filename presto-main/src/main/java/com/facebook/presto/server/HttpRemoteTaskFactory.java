@@ -69,7 +69,6 @@ public class HttpRemoteTaskFactory
     private final ExecutorService coreExecutor;
     private final Executor executor;
     private final ThreadPoolExecutorMBean executorMBean;
-    private final ScheduledExecutorService updateScheduledExecutor;
     private final ScheduledExecutorService errorScheduledExecutor;
     private final RemoteTaskStats stats;
 
@@ -98,7 +97,6 @@ public class HttpRemoteTaskFactory
         this.executorMBean = new ThreadPoolExecutorMBean((ThreadPoolExecutor) coreExecutor);
         this.stats = requireNonNull(stats, "stats is null");
 
-        this.updateScheduledExecutor = newSingleThreadScheduledExecutor(daemonThreadsNamed("task-info-update-scheduler-%s"));
         this.errorScheduledExecutor = newSingleThreadScheduledExecutor(daemonThreadsNamed("remote-task-error-delay-%s"));
     }
 
@@ -113,7 +111,6 @@ public class HttpRemoteTaskFactory
     public void stop()
     {
         coreExecutor.shutdownNow();
-        updateScheduledExecutor.shutdownNow();
         errorScheduledExecutor.shutdownNow();
     }
 
@@ -136,7 +133,6 @@ public class HttpRemoteTaskFactory
                 outputBuffers,
                 httpClient,
                 executor,
-                updateScheduledExecutor,
                 errorScheduledExecutor,
                 minErrorDuration,
                 maxErrorDuration,
@@ -159,7 +159,6 @@ public final class HttpRemoteTask
             OutputBuffers outputBuffers,
             HttpClient httpClient,
             Executor executor,
-            ScheduledExecutorService updateScheduledExecutor,
             ScheduledExecutorService errorScheduledExecutor,
             Duration minErrorDuration,
             Duration maxErrorDuration,
@@ -240,7 +239,6 @@ public final class HttpRemoteTask
                     maxErrorDuration,
                     summarizeTaskInfo,
                     executor,
-                    updateScheduledExecutor,
                     errorScheduledExecutor,
                     stats);
 
@@ -277,6 +275,7 @@ public final class HttpRemoteTask
     @Override
     public TaskInfo getTaskInfo()
     {
+        taskInfoFetcher.refreshTaskInfo();
         return taskInfoFetcher.getTaskInfo();
     }
 
@@ -673,7 +672,7 @@ public final class HttpRemoteTask
 
                 // Since this TaskInfo is updated in the client the "complete" flag will not be set,
                 // indicating that the stats may not reflect the final stats on the worker.
-                updateTaskInfo(getTaskInfo().withTaskStatus(getTaskStatus()));
+                updateTaskInfo(taskInfoFetcher.getTaskInfo().withTaskStatus(getTaskStatus()));
             }
         }, executor);
     }
@@ -704,7 +703,7 @@ public final class HttpRemoteTask
     public String toString()
     {
         return toStringHelper(this)
-                .addValue(getTaskInfo())
+                .addValue(taskInfoFetcher.getTaskInfo())
                 .toString();
     }
 
@@ -32,7 +32,6 @@ import javax.annotation.concurrent.GuardedBy;
 import java.net.URI;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 
@@ -43,7 +42,6 @@ import static io.airlift.http.client.HttpUriBuilder.uriBuilderFrom;
 import static io.airlift.http.client.Request.Builder.prepareGet;
 import static io.airlift.units.Duration.nanosSince;
 import static java.util.Objects.requireNonNull;
-import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 public class TaskInfoFetcher
         implements SimpleHttpResponseCallback<TaskInfo>
@@ -55,7 +53,6 @@ public class TaskInfoFetcher
 
     private final long updateIntervalMillis;
     private final AtomicLong lastUpdateNanos = new AtomicLong();
-    private final ScheduledExecutorService updateScheduledExecutor;
 
     private final Executor executor;
     private final HttpClient httpClient;
@@ -71,9 +68,6 @@ public class TaskInfoFetcher
     @GuardedBy("this")
     private boolean running;
 
-    @GuardedBy("this")
-    private ScheduledFuture<?> scheduledFuture;
-
     @GuardedBy("this")
     private ListenableFuture<FullJsonResponseHandler.JsonResponse<TaskInfo>> future;
 
@@ -87,7 +81,6 @@ public class TaskInfoFetcher
             Duration maxErrorDuration,
             boolean summarizeTaskInfo,
             Executor executor,
-            ScheduledExecutorService updateScheduledExecutor,
             ScheduledExecutorService errorScheduledExecutor,
             RemoteTaskStats stats)
     {
@@ -101,7 +94,6 @@ public class TaskInfoFetcher
         this.taskInfoCodec = requireNonNull(taskInfoCodec, "taskInfoCodec is null");
 
         this.updateIntervalMillis = requireNonNull(updateInterval, "updateInterval is null").toMillis();
-        this.updateScheduledExecutor = requireNonNull(updateScheduledExecutor, "updateScheduledExecutor is null");
         this.errorTracker = new RequestErrorTracker(taskId, initialTask.getTaskStatus().getSelf(), minErrorDuration, maxErrorDuration, errorScheduledExecutor, "getting info for task");
 
         this.summarizeTaskInfo = summarizeTaskInfo;
@@ -111,19 +103,31 @@ public class TaskInfoFetcher
         this.stats = requireNonNull(stats, "stats is null");
     }
 
+    /**
+     * Returns the latest known task info without contacting the worker. The info of a
+     * running task is not polled; it is updated by task updates, by explicit refreshes
+     * (see {@link #refreshTaskInfo()}), and when the task is cleaned up.
+     */
     public TaskInfo getTaskInfo()
     {
         return taskInfo.get();
     }
 
-    public synchronized void start()
+    /**
+     * Starts fetching the task info in the background, if the cached info is older than
+     * the update interval. Callers that need detailed task info (query info, the UI, system
+     * tables) use this to drive the fetching.
+     */
+    public void refreshTaskInfo()
     {
-        if (running) {
-            // already running
-            return;
+        if (!isDone(taskInfo.get()) && nanosSince(lastUpdateNanos.get()).toMillis() >= updateIntervalMillis) {
+            sendNextRequest();
         }
+    }
+
+    public synchronized void start()
+    {
         running = true;
-        scheduleUpdate();
     }
 
     private synchronized void stop()
@@ -133,36 +137,19 @@ public class TaskInfoFetcher
             future.cancel(true);
             future = null;
         }
-        if (scheduledFuture != null) {
-            scheduledFuture.cancel(true);
-        }
-    }
-
-    private synchronized void scheduleUpdate()
-    {
-        scheduledFuture = updateScheduledExecutor.scheduleWithFixedDelay(() -> {
-            synchronized (this) {
-                // if the previous request still running, don't schedule a new request
-                if (future != null && !future.isDone()) {
-                    return;
-                }
-            }
-            if (nanosSince(lastUpdateNanos.get()).toMillis() >= updateIntervalMillis) {
-                sendNextRequest();
-            }
-        }, 0, 100, MILLISECONDS);
     }
 
     private synchronized void sendNextRequest()
     {
-        TaskStatus taskStatus = getTaskInfo().getTaskStatus();
+        TaskInfo currentTaskInfo = taskInfo.get();
+        TaskStatus taskStatus = currentTaskInfo.getTaskStatus();
 
         if (!running) {
             return;
         }
 
         // we already have the final task info
-        if (isDone(getTaskInfo())) {
+        if (isDone(currentTaskInfo)) {
             stop();
             return;
         }
@@ -234,7 +221,7 @@ public class TaskInfoFetcher
 
             try {
                 // if task not already done, record error
-                if (!isDone(getTaskInfo())) {
+                if (!isDone(taskInfo.get())) {
                     errorTracker.requestFailed(cause);
                 }
             }
@@ -43,9 +43,12 @@ public class FeaturesConfig
     private boolean distributedIndexJoinsEnabled;
     private boolean distributedJoinsEnabled = true;
     private boolean colocatedJoinsEnabled;
+    private boolean groupedExecutionEnabled;
+    private int concurrentLifespansPerTask = 1;
     private boolean fastInequalityJoins = true;
     private boolean reorderJoins = true;
     private boolean redistributeWrites = true;
+    private boolean distributedSort;
     private boolean optimizeMetadataQueries;
     private boolean optimizeHashGeneration = true;
     private boolean optimizeSingleDistinct = true;
@@ -57,6 +60,7 @@ public class FeaturesConfig
     private boolean legacyMapSubscript;
     private boolean optimizeMixedDistinctAggregations;
     private boolean forceSingleNodeOutput = true;
+    private boolean optimizeCommonSubExpressions = true;
 
     private boolean dictionaryAggregation;
     private boolean resourceGroups;
@@ -161,6 +165,33 @@ public class FeaturesConfig
         return this;
     }
 
+    public boolean isGroupedExecutionEnabled()
+    {
+        return groupedExecutionEnabled;
+    }
+
+    @Config("grouped-execution-enabled")
+    @ConfigDescription("Experimental: Execute colocated joins and aggregations on bucketed tables one bucket at a time")
+    public FeaturesConfig setGroupedExecutionEnabled(boolean groupedExecutionEnabled)
+    {
+        this.groupedExecutionEnabled = groupedExecutionEnabled;
+        return this;
+    }
+
+    @Min(1)
+    public int getConcurrentLifespansPerTask()
+    {
+        return concurrentLifespansPerTask;
+    }
+
+    @Config("concurrent-lifespans-per-task")
+    @ConfigDescription("Number of buckets a task processes concurrently when using grouped execution")
+    public FeaturesConfig setConcurrentLifespansPerTask(int concurrentLifespansPerTask)
+    {
+        this.concurrentLifespansPerTask = concurrentLifespansPerTask;
+        return this;
+    }
+
     @Config("fast-inequality-joins")
     @ConfigDescription("Use faster handling of inequality joins if it is possible")
     public FeaturesConfig setFastInequalityJoins(boolean fastInequalityJoins)
@@ -199,6 +230,18 @@ public class FeaturesConfig
         return this;
     }
 
+    public boolean isDistributedSortEnabled()
+    {
+        return distributedSort;
+    }
+
+    @Config("distributed-sort")
+    public FeaturesConfig setDistributedSortEnabled(boolean distributedSort)
+    {
+        this.distributedSort = distributedSort;
+        return this;
+    }
+
     public boolean isOptimizeMetadataQueries()
     {
         return optimizeMetadataQueries;
@@ -471,4 +514,16 @@ public class FeaturesConfig
         this.forceSingleNodeOutput = value;
         return this;
     }
+
+    public boolean isOptimizeCommonSubExpressions()
+    {
+        return optimizeCommonSubExpressions;
+    }
+
+    @Config("optimizer.optimize-common-sub-expressions")
+    public FeaturesConfig setOptimizeCommonSubExpressions(boolean value)
+    {
+        this.optimizeCommonSubExpressions = value;
+        return this;
+    }
 }
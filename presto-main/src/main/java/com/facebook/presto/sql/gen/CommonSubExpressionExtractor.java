@@ -0,0 +1,440 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.sql.gen;
+
+import com.facebook.presto.sql.relational.CallExpression;
+import com.facebook.presto.sql.relational.ConstantExpression;
+import com.facebook.presto.sql.relational.DeterminismEvaluator;
+import com.facebook.presto.sql.relational.InputReferenceExpression;
+import com.facebook.presto.sql.relational.LambdaDefinitionExpression;
+import com.facebook.presto.sql.relational.RowExpression;
+import com.facebook.presto.sql.relational.RowExpressionVisitor;
+import com.facebook.presto.sql.relational.VariableReferenceExpression;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.facebook.presto.sql.relational.Expressions.field;
+import static com.facebook.presto.sql.relational.Expressions.subExpressions;
+import static com.facebook.presto.sql.relational.Signatures.BIND;
+import static com.facebook.presto.sql.relational.Signatures.COALESCE;
+import static com.facebook.presto.sql.relational.Signatures.DEREFERENCE;
+import static com.facebook.presto.sql.relational.Signatures.IF;
+import static com.facebook.presto.sql.relational.Signatures.IN;
+import static com.facebook.presto.sql.relational.Signatures.IS_NULL;
+import static com.facebook.presto.sql.relational.Signatures.NULL_IF;
+import static com.facebook.presto.sql.relational.Signatures.ROW_CONSTRUCTOR;
+import static com.facebook.presto.sql.relational.Signatures.SWITCH;
+import static com.facebook.presto.sql.relational.Signatures.TRY;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Extracts deterministic subexpressions that appear more than once across the filter and
+ * the projections of a page processor, so that each of them is evaluated once per row.
+ * Every extracted expression is replaced with a reference to a new channel that follows
+ * the channels of the input page.
+ * <p>
+ * An expression is only extracted where evaluating it up front cannot raise an error the
+ * original expressions would not have raised:
+ * <ul>
+ * <li>expressions the filter evaluates for every row are computed for all positions before the filter</li>
+ * <li>expressions a projection evaluates for every row are computed for the selected positions before the projections</li>
+ * </ul>
+ * Arguments of conditional forms (IF, AND, COALESCE, ...) and arguments following a nullable
+ * argument of a function call are not evaluated for every row. Lambda bodies are never touched.
+ */
+public final class CommonSubExpressionExtractor
+{
+    private static final Set<String> CONDITIONAL_FORMS = ImmutableSet.of(IF, NULL_IF, SWITCH, COALESCE, IN, IS_NULL, DEREFERENCE, "AND", "OR");
+
+    private CommonSubExpressionExtractor() {}
+
+    public static Result extractCommonSubExpressions(Optional<RowExpression> filter, List<? extends RowExpression> projections, DeterminismEvaluator determinismEvaluator)
+    {
+        requireNonNull(filter, "filter is null");
+        requireNonNull(projections, "projections is null");
+        requireNonNull(determinismEvaluator, "determinismEvaluator is null");
+
+        int inputChannelCount = getInputChannelCount(filter, projections);
+
+        Optional<RowExpression> rewrittenFilter = filter;
+        List<RowExpression> rewrittenProjections = ImmutableList.copyOf(projections);
+        List<RowExpression> extractedExpressions = new ArrayList<>();
+        List<Boolean> evaluatedBeforeFilter = new ArrayList<>();
+        while (true) {
+            Map<RowExpression, Occurrences> occurrences = new LinkedHashMap<>();
+            rewrittenFilter.ifPresent(expression -> expression.accept(new OccurrenceCollector(occurrences, true), true));
+            for (RowExpression projection : rewrittenProjections) {
+                projection.accept(new OccurrenceCollector(occurrences, false), true);
+            }
+
+            // extract the largest candidate first, so its subexpressions are not materialized separately
+            Optional<RowExpression> candidate = Optional.empty();
+            int candidateSize = 0;
+            for (Map.Entry<RowExpression, Occurrences> entry : occurrences.entrySet()) {
+                RowExpression expression = entry.getKey();
+                Occurrences occurrence = entry.getValue();
+                if (!occurrence.isBeforeFilterCandidate() && !occurrence.isBeforeProjectionsCandidate()) {
+                    continue;
+                }
+                int size = subExpressions(ImmutableList.of(expression)).size();
+                if (size > candidateSize && isShareable(expression, determinismEvaluator)) {
+                    candidate = Optional.of(expression);
+                    candidateSize = size;
+                }
+            }
+            if (!candidate.isPresent()) {
+                break;
+            }
+
+            RowExpression expression = candidate.get();
+            boolean beforeFilter = occurrences.get(expression).isBeforeFilterCandidate();
+            InputReferenceExpression reference = field(inputChannelCount + extractedExpressions.size(), expression.getType());
+            extractedExpressions.add(expression);
+            evaluatedBeforeFilter.add(beforeFilter);
+
+            if (beforeFilter) {
+                rewrittenFilter = rewrittenFilter.map(rowExpression -> replace(rowExpression, expression, reference));
+            }
+            rewrittenProjections = rewrittenProjections.stream()
+                    .map(rowExpression -> replace(rowExpression, expression, reference))
+                    .collect(toImmutableList());
+        }
+
+        if (extractedExpressions.isEmpty()) {
+            return new Result(filter, rewrittenProjections, inputChannelCount, ImmutableList.of(), ImmutableList.of());
+        }
+
+        // lay out the channels so the expressions computed before the filter come first
+        Map<Integer, Integer> channelMapping = new HashMap<>();
+        ImmutableList.Builder<RowExpression> filterCommonSubExpressions = ImmutableList.builder();
+        int nextChannel = inputChannelCount;
+        for (int i = 0; i < extractedExpressions.size(); i++) {
+            if (evaluatedBeforeFilter.get(i)) {
+                channelMapping.put(inputChannelCount + i, nextChannel++);
+                filterCommonSubExpressions.add(extractedExpressions.get(i));
+            }
+        }
+        ImmutableList.Builder<RowExpression> projectionCommonSubExpressions = ImmutableList.builder();
+        for (int i = 0; i < extractedExpressions.size(); i++) {
+            if (!evaluatedBeforeFilter.get(i)) {
+                channelMapping.put(inputChannelCount + i, nextChannel++);
+                projectionCommonSubExpressions.add(extractedExpressions.get(i));
+            }
+        }
+
+        ChannelRemapper remapper = new ChannelRemapper(channelMapping);
+        return new Result(
+                rewrittenFilter.map(expression -> expression.accept(remapper, null)),
+                remap(rewrittenProjections, remapper),
+                inputChannelCount,
+                remap(filterCommonSubExpressions.build(), remapper),
+                remap(projectionCommonSubExpressions.build(), remapper));
+    }
+
+    private static int getInputChannelCount(Optional<RowExpression> filter, List<? extends RowExpression> projections)
+    {
+        ImmutableList.Builder<RowExpression> expressions = ImmutableList.builder();
+        filter.ifPresent(expressions::add);
+        expressions.addAll(projections);
+
+        int inputChannelCount = 0;
+        for (RowExpression expression : subExpressions(expressions.build())) {
+            if (expression instanceof InputReferenceExpression) {
+                inputChannelCount = Math.max(inputChannelCount, ((InputReferenceExpression) expression).getField() + 1);
+            }
+        }
+        return inputChannelCount;
+    }
+
+    private static boolean isShareable(RowExpression expression, DeterminismEvaluator determinismEvaluator)
+    {
+        boolean hasInput = false;
+        for (RowExpression subExpression : subExpressions(ImmutableList.of(expression))) {
+            if (subExpression instanceof LambdaDefinitionExpression || subExpression instanceof VariableReferenceExpression) {
+                return false;
+            }
+            hasInput |= subExpression instanceof InputReferenceExpression;
+        }
+        return hasInput && determinismEvaluator.isDeterministic(expression);
+    }
+
+    private static boolean isEvaluatedForEveryRow(CallExpression call, int argument)
+    {
+        String name = call.getSignature().getName();
+        if (name.equals(ROW_CONSTRUCTOR)) {
+            return true;
+        }
+        if (name.equals(BIND) || name.equals(TRY)) {
+            return false;
+        }
+        if (argument == 0) {
+            return true;
+        }
+        if (CONDITIONAL_FORMS.contains(name)) {
+            return false;
+        }
+        // the arguments of a function are evaluated from left to right, and the evaluation stops at the first null
+        for (RowExpression previous : call.getArguments().subList(0, argument)) {
+            if (!(previous instanceof ConstantExpression) || ((ConstantExpression) previous).getValue() == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static RowExpression replace(RowExpression expression, RowExpression target, RowExpression replacement)
+    {
+        return expression.accept(new RowExpressionVisitor<RowExpression, Void>()
+        {
+            @Override
+            public RowExpression visitCall(CallExpression call, Void context)
+            {
+                if (call.equals(target)) {
+                    return replacement;
+                }
+                return new CallExpression(
+                        call.getSignature(),
+                        call.getType(),
+                        call.getArguments().stream()
+                                .map(argument -> argument.accept(this, context))
+                                .collect(toImmutableList()));
+            }
+
+            @Override
+            public RowExpression visitInputReference(InputReferenceExpression reference, Void context)
+            {
+                return reference;
+            }
+
+            @Override
+            public RowExpression visitConstant(ConstantExpression literal, Void context)
+            {
+                return literal;
+            }
+
+            @Override
+            public RowExpression visitLambda(LambdaDefinitionExpression lambda, Void context)
+            {
+                return lambda;
+            }
+
+            @Override
+            public RowExpression visitVariableReference(VariableReferenceExpression reference, Void context)
+            {
+                return reference;
+            }
+        }, null);
+    }
+
+    private static List<RowExpression> remap(List<RowExpression> expressions, ChannelRemapper remapper)
+    {
+        return expressions.stream()
+                .map(expression -> expression.accept(remapper, null))
+                .collect(toImmutableList());
+    }
+
+    private static class Occurrences
+    {
+        private int filterOccurrences;
+        private int projectionOccurrences;
+        private boolean evaluatedForEveryRowInFilter;
+        private boolean evaluatedForEveryRowInProjections;
+
+        public void add(boolean inFilter, boolean evaluatedForEveryRow)
+        {
+            if (inFilter) {
+                filterOccurrences++;
+                evaluatedForEveryRowInFilter |= evaluatedForEveryRow;
+            }
+            else {
+                projectionOccurrences++;
+                evaluatedForEveryRowInProjections |= evaluatedForEveryRow;
+            }
+        }
+
+        public boolean isBeforeFilterCandidate()
+        {
+            return evaluatedForEveryRowInFilter && filterOccurrences + projectionOccurrences > 1;
+        }
+
+        public boolean isBeforeProjectionsCandidate()
+        {
+            return evaluatedForEveryRowInProjections && projectionOccurrences > 1;
+        }
+    }
+
+    private static class OccurrenceCollector
+            implements RowExpressionVisitor<Void, Boolean>
+    {
+        private final Map<RowExpression, Occurrences> occurrences;
+        private final boolean inFilter;
+
+        public OccurrenceCollector(Map<RowExpression, Occurrences> occurrences, boolean inFilter)
+        {
+            this.occurrences = occurrences;
+            this.inFilter = inFilter;
+        }
+
+        @Override
+        public Void visitCall(CallExpression call, Boolean evaluatedForEveryRow)
+        {
+            occurrences.computeIfAbsent(call, expression -> new Occurrences()).add(inFilter, evaluatedForEveryRow);
+            List<RowExpression> arguments = call.getArguments();
+            for (int i = 0; i < arguments.size(); i++) {
+                arguments.get(i).accept(this, evaluatedForEveryRow && isEvaluatedForEveryRow(call, i));
+            }
+            return null;
+        }
+
+        @Override
+        public Void visitInputReference(InputReferenceExpression reference, Boolean evaluatedForEveryRow)
+        {
+            return null;
+        }
+
+        @Override
+        public Void visitConstant(ConstantExpression literal, Boolean evaluatedForEveryRow)
+        {
+            return null;
+        }
+
+        @Override
+        public Void visitLambda(LambdaDefinitionExpression lambda, Boolean evaluatedForEveryRow)
+        {
+            return null;
+        }
+
+        @Override
+        public Void visitVariableReference(VariableReferenceExpression reference, Boolean evaluatedForEveryRow)
+        {
+            return null;
+        }
+    }
+
+    private static class ChannelRemapper
+            implements RowExpressionVisitor<RowExpression, Void>
+    {
+        private final Map<Integer, Integer> channelMapping;
+
+        public ChannelRemapper(Map<Integer, Integer> channelMapping)
+        {
+            this.channelMapping = channelMapping;
+        }
+
+        @Override
+        public RowExpression visitCall(CallExpression call, Void context)
+        {
+            return new CallExpression(
+                    call.getSignature(),
+                    call.getType(),
+                    call.getArguments().stream()
+                            .map(argument -> argument.accept(this, context))
+                            .collect(toImmutableList()));
+        }
+
+        @Override
+        public RowExpression visitInputReference(InputReferenceExpression reference, Void context)
+        {
+            Integer channel = channelMapping.get(reference.getField());
+            if (channel == null) {
+                return reference;
+            }
+            return field(channel, reference.getType());
+        }
+
+        @Override
+        public RowExpression visitConstant(ConstantExpression literal, Void context)
+        {
+            return literal;
+        }
+
+        @Override
+        public RowExpression visitLambda(LambdaDefinitionExpression lambda, Void context)
+        {
+            return lambda;
+        }
+
+        @Override
+        public RowExpression visitVariableReference(VariableReferenceExpression reference, Void context)
+        {
+            return reference;
+        }
+    }
+
+    public static class Result
+    {
+        private final Optional<RowExpression> filter;
+        private final List<RowExpression> projections;
+        private final int inputChannelCount;
+        private final List<RowExpression> filterCommonSubExpressions;
+        private final List<RowExpression> projectionCommonSubExpressions;
+
+        public Result(
+                Optional<RowExpression> filter,
+                List<RowExpression> projections,
+                int inputChannelCount,
+                List<RowExpression> filterCommonSubExpressions,
+                List<RowExpression> projectionCommonSubExpressions)
+        {
+            this.filter = requireNonNull(filter, "filter is null");
+            this.projections = ImmutableList.copyOf(requireNonNull(projections, "projections is null"));
+            this.inputChannelCount = inputChannelCount;
+            this.filterCommonSubExpressions = ImmutableList.copyOf(requireNonNull(filterCommonSubExpressions, "filterCommonSubExpressions is null"));
+            this.projectionCommonSubExpressions = ImmutableList.copyOf(requireNonNull(projectionCommonSubExpressions, "projectionCommonSubExpressions is null"));
+        }
+
+        public Optional<RowExpression> getFilter()
+        {
+            return filter;
+        }
+
+        public List<RowExpression> getProjections()
+        {
+            return projections;
+        }
+
+        /**
+         * Number of channels of the input page that precede the channels of the common subexpressions.
+         */
+        public int getInputChannelCount()
+        {
+            return inputChannelCount;
+        }
+
+        /**
+         * Common subexpressions evaluated for all positions before the filter, in evaluation order.
+         */
+        public List<RowExpression> getFilterCommonSubExpressions()
+        {
+            return filterCommonSubExpressions;
+        }
+
+        /**
+         * Common subexpressions evaluated for the selected positions before the projections, in evaluation order.
+         */
+        public List<RowExpression> getProjectionCommonSubExpressions()
+        {
+            return projectionCommonSubExpressions;
+        }
+    }
+}
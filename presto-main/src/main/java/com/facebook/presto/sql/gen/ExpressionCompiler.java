@@ -21,6 +21,7 @@ import com.facebook.presto.operator.project.PageFilter;
 import com.facebook.presto.operator.project.PageProcessor;
 import com.facebook.presto.operator.project.PageProjection;
 import com.facebook.presto.spi.PrestoException;
+import com.facebook.presto.sql.relational.DeterminismEvaluator;
 import com.facebook.presto.sql.relational.RowExpression;
 import com.google.common.base.Throwables;
 import com.google.common.cache.CacheBuilder;
@@ -46,6 +47,7 @@ import static com.facebook.presto.bytecode.ParameterizedType.type;
 import static com.facebook.presto.spi.StandardErrorCode.COMPILER_ERROR;
 import static com.facebook.presto.spi.type.BooleanType.BOOLEAN;
 import static com.facebook.presto.sql.gen.BytecodeUtils.invoke;
+import static com.facebook.presto.sql.gen.CommonSubExpressionExtractor.extractCommonSubExpressions;
 import static com.facebook.presto.sql.relational.Expressions.constant;
 import static com.google.common.base.MoreObjects.toStringHelper;
 import static com.google.common.collect.ImmutableList.toImmutableList;
@@ -54,6 +56,7 @@ import static java.util.Objects.requireNonNull;
 public class ExpressionCompiler
 {
     private final PageFunctionCompiler pageFunctionCompiler;
+    private final DeterminismEvaluator determinismEvaluator;
     private final LoadingCache<CacheKey, Class<? extends CursorProcessor>> cursorProcessors;
     private final CacheStatsMBean cacheStatsMBean;
 
@@ -62,6 +65,7 @@ public class ExpressionCompiler
     {
         requireNonNull(metadata, "metadata is null");
         this.pageFunctionCompiler = requireNonNull(pageFunctionCompiler, "pageFunctionCompiler is null");
+        this.determinismEvaluator = new DeterminismEvaluator(metadata.getFunctionRegistry());
         this.cursorProcessors = CacheBuilder.newBuilder()
                 .recordStats()
                 .maximumSize(1000)
@@ -91,20 +95,54 @@ public class ExpressionCompiler
 
     public Supplier<PageProcessor> compilePageProcessor(Optional<RowExpression> filter, List<? extends RowExpression> projections, Optional<String> classNameSuffix)
     {
-        Optional<Supplier<PageFilter>> filterFunctionSupplier = filter.map(expression -> pageFunctionCompiler.compileFilter(expression, classNameSuffix));
-        List<Supplier<PageProjection>> pageProjectionSuppliers = projections.stream()
-                .map(projection -> pageFunctionCompiler.compileProjection(projection, classNameSuffix))
-                .collect(toImmutableList());
+        return compilePageProcessor(filter, projections, classNameSuffix, true);
+    }
+
+    public Supplier<PageProcessor> compilePageProcessor(
+            Optional<RowExpression> filter,
+            List<? extends RowExpression> projections,
+            Optional<String> classNameSuffix,
+            boolean optimizeCommonSubExpressions)
+    {
+        if (!optimizeCommonSubExpressions) {
+            return compilePageProcessor(new CommonSubExpressionExtractor.Result(filter, ImmutableList.copyOf(projections), 0, ImmutableList.of(), ImmutableList.of()), classNameSuffix);
+        }
+        return compilePageProcessor(extractCommonSubExpressions(filter, projections, determinismEvaluator), classNameSuffix);
+    }
+
+    private Supplier<PageProcessor> compilePageProcessor(CommonSubExpressionExtractor.Result expressions, Optional<String> classNameSuffix)
+    {
+        Optional<Supplier<PageFilter>> filterFunctionSupplier = expressions.getFilter().map(expression -> pageFunctionCompiler.compileFilter(expression, classNameSuffix));
+        List<Supplier<PageProjection>> pageProjectionSuppliers = compileProjections(expressions.getProjections(), classNameSuffix);
+        List<Supplier<PageProjection>> filterCommonSubExpressionSuppliers = compileProjections(expressions.getFilterCommonSubExpressions(), classNameSuffix);
+        List<Supplier<PageProjection>> projectionCommonSubExpressionSuppliers = compileProjections(expressions.getProjectionCommonSubExpressions(), classNameSuffix);
+        int inputChannelCount = expressions.getInputChannelCount();
 
         return () -> {
             Optional<PageFilter> filterFunction = filterFunctionSupplier.map(Supplier::get);
-            List<PageProjection> pageProjections = pageProjectionSuppliers.stream()
-                    .map(Supplier::get)
-                    .collect(toImmutableList());
-            return new PageProcessor(filterFunction, pageProjections);
+            return new PageProcessor(
+                    filterFunction,
+                    getAll(pageProjectionSuppliers),
+                    inputChannelCount,
+                    getAll(filterCommonSubExpressionSuppliers),
+                    getAll(projectionCommonSubExpressionSuppliers));
         };
     }
 
+    private List<Supplier<PageProjection>> compileProjections(List<RowExpression> projections, Optional<String> classNameSuffix)
+    {
+        return projections.stream()
+                .map(projection -> pageFunctionCompiler.compileProjection(projection, classNameSuffix))
+                .collect(toImmutableList());
+    }
+
+    private static List<PageProjection> getAll(List<Supplier<PageProjection>> suppliers)
+    {
+        return suppliers.stream()
+                .map(Supplier::get)
+                .collect(toImmutableList());
+    }
+
     public Supplier<PageProcessor> compilePageProcessor(Optional<RowExpression> filter, List<? extends RowExpression> projections)
     {
         return compilePageProcessor(filter, projections, Optional.empty());
@@ -87,6 +87,7 @@ import com.facebook.presto.sql.tree.SymbolReference;
 import com.facebook.presto.sql.tree.WhenClause;
 import com.facebook.presto.type.FunctionType;
 import com.facebook.presto.type.LikeFunctions;
+import com.facebook.presto.type.LikePattern;
 import com.facebook.presto.util.Failures;
 import com.facebook.presto.util.FastutilSetHelper;
 import com.google.common.annotations.VisibleForTesting;
@@ -94,7 +95,6 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.primitives.Primitives;
-import io.airlift.joni.Regex;
 import io.airlift.json.JsonCodec;
 import io.airlift.slice.Slice;
 
@@ -144,7 +144,7 @@ public class ExpressionInterpreter
     private final Visitor visitor;
 
     // identity-based cache for LIKE expressions with constant pattern and escape char
-    private final IdentityHashMap<LikePredicate, Regex> likePatternCache = new IdentityHashMap<>();
+    private final IdentityHashMap<LikePredicate, LikePattern> likePatternCache = new IdentityHashMap<>();
     private final IdentityHashMap<InListExpression, Set<?>> inListCache = new IdentityHashMap<>();
 
     public static ExpressionInterpreter expressionInterpreter(Expression expression, Metadata metadata, Session session, Map<NodeRef<Expression>, Type> expressionTypes)
@@ -1054,15 +1054,15 @@ public class ExpressionInterpreter
             if (value instanceof Slice &&
                     pattern instanceof Slice &&
                     (escape == null || escape instanceof Slice)) {
-                Regex regex;
+                LikePattern likePattern;
                 if (escape == null) {
-                    regex = LikeFunctions.likePattern((Slice) pattern);
+                    likePattern = LikeFunctions.likePattern((Slice) pattern);
                 }
                 else {
-                    regex = LikeFunctions.likePattern((Slice) pattern, (Slice) escape);
+                    likePattern = LikeFunctions.likePattern((Slice) pattern, (Slice) escape);
                 }
 
-                return LikeFunctions.like((Slice) value, regex);
+                return LikeFunctions.like((Slice) value, likePattern);
             }
 
             // if pattern is a constant without % or _ replace with a comparison
@@ -1096,9 +1096,9 @@ public class ExpressionInterpreter
                     optimizedEscape);
         }
 
-        private Regex getConstantPattern(LikePredicate node)
+        private LikePattern getConstantPattern(LikePredicate node)
         {
-            Regex result = likePatternCache.get(node);
+            LikePattern result = likePatternCache.get(node);
 
             if (result == null) {
                 StringLiteral pattern = (StringLiteral) node.getPattern();
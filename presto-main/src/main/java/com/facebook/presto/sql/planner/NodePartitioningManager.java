@@ -16,6 +16,7 @@ package com.facebook.presto.sql.planner;
 import com.facebook.presto.Session;
 import com.facebook.presto.connector.ConnectorId;
 import com.facebook.presto.execution.scheduler.NodeScheduler;
+import com.facebook.presto.metadata.Split;
 import com.facebook.presto.operator.BucketPartitionFunction;
 import com.facebook.presto.operator.PartitionFunction;
 import com.facebook.presto.spi.BucketFunction;
@@ -136,12 +137,24 @@ public class NodePartitioningManager
             bucketToPartition[entry.getKey()] = partitionId;
         }
 
+        return new NodePartitionMap(nodeToPartition.inverse(), bucketToPartition, getSplitBucketFunction(session, partitioningHandle));
+    }
+
+    public ToIntFunction<Split> getSplitBucketFunction(Session session, PartitioningHandle partitioningHandle)
+    {
+        requireNonNull(session, "session is null");
+        requireNonNull(partitioningHandle, "partitioningHandle is null");
+        checkArgument(partitioningHandle.getConnectorId().isPresent(), "Splits can only be assigned to buckets of a connector partitioning: %s", partitioningHandle);
+
+        ConnectorNodePartitioningProvider partitioningProvider = partitioningProviders.get(partitioningHandle.getConnectorId().get());
+        checkArgument(partitioningProvider != null, "No partitioning provider for connector %s", partitioningHandle.getConnectorId().get());
+
         ToIntFunction<ConnectorSplit> splitBucketFunction = partitioningProvider.getSplitBucketFunction(
                 partitioningHandle.getTransactionHandle().orElse(null),
                 session.toConnectorSession(),
                 partitioningHandle.getConnectorHandle());
         checkArgument(splitBucketFunction != null, "No partitioning %s", partitioningHandle);
 
-        return new NodePartitionMap(nodeToPartition.inverse(), bucketToPartition, split -> splitBucketFunction.applyAsInt(split.getConnectorSplit()));
+        return split -> splitBucketFunction.applyAsInt(split.getConnectorSplit());
     }
 }
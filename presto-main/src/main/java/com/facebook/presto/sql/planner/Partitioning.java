@@ -13,6 +13,8 @@
  */
 package com.facebook.presto.sql.planner;
 
+import com.facebook.presto.Session;
+import com.facebook.presto.metadata.Metadata;
 import com.facebook.presto.spi.predicate.NullableValue;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
@@ -91,6 +93,33 @@ public final class Partitioning
             return false;
         }
 
+        return isPartitionedWithArguments(right, leftToRightMappings, leftConstantMapping, rightConstantMapping);
+    }
+
+    public boolean isPartitionedWith(
+            Partitioning right,
+            Metadata metadata,
+            Session session,
+            Function<Symbol, Set<Symbol>> leftToRightMappings,
+            Function<Symbol, Optional<NullableValue>> leftConstantMapping,
+            Function<Symbol, Optional<NullableValue>> rightConstantMapping)
+    {
+        // connector partitionings with different handles (e.g. tables bucketed into a different,
+        // but compatible number of buckets) are co-located if the connector can read both of them
+        // using a common partitioning
+        if (!handle.equals(right.handle) && !metadata.getCommonPartitioning(session, handle, right.handle).isPresent()) {
+            return false;
+        }
+
+        return isPartitionedWithArguments(right, leftToRightMappings, leftConstantMapping, rightConstantMapping);
+    }
+
+    private boolean isPartitionedWithArguments(
+            Partitioning right,
+            Function<Symbol, Set<Symbol>> leftToRightMappings,
+            Function<Symbol, Optional<NullableValue>> leftConstantMapping,
+            Function<Symbol, Optional<NullableValue>> rightConstantMapping)
+    {
         if (arguments.size() != right.arguments.size()) {
             return false;
         }
@@ -170,6 +199,11 @@ public final class Partitioning
         return !nonConstantArgs.equals(keysWithoutConstants);
     }
 
+    public Partitioning withHandle(PartitioningHandle handle)
+    {
+        return new Partitioning(handle, arguments);
+    }
+
     public Partitioning translate(Function<Symbol, Symbol> translator)
     {
         return new Partitioning(handle, arguments.stream()
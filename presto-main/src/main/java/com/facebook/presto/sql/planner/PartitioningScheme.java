@@ -114,6 +114,11 @@ public class PartitioningScheme
         return new PartitioningScheme(partitioning, outputLayout, hashColumn, replicateNullsAndAny, bucketToPartition);
     }
 
+    public PartitioningScheme withPartitioningHandle(PartitioningHandle partitioningHandle)
+    {
+        return new PartitioningScheme(partitioning.withHandle(partitioningHandle), outputLayout, hashColumn, replicateNullsAndAny, bucketToPartition);
+    }
+
     public PartitioningScheme translateOutputLayout(List<Symbol> newOutputLayout)
     {
         requireNonNull(newOutputLayout, "newOutputLayout is null");
@@ -17,6 +17,7 @@ import com.facebook.presto.Session;
 import com.facebook.presto.metadata.Metadata;
 import com.facebook.presto.metadata.TableLayout;
 import com.facebook.presto.metadata.TableLayout.TablePartitioning;
+import com.facebook.presto.metadata.TableLayoutHandle;
 import com.facebook.presto.spi.connector.ConnectorPartitioningHandle;
 import com.facebook.presto.spi.type.Type;
 import com.facebook.presto.sql.planner.plan.ExchangeNode;
@@ -74,19 +75,56 @@ public class PlanFragmenter
     {
         Fragmenter fragmenter = new Fragmenter(session, metadata, plan.getTypes());
 
-        FragmentProperties properties = new FragmentProperties(new PartitioningScheme(Partitioning.create(SINGLE_DISTRIBUTION, ImmutableList.of()), plan.getRoot().getOutputSymbols()));
+        FragmentProperties properties = new FragmentProperties(new PartitioningScheme(Partitioning.create(SINGLE_DISTRIBUTION, ImmutableList.of()), plan.getRoot().getOutputSymbols()), metadata, session);
         if (forceSingleNode || isForceSingleNodeOutput(session)) {
             properties = properties.setSingleNodeDistribution();
         }
         PlanNode root = SimplePlanRewriter.rewriteWith(fragmenter, plan.getRoot(), properties);
 
         SubPlan result = fragmenter.buildRootFragment(root, properties);
+        result = reassignPartitioningHandles(session, metadata, result, result.getFragment().getPartitioning());
         checkState(!isForceSingleNodeOutput(session) || result.getFragment().getPartitioning().isSingleNode(), "Root of PlanFragment is not single node");
         result.sanityCheck();
 
         return result;
     }
 
+    /**
+     * A fragment may combine tables with different, but compatible connector partitionings
+     * (e.g. tables bucketed into different numbers of buckets). Make the table scans of such a
+     * fragment, and the fragments feeding it, use the partitioning chosen for the fragment.
+     */
+    private static SubPlan reassignPartitioningHandles(Session session, Metadata metadata, SubPlan subPlan, PartitioningHandle outputPartitioningHandle)
+    {
+        PlanFragment fragment = subPlan.getFragment();
+
+        PlanNode root = fragment.getRoot();
+        if (fragment.getPartitioning().getConnectorId().isPresent()) {
+            root = SimplePlanRewriter.rewriteWith(new PartitioningHandleReassigner(fragment.getPartitioning(), metadata, session), root);
+        }
+
+        PartitioningScheme partitioningScheme = fragment.getPartitioningScheme();
+        Partitioning outputPartitioning = partitioningScheme.getPartitioning();
+        // the output of system partitionings, e.g. broadcast, does not depend on the consumer
+        if (outputPartitioning.getHandle().getConnectorId().isPresent() && !outputPartitioning.getHandle().equals(outputPartitioningHandle)) {
+            partitioningScheme = partitioningScheme.withPartitioningHandle(outputPartitioningHandle);
+        }
+
+        ImmutableList.Builder<SubPlan> children = ImmutableList.builder();
+        for (SubPlan child : subPlan.getChildren()) {
+            children.add(reassignPartitioningHandles(session, metadata, child, fragment.getPartitioning()));
+        }
+
+        PlanFragment newFragment = new PlanFragment(
+                fragment.getId(),
+                root,
+                fragment.getSymbols(),
+                fragment.getPartitioning(),
+                fragment.getPartitionedSources(),
+                partitioningScheme);
+        return new SubPlan(newFragment, children.build());
+    }
+
     private static class Fragmenter
             extends SimplePlanRewriter<FragmentProperties>
     {
@@ -202,7 +240,7 @@ public class PlanFragmenter
 
             ImmutableList.Builder<SubPlan> builder = ImmutableList.builder();
             for (int sourceIndex = 0; sourceIndex < exchange.getSources().size(); sourceIndex++) {
-                FragmentProperties childProperties = new FragmentProperties(partitioningScheme.translateOutputLayout(exchange.getInputs().get(sourceIndex)));
+                FragmentProperties childProperties = new FragmentProperties(partitioningScheme.translateOutputLayout(exchange.getInputs().get(sourceIndex)), metadata, session);
                 builder.add(buildSubPlan(exchange.getSources().get(sourceIndex), childProperties, context));
             }
 
@@ -214,7 +252,7 @@ public class PlanFragmenter
                     .map(PlanFragment::getId)
                     .collect(toImmutableList());
 
-            return new RemoteSourceNode(exchange.getId(), childrenIds, exchange.getOutputSymbols());
+            return new RemoteSourceNode(exchange.getId(), childrenIds, exchange.getOutputSymbols(), exchange.getOrderingScheme());
         }
 
         private SubPlan buildSubPlan(PlanNode node, FragmentProperties properties, RewriteContext<FragmentProperties> context)
@@ -230,13 +268,17 @@ public class PlanFragmenter
         private final List<SubPlan> children = new ArrayList<>();
 
         private final PartitioningScheme partitioningScheme;
+        private final Metadata metadata;
+        private final Session session;
 
         private Optional<PartitioningHandle> partitioningHandle = Optional.empty();
         private final Set<PlanNodeId> partitionedSources = new HashSet<>();
 
-        public FragmentProperties(PartitioningScheme partitioningScheme)
+        public FragmentProperties(PartitioningScheme partitioningScheme, Metadata metadata, Session session)
         {
             this.partitioningScheme = partitioningScheme;
+            this.metadata = requireNonNull(metadata, "metadata is null");
+            this.session = requireNonNull(session, "session is null");
         }
 
         public List<SubPlan> getChildren()
@@ -285,6 +327,11 @@ public class PlanFragmenter
                 partitioningHandle = Optional.of(distribution);
                 return;
             }
+            Optional<PartitioningHandle> commonPartitioning = metadata.getCommonPartitioning(session, partitioningHandle.get(), distribution);
+            if (commonPartitioning.isPresent()) {
+                partitioningHandle = commonPartitioning;
+                return;
+            }
             throw new IllegalStateException(format(
                     "Cannot set distribution to %s. Already set to %s",
                     distribution,
@@ -331,6 +378,12 @@ public class PlanFragmenter
             if (partitioningHandle.isPresent()) {
                 PartitioningHandle currentPartitioning = partitioningHandle.get();
                 if (!currentPartitioning.equals(distribution)) {
+                    Optional<PartitioningHandle> commonPartitioning = metadata.getCommonPartitioning(session, currentPartitioning, distribution);
+                    if (commonPartitioning.isPresent()) {
+                        partitioningHandle = commonPartitioning;
+                        return this;
+                    }
+
                     // If already system SINGLE or COORDINATOR_ONLY, leave it as is (this is for single-node execution)
                     checkState(
                             currentPartitioning.equals(SINGLE_DISTRIBUTION) || currentPartitioning.equals(COORDINATOR_DISTRIBUTION),
@@ -367,4 +420,45 @@ public class PlanFragmenter
             return partitionedSources;
         }
     }
+
+    private static final class PartitioningHandleReassigner
+            extends SimplePlanRewriter<Void>
+    {
+        private final PartitioningHandle fragmentPartitioningHandle;
+        private final Metadata metadata;
+        private final Session session;
+
+        public PartitioningHandleReassigner(PartitioningHandle fragmentPartitioningHandle, Metadata metadata, Session session)
+        {
+            this.fragmentPartitioningHandle = requireNonNull(fragmentPartitioningHandle, "fragmentPartitioningHandle is null");
+            this.metadata = requireNonNull(metadata, "metadata is null");
+            this.session = requireNonNull(session, "session is null");
+        }
+
+        @Override
+        public PlanNode visitTableScan(TableScanNode node, RewriteContext<Void> context)
+        {
+            if (!node.getLayout().isPresent()) {
+                return node;
+            }
+
+            TableLayoutHandle layout = node.getLayout().get();
+            Optional<PartitioningHandle> partitioning = metadata.getLayout(session, layout)
+                    .getTablePartitioning()
+                    .map(TablePartitioning::getPartitioningHandle);
+            if (!partitioning.isPresent() || partitioning.get().equals(fragmentPartitioningHandle)) {
+                return node;
+            }
+
+            TableLayoutHandle alternativeLayout = metadata.getAlternativeLayoutHandle(session, layout, fragmentPartitioningHandle);
+            return new TableScanNode(
+                    node.getId(),
+                    node.getTable(),
+                    node.getOutputSymbols(),
+                    node.getAssignments(),
+                    Optional.of(alternativeLayout),
+                    node.getCurrentConstraint(),
+                    node.getOriginalConstraint());
+        }
+    }
 }
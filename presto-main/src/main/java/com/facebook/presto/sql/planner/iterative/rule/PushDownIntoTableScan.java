@@ -0,0 +1,273 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.sql.planner.iterative.rule;
+
+import com.facebook.presto.matching.Capture;
+import com.facebook.presto.matching.Captures;
+import com.facebook.presto.matching.Pattern;
+import com.facebook.presto.metadata.AggregationPushDownResult;
+import com.facebook.presto.metadata.Metadata;
+import com.facebook.presto.metadata.Signature;
+import com.facebook.presto.metadata.TableLayoutHandle;
+import com.facebook.presto.spi.AggregateFunction;
+import com.facebook.presto.spi.ColumnHandle;
+import com.facebook.presto.spi.SortingProperty;
+import com.facebook.presto.sql.planner.Symbol;
+import com.facebook.presto.sql.planner.iterative.Rule;
+import com.facebook.presto.sql.planner.plan.AggregationNode;
+import com.facebook.presto.sql.planner.plan.AggregationNode.Aggregation;
+import com.facebook.presto.sql.planner.plan.LimitNode;
+import com.facebook.presto.sql.planner.plan.TableScanNode;
+import com.facebook.presto.sql.planner.plan.TopNNode;
+import com.facebook.presto.sql.tree.Expression;
+import com.facebook.presto.sql.tree.FunctionCall;
+import com.facebook.presto.sql.tree.SymbolReference;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.facebook.presto.matching.Capture.newCapture;
+import static com.facebook.presto.sql.planner.plan.AggregationNode.Step.PARTIAL;
+import static com.facebook.presto.sql.planner.plan.Patterns.Aggregation.step;
+import static com.facebook.presto.sql.planner.plan.Patterns.aggregation;
+import static com.facebook.presto.sql.planner.plan.Patterns.limit;
+import static com.facebook.presto.sql.planner.plan.Patterns.source;
+import static com.facebook.presto.sql.planner.plan.Patterns.tableScan;
+import static com.facebook.presto.sql.planner.plan.Patterns.topN;
+import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Offers a limit, a top N or a partial aggregation directly over a table scan to the
+ * connector. The connector applies it to each split, so the limit and the top N stay in
+ * the plan, and the partial aggregation is replaced with a scan of the partial results.
+ */
+public class PushDownIntoTableScan
+{
+    private final Metadata metadata;
+
+    public PushDownIntoTableScan(Metadata metadata)
+    {
+        this.metadata = requireNonNull(metadata, "metadata is null");
+    }
+
+    public Set<Rule<?>> rules()
+    {
+        return ImmutableSet.of(
+                pushLimitIntoTableScan(),
+                pushTopNIntoTableScan(),
+                pushPartialAggregationIntoTableScan());
+    }
+
+    public PushLimitIntoTableScan pushLimitIntoTableScan()
+    {
+        return new PushLimitIntoTableScan(metadata);
+    }
+
+    public PushTopNIntoTableScan pushTopNIntoTableScan()
+    {
+        return new PushTopNIntoTableScan(metadata);
+    }
+
+    public PushPartialAggregationIntoTableScan pushPartialAggregationIntoTableScan()
+    {
+        return new PushPartialAggregationIntoTableScan(metadata);
+    }
+
+    private static final class PushLimitIntoTableScan
+            implements Rule<LimitNode>
+    {
+        private static final Capture<TableScanNode> TABLE_SCAN = newCapture();
+
+        private static final Pattern<LimitNode> PATTERN = limit().with(source().matching(
+                tableScan().matching(PushDownIntoTableScan::hasLayout).capturedAs(TABLE_SCAN)));
+
+        private final Metadata metadata;
+
+        private PushLimitIntoTableScan(Metadata metadata)
+        {
+            this.metadata = requireNonNull(metadata, "metadata is null");
+        }
+
+        @Override
+        public Pattern<LimitNode> getPattern()
+        {
+            return PATTERN;
+        }
+
+        @Override
+        public Result apply(LimitNode limit, Captures captures, Context context)
+        {
+            TableScanNode tableScan = captures.get(TABLE_SCAN);
+            TableLayoutHandle layout = tableScan.getLayout().get();
+
+            Optional<TableLayoutHandle> newLayout = metadata.pushDownLimit(context.getSession(), layout, limit.getCount());
+            if (!newLayout.isPresent() || newLayout.get().equals(layout)) {
+                return Result.empty();
+            }
+            return Result.ofPlanNode(limit.replaceChildren(ImmutableList.of(withLayout(tableScan, newLayout.get()))));
+        }
+    }
+
+    private static final class PushTopNIntoTableScan
+            implements Rule<TopNNode>
+    {
+        private static final Capture<TableScanNode> TABLE_SCAN = newCapture();
+
+        private static final Pattern<TopNNode> PATTERN = topN().with(source().matching(
+                tableScan().matching(PushDownIntoTableScan::hasLayout).capturedAs(TABLE_SCAN)));
+
+        private final Metadata metadata;
+
+        private PushTopNIntoTableScan(Metadata metadata)
+        {
+            this.metadata = requireNonNull(metadata, "metadata is null");
+        }
+
+        @Override
+        public Pattern<TopNNode> getPattern()
+        {
+            return PATTERN;
+        }
+
+        @Override
+        public Result apply(TopNNode topN, Captures captures, Context context)
+        {
+            TableScanNode tableScan = captures.get(TABLE_SCAN);
+            TableLayoutHandle layout = tableScan.getLayout().get();
+
+            ImmutableList.Builder<SortingProperty<ColumnHandle>> ordering = ImmutableList.builder();
+            for (Symbol symbol : topN.getOrderBy()) {
+                ordering.add(new SortingProperty<>(tableScan.getAssignments().get(symbol), topN.getOrderings().get(symbol)));
+            }
+
+            Optional<TableLayoutHandle> newLayout = metadata.pushDownTopN(context.getSession(), layout, topN.getCount(), ordering.build());
+            if (!newLayout.isPresent() || newLayout.get().equals(layout)) {
+                return Result.empty();
+            }
+            return Result.ofPlanNode(topN.replaceChildren(ImmutableList.of(withLayout(tableScan, newLayout.get()))));
+        }
+    }
+
+    private static final class PushPartialAggregationIntoTableScan
+            implements Rule<AggregationNode>
+    {
+        private static final Capture<TableScanNode> TABLE_SCAN = newCapture();
+
+        private static final Pattern<AggregationNode> PATTERN = aggregation()
+                .with(step().equalTo(PARTIAL))
+                .with(source().matching(tableScan().matching(PushDownIntoTableScan::hasLayout).capturedAs(TABLE_SCAN)));
+
+        private final Metadata metadata;
+
+        private PushPartialAggregationIntoTableScan(Metadata metadata)
+        {
+            this.metadata = requireNonNull(metadata, "metadata is null");
+        }
+
+        @Override
+        public Pattern<AggregationNode> getPattern()
+        {
+            return PATTERN;
+        }
+
+        @Override
+        public Result apply(AggregationNode aggregation, Captures captures, Context context)
+        {
+            if (aggregation.getGroupingSets().size() != 1 || aggregation.getHashSymbol().isPresent() || aggregation.getGroupIdSymbol().isPresent()) {
+                return Result.empty();
+            }
+
+            TableScanNode tableScan = captures.get(TABLE_SCAN);
+            Map<Symbol, ColumnHandle> assignments = tableScan.getAssignments();
+
+            ImmutableList.Builder<AggregateFunction> aggregates = ImmutableList.builder();
+            for (Aggregation value : aggregation.getAggregations().values()) {
+                FunctionCall call = value.getCall();
+                if (value.getMask().isPresent() || call.isDistinct() || call.getFilter().isPresent()) {
+                    return Result.empty();
+                }
+
+                ImmutableList.Builder<ColumnHandle> arguments = ImmutableList.builder();
+                for (Expression argument : call.getArguments()) {
+                    if (!(argument instanceof SymbolReference)) {
+                        return Result.empty();
+                    }
+                    arguments.add(assignments.get(Symbol.from(argument)));
+                }
+
+                Signature signature = value.getSignature();
+                aggregates.add(new AggregateFunction(
+                        signature.getName(),
+                        arguments.build(),
+                        metadata.getFunctionRegistry().getAggregateFunctionImplementation(signature).getIntermediateType()));
+            }
+
+            List<Symbol> groupingKeys = aggregation.getGroupingKeys();
+            List<ColumnHandle> groupingColumns = groupingKeys.stream()
+                    .map(assignments::get)
+                    .collect(toImmutableList());
+
+            Optional<AggregationPushDownResult> result = metadata.pushDownPartialAggregation(context.getSession(), tableScan.getLayout().get(), groupingColumns, aggregates.build());
+            if (!result.isPresent()) {
+                return Result.empty();
+            }
+
+            List<ColumnHandle> aggregateColumns = result.get().getAggregateColumns();
+            checkState(aggregateColumns.size() == aggregation.getAggregations().size(), "connector returned %s aggregate columns for %s aggregates", aggregateColumns.size(), aggregation.getAggregations().size());
+
+            ImmutableMap.Builder<Symbol, ColumnHandle> newAssignments = ImmutableMap.builder();
+            for (int i = 0; i < groupingKeys.size(); i++) {
+                newAssignments.put(groupingKeys.get(i), groupingColumns.get(i));
+            }
+            int aggregate = 0;
+            for (Symbol symbol : aggregation.getAggregations().keySet()) {
+                newAssignments.put(symbol, aggregateColumns.get(aggregate));
+                aggregate++;
+            }
+
+            return Result.ofPlanNode(new TableScanNode(
+                    tableScan.getId(),
+                    tableScan.getTable(),
+                    aggregation.getOutputSymbols(),
+                    newAssignments.build(),
+                    Optional.of(result.get().getLayout()),
+                    tableScan.getCurrentConstraint(),
+                    tableScan.getOriginalConstraint()));
+        }
+    }
+
+    private static boolean hasLayout(TableScanNode tableScan)
+    {
+        return tableScan.getLayout().isPresent();
+    }
+
+    private static TableScanNode withLayout(TableScanNode tableScan, TableLayoutHandle layout)
+    {
+        return new TableScanNode(
+                tableScan.getId(),
+                tableScan.getTable(),
+                tableScan.getOutputSymbols(),
+                tableScan.getAssignments(),
+                Optional.of(layout),
+                tableScan.getCurrentConstraint(),
+                tableScan.getOriginalConstraint());
+    }
+}
@@ -100,6 +100,11 @@ public class PushPartialAggregationThroughExchange
             return Result.empty();
         }
 
+        // the input of the aggregation should stay in the order of a merging exchange
+        if (exchangeNode.getOrderingScheme().isPresent()) {
+            return Result.empty();
+        }
+
         if (exchangeNode.getType() == REPARTITION) {
             // if partitioning columns are not a subset of grouping keys,
             // we can't push this through
@@ -179,7 +184,8 @@ public class PushPartialAggregationThroughExchange
                 exchange.getScope(),
                 partitioning,
                 partials,
-                ImmutableList.copyOf(Collections.nCopies(partials.size(), aggregation.getOutputSymbols())));
+                ImmutableList.copyOf(Collections.nCopies(partials.size(), aggregation.getOutputSymbols())),
+                Optional.empty());
     }
 
     private PlanNode split(AggregationNode node, Context context)
@@ -104,6 +104,17 @@ public class PushProjectionThroughExchange
                 projections.put(exchange.getPartitioningScheme().getHashColumn().get(), exchange.getPartitioningScheme().getHashColumn().get().toSymbolReference());
                 inputs.add(exchange.getPartitioningScheme().getHashColumn().get());
             }
+
+            if (exchange.getOrderingScheme().isPresent()) {
+                // Need to retain the ordering symbols for a merging exchange
+                exchange.getOrderingScheme().get().getOrderBy().stream()
+                        .map(outputToInputMap::get)
+                        .forEach(nameReference -> {
+                            Symbol symbol = Symbol.from(nameReference);
+                            projections.put(symbol, nameReference);
+                            inputs.add(symbol);
+                        });
+            }
             for (Map.Entry<Symbol, Expression> projection : project.getAssignments().entrySet()) {
                 Expression translatedExpression = translateExpression(projection.getValue(), outputToInputMap);
                 Type type = context.getSymbolAllocator().getTypes().get(projection.getKey());
@@ -122,6 +133,7 @@ public class PushProjectionThroughExchange
         if (exchange.getPartitioningScheme().getHashColumn().isPresent()) {
             outputBuilder.add(exchange.getPartitioningScheme().getHashColumn().get());
         }
+        exchange.getOrderingScheme().ifPresent(orderingScheme -> outputBuilder.addAll(orderingScheme.getOrderBy()));
         for (Map.Entry<Symbol, Expression> projection : project.getAssignments().entrySet()) {
             outputBuilder.add(projection.getKey());
         }
@@ -140,9 +152,10 @@ public class PushProjectionThroughExchange
                 exchange.getScope(),
                 partitioningScheme,
                 newSourceBuilder.build(),
-                inputsBuilder.build());
+                inputsBuilder.build(),
+                exchange.getOrderingScheme());
 
-        // we need to strip unnecessary symbols (hash, partitioning columns).
+        // we need to strip unnecessary symbols (hash, partitioning columns, ordering symbols).
         return Result.ofPlanNode(restrictOutputs(context.getIdAllocator(), result, ImmutableSet.copyOf(project.getOutputSymbols())).orElse(result));
     }
 
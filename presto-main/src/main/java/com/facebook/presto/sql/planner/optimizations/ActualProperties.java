@@ -13,6 +13,8 @@
  */
 package com.facebook.presto.sql.planner.optimizations;
 
+import com.facebook.presto.Session;
+import com.facebook.presto.metadata.Metadata;
 import com.facebook.presto.spi.ConstantProperty;
 import com.facebook.presto.spi.LocalProperty;
 import com.facebook.presto.spi.predicate.NullableValue;
@@ -121,11 +123,13 @@ class ActualProperties
         return global.isNodePartitionedOn(partitioning, nullsAndAnyReplicated);
     }
 
-    public boolean isNodePartitionedWith(ActualProperties other, Function<Symbol, Set<Symbol>> symbolMappings)
+    public boolean isNodePartitionedWith(ActualProperties other, Function<Symbol, Set<Symbol>> symbolMappings, Metadata metadata, Session session)
     {
         return global.isNodePartitionedWith(
                 other.global,
                 symbolMappings,
+                metadata,
+                session,
                 symbol -> Optional.ofNullable(constants.get(symbol)),
                 symbol -> Optional.ofNullable(other.constants.get(symbol)));
     }
@@ -395,6 +399,8 @@ class ActualProperties
         private boolean isNodePartitionedWith(
                 Global other,
                 Function<Symbol, Set<Symbol>> symbolMappings,
+                Metadata metadata,
+                Session session,
                 Function<Symbol, Optional<NullableValue>> leftConstantMapping,
                 Function<Symbol, Optional<NullableValue>> rightConstantMapping)
         {
@@ -402,6 +408,8 @@ class ActualProperties
                     other.nodePartitioning.isPresent() &&
                     nodePartitioning.get().isPartitionedWith(
                             other.nodePartitioning.get(),
+                            metadata,
+                            session,
                             symbolMappings,
                             leftConstantMapping,
                             rightConstantMapping) &&
@@ -74,7 +74,8 @@ public class ProjectionPushDown
             if (source instanceof UnionNode) {
                 return pushProjectionThrough(node, (UnionNode) source);
             }
-            else if (source instanceof ExchangeNode) {
+            else if (source instanceof ExchangeNode && !((ExchangeNode) source).getOrderingScheme().isPresent()) {
+                // the ordering symbols of a merging exchange must stay part of its output
                 return pushProjectionThrough(node, (ExchangeNode) source);
             }
             return replaceChildren(node, ImmutableList.of(source));
@@ -173,7 +174,8 @@ public class ProjectionPushDown
                     exchange.getScope(),
                     partitioningScheme,
                     newSourceBuilder.build(),
-                    inputsBuilder.build());
+                    inputsBuilder.build(),
+                    exchange.getOrderingScheme());
         }
     }
 
@@ -477,8 +477,15 @@ class PropertyDerivations
             switch (node.getType()) {
                 case GATHER:
                     boolean coordinatorOnly = node.getPartitioningScheme().getPartitioning().getHandle().isCoordinatorOnly();
+                    // a merging exchange preserves the order of its sources
+                    List<SortingProperty<Symbol>> sortingProperties = node.getOrderingScheme()
+                            .map(orderingScheme -> orderingScheme.getOrderBy().stream()
+                                    .map(column -> new SortingProperty<>(column, orderingScheme.getOrderings().get(column)))
+                                    .collect(toImmutableList()))
+                            .orElse(ImmutableList.of());
                     return ActualProperties.builder()
                             .global(coordinatorOnly ? coordinatorSingleStreamPartition() : singleStreamPartition())
+                            .local(sortingProperties)
                             .constants(constants)
                             .build();
                 case REPARTITION:
@@ -62,6 +62,9 @@ public class ExchangeNode
     // for each source, the list of inputs corresponding to each output
     private final List<List<Symbol>> inputs;
 
+    // if present, every source produces its rows in this order, and the exchange merges them
+    private final Optional<OrderingScheme> orderingScheme;
+
     @JsonCreator
     public ExchangeNode(
             @JsonProperty("id") PlanNodeId id,
@@ -69,7 +72,8 @@ public class ExchangeNode
             @JsonProperty("scope") Scope scope,
             @JsonProperty("partitioningScheme") PartitioningScheme partitioningScheme,
             @JsonProperty("sources") List<PlanNode> sources,
-            @JsonProperty("inputs") List<List<Symbol>> inputs)
+            @JsonProperty("inputs") List<List<Symbol>> inputs,
+            @JsonProperty("orderingScheme") Optional<OrderingScheme> orderingScheme)
     {
         super(id);
 
@@ -78,6 +82,7 @@ public class ExchangeNode
         requireNonNull(sources, "sources is null");
         requireNonNull(partitioningScheme, "partitioningScheme is null");
         requireNonNull(inputs, "inputs is null");
+        requireNonNull(orderingScheme, "orderingScheme is null");
 
         checkArgument(!inputs.isEmpty(), "inputs is empty");
         checkArgument(inputs.stream().allMatch(inputSymbols -> inputSymbols.size() == partitioningScheme.getOutputLayout().size()), "Input symbols do not match output symbols");
@@ -90,12 +95,17 @@ public class ExchangeNode
                 "local exchanges do not support constant partition function arguments");
 
         checkArgument(scope != REMOTE || type == Type.REPARTITION || !partitioningScheme.isReplicateNullsAndAny(), "Only REPARTITION can replicate remotely");
+        orderingScheme.ifPresent(ordering -> {
+            checkArgument(type == Type.GATHER && scope == REMOTE, "Only a remote GATHER exchange can be ordered");
+            checkArgument(partitioningScheme.getOutputLayout().containsAll(ordering.getOrderBy()), "Ordering symbols are not part of the output");
+        });
 
         this.type = type;
         this.sources = sources;
         this.scope = scope;
         this.partitioningScheme = partitioningScheme;
         this.inputs = listOfListsCopy(inputs);
+        this.orderingScheme = orderingScheme;
     }
 
     public static ExchangeNode partitionedExchange(PlanNodeId id, Scope scope, PlanNode child, List<Symbol> partitioningColumns, Optional<Symbol> hashColumns)
@@ -128,7 +138,8 @@ public class ExchangeNode
                 scope,
                 partitioningScheme,
                 ImmutableList.of(child),
-                ImmutableList.of(partitioningScheme.getOutputLayout()));
+                ImmutableList.of(partitioningScheme.getOutputLayout()),
+                Optional.empty());
     }
 
     public static ExchangeNode replicatedExchange(PlanNodeId id, Scope scope, PlanNode child)
@@ -139,7 +150,8 @@ public class ExchangeNode
                 scope,
                 new PartitioningScheme(Partitioning.create(FIXED_BROADCAST_DISTRIBUTION, ImmutableList.of()), child.getOutputSymbols()),
                 ImmutableList.of(child),
-                ImmutableList.of(child.getOutputSymbols()));
+                ImmutableList.of(child.getOutputSymbols()),
+                Optional.empty());
     }
 
     public static ExchangeNode gatheringExchange(PlanNodeId id, Scope scope, PlanNode child)
@@ -150,7 +162,20 @@ public class ExchangeNode
                 scope,
                 new PartitioningScheme(Partitioning.create(SINGLE_DISTRIBUTION, ImmutableList.of()), child.getOutputSymbols()),
                 ImmutableList.of(child),
-                ImmutableList.of(child.getOutputSymbols()));
+                ImmutableList.of(child.getOutputSymbols()),
+                Optional.empty());
+    }
+
+    public static ExchangeNode mergingExchange(PlanNodeId id, PlanNode child, OrderingScheme orderingScheme)
+    {
+        return new ExchangeNode(
+                id,
+                ExchangeNode.Type.GATHER,
+                REMOTE,
+                new PartitioningScheme(Partitioning.create(SINGLE_DISTRIBUTION, ImmutableList.of()), child.getOutputSymbols()),
+                ImmutableList.of(child),
+                ImmutableList.of(child.getOutputSymbols()),
+                Optional.of(orderingScheme));
     }
 
     @JsonProperty
@@ -190,6 +215,12 @@ public class ExchangeNode
         return inputs;
     }
 
+    @JsonProperty
+    public Optional<OrderingScheme> getOrderingScheme()
+    {
+        return orderingScheme;
+    }
+
     @Override
     public <R, C> R accept(PlanVisitor<R, C> visitor, C context)
     {
@@ -199,6 +230,6 @@ public class ExchangeNode
     @Override
     public PlanNode replaceChildren(List<PlanNode> newChildren)
     {
-        return new ExchangeNode(getId(), type, scope, partitioningScheme, newChildren, inputs);
+        return new ExchangeNode(getId(), type, scope, partitioningScheme, newChildren, inputs, orderingScheme);
     }
 }
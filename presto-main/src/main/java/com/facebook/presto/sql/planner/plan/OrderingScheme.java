@@ -0,0 +1,116 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.sql.planner.plan;
+
+import com.facebook.presto.spi.block.SortOrder;
+import com.facebook.presto.sql.planner.Symbol;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+import javax.annotation.concurrent.Immutable;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The order of the rows produced by every source of an exchange. An exchange with
+ * an ordering scheme merges its sources instead of concatenating them.
+ */
+@Immutable
+public class OrderingScheme
+{
+    private final List<Symbol> orderBy;
+    private final Map<Symbol, SortOrder> orderings;
+
+    @JsonCreator
+    public OrderingScheme(
+            @JsonProperty("orderBy") List<Symbol> orderBy,
+            @JsonProperty("orderings") Map<Symbol, SortOrder> orderings)
+    {
+        requireNonNull(orderBy, "orderBy is null");
+        requireNonNull(orderings, "orderings is null");
+        checkArgument(!orderBy.isEmpty(), "orderBy is empty");
+        checkArgument(orderings.keySet().equals(ImmutableSet.copyOf(orderBy)), "orderBy and orderings do not match");
+
+        this.orderBy = ImmutableList.copyOf(orderBy);
+        this.orderings = ImmutableMap.copyOf(orderings);
+    }
+
+    @JsonProperty
+    public List<Symbol> getOrderBy()
+    {
+        return orderBy;
+    }
+
+    @JsonProperty
+    public Map<Symbol, SortOrder> getOrderings()
+    {
+        return orderings;
+    }
+
+    public OrderingScheme translate(Function<Symbol, Symbol> translator)
+    {
+        ImmutableList.Builder<Symbol> orderBy = ImmutableList.builder();
+        ImmutableMap.Builder<Symbol, SortOrder> orderings = ImmutableMap.builder();
+        Set<Symbol> seen = new HashSet<>();
+        for (Symbol symbol : this.orderBy) {
+            Symbol translated = translator.apply(symbol);
+            if (seen.add(translated)) {
+                orderBy.add(translated);
+                orderings.put(translated, this.orderings.get(symbol));
+            }
+        }
+        return new OrderingScheme(orderBy.build(), orderings.build());
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        OrderingScheme that = (OrderingScheme) o;
+        return Objects.equals(orderBy, that.orderBy) &&
+                Objects.equals(orderings, that.orderings);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(orderBy, orderings);
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("orderBy", orderBy)
+                .add("orderings", orderings)
+                .toString();
+    }
+}
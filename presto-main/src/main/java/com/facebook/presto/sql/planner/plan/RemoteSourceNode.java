@@ -21,6 +21,7 @@ import com.google.common.collect.ImmutableList;
 import javax.annotation.concurrent.Immutable;
 
 import java.util.List;
+import java.util.Optional;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.Objects.requireNonNull;
@@ -31,24 +32,28 @@ public class RemoteSourceNode
 {
     private final List<PlanFragmentId> sourceFragmentIds;
     private final List<Symbol> outputs;
+    private final Optional<OrderingScheme> orderingScheme;
 
     @JsonCreator
     public RemoteSourceNode(
             @JsonProperty("id") PlanNodeId id,
             @JsonProperty("sourceFragmentIds") List<PlanFragmentId> sourceFragmentIds,
-            @JsonProperty("outputs") List<Symbol> outputs)
+            @JsonProperty("outputs") List<Symbol> outputs,
+            @JsonProperty("orderingScheme") Optional<OrderingScheme> orderingScheme)
     {
         super(id);
 
         requireNonNull(outputs, "outputs is null");
+        requireNonNull(orderingScheme, "orderingScheme is null");
 
         this.sourceFragmentIds = sourceFragmentIds;
         this.outputs = ImmutableList.copyOf(outputs);
+        this.orderingScheme = orderingScheme;
     }
 
     public RemoteSourceNode(PlanNodeId id, PlanFragmentId sourceFragmentId, List<Symbol> outputs)
     {
-        this(id, ImmutableList.of(sourceFragmentId), outputs);
+        this(id, ImmutableList.of(sourceFragmentId), outputs, Optional.empty());
     }
 
     @Override
@@ -70,6 +75,12 @@ public class RemoteSourceNode
         return sourceFragmentIds;
     }
 
+    @JsonProperty("orderingScheme")
+    public Optional<OrderingScheme> getOrderingScheme()
+    {
+        return orderingScheme;
+    }
+
     @Override
     public <R, C> R accept(PlanVisitor<R, C> visitor, C context)
     {
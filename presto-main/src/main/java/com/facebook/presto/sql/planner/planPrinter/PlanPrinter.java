@@ -62,6 +62,7 @@ import com.facebook.presto.sql.planner.plan.LateralJoinNode;
 import com.facebook.presto.sql.planner.plan.LimitNode;
 import com.facebook.presto.sql.planner.plan.MarkDistinctNode;
 import com.facebook.presto.sql.planner.plan.MetadataDeleteNode;
+import com.facebook.presto.sql.planner.plan.OrderingScheme;
 import com.facebook.presto.sql.planner.plan.OutputNode;
 import com.facebook.presto.sql.planner.plan.PlanFragmentId;
 import com.facebook.presto.sql.planner.plan.PlanNode;
@@ -1021,7 +1022,15 @@ public class PlanPrinter
         @Override
         public Void visitRemoteSource(RemoteSourceNode node, Integer indent)
         {
-            print(indent, "- RemoteSource[%s] => [%s]", Joiner.on(',').join(node.getSourceFragmentIds()), formatOutputs(node.getOutputSymbols()));
+            if (node.getOrderingScheme().isPresent()) {
+                print(indent, "- RemoteMergeSource[%s] ORDER BY [%s] => [%s]",
+                        Joiner.on(',').join(node.getSourceFragmentIds()),
+                        formatOrderingScheme(node.getOrderingScheme().get()),
+                        formatOutputs(node.getOutputSymbols()));
+            }
+            else {
+                print(indent, "- RemoteSource[%s] => [%s]", Joiner.on(',').join(node.getSourceFragmentIds()), formatOutputs(node.getOutputSymbols()));
+            }
             printCost(indent + 2, node);
             printStats(indent + 2, node.getId());
 
@@ -1104,6 +1113,11 @@ public class PlanPrinter
                         Joiner.on(", ").join(node.getPartitioningScheme().getPartitioning().getArguments()),
                         formatOutputs(node.getOutputSymbols()));
             }
+            else if (node.getOrderingScheme().isPresent()) {
+                print(indent, "- RemoteMerge ORDER BY [%s] => %s",
+                        formatOrderingScheme(node.getOrderingScheme().get()),
+                        formatOutputs(node.getOutputSymbols()));
+            }
             else {
                 print(indent, "- %sExchange[%s%s]%s => %s",
                         UPPER_UNDERSCORE.to(CaseFormat.UPPER_CAMEL, node.getScope().toString()),
@@ -1307,6 +1321,11 @@ public class PlanPrinter
         }
     }
 
+    private static String formatOrderingScheme(OrderingScheme orderingScheme)
+    {
+        return Joiner.on(", ").join(Iterables.transform(orderingScheme.getOrderBy(), input -> input + " " + orderingScheme.getOrderings().get(input)));
+    }
+
     private static String formatHash(Optional<Symbol>... hashes)
     {
         List<Symbol> symbols = Arrays.stream(hashes)
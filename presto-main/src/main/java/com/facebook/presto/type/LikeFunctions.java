@@ -27,6 +27,10 @@ import io.airlift.joni.Syntax;
 import io.airlift.slice.Slice;
 import io.airlift.slice.Slices;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
 import static com.facebook.presto.spi.StandardErrorCode.INVALID_FUNCTION_ARGUMENT;
 import static com.facebook.presto.spi.type.Chars.padSpaces;
 import static com.facebook.presto.util.Failures.checkCondition;
@@ -57,18 +61,15 @@ public final class LikeFunctions
     @ScalarFunction(value = "like", hidden = true)
     @LiteralParameters("x")
     @SqlType(StandardTypes.BOOLEAN)
-    public static boolean like(@SqlType("varchar(x)") Slice value, @SqlType(LikePatternType.NAME) Regex pattern)
+    public static boolean like(@SqlType("varchar(x)") Slice value, @SqlType(LikePatternType.NAME) LikePattern pattern)
     {
-        // Joni can infinite loop with UTF8Encoding when invalid UTF-8 is encountered.
-        // NonStrictUTF8Encoding must be used to avoid this issue.
-        byte[] bytes = value.getBytes();
-        return regexMatches(pattern, bytes);
+        return pattern.matches(value);
     }
 
     @ScalarOperator(OperatorType.CAST)
     @LiteralParameters("x")
     @SqlType(LikePatternType.NAME)
-    public static Regex castVarcharToLikePattern(@SqlType("varchar(x)") Slice pattern)
+    public static LikePattern castVarcharToLikePattern(@SqlType("varchar(x)") Slice pattern)
     {
         return likePattern(pattern);
     }
@@ -76,12 +77,12 @@ public final class LikeFunctions
     @ScalarOperator(OperatorType.CAST)
     @LiteralParameters("x")
     @SqlType(LikePatternType.NAME)
-    public static Regex castCharToLikePattern(@LiteralParameter("x") Long charLength, @SqlType("char(x)") Slice pattern)
+    public static LikePattern castCharToLikePattern(@LiteralParameter("x") Long charLength, @SqlType("char(x)") Slice pattern)
     {
         return likePattern(padSpaces(pattern, charLength.intValue()));
     }
 
-    public static Regex likePattern(Slice pattern)
+    public static LikePattern likePattern(Slice pattern)
     {
         return likePattern(pattern.toStringUtf8(), '0', false);
     }
@@ -89,7 +90,7 @@ public final class LikeFunctions
     @ScalarFunction
     @LiteralParameters({"x", "y"})
     @SqlType(LikePatternType.NAME)
-    public static Regex likePattern(@SqlType("varchar(x)") Slice pattern, @SqlType("varchar(y)") Slice escape)
+    public static LikePattern likePattern(@SqlType("varchar(x)") Slice pattern, @SqlType("varchar(y)") Slice escape)
     {
         return likePattern(pattern.toStringUtf8(), getEscapeChar(escape), true);
     }
@@ -151,15 +152,13 @@ public final class LikeFunctions
         checkCondition(condition, INVALID_FUNCTION_ARGUMENT, "Escape character must be followed by '%%', '_' or the escape character itself");
     }
 
-    private static boolean regexMatches(Regex regex, byte[] bytes)
-    {
-        return regex.matcher(bytes).match(0, bytes.length, Option.NONE) != -1;
-    }
-
     @SuppressWarnings("NestedSwitchStatement")
-    private static Regex likePattern(String patternString, char escapeChar, boolean shouldEscape)
+    private static LikePattern likePattern(String patternString, char escapeChar, boolean shouldEscape)
     {
         StringBuilder regex = new StringBuilder(patternString.length() * 2);
+        // the literals between the % wildcards, or empty if the pattern has _ wildcards
+        Optional<List<Slice>> literals = Optional.of(new ArrayList<>());
+        StringBuilder literal = new StringBuilder(patternString.length());
 
         regex.append('^');
         boolean escaped = false;
@@ -172,10 +171,23 @@ public final class LikeFunctions
                 switch (currentChar) {
                     case '%':
                         regex.append(escaped ? "%" : ".*");
+                        if (escaped) {
+                            literal.append(currentChar);
+                        }
+                        else {
+                            literals.ifPresent(list -> list.add(Slices.utf8Slice(literal.toString())));
+                            literal.setLength(0);
+                        }
                         escaped = false;
                         break;
                     case '_':
                         regex.append(escaped ? "_" : ".");
+                        if (escaped) {
+                            literal.append(currentChar);
+                        }
+                        else {
+                            literals = Optional.empty();
+                        }
                         escaped = false;
                         break;
                     default:
@@ -190,15 +202,17 @@ public final class LikeFunctions
                         }
 
                         regex.append(currentChar);
+                        literal.append(currentChar);
                         escaped = false;
                 }
             }
         }
         checkEscape(!escaped);
         regex.append('$');
+        literals.ifPresent(list -> list.add(Slices.utf8Slice(literal.toString())));
 
         byte[] bytes = regex.toString().getBytes(UTF_8);
-        return new Regex(bytes, 0, bytes.length, Option.MULTILINE, NonStrictUTF8Encoding.INSTANCE, SYNTAX);
+        return new LikePattern(new Regex(bytes, 0, bytes.length, Option.MULTILINE, NonStrictUTF8Encoding.INSTANCE, SYNTAX), literals);
     }
 
     @SuppressWarnings("NumericCastThatLosesPrecision")
@@ -0,0 +1,142 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.type;
+
+import com.google.common.collect.ImmutableList;
+import io.airlift.joni.Option;
+import io.airlift.joni.Regex;
+import io.airlift.slice.Slice;
+
+import java.util.List;
+import java.util.Optional;
+
+import static com.facebook.presto.util.Utf8Validation.isValidUtf8;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A compiled LIKE pattern.
+ * <p/>
+ * Patterns that only consist of literals and {@code %} wildcards (exact match, prefix,
+ * suffix, contains and combinations of those) are evaluated directly on the bytes of
+ * the value. Patterns with {@code _} wildcards, and values that are not valid UTF-8,
+ * are evaluated with the regular expression.
+ */
+public final class LikePattern
+{
+    private static final byte NEW_LINE = '\n';
+
+    private final Regex regex;
+    private final Optional<LiteralMatcher> literalMatcher;
+
+    public LikePattern(Regex regex, Optional<List<Slice>> literals)
+    {
+        this.regex = requireNonNull(regex, "regex is null");
+        this.literalMatcher = requireNonNull(literals, "literals is null").map(LiteralMatcher::new);
+    }
+
+    public Regex getRegex()
+    {
+        return regex;
+    }
+
+    public boolean matches(Slice value)
+    {
+        if (!literalMatcher.isPresent() || !isValidUtf8(value)) {
+            return regexMatches(value);
+        }
+
+        LiteralMatcher matcher = literalMatcher.get();
+        if (matcher.matches(value)) {
+            return true;
+        }
+        // the regular expression ends with $, which also matches before a line break
+        if (matcher.isAnchoredAtEnd() && value.indexOfByte(NEW_LINE) >= 0) {
+            return regexMatches(value);
+        }
+        return false;
+    }
+
+    private boolean regexMatches(Slice value)
+    {
+        // Joni can infinite loop with UTF8Encoding when invalid UTF-8 is encountered.
+        // NonStrictUTF8Encoding must be used to avoid this issue.
+        byte[] bytes = value.getBytes();
+        return regex.matcher(bytes).match(0, bytes.length, Option.NONE) != -1;
+    }
+
+    /**
+     * Matches {@code literals[0] % literals[1] % ... % literals[n]}.
+     */
+    private static final class LiteralMatcher
+    {
+        private final Slice prefix;
+        private final List<Slice> infixes;
+        private final Slice suffix;
+        private final boolean exact;
+        private final int minLength;
+
+        public LiteralMatcher(List<Slice> literals)
+        {
+            requireNonNull(literals, "literals is null");
+            exact = literals.size() == 1;
+            prefix = literals.get(0);
+            suffix = exact ? prefix : literals.get(literals.size() - 1);
+
+            ImmutableList.Builder<Slice> infixes = ImmutableList.builder();
+            int minLength = exact ? prefix.length() : prefix.length() + suffix.length();
+            for (int i = 1; i < literals.size() - 1; i++) {
+                Slice infix = literals.get(i);
+                if (infix.length() > 0) {
+                    infixes.add(infix);
+                    minLength += infix.length();
+                }
+            }
+            this.infixes = infixes.build();
+            this.minLength = minLength;
+        }
+
+        public boolean isAnchoredAtEnd()
+        {
+            return exact || suffix.length() > 0;
+        }
+
+        public boolean matches(Slice value)
+        {
+            int length = value.length();
+            if (exact) {
+                return value.equals(prefix);
+            }
+            if (length < minLength) {
+                return false;
+            }
+            if (!value.equals(0, prefix.length(), prefix, 0, prefix.length())) {
+                return false;
+            }
+            int limit = length - suffix.length();
+            if (!value.equals(limit, suffix.length(), suffix, 0, suffix.length())) {
+                return false;
+            }
+
+            int position = prefix.length();
+            for (Slice infix : infixes) {
+                int index = value.indexOf(infix, position);
+                if (index < 0 || index + infix.length() > limit) {
+                    return false;
+                }
+                position = index + infix.length();
+            }
+            return true;
+        }
+    }
+}
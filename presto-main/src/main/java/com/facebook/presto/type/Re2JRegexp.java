@@ -22,9 +22,14 @@ import com.google.re2j.Options;
 import com.google.re2j.Pattern;
 import io.airlift.log.Logger;
 import io.airlift.slice.Slice;
+import io.airlift.slice.Slices;
+
+import java.util.Optional;
 
 import static com.facebook.presto.spi.StandardErrorCode.INVALID_FUNCTION_ARGUMENT;
 import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
+import static com.facebook.presto.type.RegexLiterals.findRequiredLiteral;
+import static com.facebook.presto.util.Utf8Validation.isValidUtf8;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.re2j.Options.Algorithm.DFA_FALLBACK_TO_NFA;
 import static java.lang.Math.toIntExact;
@@ -43,6 +48,9 @@ public final class Re2JRegexp
     public final Pattern re2jPattern;
     public final Pattern re2jPatternWithoutDotStartPrefix;
 
+    // a literal that is part of every match, used to reject values without running the regex
+    private final Optional<Slice> requiredLiteral;
+
     public Re2JRegexp(int dfaStatesLimit, int dfaRetries, Slice pattern)
     {
         this.dfaStatesLimit = dfaStatesLimit;
@@ -70,10 +78,16 @@ public final class Re2JRegexp
         else {
             re2jPatternWithoutDotStartPrefix = re2jPattern;
         }
+
+        requiredLiteral = findRequiredLiteral(patternString).map(Slices::utf8Slice);
     }
 
     public boolean matches(Slice source)
     {
+        if (requiredLiteral.isPresent() && source.indexOf(requiredLiteral.get()) < 0 && isValidUtf8(source)) {
+            // invalid UTF-8 is decoded to replacement characters by the regex, so only valid values can be rejected here
+            return false;
+        }
         return re2jPatternWithoutDotStartPrefix.find(source);
     }
 
@@ -0,0 +1,210 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.type;
+
+import java.util.Optional;
+
+final class RegexLiterals
+{
+    // escapes that stand for a single character class or anchor, and do not consume any following characters
+    private static final String SIMPLE_ESCAPES = "dDsSwWbBAzntrf";
+
+    private RegexLiterals() {}
+
+    /**
+     * Finds the longest literal that is part of every match of the regular expression.
+     * The analysis is conservative: the pattern is only looked at outside of groups and
+     * character classes, and constructs that are not understood (alternation at the top
+     * level, flags, quoting, hex or unicode escapes, ...) result in no literal.
+     */
+    public static Optional<String> findRequiredLiteral(String pattern)
+    {
+        String longest = "";
+        StringBuilder current = new StringBuilder();
+        int position = 0;
+        while (position < pattern.length()) {
+            int codePoint = pattern.codePointAt(position);
+            int next = position + Character.charCount(codePoint);
+            switch (codePoint) {
+                case '|':
+                case ')':
+                    return Optional.empty();
+                case '(':
+                    if (pattern.startsWith("(?", position) && !pattern.startsWith("(?:", position)) {
+                        // flags can change how the rest of the pattern matches
+                        return Optional.empty();
+                    }
+                    next = skipGroup(pattern, position);
+                    break;
+                case '[':
+                    next = skipCharacterClass(pattern, position);
+                    break;
+                case '\\':
+                    if (next >= pattern.length()) {
+                        return Optional.empty();
+                    }
+                    int escaped = pattern.codePointAt(next);
+                    next += Character.charCount(escaped);
+                    if (Character.isLetterOrDigit(escaped)) {
+                        if (SIMPLE_ESCAPES.indexOf(escaped) < 0) {
+                            return Optional.empty();
+                        }
+                        break;
+                    }
+                    current.appendCodePoint(escaped);
+                    position = next;
+                    continue;
+                case '*':
+                case '?':
+                    // the preceding character is optional
+                    removeLastCodePoint(current);
+                    break;
+                case '{':
+                    next = skipRepetition(pattern, position);
+                    removeLastCodePoint(current);
+                    break;
+                case '+':
+                case '.':
+                case '^':
+                case '$':
+                    break;
+                default:
+                    current.appendCodePoint(codePoint);
+                    position = next;
+                    continue;
+            }
+
+            if (next < 0) {
+                return Optional.empty();
+            }
+            // the current literal ends here
+            if (current.length() > longest.length()) {
+                longest = current.toString();
+            }
+            current.setLength(0);
+            position = next;
+        }
+
+        if (current.length() > longest.length()) {
+            longest = current.toString();
+        }
+        if (longest.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(longest);
+    }
+
+    private static void removeLastCodePoint(StringBuilder builder)
+    {
+        if (builder.length() > 0) {
+            builder.setLength(builder.offsetByCodePoints(builder.length(), -1));
+        }
+    }
+
+    /**
+     * Returns the position after the group that starts at the position, or -1 if the group is not closed.
+     */
+    private static int skipGroup(String pattern, int position)
+    {
+        int depth = 0;
+        while (position < pattern.length()) {
+            char current = pattern.charAt(position);
+            if (current == '\\') {
+                position += 2;
+                continue;
+            }
+            if (current == '[') {
+                position = skipCharacterClass(pattern, position);
+                if (position < 0) {
+                    return -1;
+                }
+                continue;
+            }
+            if (current == '(') {
+                depth++;
+            }
+            else if (current == ')') {
+                depth--;
+                if (depth == 0) {
+                    return position + 1;
+                }
+            }
+            position++;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the position after the character class that starts at the position, or -1 if the class
+     * is not closed or contains a nested class.
+     */
+    private static int skipCharacterClass(String pattern, int position)
+    {
+        position++;
+        if (position < pattern.length() && pattern.charAt(position) == '^') {
+            position++;
+        }
+        // a closing bracket right at the start is part of the class
+        if (position < pattern.length() && pattern.charAt(position) == ']') {
+            position++;
+        }
+        while (position < pattern.length()) {
+            char current = pattern.charAt(position);
+            if (current == '\\') {
+                position += 2;
+                continue;
+            }
+            if (current == '[') {
+                return -1;
+            }
+            if (current == ']') {
+                return position + 1;
+            }
+            position++;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the position after a {@code {n}}, {@code {n,}} or {@code {n,m}} repetition that starts at the
+     * position, or -1 if there is no such repetition.
+     */
+    private static int skipRepetition(String pattern, int position)
+    {
+        position++;
+        int digits = 0;
+        while (position < pattern.length() && isDigit(pattern.charAt(position))) {
+            position++;
+            digits++;
+        }
+        if (digits == 0 || position >= pattern.length()) {
+            return -1;
+        }
+        if (pattern.charAt(position) == ',') {
+            position++;
+            while (position < pattern.length() && isDigit(pattern.charAt(position))) {
+                position++;
+            }
+        }
+        if (position >= pattern.length() || pattern.charAt(position) != '}') {
+            return -1;
+        }
+        return position + 1;
+    }
+
+    private static boolean isDigit(char value)
+    {
+        return value >= '0' && value <= '9';
+    }
+}
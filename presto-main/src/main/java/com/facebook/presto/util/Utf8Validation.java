@@ -0,0 +1,91 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.util;
+
+import io.airlift.slice.Slice;
+
+import static io.airlift.slice.SizeOf.SIZE_OF_LONG;
+
+public final class Utf8Validation
+{
+    private static final long HIGH_BITS = 0x8080_8080_8080_8080L;
+
+    private Utf8Validation() {}
+
+    /**
+     * Checks that the slice is well formed UTF-8. Overlong encodings, surrogates and
+     * code points above U+10FFFF are rejected.
+     */
+    public static boolean isValidUtf8(Slice slice)
+    {
+        int length = slice.length();
+        int position = 0;
+        while (position < length) {
+            // skip ASCII eight bytes at a time
+            if (position + SIZE_OF_LONG <= length && (slice.getLong(position) & HIGH_BITS) == 0) {
+                position += SIZE_OF_LONG;
+                continue;
+            }
+
+            int first = slice.getByte(position) & 0xFF;
+            if (first < 0x80) {
+                position++;
+                continue;
+            }
+
+            int sequenceLength;
+            int secondMin = 0x80;
+            int secondMax = 0xBF;
+            if (first >= 0xC2 && first <= 0xDF) {
+                sequenceLength = 2;
+            }
+            else if (first >= 0xE0 && first <= 0xEF) {
+                sequenceLength = 3;
+                if (first == 0xE0) {
+                    secondMin = 0xA0;
+                }
+                else if (first == 0xED) {
+                    secondMax = 0x9F;
+                }
+            }
+            else if (first >= 0xF0 && first <= 0xF4) {
+                sequenceLength = 4;
+                if (first == 0xF0) {
+                    secondMin = 0x90;
+                }
+                else if (first == 0xF4) {
+                    secondMax = 0x8F;
+                }
+            }
+            else {
+                return false;
+            }
+
+            if (position + sequenceLength > length) {
+                return false;
+            }
+            int second = slice.getByte(position + 1) & 0xFF;
+            if (second < secondMin || second > secondMax) {
+                return false;
+            }
+            for (int i = position + 2; i < position + sequenceLength; i++) {
+                if ((slice.getByte(i) & 0xC0) != 0x80) {
+                    return false;
+                }
+            }
+            position += sequenceLength;
+        }
+        return true;
+    }
+}
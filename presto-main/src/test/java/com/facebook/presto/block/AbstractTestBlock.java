@@ -48,6 +48,7 @@ import static java.lang.Math.toIntExact;
 import static java.lang.String.format;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
 import static org.testng.Assert.assertTrue;
 import static org.testng.Assert.fail;
 
@@ -189,6 +190,11 @@ public abstract class AbstractTestBlock
         for (int position = 0; position < block.getPositionCount(); position++) {
             assertBlockPosition(block, position, expectedValues[position]);
         }
+        if (!block.mayHaveNull()) {
+            for (T expectedValue : expectedValues) {
+                assertNotNull(expectedValue);
+            }
+        }
     }
 
     protected List<Block> splitBlock(Block block, int count)
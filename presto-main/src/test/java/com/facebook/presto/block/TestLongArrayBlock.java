@@ -23,6 +23,7 @@ import org.testng.annotations.Test;
 
 import static io.airlift.slice.SizeOf.SIZE_OF_LONG;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertTrue;
 
 public class TestLongArrayBlock
@@ -45,6 +46,22 @@ public class TestLongArrayBlock
         assertBlockFilteredPositions(expectedValues, blockBuilder.build(), Ints.asList(0, 2, 4, 6, 7, 9, 10, 16));
     }
 
+    @Test
+    public void testMayHaveNull()
+    {
+        Slice[] expectedValues = createTestValue(17);
+        BlockBuilder blockBuilder = createBlockBuilderWithValues(expectedValues);
+        assertFalse(blockBuilder.mayHaveNull());
+        assertFalse(blockBuilder.build().mayHaveNull());
+        assertFalse(blockBuilder.build().getRegion(3, 5).mayHaveNull());
+
+        blockBuilder.appendNull();
+        assertTrue(blockBuilder.mayHaveNull());
+        assertTrue(blockBuilder.build().mayHaveNull());
+        assertFalse(blockBuilder.build().getRegion(3, 5).mayHaveNull());
+        assertTrue(blockBuilder.build().getRegion(15, 3).mayHaveNull());
+    }
+
     @Test
     public void testLazyBlockBuilderInitialization()
             throws Exception
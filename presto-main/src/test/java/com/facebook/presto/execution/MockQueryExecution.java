@@ -164,6 +164,12 @@ public class MockQueryExecution
                 Optional.empty());
     }
 
+    @Override
+    public QueryInfo getQueryInfoWithoutDetails()
+    {
+        return getQueryInfo();
+    }
+
     @Override
     public QueryState getState()
     {
@@ -15,12 +15,15 @@ package com.facebook.presto.execution;
 
 import com.google.common.collect.ImmutableMap;
 import io.airlift.configuration.testing.ConfigAssertions;
+import io.airlift.units.DataSize;
 import io.airlift.units.Duration;
 import org.testng.annotations.Test;
 
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+
 public class TestQueryManagerConfig
 {
     @Test
@@ -30,6 +33,7 @@ public class TestQueryManagerConfig
                 .setMinQueryExpireAge(new Duration(15, TimeUnit.MINUTES))
                 .setMaxQueryHistory(100)
                 .setMaxQueryLength(1_000_000)
+                .setStatementCacheMaxSize(new DataSize(16, MEGABYTE))
                 .setClientTimeout(new Duration(5, TimeUnit.MINUTES))
                 .setScheduleSplitBatchSize(1000)
                 .setMinScheduleSplitBatchSize(100)
@@ -46,7 +50,9 @@ public class TestQueryManagerConfig
                 .setQueryMaxExecutionTime(new Duration(100, TimeUnit.DAYS))
                 .setQueryMaxCpuTime(new Duration(1_000_000_000, TimeUnit.DAYS))
                 .setInitializationRequiredWorkers(1)
-                .setInitializationTimeout(new Duration(5, TimeUnit.MINUTES)));
+                .setInitializationTimeout(new Duration(5, TimeUnit.MINUTES))
+                .setStragglerMitigationEnabled(false)
+                .setStragglerSlowdownThreshold(3.0));
     }
 
     @Test
@@ -57,6 +63,7 @@ public class TestQueryManagerConfig
                 .put("query.min-expire-age", "30s")
                 .put("query.max-history", "10")
                 .put("query.max-length", "10000")
+                .put("query.statement-cache-max-size", "1MB")
                 .put("query.schedule-split-batch-size", "99")
                 .put("query.min-schedule-split-batch-size", "9")
                 .put("query.max-concurrent-queries", "10")
@@ -73,12 +80,15 @@ public class TestQueryManagerConfig
                 .put("query.max-cpu-time", "2d")
                 .put("query-manager.initialization-required-workers", "200")
                 .put("query-manager.initialization-timeout", "1m")
+                .put("query.straggler-mitigation-enabled", "true")
+                .put("query.straggler-slowdown-threshold", "5.0")
                 .build();
 
         QueryManagerConfig expected = new QueryManagerConfig()
                 .setMinQueryExpireAge(new Duration(30, TimeUnit.SECONDS))
                 .setMaxQueryHistory(10)
                 .setMaxQueryLength(10000)
+                .setStatementCacheMaxSize(new DataSize(1, MEGABYTE))
                 .setClientTimeout(new Duration(10, TimeUnit.SECONDS))
                 .setScheduleSplitBatchSize(99)
                 .setMinScheduleSplitBatchSize(9)
@@ -95,7 +105,9 @@ public class TestQueryManagerConfig
                 .setQueryMaxExecutionTime(new Duration(3, TimeUnit.HOURS))
                 .setQueryMaxCpuTime(new Duration(2, TimeUnit.DAYS))
                 .setInitializationRequiredWorkers(200)
-                .setInitializationTimeout(new Duration(1, TimeUnit.MINUTES));
+                .setInitializationTimeout(new Duration(1, TimeUnit.MINUTES))
+                .setStragglerMitigationEnabled(true)
+                .setStragglerSlowdownThreshold(5.0);
 
         ConfigAssertions.assertFullMapping(properties, expected);
     }
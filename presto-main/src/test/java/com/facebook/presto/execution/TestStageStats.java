@@ -46,6 +46,8 @@ public class TestStageStats
             26,
             11,
 
+            27,
+
             12.0,
             new DataSize(13, BYTE),
             new DataSize(14, BYTE),
@@ -97,6 +99,8 @@ public class TestStageStats
         assertEquals(actual.getBlockedDrivers(), 26);
         assertEquals(actual.getCompletedDrivers(), 11);
 
+        assertEquals(actual.getDeferredStragglerSplits(), 27);
+
         assertEquals(actual.getCumulativeMemory(), 12.0);
         assertEquals(actual.getTotalMemoryReservation(), new DataSize(13, BYTE));
         assertEquals(actual.getPeakMemoryReservation(), new DataSize(14, BYTE));
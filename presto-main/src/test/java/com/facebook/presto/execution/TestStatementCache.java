@@ -0,0 +1,113 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.execution;
+
+import com.facebook.presto.sql.parser.ParsingException;
+import com.facebook.presto.sql.parser.SqlParser;
+import com.facebook.presto.sql.tree.Statement;
+import com.google.common.base.Strings;
+import io.airlift.units.DataSize;
+import org.testng.annotations.Test;
+
+import static io.airlift.units.DataSize.Unit.BYTE;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.fail;
+
+public class TestStatementCache
+{
+    @Test
+    public void testRepeatedQueryReusesStatement()
+    {
+        CountingSqlParser parser = new CountingSqlParser();
+        StatementCache cache = new StatementCache(parser, new DataSize(1, MEGABYTE));
+
+        Statement statement = cache.getStatement("SELECT 1");
+        assertSame(cache.getStatement("SELECT 1"), statement);
+        assertEquals(parser.getParseCount(), 1);
+        assertEquals(cache.getStats().getRequestCount(), 2);
+        assertEquals(cache.getStats().getHitRate(), 0.5);
+
+        assertNotSame(cache.getStatement("SELECT 2"), statement);
+        assertEquals(parser.getParseCount(), 2);
+    }
+
+    @Test
+    public void testParseErrorIsNotCached()
+    {
+        CountingSqlParser parser = new CountingSqlParser();
+        StatementCache cache = new StatementCache(parser, new DataSize(1, MEGABYTE));
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                cache.getStatement("SELECT FROM WHERE");
+                fail("expected ParsingException");
+            }
+            catch (ParsingException e) {
+                // expected
+            }
+        }
+        assertEquals(parser.getParseCount(), 2);
+        assertEquals(cache.getStats().size(), 0);
+    }
+
+    @Test
+    public void testZeroSizeDisablesCache()
+    {
+        CountingSqlParser parser = new CountingSqlParser();
+        StatementCache cache = new StatementCache(parser, new DataSize(0, BYTE));
+
+        assertNotSame(cache.getStatement("SELECT 1"), cache.getStatement("SELECT 1"));
+        assertEquals(parser.getParseCount(), 2);
+        assertEquals(cache.getStats().size(), 0);
+    }
+
+    @Test
+    public void testSizeIsBoundedByQueryLength()
+    {
+        CountingSqlParser parser = new CountingSqlParser();
+        StatementCache cache = new StatementCache(parser, new DataSize(100, BYTE));
+
+        // a query text longer than the cache is never retained
+        String longQuery = "SELECT '" + Strings.repeat("x", 100) + "'";
+        assertNotSame(cache.getStatement(longQuery), cache.getStatement(longQuery));
+        assertEquals(parser.getParseCount(), 2);
+        assertEquals(cache.getStats().size(), 0);
+
+        // short query texts are retained
+        Statement statement = cache.getStatement("SELECT 1");
+        assertSame(cache.getStatement("SELECT 1"), statement);
+        assertEquals(parser.getParseCount(), 3);
+    }
+
+    private static class CountingSqlParser
+            extends SqlParser
+    {
+        private int parseCount;
+
+        @Override
+        public synchronized Statement createStatement(String sql)
+        {
+            parseCount++;
+            return super.createStatement(sql);
+        }
+
+        public synchronized int getParseCount()
+        {
+            return parseCount;
+        }
+    }
+}
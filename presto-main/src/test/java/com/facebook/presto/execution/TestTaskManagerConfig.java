@@ -47,6 +47,7 @@ public class TestTaskManagerConfig
                 .setShareIndexLoading(false)
                 .setMaxPartialAggregationMemoryUsage(new DataSize(16, Unit.MEGABYTE))
                 .setSinkMaxBufferSize(new DataSize(32, Unit.MEGABYTE))
+                .setSinkSpillEnabled(false)
                 .setMaxPagePartitioningBufferSize(new DataSize(32, Unit.MEGABYTE))
                 .setWriterCount(1)
                 .setTaskConcurrency(16)
@@ -77,6 +78,7 @@ public class TestTaskManagerConfig
                 .put("task.info.max-age", "22m")
                 .put("task.client.timeout", "10s")
                 .put("sink.max-buffer-size", "42MB")
+                .put("sink.spill-enabled", "true")
                 .put("driver.max-page-partitioning-buffer-size", "40MB")
                 .put("task.writer-count", "4")
                 .put("task.concurrency", "8")
@@ -104,6 +106,7 @@ public class TestTaskManagerConfig
                 .setInfoMaxAge(new Duration(22, TimeUnit.MINUTES))
                 .setClientTimeout(new Duration(10, TimeUnit.SECONDS))
                 .setSinkMaxBufferSize(new DataSize(42, Unit.MEGABYTE))
+                .setSinkSpillEnabled(true)
                 .setMaxPagePartitioningBufferSize(new DataSize(40, Unit.MEGABYTE))
                 .setWriterCount(4)
                 .setTaskConcurrency(8)
@@ -29,10 +29,13 @@ import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 import static com.facebook.presto.OutputBuffers.BROADCAST_PARTITION_ID;
@@ -44,9 +47,12 @@ import static com.facebook.presto.execution.buffer.BufferState.TERMINAL_BUFFER_S
 import static com.facebook.presto.execution.buffer.TestingPagesSerdeFactory.testingPagesSerde;
 import static com.facebook.presto.spi.type.BigintType.BIGINT;
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.io.MoreFiles.deleteRecursively;
+import static com.google.common.io.RecursiveDeleteOption.ALLOW_INSECURE;
 import static io.airlift.concurrent.MoreFutures.tryGetFutureValue;
 import static io.airlift.concurrent.Threads.daemonThreadsNamed;
 import static io.airlift.units.DataSize.Unit.BYTE;
+import static java.nio.file.Files.createTempDirectory;
 import static java.util.concurrent.Executors.newScheduledThreadPool;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
@@ -69,12 +75,14 @@ public class TestArbitraryOutputBuffer
     private static final OutputBufferId SECOND = new OutputBufferId(1);
 
     private ScheduledExecutorService stateNotificationExecutor;
+    private Path spillPath;
 
     @BeforeClass
     public void setUp()
             throws Exception
     {
         stateNotificationExecutor = newScheduledThreadPool(5, daemonThreadsNamed("test-%s"));
+        spillPath = createTempDirectory(getClass().getSimpleName());
     }
 
     @AfterClass(alwaysRun = true)
@@ -85,6 +93,7 @@ public class TestArbitraryOutputBuffer
             stateNotificationExecutor.shutdownNow();
             stateNotificationExecutor = null;
         }
+        deleteRecursively(spillPath, ALLOW_INSECURE);
     }
 
     @Test
@@ -867,6 +876,72 @@ public class TestArbitraryOutputBuffer
         assertTrue(buffer.get(FIRST, 0, sizeOfPages(10)).isDone());
     }
 
+    @Test
+    public void testSpillToDisk()
+            throws Exception
+    {
+        AtomicLong spilledBytes = new AtomicLong();
+        OutputBufferSpiller spiller = new OutputBufferSpillerFactory(ImmutableList.of(spillPath), 1.0).create(spilledBytes::addAndGet);
+        ArbitraryOutputBuffer buffer = createArbitraryBuffer(
+                createInitialEmptyOutputBuffers(ARBITRARY)
+                        .withBuffer(FIRST, BROADCAST_PARTITION_ID)
+                        .withNoMoreBufferIds(),
+                sizeOfPages(2),
+                Optional.of(spiller));
+
+        // pages over the memory limit are spilled instead of blocking the producer
+        for (int i = 0; i < 10; i++) {
+            addPage(buffer, createPage(i));
+        }
+        assertTrue(buffer.getInfo().getTotalBufferedBytes() <= sizeOfPages(3).toBytes());
+        assertTrue(spilledBytes.get() > 0);
+        assertEquals(buffer.getInfo().getTotalBufferedPages(), 10);
+
+        // pages added while earlier pages are spilled are spilled as well to preserve the order
+        assertBufferResultEquals(TYPES, getBufferResult(buffer, FIRST, 0, sizeOfPages(2), NO_WAIT), bufferResult(0, createPage(0), createPage(1)));
+        addPage(buffer, createPage(10));
+        buffer.setNoMorePages();
+
+        List<Page> expectedPages = new ArrayList<>();
+        for (int i = 2; i <= 10; i++) {
+            expectedPages.add(createPage(i));
+        }
+        assertBufferResultEquals(TYPES, getBufferResult(buffer, FIRST, 2, sizeOfPages(100), NO_WAIT), bufferResult(2, expectedPages));
+        assertEquals(spilledBytes.get(), 0);
+
+        assertBufferResultEquals(TYPES, getBufferResult(buffer, FIRST, 11, sizeOfPages(100), NO_WAIT), emptyResults(TASK_INSTANCE_ID, 11, true));
+        buffer.abort(FIRST);
+        assertFinished(buffer);
+        assertEquals(buffer.getInfo().getTotalBufferedBytes(), 0);
+    }
+
+    @Test
+    public void testSpilledPagesAreDeletedOnDestroy()
+            throws Exception
+    {
+        AtomicLong spilledBytes = new AtomicLong();
+        OutputBufferSpiller spiller = new OutputBufferSpillerFactory(ImmutableList.of(spillPath), 1.0).create(spilledBytes::addAndGet);
+        ArbitraryOutputBuffer buffer = createArbitraryBuffer(
+                createInitialEmptyOutputBuffers(ARBITRARY)
+                        .withBuffer(FIRST, BROADCAST_PARTITION_ID)
+                        .withNoMoreBufferIds(),
+                sizeOfPages(1),
+                Optional.of(spiller));
+
+        for (int i = 0; i < 5; i++) {
+            addPage(buffer, createPage(i));
+        }
+        assertTrue(spilledBytes.get() > 0);
+
+        buffer.destroy();
+        assertEquals(spilledBytes.get(), 0);
+        assertEquals(buffer.getInfo().getTotalBufferedPages(), 0);
+
+        // pages added after destroy are neither kept nor spilled
+        addPage(buffer, createPage(5));
+        assertEquals(spilledBytes.get(), 0);
+    }
+
     private static BufferResult getBufferResult(OutputBuffer buffer, OutputBufferId bufferId, long sequenceId, DataSize maxSize, Duration maxWait)
     {
         ListenableFuture<BufferResult> future = buffer.get(bufferId, sequenceId, maxSize);
@@ -948,13 +1023,19 @@ public class TestArbitraryOutputBuffer
     }
 
     private ArbitraryOutputBuffer createArbitraryBuffer(OutputBuffers buffers, DataSize dataSize)
+    {
+        return createArbitraryBuffer(buffers, dataSize, Optional.empty());
+    }
+
+    private ArbitraryOutputBuffer createArbitraryBuffer(OutputBuffers buffers, DataSize dataSize, Optional<OutputBufferSpiller> spiller)
     {
         ArbitraryOutputBuffer buffer = new ArbitraryOutputBuffer(
                 TASK_INSTANCE_ID,
                 new StateMachine<>("bufferState", stateNotificationExecutor, OPEN, TERMINAL_BUFFER_STATES),
                 dataSize,
                 ignored -> {},
-                stateNotificationExecutor);
+                stateNotificationExecutor,
+                spiller);
         buffer.setOutputBuffers(buffers);
         return buffer;
     }
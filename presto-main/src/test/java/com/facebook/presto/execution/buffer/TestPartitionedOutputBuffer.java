@@ -29,10 +29,13 @@ import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 import static com.facebook.presto.OutputBuffers.BufferType.PARTITIONED;
@@ -43,9 +46,12 @@ import static com.facebook.presto.execution.buffer.BufferState.TERMINAL_BUFFER_S
 import static com.facebook.presto.execution.buffer.TestingPagesSerdeFactory.testingPagesSerde;
 import static com.facebook.presto.spi.type.BigintType.BIGINT;
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.io.MoreFiles.deleteRecursively;
+import static com.google.common.io.RecursiveDeleteOption.ALLOW_INSECURE;
 import static io.airlift.concurrent.MoreFutures.tryGetFutureValue;
 import static io.airlift.concurrent.Threads.daemonThreadsNamed;
 import static io.airlift.units.DataSize.Unit.BYTE;
+import static java.nio.file.Files.createTempDirectory;
 import static java.util.concurrent.Executors.newScheduledThreadPool;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
@@ -68,12 +74,14 @@ public class TestPartitionedOutputBuffer
     private static final OutputBufferId SECOND = new OutputBufferId(1);
 
     private ScheduledExecutorService stateNotificationExecutor;
+    private Path spillPath;
 
     @BeforeClass
     public void setUp()
             throws Exception
     {
         stateNotificationExecutor = newScheduledThreadPool(5, daemonThreadsNamed("test-%s"));
+        spillPath = createTempDirectory(getClass().getSimpleName());
     }
 
     @AfterClass(alwaysRun = true)
@@ -84,6 +92,7 @@ public class TestPartitionedOutputBuffer
             stateNotificationExecutor.shutdownNow();
             stateNotificationExecutor = null;
         }
+        deleteRecursively(spillPath, ALLOW_INSECURE);
     }
 
     @Test
@@ -744,6 +753,45 @@ public class TestPartitionedOutputBuffer
         assertTrue(buffer.isFinished());
     }
 
+    @Test
+    public void testSpillToDisk()
+            throws Exception
+    {
+        AtomicLong spilledBytes = new AtomicLong();
+        OutputBufferSpiller spiller = new OutputBufferSpillerFactory(ImmutableList.of(spillPath), 1.0).create(spilledBytes::addAndGet);
+        PartitionedOutputBuffer buffer = createPartitionedBuffer(
+                createInitialEmptyOutputBuffers(PARTITIONED)
+                        .withBuffer(FIRST, 0)
+                        .withNoMoreBufferIds(),
+                sizeOfBufferedPages(2),
+                Optional.of(spiller));
+
+        // pages over the memory limit are spilled instead of blocking the producer
+        for (int i = 0; i < 10; i++) {
+            addPage(buffer, createPage(i));
+        }
+        assertTrue(buffer.getInfo().getTotalBufferedBytes() <= sizeOfBufferedPages(3).toBytes());
+        assertTrue(spilledBytes.get() > 0);
+        assertEquals(buffer.getInfo().getTotalBufferedPages(), 10);
+
+        // pages added while earlier pages are spilled are spilled as well to preserve the order
+        assertBufferResultEquals(TYPES, getBufferResult(buffer, FIRST, 0, sizeOfBufferedPages(2), NO_WAIT), bufferResult(0, createPage(0), createPage(1)));
+        addPage(buffer, createPage(10));
+        buffer.setNoMorePages();
+
+        List<Page> expectedPages = new ArrayList<>();
+        for (int i = 2; i <= 10; i++) {
+            expectedPages.add(createPage(i));
+        }
+        assertBufferResultEquals(TYPES, getBufferResult(buffer, FIRST, 2, sizeOfBufferedPages(100), NO_WAIT), bufferResult(2, expectedPages));
+        assertEquals(spilledBytes.get(), 0);
+
+        assertBufferResultEquals(TYPES, getBufferResult(buffer, FIRST, 11, sizeOfBufferedPages(100), NO_WAIT), emptyResults(TASK_INSTANCE_ID, 11, true));
+        buffer.abort(FIRST);
+        assertFinished(buffer);
+        assertEquals(buffer.getInfo().getTotalBufferedBytes(), 0);
+    }
+
     public static BufferResult getBufferResult(PartitionedOutputBuffer buffer, OutputBufferId bufferId, long sequenceId, DataSize maxSize, Duration maxWait)
     {
         ListenableFuture<BufferResult> future = buffer.get(bufferId, sequenceId, maxSize);
@@ -810,6 +858,11 @@ public class TestPartitionedOutputBuffer
     }
 
     private PartitionedOutputBuffer createPartitionedBuffer(OutputBuffers buffers, DataSize dataSize)
+    {
+        return createPartitionedBuffer(buffers, dataSize, Optional.empty());
+    }
+
+    private PartitionedOutputBuffer createPartitionedBuffer(OutputBuffers buffers, DataSize dataSize, Optional<OutputBufferSpiller> spiller)
     {
         return new PartitionedOutputBuffer(
                 TASK_INSTANCE_ID,
@@ -817,7 +870,8 @@ public class TestPartitionedOutputBuffer
                 buffers,
                 dataSize,
                 ignored -> {},
-                stateNotificationExecutor);
+                stateNotificationExecutor,
+                spiller);
     }
 
     private static BufferInfo getBufferInfo(PartitionedOutputBuffer buffer, OutputBufferId bufferId)
@@ -0,0 +1,132 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.execution.buffer;
+
+import com.facebook.presto.block.BlockAssertions;
+import com.facebook.presto.spi.Page;
+import com.google.common.collect.ImmutableList;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static com.facebook.presto.execution.buffer.TestingPagesSerdeFactory.testingPagesSerde;
+import static com.facebook.presto.operator.PageAssertions.assertPageEquals;
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.google.common.io.MoreFiles.deleteRecursively;
+import static com.google.common.io.RecursiveDeleteOption.ALLOW_INSECURE;
+import static java.nio.file.Files.createTempDirectory;
+import static java.nio.file.Files.list;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestSerializedPageSpillFile
+{
+    private static final PagesSerde PAGES_SERDE = testingPagesSerde();
+
+    private Path spillPath;
+
+    @BeforeClass
+    public void setUp()
+            throws Exception
+    {
+        spillPath = createTempDirectory(getClass().getSimpleName());
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown()
+            throws Exception
+    {
+        deleteRecursively(spillPath, ALLOW_INSECURE);
+    }
+
+    @Test
+    public void testInterleavedAppendAndRead()
+            throws Exception
+    {
+        AtomicLong spilledBytes = new AtomicLong();
+        try (SerializedPageSpillFile spillFile = new SerializedPageSpillFile(spillPath, spilledBytes::addAndGet)) {
+            assertTrue(spillFile.isEmpty());
+
+            spillFile.append(ImmutableList.of(serializedPage(0), serializedPage(1), serializedPage(2)));
+            assertEquals(spillFile.getSpilledPages(), 3);
+            assertEquals(spilledBytes.get(), spillFile.getSpilledBytes());
+
+            // a single page is returned even if it exceeds the limit
+            assertPages(spillFile.read(1), 0);
+
+            spillFile.append(ImmutableList.of(serializedPage(3)));
+            assertPages(spillFile.read(Long.MAX_VALUE), 1, 2, 3);
+
+            // the file is truncated once all pages have been read
+            assertTrue(spillFile.isEmpty());
+            assertEquals(spillFile.getSpilledBytes(), 0);
+            assertEquals(spilledBytes.get(), 0);
+
+            spillFile.append(ImmutableList.of(serializedPage(4)));
+            assertFalse(spillFile.isEmpty());
+            assertTrue(spilledBytes.get() > 0);
+        }
+
+        // closing the file releases the spill space and deletes the file
+        assertEquals(spilledBytes.get(), 0);
+        assertEquals(listSpillFiles(), 0);
+    }
+
+    @Test
+    public void testReadSizeLimit()
+    {
+        AtomicLong spilledBytes = new AtomicLong();
+        try (SerializedPageSpillFile spillFile = new SerializedPageSpillFile(spillPath, spilledBytes::addAndGet)) {
+            SerializedPage page = serializedPage(0);
+            spillFile.append(ImmutableList.of(page, serializedPage(1), serializedPage(2)));
+
+            assertPages(spillFile.read(page.getSizeInBytes() * 2), 0, 1);
+            assertPages(spillFile.read(page.getSizeInBytes() * 2), 2);
+            assertTrue(spillFile.read(page.getSizeInBytes()).isEmpty());
+        }
+    }
+
+    private long listSpillFiles()
+            throws IOException
+    {
+        try (Stream<Path> files = list(spillPath)) {
+            return files.count();
+        }
+    }
+
+    private static void assertPages(List<SerializedPage> actual, int... expected)
+    {
+        assertEquals(actual.size(), expected.length);
+        for (int i = 0; i < expected.length; i++) {
+            assertPageEquals(ImmutableList.of(BIGINT), PAGES_SERDE.deserialize(actual.get(i)), createPage(expected[i]));
+        }
+    }
+
+    private static SerializedPage serializedPage(int value)
+    {
+        return PAGES_SERDE.serialize(createPage(value));
+    }
+
+    private static Page createPage(int value)
+    {
+        return new Page(BlockAssertions.createLongsBlock(value));
+    }
+}
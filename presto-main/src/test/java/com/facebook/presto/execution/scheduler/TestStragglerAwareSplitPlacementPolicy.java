@@ -0,0 +1,189 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.execution.scheduler;
+
+import com.facebook.presto.client.NodeVersion;
+import com.facebook.presto.connector.ConnectorId;
+import com.facebook.presto.execution.MockRemoteTaskFactory;
+import com.facebook.presto.execution.MockRemoteTaskFactory.MockRemoteTask;
+import com.facebook.presto.execution.NodeTaskMap.PartitionedSplitCountTracker;
+import com.facebook.presto.execution.StageId;
+import com.facebook.presto.execution.TaskId;
+import com.facebook.presto.metadata.PrestoNode;
+import com.facebook.presto.metadata.Split;
+import com.facebook.presto.spi.Node;
+import com.facebook.presto.testing.TestingSplit;
+import com.facebook.presto.testing.TestingTransactionHandle;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMultimap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.Futures;
+import io.airlift.testing.TestingTicker;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static io.airlift.concurrent.Threads.daemonThreadsNamed;
+import static java.util.concurrent.Executors.newCachedThreadPool;
+import static java.util.concurrent.Executors.newScheduledThreadPool;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestStragglerAwareSplitPlacementPolicy
+{
+    private static final ConnectorId CONNECTOR_ID = new ConnectorId("connector_id");
+
+    private final ExecutorService executor = newCachedThreadPool(daemonThreadsNamed("test-%s"));
+    private final ScheduledExecutorService scheduledExecutor = newScheduledThreadPool(2, daemonThreadsNamed("test-scheduledExecutor-%s"));
+    private final MockRemoteTaskFactory remoteTaskFactory = new MockRemoteTaskFactory(executor, scheduledExecutor);
+
+    private final List<Node> nodes = ImmutableList.of(
+            new PrestoNode("node1", URI.create("http://127.0.0.1:11"), NodeVersion.UNKNOWN, false),
+            new PrestoNode("node2", URI.create("http://127.0.0.1:12"), NodeVersion.UNKNOWN, false),
+            new PrestoNode("node3", URI.create("http://127.0.0.1:13"), NodeVersion.UNKNOWN, false));
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown()
+    {
+        executor.shutdownNow();
+        scheduledExecutor.shutdownNow();
+    }
+
+    @Test
+    public void testDefersSplitsOfStraggler()
+    {
+        TestingTicker ticker = new TestingTicker();
+        List<MockRemoteTask> tasks = new ArrayList<>();
+        AtomicReference<Node> targetNode = new AtomicReference<>();
+        AtomicInteger deferredSplits = new AtomicInteger();
+        StragglerAwareSplitPlacementPolicy policy = new StragglerAwareSplitPlacementPolicy(
+                new FixedNodePlacementPolicy(targetNode),
+                () -> ImmutableList.copyOf(tasks),
+                3.0,
+                deferredSplits::addAndGet,
+                ticker);
+
+        startTasks(policy, targetNode, tasks, 10);
+        ticker.increment(10, SECONDS);
+
+        // the third node has not finished a single split
+        tasks.get(0).finishSplits(8);
+        tasks.get(1).finishSplits(8);
+
+        targetNode.set(nodes.get(2));
+        SplitPlacementResult result = policy.computeAssignments(createSplits(2));
+        assertTrue(result.getAssignments().isEmpty());
+        assertFalse(result.getBlocked().isDone());
+        assertEquals(deferredSplits.get(), 2);
+
+        // healthy nodes still receive splits
+        targetNode.set(nodes.get(0));
+        result = policy.computeAssignments(createSplits(2));
+        assertEquals(result.getAssignments().size(), 2);
+        assertTrue(result.getBlocked().isDone());
+        assertEquals(deferredSplits.get(), 2);
+    }
+
+    @Test
+    public void testNoStragglersWhileObserving()
+    {
+        TestingTicker ticker = new TestingTicker();
+        List<MockRemoteTask> tasks = new ArrayList<>();
+        AtomicReference<Node> targetNode = new AtomicReference<>();
+        AtomicInteger deferredSplits = new AtomicInteger();
+        StragglerAwareSplitPlacementPolicy policy = new StragglerAwareSplitPlacementPolicy(
+                new FixedNodePlacementPolicy(targetNode),
+                () -> ImmutableList.copyOf(tasks),
+                3.0,
+                deferredSplits::addAndGet,
+                ticker);
+
+        startTasks(policy, targetNode, tasks, 10);
+        tasks.get(0).finishSplits(8);
+        tasks.get(1).finishSplits(8);
+
+        // tasks have not been running long enough to be compared
+        ticker.increment(1, SECONDS);
+        targetNode.set(nodes.get(2));
+        assertEquals(policy.computeAssignments(createSplits(2)).getAssignments().size(), 2);
+
+        // all nodes make similar progress
+        ticker.increment(10, SECONDS);
+        tasks.get(2).finishSplits(6);
+        assertEquals(policy.computeAssignments(createSplits(2)).getAssignments().size(), 2);
+        assertEquals(deferredSplits.get(), 0);
+    }
+
+    private void startTasks(SplitPlacementPolicy policy, AtomicReference<Node> targetNode, List<MockRemoteTask> tasks, int splitsPerTask)
+    {
+        for (int i = 0; i < nodes.size(); i++) {
+            Node node = nodes.get(i);
+            targetNode.set(node);
+            SplitPlacementResult result = policy.computeAssignments(createSplits(splitsPerTask));
+            TaskId taskId = new TaskId(new StageId("query", 0), i);
+            tasks.add(remoteTaskFactory.createTableScanTask(
+                    taskId,
+                    node,
+                    ImmutableList.copyOf(result.getAssignments().get(node)),
+                    new PartitionedSplitCountTracker(delta -> {})));
+        }
+    }
+
+    private static Set<Split> createSplits(int count)
+    {
+        ImmutableSet.Builder<Split> splits = ImmutableSet.builder();
+        for (int i = 0; i < count; i++) {
+            splits.add(new Split(CONNECTOR_ID, TestingTransactionHandle.create(), TestingSplit.createRemoteSplit()));
+        }
+        return splits.build();
+    }
+
+    private static class FixedNodePlacementPolicy
+            implements SplitPlacementPolicy
+    {
+        private final AtomicReference<Node> targetNode;
+
+        public FixedNodePlacementPolicy(AtomicReference<Node> targetNode)
+        {
+            this.targetNode = targetNode;
+        }
+
+        @Override
+        public SplitPlacementResult computeAssignments(Set<Split> splits)
+        {
+            return new SplitPlacementResult(Futures.immediateFuture(null), ImmutableMultimap.<Node, Split>builder().putAll(targetNode.get(), splits).build());
+        }
+
+        @Override
+        public void lockDownNodes()
+        {
+        }
+
+        @Override
+        public List<Node> allNodes()
+        {
+            return ImmutableList.of(targetNode.get());
+        }
+    }
+}
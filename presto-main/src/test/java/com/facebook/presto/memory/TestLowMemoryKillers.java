@@ -0,0 +1,103 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.memory;
+
+import com.facebook.presto.memory.LowMemoryKiller.QueryMemoryInfo;
+import com.facebook.presto.spi.QueryId;
+import com.facebook.presto.spi.memory.MemoryPoolInfo;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.airlift.units.DataSize;
+import io.airlift.units.Duration;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static com.facebook.presto.memory.LocalMemoryManager.GENERAL_POOL;
+import static com.facebook.presto.memory.LocalMemoryManager.RESERVED_POOL;
+import static io.airlift.units.DataSize.Unit.GIGABYTE;
+import static java.util.concurrent.TimeUnit.HOURS;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.testng.Assert.assertEquals;
+
+public class TestLowMemoryKillers
+{
+    private static final QueryId ETL_QUERY = new QueryId("etl");
+    private static final QueryId AD_HOC_QUERY = new QueryId("ad_hoc");
+    private static final QueryId RESERVED_QUERY = new QueryId("reserved");
+
+    // the ETL query is the largest one but runs on the node that is not blocked and has done most of the work
+    private static final List<QueryMemoryInfo> QUERIES = ImmutableList.of(
+            new QueryMemoryInfo(ETL_QUERY, GENERAL_POOL, gigabytes(6), new Duration(4, HOURS), 2),
+            new QueryMemoryInfo(AD_HOC_QUERY, GENERAL_POOL, gigabytes(4), new Duration(1, MINUTES), 1),
+            new QueryMemoryInfo(RESERVED_QUERY, RESERVED_POOL, gigabytes(10), new Duration(1, MINUTES), 1));
+
+    private static final List<MemoryInfo> NODES = ImmutableList.of(
+            node(gigabytes(10), ImmutableMap.of(ETL_QUERY, gigabytes(5), AD_HOC_QUERY, gigabytes(1))),
+            node(gigabytes(4), ImmutableMap.of(ETL_QUERY, gigabytes(1), AD_HOC_QUERY, gigabytes(3))));
+
+    @Test
+    public void testTotalReservation()
+    {
+        assertEquals(new TotalReservationLowMemoryKiller().chooseQueryToKill(QUERIES, NODES), Optional.of(ETL_QUERY));
+    }
+
+    @Test
+    public void testTotalReservationOnBlockedNodes()
+    {
+        assertEquals(new TotalReservationOnBlockedNodesLowMemoryKiller().chooseQueryToKill(QUERIES, NODES), Optional.of(AD_HOC_QUERY));
+    }
+
+    @Test
+    public void testLeastWastedWork()
+    {
+        assertEquals(new LeastWastedWorkLowMemoryKiller().chooseQueryToKill(QUERIES, NODES), Optional.of(AD_HOC_QUERY));
+    }
+
+    @Test
+    public void testQueryPriority()
+    {
+        assertEquals(new QueryPriorityLowMemoryKiller().chooseQueryToKill(QUERIES, NODES), Optional.of(AD_HOC_QUERY));
+    }
+
+    @Test
+    public void testNoQueriesInGeneralPool()
+    {
+        List<QueryMemoryInfo> queries = ImmutableList.of(new QueryMemoryInfo(RESERVED_QUERY, RESERVED_POOL, gigabytes(10), new Duration(1, MINUTES), 1));
+        List<LowMemoryKiller> killers = ImmutableList.of(
+                new TotalReservationLowMemoryKiller(),
+                new TotalReservationOnBlockedNodesLowMemoryKiller(),
+                new LeastWastedWorkLowMemoryKiller(),
+                new QueryPriorityLowMemoryKiller());
+        for (LowMemoryKiller killer : killers) {
+            assertEquals(killer.chooseQueryToKill(queries, NODES), Optional.empty());
+        }
+    }
+
+    private static MemoryInfo node(long maxBytes, Map<QueryId, Long> reservations)
+    {
+        long reservedBytes = reservations.values().stream()
+                .mapToLong(Long::longValue)
+                .sum();
+        MemoryPoolInfo generalPool = new MemoryPoolInfo(maxBytes, reservedBytes, 0, reservations, ImmutableMap.of());
+        return new MemoryInfo(new DataSize(maxBytes, DataSize.Unit.BYTE), ImmutableMap.of(GENERAL_POOL, generalPool));
+    }
+
+    private static long gigabytes(long value)
+    {
+        return new DataSize(value, GIGABYTE).toBytes();
+    }
+}
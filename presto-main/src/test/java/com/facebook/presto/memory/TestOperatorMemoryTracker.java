@@ -0,0 +1,75 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.memory;
+
+import com.facebook.presto.execution.TaskId;
+import com.facebook.presto.memory.OperatorMemoryTracker.OperatorMemoryUsage;
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+import static com.google.common.collect.Iterables.getOnlyElement;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+public class TestOperatorMemoryTracker
+{
+    private static final TaskId TASK_ID = new TaskId("query", 0, 0);
+
+    @Test
+    public void testAttribution()
+    {
+        OperatorMemoryTracker tracker = new OperatorMemoryTracker();
+        OperatorMemoryUsage usage = tracker.getOperatorMemoryUsage(TASK_ID, 1, "HashBuilderOperator");
+        assertSame(tracker.getOperatorMemoryUsage(TASK_ID, 1, "HashBuilderOperator"), usage);
+
+        usage.updateUserMemory(100);
+        usage.updateSystemMemory(10);
+        usage.updateRevocableMemory(50);
+        usage.updateRevocableMemory(-50);
+        usage.updateUserMemory(-40);
+
+        OperatorMemoryInfo info = getOnlyElement(tracker.getOperatorMemoryInfos());
+        assertEquals(info.getTaskId(), TASK_ID);
+        assertEquals(info.getPipelineId(), 1);
+        assertEquals(info.getOperatorType(), "HashBuilderOperator");
+        assertEquals(info.getUserMemoryReservation(), 60);
+        assertEquals(info.getSystemMemoryReservation(), 10);
+        assertEquals(info.getRevocableMemoryReservation(), 0);
+        assertEquals(info.getPeakMemoryReservation(), 160);
+
+        tracker.removeTask(TASK_ID);
+        assertTrue(tracker.getOperatorMemoryInfos().isEmpty());
+    }
+
+    @Test
+    public void testSamples()
+    {
+        OperatorMemoryTracker tracker = new OperatorMemoryTracker();
+        tracker.getOperatorMemoryUsage(TASK_ID, 0, "OrderByOperator").updateUserMemory(10);
+        tracker.getOperatorMemoryUsage(new TaskId("query", 0, 1), 0, "OrderByOperator").updateUserMemory(20);
+        tracker.sample();
+
+        List<OperatorMemorySample> samples = tracker.getSamples();
+        OperatorMemorySample sample = getOnlyElement(samples);
+        assertEquals(sample.getOperatorType(), "OrderByOperator");
+        assertEquals(sample.getUserMemoryReservation(), 30);
+
+        for (int i = 0; i < 1000; i++) {
+            tracker.sample();
+        }
+        assertEquals(tracker.getSamples().size(), 600);
+    }
+}
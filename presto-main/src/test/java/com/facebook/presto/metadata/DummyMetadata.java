@@ -15,12 +15,14 @@ package com.facebook.presto.metadata;
 
 import com.facebook.presto.Session;
 import com.facebook.presto.connector.ConnectorId;
+import com.facebook.presto.spi.AggregateFunction;
 import com.facebook.presto.spi.CatalogSchemaName;
 import com.facebook.presto.spi.ColumnHandle;
 import com.facebook.presto.spi.ColumnIdentity;
 import com.facebook.presto.spi.ColumnMetadata;
 import com.facebook.presto.spi.ConnectorTableMetadata;
 import com.facebook.presto.spi.Constraint;
+import com.facebook.presto.spi.SortingProperty;
 import com.facebook.presto.spi.TableIdentity;
 import com.facebook.presto.spi.block.BlockEncodingSerde;
 import com.facebook.presto.spi.connector.ConnectorOutputMetadata;
@@ -31,6 +33,7 @@ import com.facebook.presto.spi.statistics.TableStatistics;
 import com.facebook.presto.spi.type.Type;
 import com.facebook.presto.spi.type.TypeManager;
 import com.facebook.presto.spi.type.TypeSignature;
+import com.facebook.presto.sql.planner.PartitioningHandle;
 import com.facebook.presto.sql.tree.QualifiedName;
 import io.airlift.slice.Slice;
 
@@ -108,6 +111,36 @@ public class DummyMetadata
         throw new UnsupportedOperationException();
     }
 
+    @Override
+    public TableLayoutHandle getAlternativeLayoutHandle(Session session, TableLayoutHandle tableLayoutHandle, PartitioningHandle partitioningHandle)
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Optional<PartitioningHandle> getCommonPartitioning(Session session, PartitioningHandle left, PartitioningHandle right)
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Optional<TableLayoutHandle> pushDownLimit(Session session, TableLayoutHandle tableLayoutHandle, long limit)
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Optional<TableLayoutHandle> pushDownTopN(Session session, TableLayoutHandle tableLayoutHandle, long count, List<SortingProperty<ColumnHandle>> ordering)
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Optional<AggregationPushDownResult> pushDownPartialAggregation(Session session, TableLayoutHandle tableLayoutHandle, List<ColumnHandle> groupingColumns, List<AggregateFunction> aggregates)
+    {
+        throw new UnsupportedOperationException();
+    }
+
     @Override
     public Optional<Object> getInfo(Session session, TableLayoutHandle handle)
     {
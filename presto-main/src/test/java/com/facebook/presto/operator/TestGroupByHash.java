@@ -20,6 +20,7 @@ import com.facebook.presto.spi.PageBuilder;
 import com.facebook.presto.spi.block.Block;
 import com.facebook.presto.spi.block.DictionaryBlock;
 import com.facebook.presto.spi.block.DictionaryId;
+import com.facebook.presto.spi.block.RunLengthEncodedBlock;
 import com.facebook.presto.spi.type.Type;
 import com.facebook.presto.sql.gen.JoinCompiler;
 import com.facebook.presto.testing.TestingSession;
@@ -37,14 +38,17 @@ import java.util.stream.IntStream;
 
 import static com.facebook.presto.block.BlockAssertions.createLongSequenceBlock;
 import static com.facebook.presto.block.BlockAssertions.createLongsBlock;
+import static com.facebook.presto.block.BlockAssertions.createRLEBlock;
 import static com.facebook.presto.block.BlockAssertions.createStringSequenceBlock;
 import static com.facebook.presto.operator.GroupByHash.createGroupByHash;
+import static com.facebook.presto.operator.UpdateMemory.NOOP;
 import static com.facebook.presto.spi.block.DictionaryId.randomDictionaryId;
 import static com.facebook.presto.spi.type.BigintType.BIGINT;
 import static com.facebook.presto.spi.type.DoubleType.DOUBLE;
 import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
 import static com.facebook.presto.type.TypeUtils.getHashBlock;
 import static com.google.common.math.DoubleMath.log2;
+import static io.airlift.slice.Slices.utf8Slice;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertTrue;
@@ -138,6 +142,75 @@ public class TestGroupByHash
         }
     }
 
+    @Test
+    public void testRunLengthEncodedBigintGroupByHash()
+    {
+        GroupByHash groupByHash = createGroupByHash(ImmutableList.of(BIGINT), new int[] {0}, Optional.empty(), 100, false, JOIN_COMPILER, NOOP);
+        assertTrue(groupByHash instanceof BigintGroupByHash);
+        assertRunLengthEncodedGroupIds(groupByHash, new Page(createRLEBlock(7L, 10)));
+        assertRunLengthEncodedGroupIds(groupByHash, new Page(new RunLengthEncodedBlock(createLongsBlock((Long) null), 10)));
+    }
+
+    @Test
+    public void testRunLengthEncodedMultiChannelGroupByHash()
+    {
+        GroupByHash groupByHash = createGroupByHash(ImmutableList.of(BIGINT, VARCHAR), new int[] {0, 1}, Optional.empty(), 100, false, JOIN_COMPILER, NOOP);
+        assertTrue(groupByHash instanceof MultiChannelGroupByHash);
+        assertRunLengthEncodedGroupIds(groupByHash, new Page(createRLEBlock(7L, 10), RunLengthEncodedBlock.create(VARCHAR, utf8Slice("a"), 10)));
+        assertRunLengthEncodedGroupIds(groupByHash, new Page(createRLEBlock(7L, 10), RunLengthEncodedBlock.create(VARCHAR, utf8Slice("b"), 10)));
+    }
+
+    private static void assertRunLengthEncodedGroupIds(GroupByHash groupByHash, Page page)
+    {
+        int groupCount = groupByHash.getGroupCount();
+        assertTrue(groupByHash.addPage(page).process());
+        assertEquals(groupByHash.getGroupCount(), groupCount + 1);
+
+        // the same key maps to the group that was just added
+        Work<GroupByIdBlock> work = groupByHash.getGroupIds(page);
+        assertTrue(work.process());
+        GroupByIdBlock groupIds = work.getResult();
+        assertEquals(groupByHash.getGroupCount(), groupCount + 1);
+        assertEquals(groupIds.getGroupCount(), groupCount + 1);
+        assertEquals(groupIds.getPositionCount(), page.getPositionCount());
+        for (int position = 0; position < groupIds.getPositionCount(); position++) {
+            assertEquals(groupIds.getGroupId(position), groupCount);
+        }
+    }
+
+    @Test
+    public void testDictionaryBigintGroupByHash()
+    {
+        GroupByHash groupByHash = createGroupByHash(ImmutableList.of(BIGINT), new int[] {0}, Optional.empty(), 100, true, JOIN_COMPILER, NOOP);
+        assertTrue(groupByHash instanceof BigintGroupByHash);
+
+        Block dictionary = createLongsBlock(10L, null, 30L, 40L);
+        Page page = new Page(new DictionaryBlock(dictionary, new int[] {2, 0, 2, 1, 0, 1}));
+        assertTrue(groupByHash.addPage(page).process());
+        assertEquals(groupByHash.getGroupCount(), 3);
+
+        // a second page over the same dictionary reuses the group ids of the first one
+        page = new Page(new DictionaryBlock(dictionary, new int[] {3, 1, 2, 0}));
+        Work<GroupByIdBlock> work = groupByHash.getGroupIds(page);
+        assertTrue(work.process());
+        GroupByIdBlock groupIds = work.getResult();
+        assertEquals(groupByHash.getGroupCount(), 4);
+        assertEquals(groupIds.getPositionCount(), 4);
+        assertEquals(groupIds.getGroupId(0), 3);
+        assertEquals(groupIds.getGroupId(1), 2);
+        assertEquals(groupIds.getGroupId(2), 0);
+        assertEquals(groupIds.getGroupId(3), 1);
+
+        // the same values in a different dictionary map to the same groups
+        page = new Page(new DictionaryBlock(createLongsBlock(40L, 10L), new int[] {0, 1}));
+        work = groupByHash.getGroupIds(page);
+        assertTrue(work.process());
+        groupIds = work.getResult();
+        assertEquals(groupByHash.getGroupCount(), 4);
+        assertEquals(groupIds.getGroupId(0), 3);
+        assertEquals(groupIds.getGroupId(1), 1);
+    }
+
     @Test
     public void testTypes()
             throws Exception
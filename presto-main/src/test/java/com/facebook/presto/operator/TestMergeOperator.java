@@ -0,0 +1,337 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator;
+
+import com.facebook.presto.execution.buffer.PagesSerde;
+import com.facebook.presto.execution.buffer.PagesSerdeFactory;
+import com.facebook.presto.execution.buffer.TestingPagesSerdeFactory;
+import com.facebook.presto.metadata.RemoteTransactionHandle;
+import com.facebook.presto.metadata.Split;
+import com.facebook.presto.operator.MergeOperator.MergeOperatorFactory;
+import com.facebook.presto.spi.Page;
+import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.block.SortOrder;
+import com.facebook.presto.spi.type.Type;
+import com.facebook.presto.split.RemoteSplit;
+import com.facebook.presto.sql.planner.plan.PlanNodeId;
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableListMultimap.Builder;
+import io.airlift.http.client.HttpClient;
+import io.airlift.http.client.HttpStatus;
+import io.airlift.http.client.Request;
+import io.airlift.http.client.Response;
+import io.airlift.http.client.testing.TestingHttpClient;
+import io.airlift.http.client.testing.TestingResponse;
+import io.airlift.slice.DynamicSliceOutput;
+import io.airlift.units.DataSize;
+import io.airlift.units.Duration;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static com.facebook.presto.PrestoMediaTypes.PRESTO_PAGES;
+import static com.facebook.presto.RowPagesBuilder.rowPagesBuilder;
+import static com.facebook.presto.SessionTestUtils.TEST_SESSION;
+import static com.facebook.presto.client.PrestoHeaders.PRESTO_BUFFER_COMPLETE;
+import static com.facebook.presto.client.PrestoHeaders.PRESTO_PAGE_NEXT_TOKEN;
+import static com.facebook.presto.client.PrestoHeaders.PRESTO_PAGE_TOKEN;
+import static com.facebook.presto.client.PrestoHeaders.PRESTO_TASK_INSTANCE_ID;
+import static com.facebook.presto.execution.buffer.PagesSerdeUtil.writePages;
+import static com.facebook.presto.execution.buffer.TestingPagesSerdeFactory.testingPagesSerde;
+import static com.facebook.presto.operator.ExchangeOperator.REMOTE_CONNECTOR_ID;
+import static com.facebook.presto.spi.block.SortOrder.ASC_NULLS_FIRST;
+import static com.facebook.presto.spi.block.SortOrder.DESC_NULLS_LAST;
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
+import static com.facebook.presto.testing.TestingTaskContext.createTaskContext;
+import static io.airlift.concurrent.Threads.daemonThreadsNamed;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static java.util.Arrays.asList;
+import static java.util.concurrent.Executors.newScheduledThreadPool;
+import static javax.ws.rs.core.HttpHeaders.CONTENT_TYPE;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+@Test(singleThreaded = true)
+public class TestMergeOperator
+{
+    private static final List<Type> TYPES = ImmutableList.of(BIGINT, VARCHAR);
+    private static final PagesSerdeFactory SERDE_FACTORY = new TestingPagesSerdeFactory();
+    private static final PagesSerde PAGES_SERDE = testingPagesSerde();
+
+    private final Map<String, List<Page>> taskBuffers = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService executor;
+    private ScheduledExecutorService scheduledExecutor;
+    private HttpClient httpClient;
+    private ExchangeClientSupplier exchangeClientSupplier;
+
+    @BeforeClass
+    public void setUp()
+    {
+        executor = newScheduledThreadPool(4, daemonThreadsNamed("test-%s"));
+        scheduledExecutor = newScheduledThreadPool(2, daemonThreadsNamed("test-scheduledExecutor-%s"));
+
+        httpClient = new TestingHttpClient(new HttpClientHandler(taskBuffers), executor);
+
+        exchangeClientSupplier = (systemMemoryUsageListener) -> new ExchangeClient(
+                new DataSize(32, MEGABYTE),
+                new DataSize(10, MEGABYTE),
+                3,
+                new Duration(1, TimeUnit.MINUTES),
+                new Duration(1, TimeUnit.MINUTES),
+                httpClient,
+                executor,
+                systemMemoryUsageListener);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown()
+    {
+        httpClient.close();
+        httpClient = null;
+
+        executor.shutdownNow();
+        executor = null;
+
+        scheduledExecutor.shutdownNow();
+        scheduledExecutor = null;
+    }
+
+    @BeforeMethod
+    public void setUpMethod()
+    {
+        taskBuffers.clear();
+    }
+
+    @Test
+    public void testMerge()
+            throws Exception
+    {
+        taskBuffers.put("task1", rowPagesBuilder(TYPES)
+                .row(null, "a")
+                .row(1L, "b")
+                .row(4L, "c")
+                .pageBreak()
+                .row(7L, "d")
+                .build());
+        taskBuffers.put("task2", rowPagesBuilder(TYPES)
+                .row(2L, "e")
+                .pageBreak()
+                .row(5L, "f")
+                .pageBreak()
+                .row(8L, "g")
+                .row(9L, "h")
+                .build());
+        taskBuffers.put("task3", rowPagesBuilder(TYPES)
+                .row(3L, "i")
+                .row(6L, "j")
+                .build());
+
+        MergeOperator operator = createMergeOperator(ImmutableList.of(0), ImmutableList.of(ASC_NULLS_FIRST));
+        operator.addSplit(newRemoteSplit("task1"));
+        operator.addSplit(newRemoteSplit("task2"));
+        operator.addSplit(newRemoteSplit("task3"));
+        operator.noMoreSplits();
+
+        List<Page> pages = readAll(operator);
+        assertEquals(getValues(pages, 0), asList(null, 1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L));
+        assertEquals(getValues(pages, 1), asList("a", "b", "e", "i", "c", "f", "j", "d", "g", "h"));
+    }
+
+    @Test
+    public void testMultipleSortChannels()
+            throws Exception
+    {
+        taskBuffers.put("task1", rowPagesBuilder(TYPES)
+                .row(2L, "b")
+                .row(1L, "a")
+                .row(1L, "c")
+                .build());
+        taskBuffers.put("task2", rowPagesBuilder(TYPES)
+                .row(2L, "a")
+                .row(1L, "b")
+                .row(null, "a")
+                .build());
+
+        MergeOperator operator = createMergeOperator(ImmutableList.of(0, 1), ImmutableList.of(DESC_NULLS_LAST, ASC_NULLS_FIRST));
+        operator.addSplit(newRemoteSplit("task1"));
+        operator.addSplit(newRemoteSplit("task2"));
+        operator.noMoreSplits();
+
+        List<Page> pages = readAll(operator);
+        assertEquals(getValues(pages, 0), asList(2L, 2L, 1L, 1L, 1L, null));
+        assertEquals(getValues(pages, 1), asList("a", "b", "a", "b", "c", "a"));
+    }
+
+    @Test
+    public void testEmptyStreams()
+            throws Exception
+    {
+        taskBuffers.put("task1", ImmutableList.of());
+        taskBuffers.put("task2", rowPagesBuilder(TYPES)
+                .row(1L, "a")
+                .row(2L, "b")
+                .build());
+
+        MergeOperator operator = createMergeOperator(ImmutableList.of(0), ImmutableList.of(ASC_NULLS_FIRST));
+        operator.addSplit(newRemoteSplit("task1"));
+        operator.addSplit(newRemoteSplit("task2"));
+        operator.noMoreSplits();
+
+        List<Page> pages = readAll(operator);
+        assertEquals(getValues(pages, 0), asList(1L, 2L));
+    }
+
+    @Test
+    public void testWaitForNoMoreSplits()
+            throws Exception
+    {
+        taskBuffers.put("task1", rowPagesBuilder(TYPES)
+                .row(2L, "a")
+                .build());
+        taskBuffers.put("task2", rowPagesBuilder(TYPES)
+                .row(1L, "b")
+                .build());
+
+        MergeOperator operator = createMergeOperator(ImmutableList.of(0), ImmutableList.of(ASC_NULLS_FIRST));
+        operator.addSplit(newRemoteSplit("task1"));
+
+        // the rows of the first stream can not be produced before all streams are known
+        assertFalse(operator.isBlocked().isDone());
+        assertNull(operator.getOutput());
+        assertFalse(operator.isFinished());
+
+        operator.addSplit(newRemoteSplit("task2"));
+        operator.noMoreSplits();
+        assertTrue(operator.isBlocked().isDone());
+
+        List<Page> pages = readAll(operator);
+        assertEquals(getValues(pages, 0), asList(1L, 2L));
+    }
+
+    private MergeOperator createMergeOperator(List<Integer> sortChannels, List<SortOrder> sortOrder)
+    {
+        MergeOperatorFactory operatorFactory = new MergeOperatorFactory(
+                0,
+                new PlanNodeId("test"),
+                exchangeClientSupplier,
+                SERDE_FACTORY,
+                TYPES,
+                sortChannels,
+                sortOrder);
+
+        DriverContext driverContext = createTaskContext(executor, scheduledExecutor, TEST_SESSION)
+                .addPipelineContext(0, true, true)
+                .addDriverContext();
+
+        return (MergeOperator) operatorFactory.createOperator(driverContext);
+    }
+
+    private static Split newRemoteSplit(String taskId)
+    {
+        return new Split(REMOTE_CONNECTOR_ID, new RemoteTransactionHandle(), new RemoteSplit(URI.create("http://localhost/" + taskId)));
+    }
+
+    private static List<Page> readAll(Operator operator)
+            throws InterruptedException
+    {
+        // read until finished or until 10 seconds has passed
+        long endTime = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        List<Page> pages = new ArrayList<>();
+        while (!operator.isFinished() && System.nanoTime() < endTime) {
+            assertFalse(operator.needsInput());
+            Page page = operator.getOutput();
+            if (page != null) {
+                pages.add(page);
+            }
+            else {
+                Thread.sleep(10);
+            }
+        }
+
+        assertTrue(operator.isFinished());
+        assertNull(operator.getOutput());
+        assertEquals(operator.getOperatorContext().getOperatorStats().getSystemMemoryReservation().toBytes(), 0);
+        return pages;
+    }
+
+    private static List<Object> getValues(List<Page> pages, int channel)
+    {
+        List<Object> values = new ArrayList<>();
+        for (Page page : pages) {
+            Block block = page.getBlock(channel);
+            for (int position = 0; position < block.getPositionCount(); position++) {
+                values.add(TYPES.get(channel).getObjectValue(TEST_SESSION.toConnectorSession(), block, position));
+            }
+        }
+        return values;
+    }
+
+    private static class HttpClientHandler
+            implements TestingHttpClient.Processor
+    {
+        private final Map<String, List<Page>> taskBuffers;
+
+        public HttpClientHandler(Map<String, List<Page>> taskBuffers)
+        {
+            this.taskBuffers = taskBuffers;
+        }
+
+        @Override
+        public Response handle(Request request)
+        {
+            ImmutableList<String> parts = ImmutableList.copyOf(Splitter.on("/").omitEmptyStrings().split(request.getUri().getPath()));
+            if (request.getMethod().equals("DELETE")) {
+                assertEquals(parts.size(), 1);
+                return new TestingResponse(HttpStatus.OK, ImmutableListMultimap.of(), new byte[0]);
+            }
+
+            assertEquals(parts.size(), 2);
+            String taskId = parts.get(0);
+            int pageToken = Integer.parseInt(parts.get(1));
+
+            Builder<String, String> headers = ImmutableListMultimap.builder();
+            headers.put(PRESTO_TASK_INSTANCE_ID, "task-instance-id");
+            headers.put(PRESTO_PAGE_TOKEN, String.valueOf(pageToken));
+            headers.put(CONTENT_TYPE, PRESTO_PAGES);
+
+            // all pages of a task are available, one page per response
+            List<Page> pages = taskBuffers.get(taskId);
+            if (pageToken < pages.size()) {
+                headers.put(PRESTO_PAGE_NEXT_TOKEN, String.valueOf(pageToken + 1));
+                headers.put(PRESTO_BUFFER_COMPLETE, String.valueOf(false));
+                DynamicSliceOutput output = new DynamicSliceOutput(256);
+                writePages(PAGES_SERDE, output, pages.get(pageToken));
+                return new TestingResponse(HttpStatus.OK, headers.build(), output.slice().getInput());
+            }
+            headers.put(PRESTO_PAGE_NEXT_TOKEN, String.valueOf(pageToken));
+            headers.put(PRESTO_BUFFER_COMPLETE, String.valueOf(true));
+            return new TestingResponse(HttpStatus.OK, headers.build(), new byte[0]);
+        }
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator.aggregation;
+
+import com.facebook.presto.metadata.MetadataManager;
+import com.facebook.presto.metadata.Signature;
+import com.facebook.presto.operator.GroupByIdBlock;
+import com.facebook.presto.spi.Page;
+import com.facebook.presto.spi.block.BlockBuilder;
+import com.facebook.presto.spi.block.BlockBuilderStatus;
+import com.facebook.presto.spi.type.Type;
+import com.google.common.collect.ImmutableList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.VerboseMode;
+import org.testng.annotations.Test;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static com.facebook.presto.metadata.FunctionKind.AGGREGATE;
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.spi.type.DoubleType.DOUBLE;
+import static java.lang.Math.toIntExact;
+import static org.openjdk.jmh.annotations.Level.Invocation;
+import static org.testng.Assert.assertEquals;
+
+@SuppressWarnings("MethodMayBeStatic")
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(2)
+@Warmup(iterations = 10, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 10, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@BenchmarkMode(Mode.AverageTime)
+public class BenchmarkGroupedAggregation
+{
+    private static final int POSITION_COUNT = 10_000;
+    private static final int PAGE_COUNT = 10;
+
+    @Benchmark
+    @OperationsPerInvocation(POSITION_COUNT * PAGE_COUNT)
+    public GroupedAccumulator groupedAggregation(BenchmarkData data)
+    {
+        GroupedAccumulator accumulator = data.getAccumulator();
+        for (int i = 0; i < PAGE_COUNT; i++) {
+            accumulator.addInput(data.getGroupIds(), data.getPage());
+        }
+        return accumulator;
+    }
+
+    @SuppressWarnings("FieldMayBeFinal")
+    @State(Scope.Thread)
+    public static class BenchmarkData
+    {
+        @Param({"sum", "count", "avg", "min", "max"})
+        private String name = "sum";
+
+        @Param({"10", "1000", "100000"})
+        private int groupCount = 1000;
+
+        @Param({"0", "0.1"})
+        private double nullRate;
+
+        private AccumulatorFactory accumulatorFactory;
+        private GroupedAccumulator accumulator;
+        private GroupByIdBlock groupIds;
+        private Page page;
+
+        @Setup
+        public void setup()
+        {
+            MetadataManager metadata = MetadataManager.createTestMetadataManager();
+            Type returnType = name.equals("avg") ? DOUBLE : BIGINT;
+            Signature signature = new Signature(name, AGGREGATE, returnType.getTypeSignature(), BIGINT.getTypeSignature());
+            InternalAggregationFunction function = metadata.getFunctionRegistry().getAggregateFunctionImplementation(signature);
+            accumulatorFactory = function.bind(ImmutableList.of(0), Optional.empty());
+
+            BlockBuilder groupIdsBuilder = BIGINT.createBlockBuilder(new BlockBuilderStatus(), POSITION_COUNT);
+            BlockBuilder valuesBuilder = BIGINT.createBlockBuilder(new BlockBuilderStatus(), POSITION_COUNT);
+            for (int position = 0; position < POSITION_COUNT; position++) {
+                BIGINT.writeLong(groupIdsBuilder, ThreadLocalRandom.current().nextInt(groupCount));
+                if (ThreadLocalRandom.current().nextDouble() < nullRate) {
+                    valuesBuilder.appendNull();
+                }
+                else {
+                    BIGINT.writeLong(valuesBuilder, ThreadLocalRandom.current().nextLong(1_000_000));
+                }
+            }
+            groupIds = new GroupByIdBlock(groupCount, groupIdsBuilder.build());
+            page = new Page(valuesBuilder.build());
+        }
+
+        @Setup(Invocation)
+        public void createAccumulator()
+        {
+            accumulator = accumulatorFactory.createGroupedAccumulator();
+        }
+
+        public GroupedAccumulator getAccumulator()
+        {
+            return accumulator;
+        }
+
+        public GroupByIdBlock getGroupIds()
+        {
+            return groupIds;
+        }
+
+        public Page getPage()
+        {
+            return page;
+        }
+    }
+
+    @Test
+    public void verify()
+    {
+        BenchmarkData data = new BenchmarkData();
+        data.setup();
+        data.createAccumulator();
+        GroupedAccumulator accumulator = new BenchmarkGroupedAggregation().groupedAggregation(data);
+
+        long expected = 0;
+        for (int position = 0; position < data.getPage().getPositionCount(); position++) {
+            expected += BIGINT.getLong(data.getPage().getBlock(0), position);
+        }
+        int groupCount = toIntExact(data.getGroupIds().getGroupCount());
+        BlockBuilder output = BIGINT.createBlockBuilder(new BlockBuilderStatus(), groupCount);
+        long actual = 0;
+        for (int groupId = 0; groupId < groupCount; groupId++) {
+            accumulator.evaluateFinal(groupId, output);
+            if (!output.isNull(groupId)) {
+                actual += BIGINT.getLong(output, groupId);
+            }
+        }
+        assertEquals(actual, expected * PAGE_COUNT);
+    }
+
+    public static void main(String[] args)
+            throws Throwable
+    {
+        Options options = new OptionsBuilder()
+                .verbosity(VerboseMode.NORMAL)
+                .include(".*" + BenchmarkGroupedAggregation.class.getSimpleName() + ".*")
+                .build();
+        new Runner(options).run();
+    }
+}
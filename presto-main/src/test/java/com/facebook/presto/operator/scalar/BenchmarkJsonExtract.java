@@ -0,0 +1,171 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator.scalar;
+
+import io.airlift.slice.DynamicSliceOutput;
+import io.airlift.slice.Slice;
+import io.airlift.slice.SliceOutput;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.VerboseMode;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+
+@SuppressWarnings("MethodMayBeStatic")
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(2)
+@Warmup(iterations = 10, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 10, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@BenchmarkMode(Mode.AverageTime)
+public class BenchmarkJsonExtract
+{
+    private static final int POSITION_COUNT = 1_000;
+    private static final int FIELD_COUNT = 20;
+
+    @Benchmark
+    @OperationsPerInvocation(POSITION_COUNT)
+    public void jacksonScalar(BenchmarkData data, Blackhole blackhole)
+    {
+        for (Slice json : data.getDocuments()) {
+            blackhole.consume(JsonExtract.extract(json, data.getJsonPath().getScalarExtractor()));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POSITION_COUNT)
+    public void scannerScalar(BenchmarkData data, Blackhole blackhole)
+    {
+        for (Slice json : data.getDocuments()) {
+            blackhole.consume(data.getJsonPath().extractScalar(json));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POSITION_COUNT)
+    public void jacksonJson(BenchmarkData data, Blackhole blackhole)
+    {
+        for (Slice json : data.getDocuments()) {
+            blackhole.consume(JsonExtract.extract(json, data.getJsonPath().getObjectExtractor()));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POSITION_COUNT)
+    public void scannerJson(BenchmarkData data, Blackhole blackhole)
+    {
+        for (Slice json : data.getDocuments()) {
+            blackhole.consume(data.getJsonPath().extractJson(json));
+        }
+    }
+
+    @SuppressWarnings("FieldMayBeFinal")
+    @State(Scope.Thread)
+    public static class BenchmarkData
+    {
+        // the path of a field at the start, in the middle and at the end of the payload
+        @Param({"$.field0", "$.field10", "$.payload.field19"})
+        private String path = "$.field10";
+
+        private Slice[] documents;
+        private JsonPath jsonPath;
+
+        @Setup
+        public void setup()
+        {
+            jsonPath = new JsonPath(path);
+            documents = new Slice[POSITION_COUNT];
+            for (int position = 0; position < POSITION_COUNT; position++) {
+                documents[position] = createDocument();
+            }
+        }
+
+        private static Slice createDocument()
+        {
+            SliceOutput output = new DynamicSliceOutput(2048);
+            output.appendByte('{');
+            appendFields(output);
+            output.appendBytes(", \"nested\": [{\"a\": [1, 2, 3]}, {\"b\": null}], \"payload\": {".getBytes());
+            appendFields(output);
+            output.appendBytes("}}".getBytes());
+            return output.slice();
+        }
+
+        private static void appendFields(SliceOutput output)
+        {
+            for (int field = 0; field < FIELD_COUNT; field++) {
+                if (field != 0) {
+                    output.appendBytes(", ".getBytes());
+                }
+                String value;
+                if (field % 2 == 0) {
+                    value = Long.toString(ThreadLocalRandom.current().nextLong());
+                }
+                else {
+                    value = "\"value " + ThreadLocalRandom.current().nextInt() + "\"";
+                }
+                output.appendBytes(("\"field" + field + "\": " + value).getBytes());
+            }
+        }
+
+        public Slice[] getDocuments()
+        {
+            return documents;
+        }
+
+        public JsonPath getJsonPath()
+        {
+            return jsonPath;
+        }
+    }
+
+    @Test
+    public void verify()
+    {
+        BenchmarkData data = new BenchmarkData();
+        data.setup();
+        for (Slice json : data.getDocuments()) {
+            assertEquals(data.getJsonPath().extractScalar(json), JsonExtract.extract(json, data.getJsonPath().getScalarExtractor()));
+            assertEquals(data.getJsonPath().extractJson(json), JsonExtract.extract(json, data.getJsonPath().getObjectExtractor()));
+        }
+    }
+
+    public static void main(String[] args)
+            throws Throwable
+    {
+        Options options = new OptionsBuilder()
+                .verbosity(VerboseMode.NORMAL)
+                .include(".*" + BenchmarkJsonExtract.class.getSimpleName() + ".*")
+                .build();
+        new Runner(options).run();
+    }
+}
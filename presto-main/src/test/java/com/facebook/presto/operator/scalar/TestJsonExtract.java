@@ -16,6 +16,7 @@ package com.facebook.presto.operator.scalar;
 import com.facebook.presto.spi.PrestoException;
 import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonParser;
+import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableList;
 import io.airlift.slice.Slice;
 import io.airlift.slice.Slices;
@@ -317,6 +318,51 @@ public class TestJsonExtract
         assertEquals(doJsonExtract("{\"15day\" : 0, \"30day\" : 1, \"90day\" : 2, }", "$[\"30day\"]"), "1");
     }
 
+    @Test
+    public void testScannerMatchesJackson()
+    {
+        String json = "{\"a\": {\"b\": [1, -2.5e3, true, false, null, \"x\\\"y\\u00e9\\n\", \"\u00e9\u4e2d\ud83d\ude00\"], \"c\": {}, \"d\": []}, \"e\": \"f\"}";
+        for (String path : ImmutableList.of("$", "$.a", "$.a.b", "$.a.c", "$.a.d", "$.a.d[0]", "$.e", "$.missing", "$.a.b[9]", "$.a.b[0].x", "$.e.x")) {
+            assertScannerMatchesJackson(json, path);
+        }
+        for (int index = 0; index < 8; index++) {
+            assertScannerMatchesJackson(json, "$.a.b[" + index + "]");
+        }
+
+        // empty and scalar documents
+        assertScannerMatchesJackson("", "$");
+        assertScannerMatchesJackson("  ", "$.a");
+        assertScannerMatchesJackson("1 ", "$");
+        assertScannerMatchesJackson("1,", "$");
+        assertScannerMatchesJackson("1x", "$");
+        assertScannerMatchesJackson("\"abc\" x", "$");
+        assertScannerMatchesJackson("true", "$.a");
+
+        // malformed documents
+        assertScannerMatchesJackson("{\"a\": 1", "$.a");
+        assertScannerMatchesJackson("{\"a\": 1", "$.b");
+        assertScannerMatchesJackson("{\"a\": 01, \"b\": 2}", "$.b");
+        assertScannerMatchesJackson("{\"a\": 1.}", "$.a");
+        assertScannerMatchesJackson("{\"a\": tru, \"b\": 2}", "$.b");
+        assertScannerMatchesJackson("{\"a\": [1, 2,], \"b\": 2}", "$.b");
+        assertScannerMatchesJackson("{\"a\": [1 2], \"b\": 2}", "$.b");
+        assertScannerMatchesJackson("{\"a\": \"\\q\", \"b\": 2}", "$.b");
+        assertScannerMatchesJackson("{\"a\": \"\t\", \"b\": 2}", "$.b");
+        assertScannerMatchesJackson("{a: 1, \"b\": 2}", "$.b");
+        assertScannerMatchesJackson("{\"a\" 1}", "$.a");
+        assertScannerMatchesJackson("{\"a\": 1}}", "$.a");
+        assertScannerMatchesJackson("[1, 2", "$[1]");
+
+        // field names and values that are left to Jackson
+        assertScannerMatchesJackson("{\"\\u0061\": 1}", "$.a");
+        assertScannerMatchesJackson("{\"a\": \"\\ud83d\\ude00\"}", "$.a");
+        assertScannerMatchesJackson("\ufeff{\"a\": 1}", "$.a");
+        assertScannerMatchesJackson(Slices.wrappedBuffer(new byte[] {'{', '"', 'a', '"', ':', '"', (byte) 0xC0, (byte) 0x80, '"', '}'}), "$.a");
+        assertScannerMatchesJackson(Slices.wrappedBuffer(new byte[] {'{', 0, '"', 0, 'a', 0, '"', 0, ':', 0, '1', 0, '}', 0}), "$.a");
+        assertScannerMatchesJackson(Strings.repeat("[", 100) + Strings.repeat("]", 100), "$[0]");
+        assertScannerMatchesJackson("{\"a\": " + Strings.repeat("[", 100) + Strings.repeat("]", 100) + ", \"b\": 1}", "$.b");
+    }
+
     @Test
     public void testInvalidExtracts()
     {
@@ -343,15 +389,30 @@ public class TestJsonExtract
     private static String doScalarExtract(String inputJson, String jsonPath)
     {
         Slice value = JsonExtract.extract(Slices.utf8Slice(inputJson), generateExtractor(jsonPath, new ScalarValueJsonExtractor()));
+        assertEquals(new JsonPath(jsonPath).extractScalar(Slices.utf8Slice(inputJson)), value);
         return (value == null) ? null : value.toStringUtf8();
     }
 
     private static String doJsonExtract(String inputJson, String jsonPath)
     {
         Slice value = JsonExtract.extract(Slices.utf8Slice(inputJson), generateExtractor(jsonPath, new JsonValueJsonExtractor()));
+        assertEquals(new JsonPath(jsonPath).extractJson(Slices.utf8Slice(inputJson)), value);
         return (value == null) ? null : value.toStringUtf8();
     }
 
+    private static void assertScannerMatchesJackson(String inputJson, String jsonPath)
+    {
+        assertScannerMatchesJackson(Slices.utf8Slice(inputJson), jsonPath);
+    }
+
+    private static void assertScannerMatchesJackson(Slice inputJson, String jsonPath)
+    {
+        JsonPath path = new JsonPath(jsonPath);
+        assertEquals(path.extractScalar(inputJson), JsonExtract.extract(inputJson, path.getScalarExtractor()));
+        assertEquals(path.extractJson(inputJson), JsonExtract.extract(inputJson, path.getObjectExtractor()));
+        assertEquals(path.extractSize(inputJson), JsonExtract.extract(inputJson, path.getSizeExtractor()));
+    }
+
     private static List<String> tokenizePath(String path)
     {
         return ImmutableList.copyOf(new JsonPathTokenizer(path));
@@ -14,14 +14,21 @@
 package com.facebook.presto.operator.window;
 
 import com.facebook.presto.testing.MaterializedResult;
+import com.facebook.presto.testing.MaterializedRow;
 import org.intellij.lang.annotations.Language;
 import org.testng.annotations.Test;
 
+import java.util.List;
+
 import static com.facebook.presto.SessionTestUtils.TEST_SESSION;
 import static com.facebook.presto.spi.type.BigintType.BIGINT;
 import static com.facebook.presto.spi.type.IntegerType.INTEGER;
 import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
 import static com.facebook.presto.testing.MaterializedResult.resultBuilder;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.String.format;
+import static org.testng.Assert.assertEquals;
 
 public class TestAggregateWindowFunction
         extends AbstractTestWindowFunction
@@ -532,4 +539,64 @@ public class TestAggregateWindowFunction
                         .row(null, null, null)
                         .build());
     }
+
+    @Test
+    public void testLargeMovingFrames()
+    {
+        assertLargeMovingFrame("ROWS BETWEEN 99 PRECEDING AND CURRENT ROW", 99, 0);
+        assertLargeMovingFrame("ROWS BETWEEN 150 PRECEDING AND 50 PRECEDING", 150, -50);
+        assertLargeMovingFrame("ROWS BETWEEN 40 PRECEDING AND 40 FOLLOWING", 40, 40);
+        assertLargeMovingFrame("ROWS BETWEEN 10 FOLLOWING AND 60 FOLLOWING", -10, 60);
+    }
+
+    private void assertLargeMovingFrame(String frame, int preceding, int following)
+    {
+        int rowCount = 500;
+        String window = "OVER (ORDER BY x " + frame + ")";
+        MaterializedResult actual = queryRunner.execute(format("" +
+                        "SELECT x, count(*) %1$s, count(v) %1$s, sum(v) %1$s, min(v) %1$s, max(v) %1$s, avg(v) %1$s, max_by(x, v * 1000 + x) %1$s\n" +
+                        "FROM (SELECT x, if(x %% 7 = 0, NULL, x %% 50) v FROM UNNEST(sequence(1, %2$s)) t(x))\n" +
+                        "ORDER BY x",
+                window,
+                rowCount));
+
+        List<MaterializedRow> rows = actual.getMaterializedRows();
+        assertEquals(rows.size(), rowCount);
+        for (int position = 0; position < rowCount; position++) {
+            long frameRows = 0;
+            long count = 0;
+            long sum = 0;
+            Long minValue = null;
+            Long maxValue = null;
+            Long maxBy = null;
+            long maxByKey = Long.MIN_VALUE;
+            for (int framePosition = max(0, position - preceding); framePosition <= min(rowCount - 1, position + following); framePosition++) {
+                long x = framePosition + 1;
+                frameRows++;
+                if (x % 7 == 0) {
+                    continue;
+                }
+                long value = x % 50;
+                count++;
+                sum += value;
+                minValue = (minValue == null) ? value : min(minValue, value);
+                maxValue = (maxValue == null) ? value : max(maxValue, value);
+                if (value * 1000 + x > maxByKey) {
+                    maxByKey = value * 1000 + x;
+                    maxBy = x;
+                }
+            }
+
+            MaterializedRow row = rows.get(position);
+            String message = frame + " at row " + (position + 1);
+            assertEquals(row.getField(0), position + 1L, message);
+            assertEquals(row.getField(1), frameRows, message);
+            assertEquals(row.getField(2), count, message);
+            assertEquals(row.getField(3), count == 0 ? null : sum, message);
+            assertEquals(row.getField(4), minValue, message);
+            assertEquals(row.getField(5), maxValue, message);
+            assertEquals(row.getField(6), count == 0 ? null : (double) sum / count, message);
+            assertEquals(row.getField(7), maxBy, message);
+        }
+    }
 }
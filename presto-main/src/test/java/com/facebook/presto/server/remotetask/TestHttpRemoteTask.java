@@ -400,7 +400,8 @@ public class TestHttpRemoteTask
                     initialTaskStatus.getFailures(),
                     initialTaskStatus.getQueuedPartitionedDrivers(),
                     initialTaskStatus.getRunningPartitionedDrivers(),
-                    initialTaskStatus.getMemoryReservation());
+                    initialTaskStatus.getMemoryReservation(),
+                    initialTaskStatus.getTotalCpuTime());
         }
     }
 }
@@ -0,0 +1,141 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.server.remotetask;
+
+import com.facebook.presto.execution.TaskId;
+import com.facebook.presto.execution.TaskInfo;
+import com.facebook.presto.execution.TaskStatus;
+import com.facebook.presto.operator.TaskStats;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import io.airlift.http.client.testing.TestingHttpClient;
+import io.airlift.http.client.testing.TestingResponse;
+import io.airlift.json.JsonCodec;
+import io.airlift.units.DataSize;
+import io.airlift.units.Duration;
+import org.joda.time.DateTime;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import java.net.URI;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.facebook.presto.execution.TaskInfo.createInitialTask;
+import static com.facebook.presto.execution.TaskState.PLANNED;
+import static com.facebook.presto.execution.TaskState.RUNNING;
+import static com.facebook.presto.execution.TaskStatus.STARTING_VERSION;
+import static com.google.common.net.HttpHeaders.CONTENT_TYPE;
+import static com.google.common.net.MediaType.JSON_UTF_8;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+import static com.google.common.util.concurrent.MoreExecutors.newDirectExecutorService;
+import static io.airlift.concurrent.Threads.daemonThreadsNamed;
+import static io.airlift.http.client.HttpStatus.OK;
+import static io.airlift.json.JsonCodec.jsonCodec;
+import static io.airlift.units.DataSize.Unit.BYTE;
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.testng.Assert.assertEquals;
+
+public class TestTaskInfoFetcher
+{
+    private static final JsonCodec<TaskInfo> TASK_INFO_CODEC = jsonCodec(TaskInfo.class);
+    private static final TaskId TASK_ID = new TaskId("test", 1, 2);
+    private static final URI TASK_LOCATION = URI.create("http://fake.invalid/task/test.1.2");
+
+    private final ScheduledExecutorService errorScheduledExecutor = newSingleThreadScheduledExecutor(daemonThreadsNamed("test-error-%s"));
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown()
+    {
+        errorScheduledExecutor.shutdownNow();
+    }
+
+    @Test
+    public void testNoFetchWithoutRequest()
+            throws Exception
+    {
+        AtomicInteger requests = new AtomicInteger();
+        TaskInfoFetcher fetcher = createTaskInfoFetcher(requests, new Duration(1, MILLISECONDS));
+        fetcher.start();
+
+        // the update interval elapses many times, but nothing asks for a refresh
+        MILLISECONDS.sleep(100);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(fetcher.getTaskInfo().getTaskStatus().getState(), PLANNED);
+        }
+        assertEquals(requests.get(), 0);
+
+        fetcher.refreshTaskInfo();
+        assertEquals(requests.get(), 1);
+        assertEquals(fetcher.getTaskInfo().getTaskStatus().getState(), RUNNING);
+    }
+
+    @Test
+    public void testRefreshHonorsUpdateInterval()
+    {
+        AtomicInteger requests = new AtomicInteger();
+        TaskInfoFetcher fetcher = createTaskInfoFetcher(requests, new Duration(1, MINUTES));
+        fetcher.start();
+
+        fetcher.refreshTaskInfo();
+        assertEquals(requests.get(), 1);
+
+        // the cached info is fresh
+        fetcher.refreshTaskInfo();
+        fetcher.refreshTaskInfo();
+        assertEquals(requests.get(), 1);
+    }
+
+    private TaskInfoFetcher createTaskInfoFetcher(AtomicInteger requests, Duration updateInterval)
+    {
+        TaskInfo initialTaskInfo = createInitialTask(TASK_ID, TASK_LOCATION, "node", ImmutableList.of(), new TaskStats(DateTime.now(), null));
+        TaskInfo runningTaskInfo = initialTaskInfo.withTaskStatus(new TaskStatus(
+                TASK_ID,
+                "task-instance-id",
+                STARTING_VERSION,
+                RUNNING,
+                TASK_LOCATION,
+                "node",
+                ImmutableList.of(),
+                0,
+                0,
+                new DataSize(0, BYTE),
+                new Duration(0, MILLISECONDS)));
+
+        // requests are executed and their responses processed on the calling thread
+        TestingHttpClient httpClient = new TestingHttpClient(
+                request -> {
+                    requests.incrementAndGet();
+                    return new TestingResponse(OK, ImmutableListMultimap.of(CONTENT_TYPE, JSON_UTF_8.toString()), TASK_INFO_CODEC.toJsonBytes(runningTaskInfo));
+                },
+                newDirectExecutorService());
+
+        return new TaskInfoFetcher(
+                failure -> {
+                    throw new AssertionError("Unexpected failure", failure);
+                },
+                initialTaskInfo,
+                httpClient,
+                updateInterval,
+                TASK_INFO_CODEC,
+                new Duration(1, MINUTES),
+                new Duration(1, MINUTES),
+                true,
+                directExecutor(),
+                errorScheduledExecutor,
+                new RemoteTaskStats());
+    }
+}
@@ -14,7 +14,8 @@
 package com.facebook.presto.sql;
 
 import com.facebook.presto.spi.PrestoException;
-import io.airlift.joni.Regex;
+import com.facebook.presto.type.LikePattern;
+import io.airlift.joni.Option;
 import io.airlift.slice.Slice;
 import io.airlift.slice.Slices;
 import org.testng.annotations.Test;
@@ -35,14 +36,14 @@ public class TestLikeFunctions
     @Test
     public void testLikeBasic()
     {
-        Regex regex = likePattern(utf8Slice("f%b__"));
+        LikePattern regex = likePattern(utf8Slice("f%b__"));
         assertTrue(like(utf8Slice("foobar"), regex));
     }
 
     @Test
     public void testLikeSpacesInPattern()
     {
-        Regex regex = likePattern(utf8Slice("ala  "));
+        LikePattern regex = likePattern(utf8Slice("ala  "));
         assertTrue(like(utf8Slice("ala  "), regex));
         assertFalse(like(utf8Slice("ala"), regex));
 
@@ -54,28 +55,28 @@ public class TestLikeFunctions
     @Test
     public void testLikeNewlineInPattern()
     {
-        Regex regex = likePattern(utf8Slice("%o\nbar"));
+        LikePattern regex = likePattern(utf8Slice("%o\nbar"));
         assertTrue(like(utf8Slice("foo\nbar"), regex));
     }
 
     @Test
     public void testLikeNewlineBeforeMatch()
     {
-        Regex regex = likePattern(utf8Slice("%b%"));
+        LikePattern regex = likePattern(utf8Slice("%b%"));
         assertTrue(like(utf8Slice("foo\nbar"), regex));
     }
 
     @Test
     public void testLikeNewlineInMatch()
     {
-        Regex regex = likePattern(utf8Slice("f%b%"));
+        LikePattern regex = likePattern(utf8Slice("f%b%"));
         assertTrue(like(utf8Slice("foo\nbar"), regex));
     }
 
     @Test(timeOut = 1000)
     public void testLikeUtf8Pattern()
     {
-        Regex regex = likePattern(utf8Slice("%\u540d\u8a89%"), utf8Slice("\\"));
+        LikePattern regex = likePattern(utf8Slice("%\u540d\u8a89%"), utf8Slice("\\"));
         assertFalse(like(utf8Slice("foo"), regex));
     }
 
@@ -84,15 +85,97 @@ public class TestLikeFunctions
     public void testLikeInvalidUtf8Value()
     {
         Slice value = Slices.wrappedBuffer(new byte[] {'a', 'b', 'c', (byte) 0xFF, 'x', 'y'});
-        Regex regex = likePattern(utf8Slice("%b%"), utf8Slice("\\"));
+        LikePattern regex = likePattern(utf8Slice("%b%"), utf8Slice("\\"));
         assertTrue(like(value, regex));
     }
 
+    @Test
+    public void testLikeLiteralPatterns()
+    {
+        LikePattern regex = likePattern(utf8Slice("abc"));
+        assertTrue(like(utf8Slice("abc"), regex));
+        assertFalse(like(utf8Slice("abcd"), regex));
+        assertFalse(like(utf8Slice("xabc"), regex));
+
+        regex = likePattern(utf8Slice("abc%"));
+        assertTrue(like(utf8Slice("abc"), regex));
+        assertTrue(like(utf8Slice("abcdef"), regex));
+        assertFalse(like(utf8Slice("ab"), regex));
+        assertFalse(like(utf8Slice("xabc"), regex));
+
+        regex = likePattern(utf8Slice("%abc"));
+        assertTrue(like(utf8Slice("abc"), regex));
+        assertTrue(like(utf8Slice("xyzabc"), regex));
+        assertFalse(like(utf8Slice("abcx"), regex));
+
+        regex = likePattern(utf8Slice("%abc%"));
+        assertTrue(like(utf8Slice("abc"), regex));
+        assertTrue(like(utf8Slice("xabcx"), regex));
+        assertFalse(like(utf8Slice("abxc"), regex));
+
+        regex = likePattern(utf8Slice("a%b%%c%d"));
+        assertTrue(like(utf8Slice("abcd"), regex));
+        assertTrue(like(utf8Slice("a1b2c3d"), regex));
+        assertFalse(like(utf8Slice("acbd"), regex));
+        assertFalse(like(utf8Slice("abd"), regex));
+
+        // the infixes and the suffix must not overlap
+        regex = likePattern(utf8Slice("a%bc%c"));
+        assertTrue(like(utf8Slice("abcc"), regex));
+        assertFalse(like(utf8Slice("abc"), regex));
+
+        regex = likePattern(utf8Slice("%"));
+        assertTrue(like(utf8Slice(""), regex));
+        assertTrue(like(utf8Slice("abc"), regex));
+
+        regex = likePattern(utf8Slice(""));
+        assertTrue(like(utf8Slice(""), regex));
+        assertFalse(like(utf8Slice("abc"), regex));
+
+        regex = likePattern(utf8Slice("\u540d%\u8a89"));
+        assertTrue(like(utf8Slice("\u540d \u8a89"), regex));
+        assertFalse(like(utf8Slice("\u540d"), regex));
+    }
+
+    @Test
+    public void testLikeLiteralPatternsWithNewline()
+    {
+        // matches the regular expression, where the end of the pattern also matches before a line break
+        LikePattern regex = likePattern(utf8Slice("%bar"));
+        assertTrue(like(utf8Slice("foo\nbar"), regex));
+        assertEquals(like(utf8Slice("bar\n"), regex), regexMatches(regex, utf8Slice("bar\n")));
+
+        regex = likePattern(utf8Slice("foo"));
+        assertEquals(like(utf8Slice("foo\n"), regex), regexMatches(regex, utf8Slice("foo\n")));
+        assertEquals(like(utf8Slice("foo\nx"), regex), regexMatches(regex, utf8Slice("foo\nx")));
+
+        regex = likePattern(utf8Slice("f%"));
+        assertTrue(like(utf8Slice("f\n"), regex));
+        assertFalse(like(utf8Slice("\nf"), regex));
+    }
+
+    @SuppressWarnings("NumericCastThatLosesPrecision")
+    @Test(timeOut = 1000)
+    public void testLikeLiteralPatternsInvalidUtf8Value()
+    {
+        Slice value = Slices.wrappedBuffer(new byte[] {'a', 'b', (byte) 0xFF, 'c'});
+        LikePattern regex = likePattern(utf8Slice("ab%c"));
+        assertEquals(like(value, regex), regexMatches(regex, value));
+        regex = likePattern(utf8Slice("%x%"));
+        assertEquals(like(value, regex), regexMatches(regex, value));
+    }
+
+    private static boolean regexMatches(LikePattern pattern, Slice value)
+    {
+        byte[] bytes = value.getBytes();
+        return pattern.getRegex().matcher(bytes).match(0, bytes.length, Option.NONE) != -1;
+    }
+
     @Test
     public void testBackslashesNoSpecialTreatment()
             throws Exception
     {
-        Regex regex = likePattern(utf8Slice("\\abc\\/\\\\"));
+        LikePattern regex = likePattern(utf8Slice("\\abc\\/\\\\"));
         assertTrue(like(utf8Slice("\\abc\\/\\\\"), regex));
     }
 
@@ -100,7 +183,7 @@ public class TestLikeFunctions
     public void testSelfEscaping()
             throws Exception
     {
-        Regex regex = likePattern(utf8Slice("\\\\abc\\%"), utf8Slice("\\"));
+        LikePattern regex = likePattern(utf8Slice("\\\\abc\\%"), utf8Slice("\\"));
         assertTrue(like(utf8Slice("\\abc%"), regex));
     }
 
@@ -108,7 +191,7 @@ public class TestLikeFunctions
     public void testAlternateEscapedCharacters()
             throws Exception
     {
-        Regex regex = likePattern(utf8Slice("xxx%x_abcxx"), utf8Slice("x"));
+        LikePattern regex = likePattern(utf8Slice("xxx%x_abcxx"), utf8Slice("x"));
         assertTrue(like(utf8Slice("x%_abcx"), regex));
     }
 
@@ -39,8 +39,11 @@ public class TestFeaturesConfig
                 .setDistributedJoinsEnabled(true)
                 .setFastInequalityJoins(true)
                 .setColocatedJoinsEnabled(false)
+                .setGroupedExecutionEnabled(false)
+                .setConcurrentLifespansPerTask(1)
                 .setJoinReorderingEnabled(true)
                 .setRedistributeWrites(true)
+                .setDistributedSortEnabled(false)
                 .setOptimizeMetadataQueries(false)
                 .setOptimizeHashGeneration(true)
                 .setOptimizeSingleDistinct(true)
@@ -65,7 +68,8 @@ public class TestFeaturesConfig
                 .setExchangeCompressionEnabled(false)
                 .setEnableIntermediateAggregations(false)
                 .setPushAggregationThroughJoin(true)
-                .setForceSingleNodeOutput(true));
+                .setForceSingleNodeOutput(true)
+                .setOptimizeCommonSubExpressions(true));
     }
 
     @Test
@@ -82,8 +86,11 @@ public class TestFeaturesConfig
                 .put("distributed-joins-enabled", "false")
                 .put("fast-inequality-joins", "false")
                 .put("colocated-joins-enabled", "true")
+                .put("grouped-execution-enabled", "true")
+                .put("concurrent-lifespans-per-task", "2")
                 .put("reorder-joins", "false")
                 .put("redistribute-writes", "false")
+                .put("distributed-sort", "true")
                 .put("optimizer.optimize-metadata-queries", "true")
                 .put("optimizer.optimize-hash-generation", "false")
                 .put("optimizer.optimize-single-distinct", "false")
@@ -104,6 +111,7 @@ public class TestFeaturesConfig
                 .put("exchange.compression-enabled", "true")
                 .put("optimizer.enable-intermediate-aggregations", "true")
                 .put("optimizer.force-single-node-output", "false")
+                .put("optimizer.optimize-common-sub-expressions", "false")
                 .build();
 
         FeaturesConfig expected = new FeaturesConfig()
@@ -114,8 +122,11 @@ public class TestFeaturesConfig
                 .setDistributedJoinsEnabled(false)
                 .setFastInequalityJoins(false)
                 .setColocatedJoinsEnabled(true)
+                .setGroupedExecutionEnabled(true)
+                .setConcurrentLifespansPerTask(2)
                 .setJoinReorderingEnabled(false)
                 .setRedistributeWrites(false)
+                .setDistributedSortEnabled(true)
                 .setOptimizeMetadataQueries(true)
                 .setOptimizeHashGeneration(false)
                 .setOptimizeSingleDistinct(false)
@@ -138,7 +149,8 @@ public class TestFeaturesConfig
                 .setLegacyOrderBy(true)
                 .setExchangeCompressionEnabled(true)
                 .setEnableIntermediateAggregations(true)
-                .setForceSingleNodeOutput(false);
+                .setForceSingleNodeOutput(false)
+                .setOptimizeCommonSubExpressions(false);
 
         assertFullMapping(properties, expected);
     }
@@ -0,0 +1,157 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.sql.gen;
+
+import com.facebook.presto.metadata.MetadataManager;
+import com.facebook.presto.metadata.Signature;
+import com.facebook.presto.operator.DriverYieldSignal;
+import com.facebook.presto.operator.project.PageProcessor;
+import com.facebook.presto.spi.Page;
+import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.block.BlockBuilder;
+import com.facebook.presto.sql.gen.CommonSubExpressionExtractor.Result;
+import com.facebook.presto.sql.relational.CallExpression;
+import com.facebook.presto.sql.relational.DeterminismEvaluator;
+import com.facebook.presto.sql.relational.RowExpression;
+import com.google.common.collect.ImmutableList;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static com.facebook.presto.metadata.MetadataManager.createTestMetadataManager;
+import static com.facebook.presto.metadata.Signature.internalOperator;
+import static com.facebook.presto.spi.function.OperatorType.ADD;
+import static com.facebook.presto.spi.function.OperatorType.LESS_THAN;
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.spi.type.BooleanType.BOOLEAN;
+import static com.facebook.presto.sql.gen.CommonSubExpressionExtractor.extractCommonSubExpressions;
+import static com.facebook.presto.sql.relational.Expressions.call;
+import static com.facebook.presto.sql.relational.Expressions.constant;
+import static com.facebook.presto.sql.relational.Expressions.field;
+import static com.facebook.presto.sql.relational.Signatures.logicalExpressionSignature;
+import static com.facebook.presto.sql.tree.LogicalBinaryExpression.Type.AND;
+import static com.facebook.presto.testing.TestingConnectorSession.SESSION;
+import static com.google.common.collect.Iterators.getOnlyElement;
+import static org.testng.Assert.assertEquals;
+
+public class TestCommonSubExpressionExtractor
+{
+    private static final Signature ADD_BIGINT = internalOperator(ADD, BIGINT.getTypeSignature(), ImmutableList.of(BIGINT.getTypeSignature(), BIGINT.getTypeSignature()));
+    private static final Signature LESS_THAN_BIGINT = internalOperator(LESS_THAN, BOOLEAN.getTypeSignature(), ImmutableList.of(BIGINT.getTypeSignature(), BIGINT.getTypeSignature()));
+
+    private final MetadataManager metadata = createTestMetadataManager();
+    private final DeterminismEvaluator determinismEvaluator = new DeterminismEvaluator(metadata.getFunctionRegistry());
+
+    @Test
+    public void testSharedWithFilter()
+    {
+        RowExpression common = add(field(0, BIGINT), constant(10L, BIGINT));
+        Result result = extractCommonSubExpressions(
+                Optional.of(lessThan(common, constant(15L, BIGINT))),
+                ImmutableList.of(common, add(common, constant(10L, BIGINT))),
+                determinismEvaluator);
+
+        assertEquals(result.getInputChannelCount(), 1);
+        assertEquals(result.getFilterCommonSubExpressions(), ImmutableList.of(common));
+        assertEquals(result.getProjectionCommonSubExpressions(), ImmutableList.of());
+        assertEquals(result.getFilter(), Optional.of(lessThan(field(1, BIGINT), constant(15L, BIGINT))));
+        assertEquals(result.getProjections(), ImmutableList.of(field(1, BIGINT), add(field(1, BIGINT), constant(10L, BIGINT))));
+    }
+
+    @Test
+    public void testSharedByProjections()
+    {
+        RowExpression common = add(field(0, BIGINT), constant(10L, BIGINT));
+        RowExpression filter = lessThan(field(1, BIGINT), constant(5L, BIGINT));
+        Result result = extractCommonSubExpressions(
+                Optional.of(filter),
+                ImmutableList.of(common, add(common, constant(10L, BIGINT))),
+                determinismEvaluator);
+
+        assertEquals(result.getInputChannelCount(), 2);
+        assertEquals(result.getFilterCommonSubExpressions(), ImmutableList.of());
+        assertEquals(result.getProjectionCommonSubExpressions(), ImmutableList.of(common));
+        assertEquals(result.getFilter(), Optional.of(filter));
+        assertEquals(result.getProjections(), ImmutableList.of(field(2, BIGINT), add(field(2, BIGINT), constant(10L, BIGINT))));
+    }
+
+    @Test
+    public void testConditionalEvaluationIsNotHoisted()
+    {
+        // the filter only evaluates the common expression for rows that pass the first conjunct
+        RowExpression common = add(field(0, BIGINT), constant(10L, BIGINT));
+        RowExpression filter = call(
+                logicalExpressionSignature(AND),
+                BOOLEAN,
+                lessThan(field(1, BIGINT), constant(5L, BIGINT)),
+                lessThan(common, constant(15L, BIGINT)));
+        Result result = extractCommonSubExpressions(Optional.of(filter), ImmutableList.of(common), determinismEvaluator);
+
+        assertEquals(result.getFilterCommonSubExpressions(), ImmutableList.of());
+        assertEquals(result.getProjectionCommonSubExpressions(), ImmutableList.of());
+        assertEquals(result.getFilter(), Optional.of(filter));
+        assertEquals(result.getProjections(), ImmutableList.of(common));
+    }
+
+    @Test
+    public void testProcessPage()
+    {
+        ExpressionCompiler compiler = new ExpressionCompiler(metadata, new PageFunctionCompiler(metadata, 0));
+        RowExpression common = add(field(0, BIGINT), constant(10L, BIGINT));
+        List<RowExpression> projections = ImmutableList.of(common, add(common, constant(10L, BIGINT)), field(1, BIGINT));
+        Page page = new Page(createLongBlock(0, 7, 1, 8, 2, 9), createLongBlock(1, 9, 2, 9, 3, 9));
+
+        // shared with the filter
+        PageProcessor processor = compiler.compilePageProcessor(Optional.of(lessThan(common, constant(15L, BIGINT))), projections).get();
+        Page output = getOnlyElement(processor.process(SESSION, new DriverYieldSignal(), page)).orElseThrow(() -> new AssertionError("page is not present"));
+        assertLongs(output.getBlock(0), 10, 11, 12);
+        assertLongs(output.getBlock(1), 20, 21, 22);
+        assertLongs(output.getBlock(2), 1, 2, 3);
+
+        // shared by the projections of the selected rows
+        processor = compiler.compilePageProcessor(Optional.of(lessThan(field(1, BIGINT), constant(5L, BIGINT))), projections).get();
+        output = getOnlyElement(processor.process(SESSION, new DriverYieldSignal(), page)).orElseThrow(() -> new AssertionError("page is not present"));
+        assertLongs(output.getBlock(0), 10, 11, 12);
+        assertLongs(output.getBlock(1), 20, 21, 22);
+        assertLongs(output.getBlock(2), 1, 2, 3);
+    }
+
+    private static CallExpression add(RowExpression left, RowExpression right)
+    {
+        return call(ADD_BIGINT, BIGINT, left, right);
+    }
+
+    private static CallExpression lessThan(RowExpression left, RowExpression right)
+    {
+        return call(LESS_THAN_BIGINT, BOOLEAN, left, right);
+    }
+
+    private static Block createLongBlock(long... values)
+    {
+        BlockBuilder builder = BIGINT.createFixedSizeBlockBuilder(values.length);
+        for (long value : values) {
+            BIGINT.writeLong(builder, value);
+        }
+        return builder.build();
+    }
+
+    private static void assertLongs(Block block, long... expected)
+    {
+        assertEquals(block.getPositionCount(), expected.length);
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(BIGINT.getLong(block, i), expected[i]);
+        }
+    }
+}
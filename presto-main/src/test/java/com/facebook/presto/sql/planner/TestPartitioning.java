@@ -0,0 +1,140 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.sql.planner;
+
+import com.facebook.presto.Session;
+import com.facebook.presto.connector.ConnectorId;
+import com.facebook.presto.metadata.AbstractMockMetadata;
+import com.facebook.presto.metadata.TableHandle;
+import com.facebook.presto.spi.ColumnHandle;
+import com.facebook.presto.spi.connector.ConnectorPartitioningHandle;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import org.testng.annotations.Test;
+
+import java.util.Objects;
+import java.util.Optional;
+
+import static com.facebook.presto.SessionTestUtils.TEST_SESSION;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestPartitioning
+{
+    private static final ConnectorId CONNECTOR_ID = new ConnectorId("test");
+    private static final Symbol LEFT_KEY = new Symbol("left_key");
+    private static final Symbol RIGHT_KEY = new Symbol("right_key");
+    private static final Symbol RIGHT_OTHER = new Symbol("right_other");
+
+    @Test
+    public void testSameHandleDoesNotConsultMetadata()
+    {
+        Partitioning left = partitioning(8, LEFT_KEY);
+        Partitioning right = partitioning(8, RIGHT_KEY);
+
+        CommonPartitioningMetadata metadata = new CommonPartitioningMetadata(false);
+        assertTrue(left.isPartitionedWith(right, metadata, TEST_SESSION, symbol -> ImmutableSet.of(RIGHT_KEY), symbol -> Optional.empty(), symbol -> Optional.empty()));
+        assertEquals(metadata.getCommonPartitioningCalls(), 0);
+    }
+
+    @Test
+    public void testCommonPartitioning()
+    {
+        Partitioning left = partitioning(8, LEFT_KEY);
+        Partitioning right = partitioning(32, RIGHT_KEY);
+
+        assertTrue(left.isPartitionedWith(right, new CommonPartitioningMetadata(true), TEST_SESSION, symbol -> ImmutableSet.of(RIGHT_KEY), symbol -> Optional.empty(), symbol -> Optional.empty()));
+        assertFalse(left.isPartitionedWith(right, new CommonPartitioningMetadata(false), TEST_SESSION, symbol -> ImmutableSet.of(RIGHT_KEY), symbol -> Optional.empty(), symbol -> Optional.empty()));
+
+        // a common partitioning handle does not make partitionings on different columns compatible
+        Partitioning rightOther = partitioning(32, RIGHT_OTHER);
+        assertFalse(left.isPartitionedWith(rightOther, new CommonPartitioningMetadata(true), TEST_SESSION, symbol -> ImmutableSet.of(RIGHT_KEY), symbol -> Optional.empty(), symbol -> Optional.empty()));
+    }
+
+    private static Partitioning partitioning(int bucketCount, Symbol column)
+    {
+        PartitioningHandle handle = new PartitioningHandle(Optional.of(CONNECTOR_ID), Optional.of(TestingConnectorTransactionHandle.INSTANCE), new TestingPartitioningHandle(bucketCount));
+        return Partitioning.create(handle, ImmutableList.of(column));
+    }
+
+    private static class CommonPartitioningMetadata
+            extends AbstractMockMetadata
+    {
+        private final boolean compatible;
+        private int commonPartitioningCalls;
+
+        public CommonPartitioningMetadata(boolean compatible)
+        {
+            this.compatible = compatible;
+        }
+
+        public int getCommonPartitioningCalls()
+        {
+            return commonPartitioningCalls;
+        }
+
+        @Override
+        public Optional<PartitioningHandle> getCommonPartitioning(Session session, PartitioningHandle left, PartitioningHandle right)
+        {
+            commonPartitioningCalls++;
+            if (!compatible) {
+                return Optional.empty();
+            }
+            int leftBucketCount = ((TestingPartitioningHandle) left.getConnectorHandle()).getBucketCount();
+            int rightBucketCount = ((TestingPartitioningHandle) right.getConnectorHandle()).getBucketCount();
+            return Optional.of(leftBucketCount <= rightBucketCount ? left : right);
+        }
+
+        @Override
+        public void dropColumn(Session session, TableHandle tableHandle, ColumnHandle column)
+        {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private static class TestingPartitioningHandle
+            implements ConnectorPartitioningHandle
+    {
+        private final int bucketCount;
+
+        public TestingPartitioningHandle(int bucketCount)
+        {
+            this.bucketCount = bucketCount;
+        }
+
+        public int getBucketCount()
+        {
+            return bucketCount;
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            return bucketCount == ((TestingPartitioningHandle) obj).bucketCount;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(bucketCount);
+        }
+    }
+}
@@ -0,0 +1,303 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.sql.planner.iterative.rule;
+
+import com.facebook.presto.Session;
+import com.facebook.presto.connector.ConnectorId;
+import com.facebook.presto.cost.PlanNodeCost;
+import com.facebook.presto.metadata.AbstractMockMetadata;
+import com.facebook.presto.metadata.AggregationPushDownResult;
+import com.facebook.presto.metadata.FunctionRegistry;
+import com.facebook.presto.metadata.Metadata;
+import com.facebook.presto.metadata.TableHandle;
+import com.facebook.presto.metadata.TableLayoutHandle;
+import com.facebook.presto.spi.AggregateFunction;
+import com.facebook.presto.spi.ColumnHandle;
+import com.facebook.presto.spi.SortingProperty;
+import com.facebook.presto.sql.planner.Symbol;
+import com.facebook.presto.sql.planner.assertions.MatchResult;
+import com.facebook.presto.sql.planner.assertions.Matcher;
+import com.facebook.presto.sql.planner.assertions.PlanMatchPattern;
+import com.facebook.presto.sql.planner.assertions.SymbolAliases;
+import com.facebook.presto.sql.planner.iterative.rule.test.BaseRuleTest;
+import com.facebook.presto.sql.planner.iterative.rule.test.PlanBuilder;
+import com.facebook.presto.sql.planner.plan.LimitNode;
+import com.facebook.presto.sql.planner.plan.PlanNode;
+import com.facebook.presto.sql.planner.plan.TableScanNode;
+import com.facebook.presto.sql.planner.plan.TopNNode;
+import com.facebook.presto.testing.TestingTransactionHandle;
+import com.facebook.presto.tpch.TpchColumnHandle;
+import com.facebook.presto.tpch.TpchTableHandle;
+import com.facebook.presto.tpch.TpchTableLayoutHandle;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.facebook.presto.spi.block.SortOrder.ASC_NULLS_FIRST;
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.sql.planner.assertions.PlanMatchPattern.node;
+import static com.facebook.presto.sql.planner.iterative.rule.test.PlanBuilder.expression;
+import static com.facebook.presto.sql.planner.plan.AggregationNode.Step.PARTIAL;
+import static com.facebook.presto.sql.planner.plan.AggregationNode.Step.SINGLE;
+import static com.google.common.base.Preconditions.checkState;
+import static org.testng.Assert.assertEquals;
+
+public class TestPushDownIntoTableScan
+        extends BaseRuleTest
+{
+    private static final ColumnHandle NATIONKEY = new TpchColumnHandle("nationkey", BIGINT);
+    private static final ColumnHandle REGIONKEY = new TpchColumnHandle("regionkey", BIGINT);
+    private static final ColumnHandle AGGREGATE = new TpchColumnHandle("aggregate", BIGINT);
+
+    private TableHandle nationTableHandle;
+    private TableLayoutHandle nationTableLayoutHandle;
+    private TableLayoutHandle pushedDownLayoutHandle;
+
+    @BeforeMethod
+    public void setUpPerMethod()
+    {
+        ConnectorId connectorId = tester().getCurrentConnectorId();
+        TpchTableHandle tableHandle = new TpchTableHandle(connectorId.toString(), "nation", 1.0);
+        nationTableHandle = new TableHandle(connectorId, tableHandle);
+        nationTableLayoutHandle = new TableLayoutHandle(connectorId, TestingTransactionHandle.create(), new TpchTableLayoutHandle(tableHandle, Optional.empty()));
+        pushedDownLayoutHandle = new TableLayoutHandle(connectorId, TestingTransactionHandle.create(), new TpchTableLayoutHandle(tableHandle, Optional.empty()));
+    }
+
+    @Test
+    public void testDoesNotFireWithoutConnectorSupport()
+    {
+        PushDownIntoTableScan rules = new PushDownIntoTableScan(new PushDownMetadata(tester().getMetadata().getFunctionRegistry(), false, Optional.empty()));
+
+        tester().assertThat(rules.pushLimitIntoTableScan())
+                .on(p -> p.limit(10, nationScan(p)))
+                .doesNotFire();
+        tester().assertThat(rules.pushTopNIntoTableScan())
+                .on(p -> p.topN(10, ImmutableList.of(p.symbol("nationkey", BIGINT)), nationScan(p)))
+                .doesNotFire();
+        tester().assertThat(rules.pushPartialAggregationIntoTableScan())
+                .on(p -> p.aggregation(builder -> builder
+                        .source(nationScan(p))
+                        .addAggregation(p.symbol("max", BIGINT), expression("max(nationkey)"), ImmutableList.of(BIGINT))
+                        .addGroupingSet(p.symbol("regionkey", BIGINT))
+                        .step(PARTIAL)))
+                .doesNotFire();
+    }
+
+    @Test
+    public void testDoesNotFireWithoutLayout()
+    {
+        PushDownMetadata metadata = new PushDownMetadata(tester().getMetadata().getFunctionRegistry(), true, Optional.of(AGGREGATE));
+        tester().assertThat(new PushDownIntoTableScan(metadata).pushLimitIntoTableScan())
+                .on(p -> p.limit(10, p.tableScan(
+                        nationTableHandle,
+                        ImmutableList.of(p.symbol("nationkey", BIGINT)),
+                        ImmutableMap.of(p.symbol("nationkey", BIGINT), NATIONKEY))))
+                .doesNotFire();
+        assertEquals(metadata.getCalls(), 0);
+    }
+
+    @Test
+    public void testPushDownLimit()
+    {
+        PushDownMetadata metadata = new PushDownMetadata(tester().getMetadata().getFunctionRegistry(), true, Optional.empty());
+        tester().assertThat(new PushDownIntoTableScan(metadata).pushLimitIntoTableScan())
+                .on(p -> p.limit(10, nationScan(p)))
+                .matches(node(LimitNode.class, tableScanWithLayout(pushedDownLayoutHandle, ImmutableSet.of(NATIONKEY, REGIONKEY))));
+        assertEquals(metadata.getLimit(), 10);
+    }
+
+    @Test
+    public void testPushDownTopN()
+    {
+        PushDownMetadata metadata = new PushDownMetadata(tester().getMetadata().getFunctionRegistry(), true, Optional.empty());
+        tester().assertThat(new PushDownIntoTableScan(metadata).pushTopNIntoTableScan())
+                .on(p -> p.topN(5, ImmutableList.of(p.symbol("regionkey", BIGINT)), nationScan(p)))
+                .matches(node(TopNNode.class, tableScanWithLayout(pushedDownLayoutHandle, ImmutableSet.of(NATIONKEY, REGIONKEY))));
+        assertEquals(metadata.getLimit(), 5);
+        assertEquals(metadata.getOrdering(), ImmutableList.of(new SortingProperty<>(REGIONKEY, ASC_NULLS_FIRST)));
+    }
+
+    @Test
+    public void testPushDownPartialAggregation()
+    {
+        PushDownMetadata metadata = new PushDownMetadata(tester().getMetadata().getFunctionRegistry(), true, Optional.of(AGGREGATE));
+        tester().assertThat(new PushDownIntoTableScan(metadata).pushPartialAggregationIntoTableScan())
+                .on(p -> p.aggregation(builder -> builder
+                        .source(nationScan(p))
+                        .addAggregation(p.symbol("max", BIGINT), expression("max(nationkey)"), ImmutableList.of(BIGINT))
+                        .addGroupingSet(p.symbol("regionkey", BIGINT))
+                        .step(PARTIAL)))
+                .matches(tableScanWithLayout(pushedDownLayoutHandle, ImmutableSet.of(REGIONKEY, AGGREGATE)));
+
+        assertEquals(metadata.getGroupingColumns(), ImmutableList.of(REGIONKEY));
+        assertEquals(metadata.getAggregates().size(), 1);
+        AggregateFunction aggregate = metadata.getAggregates().get(0);
+        assertEquals(aggregate.getName(), "max");
+        assertEquals(aggregate.getArguments(), ImmutableList.of(NATIONKEY));
+        assertEquals(aggregate.getIntermediateType(), BIGINT);
+    }
+
+    @Test
+    public void testDoesNotPushDownSingleAggregation()
+    {
+        PushDownMetadata metadata = new PushDownMetadata(tester().getMetadata().getFunctionRegistry(), true, Optional.of(AGGREGATE));
+        tester().assertThat(new PushDownIntoTableScan(metadata).pushPartialAggregationIntoTableScan())
+                .on(p -> p.aggregation(builder -> builder
+                        .source(nationScan(p))
+                        .addAggregation(p.symbol("max", BIGINT), expression("max(nationkey)"), ImmutableList.of(BIGINT))
+                        .addGroupingSet(p.symbol("regionkey", BIGINT))
+                        .step(SINGLE)))
+                .doesNotFire();
+    }
+
+    @Test
+    public void testDoesNotPushDownMaskedAggregation()
+    {
+        PushDownMetadata metadata = new PushDownMetadata(tester().getMetadata().getFunctionRegistry(), true, Optional.of(AGGREGATE));
+        tester().assertThat(new PushDownIntoTableScan(metadata).pushPartialAggregationIntoTableScan())
+                .on(p -> p.aggregation(builder -> builder
+                        .source(nationScan(p))
+                        .addAggregation(p.symbol("max", BIGINT), expression("max(nationkey)"), ImmutableList.of(BIGINT), p.symbol("regionkey", BIGINT))
+                        .globalGrouping()
+                        .step(PARTIAL)))
+                .doesNotFire();
+        assertEquals(metadata.getCalls(), 0);
+    }
+
+    private TableScanNode nationScan(PlanBuilder p)
+    {
+        Symbol nationkey = p.symbol("nationkey", BIGINT);
+        Symbol regionkey = p.symbol("regionkey", BIGINT);
+        return p.tableScan(
+                nationTableHandle,
+                ImmutableList.of(nationkey, regionkey),
+                ImmutableMap.of(nationkey, NATIONKEY, regionkey, REGIONKEY),
+                expression("true"),
+                Optional.of(nationTableLayoutHandle));
+    }
+
+    private static PlanMatchPattern tableScanWithLayout(TableLayoutHandle layout, Set<ColumnHandle> columns)
+    {
+        return node(TableScanNode.class).with(new Matcher()
+        {
+            @Override
+            public boolean shapeMatches(PlanNode node)
+            {
+                return node instanceof TableScanNode;
+            }
+
+            @Override
+            public MatchResult detailMatches(PlanNode node, PlanNodeCost planNodeCost, Session session, Metadata metadata, SymbolAliases symbolAliases)
+            {
+                checkState(shapeMatches(node), "Plan testing framework error: shapeMatches returned false in detailMatches in %s", this.getClass().getName());
+                TableScanNode tableScan = (TableScanNode) node;
+                return new MatchResult(tableScan.getLayout().equals(Optional.of(layout)) &&
+                        ImmutableSet.copyOf(tableScan.getAssignments().values()).equals(columns));
+            }
+        });
+    }
+
+    private class PushDownMetadata
+            extends AbstractMockMetadata
+    {
+        private final FunctionRegistry functionRegistry;
+        private final boolean supported;
+        private final Optional<ColumnHandle> aggregateColumn;
+
+        private int calls;
+        private long limit;
+        private List<SortingProperty<ColumnHandle>> ordering;
+        private List<ColumnHandle> groupingColumns;
+        private List<AggregateFunction> aggregates;
+
+        public PushDownMetadata(FunctionRegistry functionRegistry, boolean supported, Optional<ColumnHandle> aggregateColumn)
+        {
+            this.functionRegistry = functionRegistry;
+            this.supported = supported;
+            this.aggregateColumn = aggregateColumn;
+        }
+
+        public int getCalls()
+        {
+            return calls;
+        }
+
+        public long getLimit()
+        {
+            return limit;
+        }
+
+        public List<SortingProperty<ColumnHandle>> getOrdering()
+        {
+            return ordering;
+        }
+
+        public List<ColumnHandle> getGroupingColumns()
+        {
+            return groupingColumns;
+        }
+
+        public List<AggregateFunction> getAggregates()
+        {
+            return aggregates;
+        }
+
+        @Override
+        public FunctionRegistry getFunctionRegistry()
+        {
+            return functionRegistry;
+        }
+
+        @Override
+        public Optional<TableLayoutHandle> pushDownLimit(Session session, TableLayoutHandle tableLayoutHandle, long limit)
+        {
+            calls++;
+            this.limit = limit;
+            return supported ? Optional.of(pushedDownLayoutHandle) : Optional.empty();
+        }
+
+        @Override
+        public Optional<TableLayoutHandle> pushDownTopN(Session session, TableLayoutHandle tableLayoutHandle, long count, List<SortingProperty<ColumnHandle>> ordering)
+        {
+            calls++;
+            this.limit = count;
+            this.ordering = ordering;
+            return supported ? Optional.of(pushedDownLayoutHandle) : Optional.empty();
+        }
+
+        @Override
+        public Optional<AggregationPushDownResult> pushDownPartialAggregation(Session session, TableLayoutHandle tableLayoutHandle, List<ColumnHandle> groupingColumns, List<AggregateFunction> aggregates)
+        {
+            calls++;
+            this.groupingColumns = groupingColumns;
+            this.aggregates = aggregates;
+            if (!supported) {
+                return Optional.empty();
+            }
+            return aggregateColumn.map(column -> new AggregationPushDownResult(pushedDownLayoutHandle, ImmutableList.of(column)));
+        }
+
+        @Override
+        public void dropColumn(Session session, TableHandle tableHandle, ColumnHandle column)
+        {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -49,6 +49,7 @@ import com.facebook.presto.sql.planner.plan.JoinNode;
 import com.facebook.presto.sql.planner.plan.LateralJoinNode;
 import com.facebook.presto.sql.planner.plan.LimitNode;
 import com.facebook.presto.sql.planner.plan.MarkDistinctNode;
+import com.facebook.presto.sql.planner.plan.OrderingScheme;
 import com.facebook.presto.sql.planner.plan.OutputNode;
 import com.facebook.presto.sql.planner.plan.PlanNode;
 import com.facebook.presto.sql.planner.plan.ProjectNode;
@@ -410,6 +411,7 @@ public class PlanBuilder
         private PartitioningScheme partitioningScheme;
         private List<PlanNode> sources = new ArrayList<>();
         private List<List<Symbol>> inputs = new ArrayList<>();
+        private Optional<OrderingScheme> orderingScheme = Optional.empty();
 
         public ExchangeBuilder type(ExchangeNode.Type type)
         {
@@ -466,9 +468,15 @@ public class PlanBuilder
             return this;
         }
 
+        public ExchangeBuilder orderingScheme(OrderingScheme orderingScheme)
+        {
+            this.orderingScheme = Optional.of(orderingScheme);
+            return this;
+        }
+
         protected ExchangeNode build()
         {
-            return new ExchangeNode(idAllocator.getNextId(), type, scope, partitioningScheme, sources, inputs);
+            return new ExchangeNode(idAllocator.getNextId(), type, scope, partitioningScheme, sources, inputs, orderingScheme);
         }
     }
 
@@ -0,0 +1,56 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.sql.planner.optimizations;
+
+import com.facebook.presto.Session;
+import com.facebook.presto.sql.planner.assertions.BasePlanTest;
+import com.facebook.presto.sql.planner.plan.ExchangeNode;
+import org.testng.annotations.Test;
+
+import static com.facebook.presto.SystemSessionProperties.DISTRIBUTED_SORT;
+import static com.facebook.presto.sql.planner.assertions.PlanMatchPattern.anyTree;
+import static com.facebook.presto.sql.planner.assertions.PlanMatchPattern.exchange;
+import static com.facebook.presto.sql.planner.assertions.PlanMatchPattern.output;
+import static com.facebook.presto.sql.planner.assertions.PlanMatchPattern.sort;
+import static com.facebook.presto.sql.planner.assertions.PlanMatchPattern.tableScan;
+
+public class TestDistributedSort
+        extends BasePlanTest
+{
+    @Test
+    public void testOrderBy()
+    {
+        // sort on a single node
+        assertPlanWithSession("SELECT orderkey FROM orders ORDER BY orderkey", distributedSort(false), false,
+                output(
+                        sort(
+                                anyTree(
+                                        exchange(ExchangeNode.Scope.REMOTE, ExchangeNode.Type.GATHER,
+                                                tableScan("orders"))))));
+        // sort on every worker, and merge the sorted streams
+        assertPlanWithSession("SELECT orderkey FROM orders ORDER BY orderkey", distributedSort(true), false,
+                output(
+                        exchange(ExchangeNode.Scope.REMOTE, ExchangeNode.Type.GATHER,
+                                sort(
+                                        anyTree(
+                                                tableScan("orders"))))));
+    }
+
+    private Session distributedSort(boolean enabled)
+    {
+        return Session.builder(this.getQueryRunner().getDefaultSession())
+                .setSystemProperty(DISTRIBUTED_SORT, Boolean.toString(enabled))
+                .build();
+    }
+}
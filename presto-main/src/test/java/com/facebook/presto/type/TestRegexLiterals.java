@@ -0,0 +1,85 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.type;
+
+import org.testng.annotations.Test;
+
+import java.util.Optional;
+
+import static com.facebook.presto.type.RegexLiterals.findRequiredLiteral;
+import static org.testng.Assert.assertEquals;
+
+public class TestRegexLiterals
+{
+    @Test
+    public void testRequiredLiteral()
+    {
+        assertRequiredLiteral("abc", "abc");
+        assertRequiredLiteral(".*abc.*", "abc");
+        assertRequiredLiteral("^abc$", "abc");
+        assertRequiredLiteral("ab.cdef", "cdef");
+        assertRequiredLiteral("\\b[a-z]{5}ly\\b", "ly");
+        assertRequiredLiteral("x\\d+hello\\s", "hello");
+        assertRequiredLiteral("a\\.b\\+c", "a.b+c");
+        assertRequiredLiteral("(foo|bar)bazz", "bazz");
+        assertRequiredLiteral("(?:foo|bar)bazz", "bazz");
+        assertRequiredLiteral("[(|]abc", "abc");
+        assertRequiredLiteral("[]a]bcd", "bcd");
+        assertRequiredLiteral("\u540d\u8a89.x", "\u540d\u8a89");
+    }
+
+    @Test
+    public void testOptionalCharacters()
+    {
+        assertRequiredLiteral("abcd*", "abc");
+        assertRequiredLiteral("abcd?e", "abc");
+        assertRequiredLiteral("abcd{0,2}", "abc");
+        assertRequiredLiteral("abcd{2}", "abc");
+        assertRequiredLiteral("abcd+", "abcd");
+        assertRequiredLiteral("abcd*?xy", "abc");
+        assertRequiredLiteral("a\\.*bc", "bc");
+        assertRequiredLiteral("a\u540d\u8a89?", "a\u540d");
+        assertNoRequiredLiteral("a*");
+        assertNoRequiredLiteral("(abc)*");
+    }
+
+    @Test
+    public void testNoRequiredLiteral()
+    {
+        assertNoRequiredLiteral("");
+        assertNoRequiredLiteral(".*");
+        assertNoRequiredLiteral("[abc]+");
+        assertNoRequiredLiteral("abc|def");
+        assertNoRequiredLiteral("(?i)abc");
+        assertNoRequiredLiteral("abc(?i)def");
+        assertNoRequiredLiteral("abc\\x41");
+        assertNoRequiredLiteral("abc\\p{L}");
+        assertNoRequiredLiteral("\\Qabc\\E");
+        assertNoRequiredLiteral("abc{x}");
+        assertNoRequiredLiteral("abc)");
+        assertNoRequiredLiteral("(abc");
+        assertNoRequiredLiteral("[[:alpha:]]abc");
+        assertNoRequiredLiteral("abc\\");
+    }
+
+    private static void assertRequiredLiteral(String pattern, String expected)
+    {
+        assertEquals(findRequiredLiteral(pattern), Optional.of(expected));
+    }
+
+    private static void assertNoRequiredLiteral(String pattern)
+    {
+        assertEquals(findRequiredLiteral(pattern), Optional.empty());
+    }
+}
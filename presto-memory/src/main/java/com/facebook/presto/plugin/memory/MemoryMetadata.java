@@ -318,7 +318,11 @@ public class MemoryMetadata
         List<MemoryDataFragment> expectedFragments = ImmutableList.copyOf(
                 tableDataFragments.get(memoryTableHandle.getTableId()).values());
 
-        MemoryTableLayoutHandle layoutHandle = new MemoryTableLayoutHandle(memoryTableHandle, expectedFragments);
+        // the constraint is used to skip the pages that can not match it, but it is not enforced
+        MemoryTableLayoutHandle layoutHandle = new MemoryTableLayoutHandle(
+                memoryTableHandle,
+                expectedFragments,
+                constraint.getSummary().transform(MemoryColumnHandle.class::cast));
         return ImmutableList.of(new ConnectorTableLayoutResult(getTableLayout(session, layoutHandle), constraint.getSummary()));
     }
 
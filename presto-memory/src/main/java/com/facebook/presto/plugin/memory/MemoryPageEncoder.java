@@ -0,0 +1,163 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.plugin.memory;
+
+import com.facebook.presto.spi.Page;
+import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.block.DictionaryBlock;
+import com.facebook.presto.spi.block.RunLengthEncodedBlock;
+import com.facebook.presto.spi.type.Type;
+import com.google.common.primitives.Ints;
+import io.airlift.slice.Slice;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.lang.Double.doubleToRawLongBits;
+
+/**
+ * Re-encodes the blocks of the pages that are stored in the memory connector.
+ * Columns with a single value are stored as run length encoded blocks, and variable
+ * width columns with few distinct values are stored as dictionary blocks.
+ */
+public final class MemoryPageEncoder
+{
+    // a dictionary is only used if it has at most this fraction of the positions
+    private static final double MAX_DICTIONARY_RATIO = 0.5;
+
+    private MemoryPageEncoder() {}
+
+    public static Page encode(Page page, List<Type> types)
+    {
+        checkArgument(page.getChannelCount() == types.size(), "page has %s channels, but %s types were provided", page.getChannelCount(), types.size());
+
+        Block[] blocks = new Block[page.getChannelCount()];
+        for (int channel = 0; channel < blocks.length; channel++) {
+            blocks[channel] = encode(page.getBlock(channel), types.get(channel));
+        }
+        return new Page(page.getPositionCount(), blocks);
+    }
+
+    public static Block encode(Block block, Type type)
+    {
+        if (block instanceof DictionaryBlock || block instanceof RunLengthEncodedBlock || block.getPositionCount() == 0) {
+            return block;
+        }
+        if (!type.isComparable()) {
+            return block.copyRegion(0, block.getPositionCount());
+        }
+        if (isSingleValue(block, type)) {
+            return new RunLengthEncodedBlock(block.getSingleValueBlock(0), block.getPositionCount());
+        }
+        if (type.getJavaType() == Slice.class) {
+            Block dictionaryBlock = tryCreateDictionary(block, type);
+            if (dictionaryBlock != null) {
+                return dictionaryBlock;
+            }
+        }
+        // the block may be a view of a larger block, or have spare capacity
+        return block.copyRegion(0, block.getPositionCount());
+    }
+
+    private static boolean isSingleValue(Block block, Type type)
+    {
+        boolean firstIsNull = block.isNull(0);
+        for (int position = 1; position < block.getPositionCount(); position++) {
+            boolean isNull = block.isNull(position);
+            if (isNull != firstIsNull) {
+                return false;
+            }
+            if (!isNull && !isIdentical(block, type, 0, position)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Compares the stored representation of two non-null values. {@link Type#equalTo} cannot be
+     * used, because it treats some distinct values as equal, such as {@code 0.0} and {@code -0.0},
+     * or timestamps with the same instant in different time zones.
+     */
+    private static boolean isIdentical(Block block, Type type, int left, int right)
+    {
+        Class<?> javaType = type.getJavaType();
+        if (javaType == long.class) {
+            return type.getLong(block, left) == type.getLong(block, right);
+        }
+        if (javaType == double.class) {
+            return doubleToRawLongBits(type.getDouble(block, left)) == doubleToRawLongBits(type.getDouble(block, right));
+        }
+        if (javaType == boolean.class) {
+            return type.getBoolean(block, left) == type.getBoolean(block, right);
+        }
+        if (javaType == Slice.class) {
+            int length = block.getSliceLength(left);
+            return length == block.getSliceLength(right) && block.equals(left, 0, block, right, 0, length);
+        }
+        // the elements of structural values are not compared, so they are never considered identical
+        return false;
+    }
+
+    private static Block tryCreateDictionary(Block block, Type type)
+    {
+        int positionCount = block.getPositionCount();
+        int maxDictionarySize = (int) (positionCount * MAX_DICTIONARY_RATIO);
+
+        // open addressing hash table of positions in the block, which are the dictionary entries
+        // the table is at least twice the maximum number of entries, so it always has free slots
+        int hashSize = Integer.highestOneBit(Math.max(maxDictionarySize, 1) * 2) * 2;
+        int mask = hashSize - 1;
+        int[] hashTable = new int[hashSize];
+        Arrays.fill(hashTable, -1);
+
+        int[] dictionaryPositions = new int[maxDictionarySize + 1];
+        int[] dictionaryIds = new int[positionCount];
+        int dictionarySize = 0;
+        int nullId = -1;
+        int[] ids = new int[positionCount];
+
+        for (int position = 0; position < positionCount; position++) {
+            int id;
+            if (block.isNull(position)) {
+                if (nullId < 0) {
+                    nullId = dictionarySize;
+                    dictionaryPositions[dictionarySize++] = position;
+                }
+                id = nullId;
+            }
+            else {
+                int slot = (int) type.hash(block, position) & mask;
+                while (hashTable[slot] != -1 && !isIdentical(block, type, hashTable[slot], position)) {
+                    slot = (slot + 1) & mask;
+                }
+                if (hashTable[slot] == -1) {
+                    hashTable[slot] = position;
+                    dictionaryIds[position] = dictionarySize;
+                    dictionaryPositions[dictionarySize++] = position;
+                }
+                id = dictionaryIds[hashTable[slot]];
+            }
+
+            if (dictionarySize > maxDictionarySize) {
+                return null;
+            }
+            ids[position] = id;
+        }
+
+        Block dictionary = block.copyPositions(Ints.asList(Arrays.copyOf(dictionaryPositions, dictionarySize)));
+        return new DictionaryBlock(positionCount, dictionary, ids);
+    }
+}
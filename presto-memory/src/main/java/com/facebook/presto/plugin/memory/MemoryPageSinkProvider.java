@@ -22,6 +22,7 @@ import com.facebook.presto.spi.NodeManager;
 import com.facebook.presto.spi.Page;
 import com.facebook.presto.spi.connector.ConnectorPageSinkProvider;
 import com.facebook.presto.spi.connector.ConnectorTransactionHandle;
+import com.facebook.presto.spi.type.Type;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
 import io.airlift.slice.Slice;
@@ -29,11 +30,13 @@ import io.airlift.slice.Slice;
 import javax.inject.Inject;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 import static com.google.common.base.Preconditions.checkState;
 import static java.util.Objects.requireNonNull;
 import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.stream.Collectors.toList;
 
 public class MemoryPageSinkProvider
         implements ConnectorPageSinkProvider
@@ -63,7 +66,7 @@ public class MemoryPageSinkProvider
         checkState(memoryOutputTableHandle.getActiveTableIds().contains(tableId));
 
         pagesStore.cleanUp(memoryOutputTableHandle.getActiveTableIds());
-        pagesStore.initialize(tableId);
+        pagesStore.initialize(tableId, getColumnTypes(tableHandle));
         return new MemoryPageSink(pagesStore, currentHostAddress, tableId);
     }
 
@@ -76,10 +79,17 @@ public class MemoryPageSinkProvider
         checkState(memoryInsertTableHandle.getActiveTableIds().contains(tableId));
 
         pagesStore.cleanUp(memoryInsertTableHandle.getActiveTableIds());
-        pagesStore.initialize(tableId);
+        pagesStore.initialize(tableId, getColumnTypes(tableHandle));
         return new MemoryPageSink(pagesStore, currentHostAddress, tableId);
     }
 
+    private static List<Type> getColumnTypes(MemoryTableHandle tableHandle)
+    {
+        return tableHandle.getColumnHandles().stream()
+                .map(MemoryColumnHandle::getColumnType)
+                .collect(toList());
+    }
+
     private static class MemoryPageSink
             implements ConnectorPageSink
     {
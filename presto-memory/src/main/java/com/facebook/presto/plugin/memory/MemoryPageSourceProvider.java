@@ -61,7 +61,8 @@ public final class MemoryPageSourceProvider
                 partNumber,
                 totalParts,
                 columnIndexes,
-                expectedRows);
+                expectedRows,
+                memorySplit.getConstraint().transform(MemoryColumnHandle::getColumnIndex));
 
         return new FixedPageSource(pages);
     }
@@ -16,7 +16,14 @@ package com.facebook.presto.plugin.memory;
 import com.facebook.presto.spi.Page;
 import com.facebook.presto.spi.PrestoException;
 import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.predicate.Domain;
+import com.facebook.presto.spi.predicate.Range;
+import com.facebook.presto.spi.predicate.TupleDomain;
+import com.facebook.presto.spi.predicate.ValueSet;
+import com.facebook.presto.spi.type.Type;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 
 import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.ThreadSafe;
@@ -24,25 +31,35 @@ import javax.inject.Inject;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static com.facebook.presto.plugin.memory.MemoryErrorCode.MEMORY_LIMIT_EXCEEDED;
 import static com.facebook.presto.plugin.memory.MemoryErrorCode.MISSING_DATA;
+import static com.facebook.presto.spi.type.DoubleType.DOUBLE;
+import static com.facebook.presto.spi.type.RealType.REAL;
+import static com.facebook.presto.spi.type.TypeUtils.readNativeValue;
 import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
 
+/**
+ * Stores the pages of the memory tables on a worker. The pages are re-encoded when
+ * they are added, see {@link MemoryPageEncoder}, and the range of values of every
+ * page is kept, so that pages which can not match the constraint of a query are not
+ * read. Every table has its own lock, so that tables can be written and read
+ * concurrently.
+ */
 @ThreadSafe
 public class MemoryPagesStore
 {
     private final long maxBytes;
 
-    @GuardedBy("this")
-    private long currentBytes = 0;
+    private final AtomicLong currentBytes = new AtomicLong();
 
-    private final Map<Long, TableData> tables = new HashMap<>();
+    private final Map<Long, TableData> tables = new ConcurrentHashMap<>();
 
     @Inject
     public MemoryPagesStore(MemoryConfig config)
@@ -50,60 +67,60 @@ public class MemoryPagesStore
         this.maxBytes = config.getMaxDataPerNode().toBytes();
     }
 
-    public synchronized void initialize(long tableId)
+    public void initialize(long tableId, List<Type> columnTypes)
     {
-        if (!tables.containsKey(tableId)) {
-            tables.put(tableId, new TableData());
-        }
+        tables.computeIfAbsent(tableId, id -> new TableData(columnTypes));
     }
 
-    public synchronized void add(Long tableId, Page page)
+    public void add(Long tableId, Page page)
     {
-        if (!contains(tableId)) {
-            throw new PrestoException(MISSING_DATA, "Failed to find table on a worker.");
-        }
+        TableData tableData = getTableData(tableId);
 
-        long newSize = currentBytes + page.getRetainedSizeInBytes();
-        if (maxBytes < newSize) {
-            throw new PrestoException(MEMORY_LIMIT_EXCEEDED, format("Memory limit [%d] for memory connector exceeded", maxBytes));
+        // encode the page before taking the lock of the table
+        Page storedPage = page;
+        if (page.getChannelCount() == tableData.getColumnTypes().size()) {
+            storedPage = MemoryPageEncoder.encode(page, tableData.getColumnTypes());
         }
-        currentBytes = newSize;
-
-        TableData tableData = tables.get(tableId);
-        tableData.add(page);
+        tableData.add(storedPage, getStatistics(storedPage, tableData.getColumnTypes()));
     }
 
-    public synchronized List<Page> getPages(
+    public List<Page> getPages(
             Long tableId,
             int partNumber,
             int totalParts,
             List<Integer> columnIndexes,
             long expectedRows)
     {
-        if (!contains(tableId)) {
-            throw new PrestoException(MISSING_DATA, "Failed to find table on a worker.");
-        }
-        TableData tableData = tables.get(tableId);
-        if (tableData.getRows() < expectedRows) {
-            throw new PrestoException(MISSING_DATA,
-                    format("Expected to find [%s] rows on a worker, but found [%s].", expectedRows, tableData.getRows()));
-        }
+        return getPages(tableId, partNumber, totalParts, columnIndexes, expectedRows, TupleDomain.all());
+    }
 
-        ImmutableList.Builder<Page> partitionedPages = ImmutableList.builder();
+    public List<Page> getPages(
+            Long tableId,
+            int partNumber,
+            int totalParts,
+            List<Integer> columnIndexes,
+            long expectedRows,
+            TupleDomain<Integer> constraint)
+    {
+        TableData tableData = getTableData(tableId);
+        List<StoredPage> pages = tableData.getPages(expectedRows);
 
-        for (int i = partNumber; i < tableData.getPages().size(); i += totalParts) {
-            partitionedPages.add(getColumns(tableData.getPages().get(i), columnIndexes));
+        ImmutableList.Builder<Page> partitionedPages = ImmutableList.builder();
+        for (int i = partNumber; i < pages.size(); i += totalParts) {
+            StoredPage page = pages.get(i);
+            if (page.getStatistics().overlaps(constraint)) {
+                partitionedPages.add(getColumns(page.getPage(), columnIndexes));
+            }
         }
-
         return partitionedPages.build();
     }
 
-    public synchronized boolean contains(Long tableId)
+    public boolean contains(Long tableId)
     {
         return tables.containsKey(tableId);
     }
 
-    public synchronized void cleanUp(Set<Long> activeTableIds)
+    public void cleanUp(Set<Long> activeTableIds)
     {
         // We have to remember that there might be some race conditions when there are two tables created at once.
         // That can lead to a situation when MemoryPagesStore already knows about a newer second table on some worker
@@ -119,18 +136,40 @@ public class MemoryPagesStore
         }
         long latestTableId = Collections.max(activeTableIds);
 
-        for (Iterator<Map.Entry<Long, TableData>> tableDataIterator = tables.entrySet().iterator(); tableDataIterator.hasNext(); ) {
-            Map.Entry<Long, TableData> tablePagesEntry = tableDataIterator.next();
-            Long tableId = tablePagesEntry.getKey();
+        for (Long tableId : tables.keySet()) {
             if (tableId < latestTableId && !activeTableIds.contains(tableId)) {
-                for (Page removedPage : tablePagesEntry.getValue().getPages()) {
-                    currentBytes -= removedPage.getRetainedSizeInBytes();
+                TableData tableData = tables.remove(tableId);
+                if (tableData != null) {
+                    tableData.drop();
                 }
-                tableDataIterator.remove();
             }
         }
     }
 
+    @VisibleForTesting
+    long getCurrentBytes()
+    {
+        return currentBytes.get();
+    }
+
+    private TableData getTableData(Long tableId)
+    {
+        TableData tableData = tables.get(tableId);
+        if (tableData == null) {
+            throw new PrestoException(MISSING_DATA, "Failed to find table on a worker.");
+        }
+        return tableData;
+    }
+
+    private void reserve(long bytes)
+    {
+        long newSize = currentBytes.addAndGet(bytes);
+        if (maxBytes < newSize) {
+            currentBytes.addAndGet(-bytes);
+            throw new PrestoException(MEMORY_LIMIT_EXCEEDED, format("Memory limit [%d] for memory connector exceeded", maxBytes));
+        }
+    }
+
     private static Page getColumns(Page page, List<Integer> columnIndexes)
     {
         Block[] blocks = page.getBlocks();
@@ -143,25 +182,128 @@ public class MemoryPagesStore
         return new Page(page.getPositionCount(), outputBlocks);
     }
 
-    private static final class TableData
+    /**
+     * Returns the domains of the values of every column in the page, keyed by the column index.
+     */
+    @VisibleForTesting
+    static TupleDomain<Integer> getStatistics(Page page, List<Type> columnTypes)
+    {
+        if (page.getChannelCount() != columnTypes.size()) {
+            return TupleDomain.all();
+        }
+
+        ImmutableMap.Builder<Integer, Domain> domains = ImmutableMap.builder();
+        for (int channel = 0; channel < columnTypes.size(); channel++) {
+            Domain domain = getDomain(page.getBlock(channel), columnTypes.get(channel));
+            if (!domain.isAll()) {
+                domains.put(channel, domain);
+            }
+        }
+        return TupleDomain.withColumnDomains(domains.build());
+    }
+
+    private static Domain getDomain(Block block, Type type)
     {
-        private List<Page> pages = new ArrayList<>();
+        // NaN is not ordered with the other values, so floating point columns are not pruned
+        if (!type.isOrderable() || type.equals(DOUBLE) || type.equals(REAL) || block.getPositionCount() == 0) {
+            return Domain.all(type);
+        }
+
+        boolean hasNull = false;
+        int min = -1;
+        int max = -1;
+        for (int position = 0; position < block.getPositionCount(); position++) {
+            if (block.isNull(position)) {
+                hasNull = true;
+                continue;
+            }
+            if (min < 0 || type.compareTo(block, position, block, min) < 0) {
+                min = position;
+            }
+            if (max < 0 || type.compareTo(block, position, block, max) > 0) {
+                max = position;
+            }
+        }
+
+        if (min < 0) {
+            return Domain.onlyNull(type);
+        }
+        Range range = Range.range(type, readNativeValue(type, block, min), true, readNativeValue(type, block, max), true);
+        return Domain.create(ValueSet.ofRanges(range), hasNull);
+    }
+
+    private final class TableData
+    {
+        private final List<Type> columnTypes;
+
+        @GuardedBy("this")
+        private final List<StoredPage> pages = new ArrayList<>();
+        @GuardedBy("this")
         private long rows;
+        @GuardedBy("this")
+        private long bytes;
+        @GuardedBy("this")
+        private boolean dropped;
+
+        public TableData(List<Type> columnTypes)
+        {
+            this.columnTypes = ImmutableList.copyOf(requireNonNull(columnTypes, "columnTypes is null"));
+        }
+
+        public List<Type> getColumnTypes()
+        {
+            return columnTypes;
+        }
 
-        public void add(Page page)
+        public synchronized void add(Page page, TupleDomain<Integer> statistics)
         {
-            pages.add(page);
+            if (dropped) {
+                throw new PrestoException(MISSING_DATA, "Failed to find table on a worker.");
+            }
+            long pageBytes = page.getRetainedSizeInBytes();
+            reserve(pageBytes);
+            pages.add(new StoredPage(page, statistics));
             rows += page.getPositionCount();
+            bytes += pageBytes;
+        }
+
+        public synchronized List<StoredPage> getPages(long expectedRows)
+        {
+            if (rows < expectedRows) {
+                throw new PrestoException(MISSING_DATA,
+                        format("Expected to find [%s] rows on a worker, but found [%s].", expectedRows, rows));
+            }
+            return ImmutableList.copyOf(pages);
+        }
+
+        public synchronized void drop()
+        {
+            dropped = true;
+            currentBytes.addAndGet(-bytes);
+            pages.clear();
+            bytes = 0;
+        }
+    }
+
+    private static final class StoredPage
+    {
+        private final Page page;
+        private final TupleDomain<Integer> statistics;
+
+        public StoredPage(Page page, TupleDomain<Integer> statistics)
+        {
+            this.page = requireNonNull(page, "page is null");
+            this.statistics = requireNonNull(statistics, "statistics is null");
         }
 
-        private List<Page> getPages()
+        public Page getPage()
         {
-            return pages;
+            return page;
         }
 
-        private long getRows()
+        public TupleDomain<Integer> getStatistics()
         {
-            return rows;
+            return statistics;
         }
     }
 }
@@ -15,6 +15,7 @@ package com.facebook.presto.plugin.memory;
 
 import com.facebook.presto.spi.ConnectorSplit;
 import com.facebook.presto.spi.HostAddress;
+import com.facebook.presto.spi.predicate.TupleDomain;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.collect.ImmutableList;
@@ -34,6 +35,7 @@ public class MemorySplit
     private final int partNumber; // part of the pages on one worker that this splits is responsible
     private final HostAddress address;
     private final long expectedRows;
+    private final TupleDomain<MemoryColumnHandle> constraint;
 
     @JsonCreator
     public MemorySplit(
@@ -41,7 +43,8 @@ public class MemorySplit
             @JsonProperty("partNumber") int partNumber,
             @JsonProperty("totalPartsPerWorker") int totalPartsPerWorker,
             @JsonProperty("address") HostAddress address,
-            @JsonProperty("expectedRows") long expectedRows)
+            @JsonProperty("expectedRows") long expectedRows,
+            @JsonProperty("constraint") TupleDomain<MemoryColumnHandle> constraint)
     {
         checkState(partNumber >= 0, "partNumber must be >= 0");
         checkState(totalPartsPerWorker >= 1, "totalPartsPerWorker must be >= 1");
@@ -52,6 +55,7 @@ public class MemorySplit
         this.totalPartsPerWorker = totalPartsPerWorker;
         this.address = requireNonNull(address, "address is null");
         this.expectedRows = expectedRows;
+        this.constraint = requireNonNull(constraint, "constraint is null");
     }
 
     @JsonProperty
@@ -102,6 +106,12 @@ public class MemorySplit
         return expectedRows;
     }
 
+    @JsonProperty
+    public TupleDomain<MemoryColumnHandle> getConstraint()
+    {
+        return constraint;
+    }
+
     @Override
     public boolean equals(Object obj)
     {
@@ -53,7 +53,8 @@ public final class MemorySplitManager
                                 i,
                                 splitsPerNode,
                                 dataFragment.getHostAddress(),
-                                dataFragment.getRows()));
+                                dataFragment.getRows(),
+                                layout.getConstraint()));
             }
         }
         return new FixedSplitSource(splits.build());
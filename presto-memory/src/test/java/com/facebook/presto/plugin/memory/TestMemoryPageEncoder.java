@@ -0,0 +1,124 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.plugin.memory;
+
+import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.block.BlockBuilder;
+import com.facebook.presto.spi.block.BlockBuilderStatus;
+import com.facebook.presto.spi.block.DictionaryBlock;
+import com.facebook.presto.spi.block.RunLengthEncodedBlock;
+import com.facebook.presto.spi.type.Type;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static com.facebook.presto.plugin.memory.TestMemoryPagesStore.SESSION;
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.spi.type.DateTimeEncoding.packDateTimeWithZone;
+import static com.facebook.presto.spi.type.DoubleType.DOUBLE;
+import static com.facebook.presto.spi.type.TimeZoneKey.getTimeZoneKey;
+import static com.facebook.presto.spi.type.TimestampWithTimeZoneType.TIMESTAMP_WITH_TIME_ZONE;
+import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
+import static io.airlift.slice.Slices.utf8Slice;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestMemoryPageEncoder
+{
+    @Test
+    public void testRunLengthEncoding()
+    {
+        Block block = createBlock(BIGINT, Arrays.asList(7L, 7L, 7L, 7L));
+        Block encoded = MemoryPageEncoder.encode(block, BIGINT);
+        assertTrue(encoded instanceof RunLengthEncodedBlock);
+        assertBlockEquals(BIGINT, encoded, block);
+
+        block = createBlock(VARCHAR, Arrays.asList(null, null, null));
+        encoded = MemoryPageEncoder.encode(block, VARCHAR);
+        assertTrue(encoded instanceof RunLengthEncodedBlock);
+        assertBlockEquals(VARCHAR, encoded, block);
+    }
+
+    @Test
+    public void testRunLengthEncodingKeepsDistinctRepresentations()
+    {
+        // 0.0 and -0.0 are equal, but are different values
+        Block block = createBlock(DOUBLE, Arrays.asList(0.0, -0.0, 0.0));
+        Block encoded = MemoryPageEncoder.encode(block, DOUBLE);
+        assertFalse(encoded instanceof RunLengthEncodedBlock);
+        assertBlockEquals(DOUBLE, encoded, block);
+
+        // the same instant in different time zones
+        block = createBlock(TIMESTAMP_WITH_TIME_ZONE, Arrays.asList(
+                packDateTimeWithZone(1000, getTimeZoneKey("UTC")),
+                packDateTimeWithZone(1000, getTimeZoneKey("America/Los_Angeles"))));
+        encoded = MemoryPageEncoder.encode(block, TIMESTAMP_WITH_TIME_ZONE);
+        assertFalse(encoded instanceof RunLengthEncodedBlock);
+        assertBlockEquals(TIMESTAMP_WITH_TIME_ZONE, encoded, block);
+    }
+
+    @Test
+    public void testDictionaryEncoding()
+    {
+        Block block = createBlock(VARCHAR, Arrays.asList("a", "b", null, "a", "b", "a", null, "b"));
+        Block encoded = MemoryPageEncoder.encode(block, VARCHAR);
+        assertTrue(encoded instanceof DictionaryBlock);
+        assertEquals(((DictionaryBlock) encoded).getDictionary().getPositionCount(), 3);
+        assertBlockEquals(VARCHAR, encoded, block);
+    }
+
+    @Test
+    public void testDistinctValues()
+    {
+        Block block = createBlock(VARCHAR, Arrays.asList("a", "b", "c", "d", "a"));
+        Block encoded = MemoryPageEncoder.encode(block, VARCHAR);
+        assertFalse(encoded instanceof DictionaryBlock);
+        assertBlockEquals(VARCHAR, encoded, block);
+
+        block = createBlock(BIGINT, Arrays.asList(1L, 2L, 1L, 2L, null));
+        encoded = MemoryPageEncoder.encode(block, BIGINT);
+        assertFalse(encoded instanceof DictionaryBlock);
+        assertBlockEquals(BIGINT, encoded, block);
+    }
+
+    private static Block createBlock(Type type, List<?> values)
+    {
+        BlockBuilder blockBuilder = type.createBlockBuilder(new BlockBuilderStatus(), values.size());
+        for (Object value : values) {
+            if (value == null) {
+                blockBuilder.appendNull();
+            }
+            else if (value instanceof Long) {
+                type.writeLong(blockBuilder, (Long) value);
+            }
+            else if (value instanceof Double) {
+                type.writeDouble(blockBuilder, (Double) value);
+            }
+            else {
+                type.writeSlice(blockBuilder, utf8Slice((String) value));
+            }
+        }
+        return blockBuilder.build();
+    }
+
+    private static void assertBlockEquals(Type type, Block actual, Block expected)
+    {
+        assertEquals(actual.getPositionCount(), expected.getPositionCount());
+        for (int position = 0; position < expected.getPositionCount(); position++) {
+            assertEquals(type.getObjectValue(SESSION, actual, position), type.getObjectValue(SESSION, expected, position));
+        }
+    }
+}
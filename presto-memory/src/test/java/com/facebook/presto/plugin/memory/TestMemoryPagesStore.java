@@ -21,8 +21,11 @@ import com.facebook.presto.spi.HostAddress;
 import com.facebook.presto.spi.Page;
 import com.facebook.presto.spi.PrestoException;
 import com.facebook.presto.spi.block.BlockBuilder;
+import com.facebook.presto.spi.predicate.Domain;
+import com.facebook.presto.spi.predicate.TupleDomain;
 import com.facebook.presto.testing.TestingConnectorSession;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import io.airlift.units.DataSize;
 import org.testng.annotations.BeforeMethod;
@@ -110,6 +113,35 @@ public class TestMemoryPagesStore
         assertTrue(pagesStore.contains(2L));
     }
 
+    @Test
+    public void testPruning()
+    {
+        pagesStore.initialize(0L, ImmutableList.of(BIGINT));
+        pagesStore.add(0L, createSequencePage(0, 10));
+        pagesStore.add(0L, createSequencePage(10, 10));
+
+        assertEquals(pagesStore.getPages(0L, 0, 1, ImmutableList.of(0), 20, TupleDomain.all()).size(), 2);
+        assertEquals(pagesStore.getPages(0L, 0, 1, ImmutableList.of(0), 20, equalTo(15L)).size(), 1);
+        assertEquals(pagesStore.getPages(0L, 0, 1, ImmutableList.of(0), 20, equalTo(9L)).get(0).getBlock(0).getLong(0, 0), 0L);
+        assertEquals(pagesStore.getPages(0L, 0, 1, ImmutableList.of(0), 20, equalTo(42L)).size(), 0);
+        assertEquals(pagesStore.getPages(0L, 0, 1, ImmutableList.of(0), 20, TupleDomain.withColumnDomains(ImmutableMap.of(0, Domain.onlyNull(BIGINT)))).size(), 0);
+    }
+
+    @Test
+    public void testCleanUpReleasesMemory()
+    {
+        createTable(0L, 0L);
+        insertToTable(0L, 0L);
+        long tableBytes = pagesStore.getCurrentBytes();
+        assertTrue(tableBytes > 0);
+
+        // the insert into the second table drops the first one
+        createTable(1L, 0L, 1L);
+        insertToTable(1L, 1L);
+        assertFalse(pagesStore.contains(0L));
+        assertEquals(pagesStore.getCurrentBytes(), tableBytes);
+    }
+
     @Test(expectedExceptions = PrestoException.class)
     public void testMemoryLimitExceeded()
     {
@@ -173,6 +205,20 @@ public class TestMemoryPagesStore
         return new Page(0, blockBuilder.build());
     }
 
+    private static TupleDomain<Integer> equalTo(long value)
+    {
+        return TupleDomain.withColumnDomains(ImmutableMap.of(0, Domain.singleValue(BIGINT, value)));
+    }
+
+    private static Page createSequencePage(long start, int positions)
+    {
+        BlockBuilder blockBuilder = BIGINT.createFixedSizeBlockBuilder(positions);
+        for (int i = 0; i < positions; i++) {
+            BIGINT.writeLong(blockBuilder, start + i);
+        }
+        return new Page(positions, blockBuilder.build());
+    }
+
     private static Page createOneMegaBytePage()
     {
         BlockBuilder blockBuilder = BIGINT.createFixedSizeBlockBuilder(POSITIONS_PER_PAGE);
@@ -82,6 +82,8 @@ public class MySqlClient
     public PreparedStatement getPreparedStatement(Connection connection, String sql)
             throws SQLException
     {
+        // the configured fetch size is not applied: Connector/J buffers the whole result
+        // for any fetch size other than the one set by enableStreamingResults()
         PreparedStatement statement = connection.prepareStatement(sql);
         if (statement.isWrapperFor(Statement.class)) {
             statement.unwrap(Statement.class).enableStreamingResults();
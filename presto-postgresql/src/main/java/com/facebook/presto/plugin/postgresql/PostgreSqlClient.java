@@ -62,7 +62,7 @@ public class PostgreSqlClient
     {
         connection.setAutoCommit(false);
         PreparedStatement statement = connection.prepareStatement(sql);
-        statement.setFetchSize(1000);
+        statement.setFetchSize(fetchSize.orElse(1000));
         return statement;
     }
 
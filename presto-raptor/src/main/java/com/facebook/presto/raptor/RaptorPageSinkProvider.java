@@ -27,6 +27,7 @@ import io.airlift.units.DataSize;
 import javax.inject.Inject;
 
 import java.util.List;
+import java.util.function.Supplier;
 
 import static java.util.Objects.requireNonNull;
 import static java.util.stream.Collectors.toList;
@@ -37,6 +38,8 @@ public class RaptorPageSinkProvider
     private final StorageManager storageManager;
     private final PageSorter pageSorter;
     private final DataSize maxBufferSize;
+    private final boolean sharedWriterBufferEnabled;
+    private final SharedPageSinkManager sharedPageSinks;
 
     @Inject
     public RaptorPageSinkProvider(StorageManager storageManager, PageSorter pageSorter, StorageManagerConfig config)
@@ -44,13 +47,15 @@ public class RaptorPageSinkProvider
         this.storageManager = requireNonNull(storageManager, "storageManager is null");
         this.pageSorter = requireNonNull(pageSorter, "pageSorter is null");
         this.maxBufferSize = config.getMaxBufferSize();
+        this.sharedWriterBufferEnabled = config.isSharedWriterBufferEnabled();
+        this.sharedPageSinks = new SharedPageSinkManager(maxBufferSize.toBytes());
     }
 
     @Override
     public ConnectorPageSink createPageSink(ConnectorTransactionHandle transactionHandle, ConnectorSession session, ConnectorOutputTableHandle tableHandle)
     {
         RaptorOutputTableHandle handle = (RaptorOutputTableHandle) tableHandle;
-        return new RaptorPageSink(
+        return createPageSink(handle.getTransactionId(), () -> new RaptorPageSink(
                 pageSorter,
                 storageManager,
                 handle.getTransactionId(),
@@ -61,14 +66,14 @@ public class RaptorPageSinkProvider
                 handle.getBucketCount(),
                 toColumnIds(handle.getBucketColumnHandles()),
                 handle.getTemporalColumnHandle(),
-                maxBufferSize);
+                maxBufferSize));
     }
 
     @Override
     public ConnectorPageSink createPageSink(ConnectorTransactionHandle transactionHandle, ConnectorSession session, ConnectorInsertTableHandle tableHandle)
     {
         RaptorInsertTableHandle handle = (RaptorInsertTableHandle) tableHandle;
-        return new RaptorPageSink(
+        return createPageSink(handle.getTransactionId(), () -> new RaptorPageSink(
                 pageSorter,
                 storageManager,
                 handle.getTransactionId(),
@@ -79,7 +84,15 @@ public class RaptorPageSinkProvider
                 handle.getBucketCount(),
                 toColumnIds(handle.getBucketColumnHandles()),
                 handle.getTemporalColumnHandle(),
-                maxBufferSize);
+                maxBufferSize));
+    }
+
+    private ConnectorPageSink createPageSink(long transactionId, Supplier<ConnectorPageSink> pageSinkFactory)
+    {
+        if (sharedWriterBufferEnabled) {
+            return sharedPageSinks.createPageSink(transactionId, pageSinkFactory);
+        }
+        return pageSinkFactory.get();
     }
 
     private static List<Long> toColumnIds(List<RaptorColumnHandle> columnHandles)
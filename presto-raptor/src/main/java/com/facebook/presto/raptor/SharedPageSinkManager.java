@@ -0,0 +1,310 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.raptor;
+
+import com.facebook.presto.spi.ConnectorPageSink;
+import com.facebook.presto.spi.Page;
+import com.facebook.presto.spi.PrestoException;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import io.airlift.slice.Slice;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import static com.facebook.presto.spi.ConnectorPageSink.NOT_BLOCKED;
+import static com.facebook.presto.spi.StandardErrorCode.GENERIC_INTERNAL_ERROR;
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+
+/**
+ * Lets all writers of a transaction on this node share a single page sink, so that
+ * rows from every writer are buffered, sorted and written together per bucket and day,
+ * instead of each writer producing its own small shards.
+ * <p>
+ * The writer that finishes last commits the shared sink and reports all shards for
+ * the transaction, so the shards only become visible when the transaction commits,
+ * exactly as for a page sink per writer. If any writer aborts, the shared sink is
+ * rolled back and the remaining writers fail.
+ * <p>
+ * Writers queue their pages, and one writer at a time moves the queued pages into the
+ * shared sink, so a writer never waits for a sort and flush of the shared sink done by
+ * another writer. A writer is blocked only when the queue exceeds its size limit.
+ * <p>
+ * Sinks are keyed by the Raptor transaction, which is unique per write, so only the
+ * writers of one statement share a sink. Rows are not buffered across statements: a
+ * shard is committed by the single transaction that wrote it, so it cannot hold rows
+ * of several INSERTs. Many small INSERT statements therefore still produce small
+ * shards, which are left to compaction, and there is no background flush: the shards
+ * are written by the writer threads.
+ */
+@ThreadSafe
+public class SharedPageSinkManager
+{
+    private final long maxQueuedBytes;
+
+    @GuardedBy("this")
+    private final Map<Long, SharedPageSink> sinks = new HashMap<>();
+
+    public SharedPageSinkManager(long maxQueuedBytes)
+    {
+        checkArgument(maxQueuedBytes > 0, "maxQueuedBytes must be greater than zero");
+        this.maxQueuedBytes = maxQueuedBytes;
+    }
+
+    public synchronized ConnectorPageSink createPageSink(long transactionId, Supplier<ConnectorPageSink> pageSinkFactory)
+    {
+        SharedPageSink sink = sinks.get(transactionId);
+        if (sink == null || !sink.addWriter()) {
+            // the previous sink of the transaction is finishing, so start a new one
+            sink = new SharedPageSink(transactionId, pageSinkFactory.get());
+            sink.addWriter();
+            sinks.put(transactionId, sink);
+        }
+        return new WriterPageSink(sink);
+    }
+
+    @VisibleForTesting
+    synchronized int getActiveTransactionCount()
+    {
+        return sinks.size();
+    }
+
+    private synchronized void release(SharedPageSink sink)
+    {
+        sinks.remove(sink.getTransactionId(), sink);
+    }
+
+    private class SharedPageSink
+    {
+        private final long transactionId;
+
+        // held while the delegate is used, which may sort and flush the buffered rows
+        private final ReentrantLock delegateLock = new ReentrantLock();
+        @GuardedBy("delegateLock")
+        private final ConnectorPageSink delegate;
+        private volatile long delegateMemoryUsage;
+
+        @GuardedBy("this")
+        private final Queue<Page> queuedPages = new ArrayDeque<>();
+        @GuardedBy("this")
+        private long queuedBytes;
+        @GuardedBy("this")
+        private CompletableFuture<?> queueNotFull = completedFuture(null);
+        @GuardedBy("this")
+        private int writers;
+        @GuardedBy("this")
+        private boolean committing;
+        @GuardedBy("this")
+        private boolean aborted;
+
+        public SharedPageSink(long transactionId, ConnectorPageSink delegate)
+        {
+            this.transactionId = transactionId;
+            this.delegate = requireNonNull(delegate, "delegate is null");
+        }
+
+        public long getTransactionId()
+        {
+            return transactionId;
+        }
+
+        public synchronized boolean addWriter()
+        {
+            if (committing || aborted) {
+                return false;
+            }
+            writers++;
+            return true;
+        }
+
+        public CompletableFuture<?> appendPage(Page page)
+        {
+            synchronized (this) {
+                checkNotAborted();
+                queuedPages.add(page);
+                queuedBytes += page.getSizeInBytes();
+            }
+
+            appendQueuedPages();
+
+            synchronized (this) {
+                if (queuedBytes <= maxQueuedBytes) {
+                    return NOT_BLOCKED;
+                }
+                if (queueNotFull.isDone()) {
+                    queueNotFull = new CompletableFuture<>();
+                }
+                return queueNotFull;
+            }
+        }
+
+        /**
+         * Reports an equal share of the memory of the shared sink for every writer,
+         * so that the writers together report it once.
+         */
+        public synchronized long getSystemMemoryUsage()
+        {
+            return (delegateMemoryUsage + queuedBytes) / Math.max(writers, 1);
+        }
+
+        public CompletableFuture<Collection<Slice>> finishWriter()
+        {
+            synchronized (this) {
+                checkNotAborted();
+                writers--;
+                if (writers > 0) {
+                    // the shards are reported by the last writer
+                    return completedFuture(ImmutableList.of());
+                }
+                committing = true;
+            }
+            release(this);
+
+            delegateLock.lock();
+            try {
+                appendQueuedPagesToDelegate();
+                return delegate.finish();
+            }
+            finally {
+                delegateLock.unlock();
+            }
+        }
+
+        public void abortWriter()
+        {
+            CompletableFuture<?> queueNotFull;
+            synchronized (this) {
+                if (aborted) {
+                    return;
+                }
+                aborted = true;
+                queuedPages.clear();
+                queuedBytes = 0;
+                queueNotFull = this.queueNotFull;
+            }
+            queueNotFull.complete(null);
+            release(this);
+
+            delegateLock.lock();
+            try {
+                delegate.abort();
+            }
+            finally {
+                delegateLock.unlock();
+            }
+        }
+
+        /**
+         * Moves the queued pages into the delegate, unless another writer is already doing so.
+         * The queue is checked again after the lock is released, as a page may have been queued
+         * by a writer that could not get the lock after the queue was found empty.
+         */
+        private void appendQueuedPages()
+        {
+            while (hasQueuedPages() && delegateLock.tryLock()) {
+                try {
+                    appendQueuedPagesToDelegate();
+                }
+                finally {
+                    delegateLock.unlock();
+                }
+            }
+        }
+
+        @GuardedBy("delegateLock")
+        private void appendQueuedPagesToDelegate()
+        {
+            while (true) {
+                Page page;
+                CompletableFuture<?> queueNotFull = null;
+                synchronized (this) {
+                    page = queuedPages.poll();
+                    if (page == null) {
+                        return;
+                    }
+                    queuedBytes -= page.getSizeInBytes();
+                    if (queuedBytes <= maxQueuedBytes) {
+                        queueNotFull = this.queueNotFull;
+                    }
+                }
+                if (queueNotFull != null) {
+                    // complete outside of the lock, as this runs the listeners of the engine
+                    queueNotFull.complete(null);
+                }
+
+                delegate.appendPage(page);
+                delegateMemoryUsage = delegate.getSystemMemoryUsage();
+            }
+        }
+
+        private synchronized boolean hasQueuedPages()
+        {
+            return !queuedPages.isEmpty();
+        }
+
+        @GuardedBy("this")
+        private void checkNotAborted()
+        {
+            if (aborted) {
+                throw new PrestoException(GENERIC_INTERNAL_ERROR, "Page sink shared with another writer was aborted");
+            }
+        }
+    }
+
+    private static class WriterPageSink
+            implements ConnectorPageSink
+    {
+        private final SharedPageSink sink;
+
+        public WriterPageSink(SharedPageSink sink)
+        {
+            this.sink = requireNonNull(sink, "sink is null");
+        }
+
+        @Override
+        public long getSystemMemoryUsage()
+        {
+            return sink.getSystemMemoryUsage();
+        }
+
+        @Override
+        public CompletableFuture<?> appendPage(Page page)
+        {
+            return sink.appendPage(page);
+        }
+
+        @Override
+        public CompletableFuture<Collection<Slice>> finish()
+        {
+            return sink.finishWriter();
+        }
+
+        @Override
+        public void abort()
+        {
+            sink.abortWriter();
+        }
+    }
+}
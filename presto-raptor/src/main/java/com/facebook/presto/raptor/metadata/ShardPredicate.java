@@ -45,6 +45,9 @@ import static java.util.Objects.requireNonNull;
 
 class ShardPredicate
 {
+    @VisibleForTesting
+    static final int MAX_RANGE_COUNT = 100;
+
     private final String predicate;
     private final List<JDBCType> types;
     private final List<Object> values;
@@ -109,26 +112,14 @@ class ShardPredicate
             }
 
             Ranges ranges = domain.getValues().getRanges();
-
-            // TODO: support multiple ranges
-            if (ranges.getRangeCount() != 1) {
+            if (ranges.getRangeCount() == 0) {
                 continue;
             }
-            Range range = getOnlyElement(ranges.getOrderedRanges());
 
-            Object minValue = null;
-            Object maxValue = null;
-            if (range.isSingleValue()) {
-                minValue = range.getSingleValue();
-                maxValue = range.getSingleValue();
-            }
-            else {
-                if (!range.getLow().isLowerUnbounded()) {
-                    minValue = range.getLow().getValue();
-                }
-                if (!range.getHigh().isUpperUnbounded()) {
-                    maxValue = range.getHigh().getValue();
-                }
+            // a long list of ranges would make the metadata query expensive, so only their span is used
+            List<Range> orderedRanges = ranges.getOrderedRanges();
+            if (orderedRanges.size() > MAX_RANGE_COUNT) {
+                orderedRanges = ImmutableList.of(ranges.getSpan());
             }
 
             String min;
@@ -146,20 +137,70 @@ class ShardPredicate
                 max = maxColumn(handle.getColumnId());
             }
 
-            if (minValue != null) {
-                predicate.add(format("(%s >= ? OR %s IS NULL)", max, max));
-                types.add(jdbcType);
-                values.add(minValue);
+            if (orderedRanges.size() == 1) {
+                addRangePredicate(predicate, types, values, getOnlyElement(orderedRanges), jdbcType, min, max);
+                continue;
+            }
+
+            // a shard may contain a value of the domain if its min/max range overlaps any of the ranges
+            ImmutableList.Builder<JDBCType> rangeTypes = ImmutableList.builder();
+            ImmutableList.Builder<Object> rangeValues = ImmutableList.builder();
+            StringJoiner rangesPredicate = new StringJoiner(" OR ", "(", ")");
+            boolean unbounded = false;
+            for (Range range : orderedRanges) {
+                StringJoiner rangePredicate = new StringJoiner(" AND ", "(", ")").setEmptyValue("");
+                addRangePredicate(rangePredicate, rangeTypes, rangeValues, range, jdbcType, min, max);
+                if (rangePredicate.length() == 0) {
+                    unbounded = true;
+                    break;
+                }
+                rangesPredicate.add(rangePredicate.toString());
             }
-            if (maxValue != null) {
-                predicate.add(format("(%s <= ? OR %s IS NULL)", min, min));
-                types.add(jdbcType);
-                values.add(maxValue);
+            if (!unbounded) {
+                predicate.add(rangesPredicate.toString());
+                types.addAll(rangeTypes.build());
+                values.addAll(rangeValues.build());
             }
         }
         return new ShardPredicate(predicate.toString(), types.build(), values.build());
     }
 
+    private static void addRangePredicate(
+            StringJoiner predicate,
+            ImmutableList.Builder<JDBCType> types,
+            ImmutableList.Builder<Object> values,
+            Range range,
+            JDBCType jdbcType,
+            String min,
+            String max)
+    {
+        Object minValue = null;
+        Object maxValue = null;
+        if (range.isSingleValue()) {
+            minValue = range.getSingleValue();
+            maxValue = range.getSingleValue();
+        }
+        else {
+            if (!range.getLow().isLowerUnbounded()) {
+                minValue = range.getLow().getValue();
+            }
+            if (!range.getHigh().isUpperUnbounded()) {
+                maxValue = range.getHigh().getValue();
+            }
+        }
+
+        if (minValue != null) {
+            predicate.add(format("(%s >= ? OR %s IS NULL)", max, max));
+            types.add(jdbcType);
+            values.add(minValue);
+        }
+        if (maxValue != null) {
+            predicate.add(format("(%s <= ? OR %s IS NULL)", min, min));
+            types.add(jdbcType);
+            values.add(maxValue);
+        }
+    }
+
     private static String createShardPredicate(ImmutableList.Builder<JDBCType> types, ImmutableList.Builder<Object> values, Domain domain, JDBCType jdbcType)
     {
         List<Range> ranges = domain.getValues().getRanges().getOrderedRanges();
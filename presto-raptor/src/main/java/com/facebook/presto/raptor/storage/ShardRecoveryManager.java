@@ -26,6 +26,7 @@ import com.google.common.cache.LoadingCache;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.RateLimiter;
 import io.airlift.log.Logger;
 import io.airlift.units.DataSize;
 import io.airlift.units.Duration;
@@ -40,15 +41,19 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.OptionalLong;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
@@ -60,16 +65,22 @@ import static com.facebook.presto.raptor.RaptorErrorCode.RAPTOR_ERROR;
 import static com.facebook.presto.raptor.RaptorErrorCode.RAPTOR_RECOVERY_ERROR;
 import static com.facebook.presto.raptor.storage.OrcStorageManager.xxhash64;
 import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.collect.Sets.newConcurrentHashSet;
+import static com.google.common.primitives.Ints.saturatedCast;
 import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 import static io.airlift.concurrent.Threads.daemonThreadsNamed;
 import static io.airlift.units.DataSize.Unit.BYTE;
 import static io.airlift.units.DataSize.succinctBytes;
 import static io.airlift.units.DataSize.succinctDataSize;
 import static io.airlift.units.Duration.nanosSince;
+import static java.lang.Math.max;
 import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.util.Comparator.comparingLong;
 import static java.util.Objects.requireNonNull;
 import static java.util.concurrent.Executors.newCachedThreadPool;
 import static java.util.concurrent.Executors.newScheduledThreadPool;
+import static java.util.concurrent.Executors.newSingleThreadExecutor;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static java.util.stream.Collectors.toSet;
 
@@ -82,11 +93,15 @@ public class ShardRecoveryManager
     private final String nodeIdentifier;
     private final ShardManager shardManager;
     private final Duration missingShardDiscoveryInterval;
+    private final Optional<RateLimiter> backgroundRecoveryRateLimiter;
 
     private final AtomicBoolean started = new AtomicBoolean();
     private final MissingShardsQueue shardQueue;
+    private final Set<UUID> queuedBackgroundShards = newConcurrentHashSet();
+    private final BlockingQueue<ShardMetadata> backgroundShards = new LinkedBlockingQueue<>();
 
     private final ScheduledExecutorService missingShardExecutor = newScheduledThreadPool(1, daemonThreadsNamed("missing-shard-discovery"));
+    private final ExecutorService backgroundRecoveryExecutor = newSingleThreadExecutor(daemonThreadsNamed("background-shard-recovery"));
     private final ExecutorService executorService = newCachedThreadPool(daemonThreadsNamed("shard-recovery-%s"));
     private final ShardRecoveryStats stats;
 
@@ -103,7 +118,8 @@ public class ShardRecoveryManager
                 nodeManager,
                 shardManager,
                 config.getMissingShardDiscoveryInterval(),
-                config.getRecoveryThreads());
+                config.getRecoveryThreads(),
+                Optional.ofNullable(config.getMaxBackgroundRecoveryRate()));
     }
 
     public ShardRecoveryManager(
@@ -113,12 +129,26 @@ public class ShardRecoveryManager
             ShardManager shardManager,
             Duration missingShardDiscoveryInterval,
             int recoveryThreads)
+    {
+        this(storageService, backupStore, nodeManager, shardManager, missingShardDiscoveryInterval, recoveryThreads, Optional.empty());
+    }
+
+    public ShardRecoveryManager(
+            StorageService storageService,
+            Optional<BackupStore> backupStore,
+            NodeManager nodeManager,
+            ShardManager shardManager,
+            Duration missingShardDiscoveryInterval,
+            int recoveryThreads,
+            Optional<DataSize> maxBackgroundRecoveryRate)
     {
         this.storageService = requireNonNull(storageService, "storageService is null");
         this.backupStore = requireNonNull(backupStore, "backupStore is null");
         this.nodeIdentifier = requireNonNull(nodeManager, "nodeManager is null").getCurrentNode().getNodeIdentifier();
         this.shardManager = requireNonNull(shardManager, "shardManager is null");
         this.missingShardDiscoveryInterval = requireNonNull(missingShardDiscoveryInterval, "missingShardDiscoveryInterval is null");
+        this.backgroundRecoveryRateLimiter = requireNonNull(maxBackgroundRecoveryRate, "maxBackgroundRecoveryRate is null")
+                .map(rate -> RateLimiter.create(rate.toBytes()));
         this.shardQueue = new MissingShardsQueue(new PrioritizedFifoExecutor<>(executorService, recoveryThreads, new MissingShardComparator()));
         this.stats = new ShardRecoveryStats();
     }
@@ -130,6 +160,7 @@ public class ShardRecoveryManager
             return;
         }
         if (started.compareAndSet(false, true)) {
+            backgroundRecoveryExecutor.execute(this::submitBackgroundRecoveries);
             scheduleRecoverMissingShards();
         }
     }
@@ -139,6 +170,7 @@ public class ShardRecoveryManager
     {
         executorService.shutdownNow();
         missingShardExecutor.shutdownNow();
+        backgroundRecoveryExecutor.shutdownNow();
     }
 
     private void scheduleRecoverMissingShards()
@@ -162,14 +194,18 @@ public class ShardRecoveryManager
         missingShardExecutor.submit(this::enqueueMissingShards);
     }
 
-    private synchronized void enqueueMissingShards()
+    @VisibleForTesting
+    synchronized void enqueueMissingShards()
     {
         try {
-            for (ShardMetadata shard : getMissingShards()) {
+            for (ShardMetadata shard : prioritizeMissingShards(getMissingShards())) {
+                if (!queuedBackgroundShards.add(shard.getShardUuid())) {
+                    // still queued from a previous discovery
+                    continue;
+                }
                 stats.incrementBackgroundShardRecovery();
-                Futures.addCallback(
-                        shardQueue.submit(new MissingShard(shard.getShardUuid(), shard.getCompressedSize(), shard.getXxhash64(), false)),
-                        failureCallback(t -> log.warn(t, "Error recovering shard: %s", shard.getShardUuid())));
+                stats.addQueuedBackgroundShard(shard.getCompressedSize());
+                backgroundShards.add(shard);
             }
         }
         catch (Throwable t) {
@@ -177,6 +213,67 @@ public class ShardRecoveryManager
         }
     }
 
+    /**
+     * Submits the queued background recoveries to the recovery executor. The rate limit is applied
+     * here rather than in the recovery threads, so that paced background recoveries never occupy the
+     * threads needed by recoveries for queries.
+     */
+    private void submitBackgroundRecoveries()
+    {
+        while (!Thread.currentThread().isInterrupted()) {
+            ShardMetadata shard;
+            try {
+                shard = backgroundShards.take();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            try {
+                submitBackgroundRecovery(shard);
+            }
+            catch (Throwable t) {
+                log.error(t, "Error creating shard recovery task: %s", shard.getShardUuid());
+            }
+        }
+    }
+
+    private void submitBackgroundRecovery(ShardMetadata shard)
+            throws ExecutionException
+    {
+        Runnable dequeue = () -> {
+            if (queuedBackgroundShards.remove(shard.getShardUuid())) {
+                stats.removeQueuedBackgroundShard(shard.getCompressedSize());
+            }
+        };
+
+        if (backgroundRecoveryRateLimiter.isPresent()) {
+            // pace background recovery, so that it does not saturate the disk and network
+            backgroundRecoveryRateLimiter.get().acquire(saturatedCast(max(shard.getCompressedSize(), 1)));
+            if (Thread.currentThread().isInterrupted()) {
+                dequeue.run();
+                return;
+            }
+        }
+        if (!shardNeedsRecovery(shard.getShardUuid(), shard.getCompressedSize())) {
+            // recovered by a query while queued
+            dequeue.run();
+            return;
+        }
+
+        ListenableFuture<?> future;
+        try {
+            future = shardQueue.submit(new MissingShard(shard.getShardUuid(), shard.getCompressedSize(), shard.getXxhash64(), false));
+        }
+        catch (Throwable t) {
+            dequeue.run();
+            throw t;
+        }
+        future.addListener(dequeue, directExecutor());
+        Futures.addCallback(future, failureCallback(t -> log.warn(t, "Error recovering shard: %s", shard.getShardUuid())));
+    }
+
     private Set<ShardMetadata> getMissingShards()
     {
         return shardManager.getNodeShards(nodeIdentifier).stream()
@@ -184,6 +281,18 @@ public class ShardRecoveryManager
                 .collect(toSet());
     }
 
+    /**
+     * Orders missing shards so that the newest shards are recovered first, since
+     * recently written data is the most likely to be queried.
+     */
+    @VisibleForTesting
+    static List<ShardMetadata> prioritizeMissingShards(Collection<ShardMetadata> shards)
+    {
+        return shards.stream()
+                .sorted(comparingLong(ShardMetadata::getShardId).reversed())
+                .collect(toImmutableList());
+    }
+
     private boolean shardNeedsRecovery(UUID shardUuid, long shardSize)
     {
         File storageFile = storageService.getStorageFile(shardUuid);
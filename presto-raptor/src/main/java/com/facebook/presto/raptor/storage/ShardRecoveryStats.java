@@ -22,6 +22,8 @@ import org.weakref.jmx.Nested;
 
 import javax.annotation.concurrent.ThreadSafe;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 @ThreadSafe
 public class ShardRecoveryStats
 {
@@ -38,6 +40,9 @@ public class ShardRecoveryStats
     private final CounterStat corruptLocalFile = new CounterStat();
     private final CounterStat corruptRecoveredFile = new CounterStat();
 
+    private final AtomicLong queuedBackgroundShards = new AtomicLong();
+    private final AtomicLong queuedBackgroundBytes = new AtomicLong();
+
     public void incrementBackgroundShardRecovery()
     {
         backgroundShardRecovery.update(1);
@@ -70,6 +75,18 @@ public class ShardRecoveryStats
         shardRecoveryTimeInMilliSeconds.add(duration.toMillis());
     }
 
+    public void addQueuedBackgroundShard(long bytes)
+    {
+        queuedBackgroundShards.incrementAndGet();
+        queuedBackgroundBytes.addAndGet(bytes);
+    }
+
+    public void removeQueuedBackgroundShard(long bytes)
+    {
+        queuedBackgroundShards.decrementAndGet();
+        queuedBackgroundBytes.addAndGet(-bytes);
+    }
+
     public void incrementCorruptLocalFile()
     {
         corruptLocalFile.update(1);
@@ -149,4 +166,16 @@ public class ShardRecoveryStats
     {
         return corruptRecoveredFile;
     }
+
+    @Managed
+    public long getQueuedBackgroundShards()
+    {
+        return queuedBackgroundShards.get();
+    }
+
+    @Managed
+    public long getQueuedBackgroundBytes()
+    {
+        return queuedBackgroundBytes.get();
+    }
 }
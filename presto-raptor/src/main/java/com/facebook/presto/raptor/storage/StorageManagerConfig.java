@@ -51,8 +51,10 @@ public class StorageManagerConfig
     private boolean orcLazyReadSmallRanges = true;
     private int deletionThreads = max(1, getRuntime().availableProcessors() / 2);
     private int recoveryThreads = 10;
+    private DataSize maxBackgroundRecoveryRate;
     private int organizationThreads = 5;
     private boolean organizationEnabled = true;
+    private boolean sharedWriterBufferEnabled;
     private Duration organizationInterval = new Duration(7, TimeUnit.DAYS);
 
     private long maxShardRows = 1_000_000;
@@ -241,6 +243,19 @@ public class StorageManagerConfig
         return this;
     }
 
+    public DataSize getMaxBackgroundRecoveryRate()
+    {
+        return maxBackgroundRecoveryRate;
+    }
+
+    @Config("storage.max-background-recovery-rate")
+    @ConfigDescription("Maximum rate per second at which missing shards are restored from backup in the background")
+    public StorageManagerConfig setMaxBackgroundRecoveryRate(DataSize maxBackgroundRecoveryRate)
+    {
+        this.maxBackgroundRecoveryRate = maxBackgroundRecoveryRate;
+        return this;
+    }
+
     @LegacyConfig("storage.max-compaction-threads")
     @Config("storage.max-organization-threads")
     @ConfigDescription("Maximum number of threads to use for organization")
@@ -324,6 +339,19 @@ public class StorageManagerConfig
         return this;
     }
 
+    public boolean isSharedWriterBufferEnabled()
+    {
+        return sharedWriterBufferEnabled;
+    }
+
+    @Config("storage.shared-writer-buffer-enabled")
+    @ConfigDescription("Buffer the rows of all writers of a transaction on a node together, producing fewer and larger shards")
+    public StorageManagerConfig setSharedWriterBufferEnabled(boolean sharedWriterBufferEnabled)
+    {
+        this.sharedWriterBufferEnabled = sharedWriterBufferEnabled;
+        return this;
+    }
+
     public int getOneSplitPerBucketThreshold()
     {
         return oneSplitPerBucketThreshold;
@@ -28,6 +28,7 @@ import io.airlift.tpch.TpchTable;
 import org.intellij.lang.annotations.Language;
 
 import java.io.File;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 
@@ -45,6 +46,12 @@ public final class RaptorQueryRunner
 
     public static DistributedQueryRunner createRaptorQueryRunner(Map<String, String> extraProperties, boolean loadTpch, boolean bucketed)
             throws Exception
+    {
+        return createRaptorQueryRunner(extraProperties, ImmutableMap.of(), loadTpch, bucketed);
+    }
+
+    public static DistributedQueryRunner createRaptorQueryRunner(Map<String, String> extraProperties, Map<String, String> extraRaptorProperties, boolean loadTpch, boolean bucketed)
+            throws Exception
     {
         DistributedQueryRunner queryRunner = new DistributedQueryRunner(createSession("tpch"), 2, extraProperties);
 
@@ -53,7 +60,7 @@ public final class RaptorQueryRunner
 
         queryRunner.installPlugin(new RaptorPlugin());
         File baseDir = queryRunner.getCoordinator().getBaseDataDir().toFile();
-        Map<String, String> raptorProperties = ImmutableMap.<String, String>builder()
+        Map<String, String> raptorProperties = new HashMap<>(ImmutableMap.<String, String>builder()
                 .put("metadata.db.type", "h2")
                 .put("metadata.db.connections.max", "100")
                 .put("metadata.db.filename", new File(baseDir, "db").getAbsolutePath())
@@ -61,7 +68,8 @@ public final class RaptorQueryRunner
                 .put("storage.max-shard-rows", "2000")
                 .put("backup.provider", "file")
                 .put("backup.directory", new File(baseDir, "backup").getAbsolutePath())
-                .build();
+                .build());
+        raptorProperties.putAll(extraRaptorProperties);
 
         queryRunner.createCatalog("raptor", "raptor", raptorProperties);
 
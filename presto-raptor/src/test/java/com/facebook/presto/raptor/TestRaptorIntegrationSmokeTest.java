@@ -13,10 +13,13 @@
  */
 package com.facebook.presto.raptor;
 
+import com.facebook.presto.Session;
 import com.facebook.presto.spi.type.ArrayType;
 import com.facebook.presto.testing.MaterializedResult;
 import com.facebook.presto.testing.MaterializedRow;
+import com.facebook.presto.testing.QueryRunner;
 import com.facebook.presto.tests.AbstractTestIntegrationSmokeTest;
+import com.facebook.presto.tests.DistributedQueryRunner;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
@@ -28,6 +31,7 @@ import java.sql.Date;
 import java.sql.Timestamp;
 import java.util.Collection;
 import java.util.Map;
+import java.util.OptionalLong;
 import java.util.Set;
 import java.util.StringJoiner;
 import java.util.UUID;
@@ -46,6 +50,7 @@ import static io.airlift.testing.Assertions.assertGreaterThan;
 import static io.airlift.testing.Assertions.assertGreaterThanOrEqual;
 import static io.airlift.testing.Assertions.assertInstanceOf;
 import static io.airlift.testing.Assertions.assertLessThan;
+import static io.airlift.testing.Assertions.assertLessThanOrEqual;
 import static java.lang.String.format;
 import static java.util.Arrays.asList;
 import static java.util.function.Function.identity;
@@ -326,6 +331,41 @@ public class TestRaptorIntegrationSmokeTest
                         "SELECT 'tpch', 'lineitem', (SELECT count(*) FROM lineitem)");
     }
 
+    @Test
+    public void testSharedWriterBuffer()
+            throws Exception
+    {
+        // fewer rows than storage.max-shard-rows, spread over several writers on each node
+        @Language("SQL") String sql = "CREATE TABLE %s AS SELECT * FROM tpch.tiny.orders WHERE orderkey % 8 = 0";
+        long rows = (long) computeActual("SELECT count(*) FROM tpch.tiny.orders WHERE orderkey % 8 = 0").getOnlyValue();
+
+        Session session = Session.builder(getSession())
+                .setSystemProperty("task_writer_count", "4")
+                .build();
+        assertUpdate(session, format(sql, "test_unshared_writer_buffer"), rows);
+        long unsharedShards = getShardCount(getQueryRunner(), "test_unshared_writer_buffer");
+
+        try (DistributedQueryRunner queryRunner = createRaptorQueryRunner(ImmutableMap.of(), ImmutableMap.of("storage.shared-writer-buffer-enabled", "true"), false, false)) {
+            session = Session.builder(queryRunner.getDefaultSession())
+                    .setSystemProperty("task_writer_count", "4")
+                    .build();
+            assertEquals(queryRunner.execute(session, format(sql, "test_shared_writer_buffer")).getUpdateCount(), OptionalLong.of(rows));
+            long sharedShards = getShardCount(queryRunner, "test_shared_writer_buffer");
+
+            // the writers of a node share one sink, so each node writes at most one shard
+            assertLessThanOrEqual(sharedShards, (long) queryRunner.getNodeCount());
+            assertLessThan(sharedShards, unsharedShards);
+        }
+
+        assertUpdate("DROP TABLE test_unshared_writer_buffer");
+    }
+
+    private static long getShardCount(QueryRunner queryRunner, String tableName)
+    {
+        MaterializedResult result = queryRunner.execute(format("SELECT count(*) FROM system.shards WHERE table_schema = 'tpch' AND table_name = '%s'", tableName));
+        return (long) result.getOnlyValue();
+    }
+
     @Test
     public void testShardsSystemTableWithTemporalColumn()
             throws Exception
@@ -0,0 +1,280 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.raptor;
+
+import com.facebook.presto.spi.ConnectorPageSink;
+import com.facebook.presto.spi.Page;
+import com.facebook.presto.spi.PrestoException;
+import com.google.common.collect.ImmutableList;
+import io.airlift.slice.Slice;
+import io.airlift.slice.Slices;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import static com.facebook.presto.block.BlockAssertions.createLongSequenceBlock;
+import static io.airlift.concurrent.MoreFutures.getFutureValue;
+import static io.airlift.concurrent.Threads.daemonThreadsNamed;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.Executors.newSingleThreadExecutor;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+public class TestSharedPageSinkManager
+{
+    private static final long MAX_QUEUED_BYTES = 1024 * 1024;
+
+    @Test
+    public void testLastWriterCommits()
+    {
+        SharedPageSinkManager manager = new SharedPageSinkManager(MAX_QUEUED_BYTES);
+        List<TestingPageSink> created = new ArrayList<>();
+
+        ConnectorPageSink first = manager.createPageSink(1, () -> createSink(created));
+        ConnectorPageSink second = manager.createPageSink(1, () -> createSink(created));
+        ConnectorPageSink other = manager.createPageSink(2, () -> createSink(created));
+        assertEquals(created.size(), 2);
+        assertEquals(manager.getActiveTransactionCount(), 2);
+
+        first.appendPage(createPage(1));
+        second.appendPage(createPage(2));
+        other.appendPage(createPage(4));
+
+        TestingPageSink shared = created.get(0);
+        assertEquals(shared.getRowCount(), 3);
+        assertEquals(created.get(1).getRowCount(), 4);
+
+        assertEquals(getFutureValue(first.finish()), ImmutableList.of());
+        assertFalse(shared.isFinished());
+
+        assertEquals(getFutureValue(second.finish()), ImmutableList.of(Slices.utf8Slice("3")));
+        assertTrue(shared.isFinished());
+        assertEquals(manager.getActiveTransactionCount(), 1);
+
+        // a writer that starts after the transaction was committed gets a new sink
+        manager.createPageSink(1, () -> createSink(created));
+        assertEquals(created.size(), 3);
+    }
+
+    @Test
+    public void testAbort()
+    {
+        SharedPageSinkManager manager = new SharedPageSinkManager(MAX_QUEUED_BYTES);
+        List<TestingPageSink> created = new ArrayList<>();
+
+        ConnectorPageSink first = manager.createPageSink(1, () -> createSink(created));
+        ConnectorPageSink second = manager.createPageSink(1, () -> createSink(created));
+        first.appendPage(createPage(1));
+
+        first.abort();
+        assertTrue(created.get(0).isAborted());
+        assertEquals(manager.getActiveTransactionCount(), 0);
+
+        try {
+            second.appendPage(createPage(1));
+            fail("expected exception");
+        }
+        catch (PrestoException e) {
+            assertEquals(e.getMessage(), "Page sink shared with another writer was aborted");
+        }
+
+        // aborting the remaining writer does not roll back again
+        second.abort();
+        assertEquals(created.get(0).getAbortCount(), 1);
+    }
+
+    @Test
+    public void testMemoryUsageIsShared()
+    {
+        SharedPageSinkManager manager = new SharedPageSinkManager(MAX_QUEUED_BYTES);
+        List<TestingPageSink> created = new ArrayList<>();
+
+        ConnectorPageSink first = manager.createPageSink(1, () -> createSink(created));
+        ConnectorPageSink second = manager.createPageSink(1, () -> createSink(created));
+        first.appendPage(createPage(1));
+        second.appendPage(createPage(3));
+
+        // the sink holds 4 rows of 100 bytes, reported once across both writers
+        assertEquals(first.getSystemMemoryUsage(), 200);
+        assertEquals(second.getSystemMemoryUsage(), 200);
+
+        first.finish();
+        assertEquals(second.getSystemMemoryUsage(), 400);
+    }
+
+    @Test
+    public void testAppendDoesNotWaitForFlush()
+            throws Exception
+    {
+        SharedPageSinkManager manager = new SharedPageSinkManager(MAX_QUEUED_BYTES);
+        BlockingPageSink shared = new BlockingPageSink();
+
+        ConnectorPageSink first = manager.createPageSink(1, () -> shared);
+        ConnectorPageSink second = manager.createPageSink(1, () -> shared);
+
+        ExecutorService executor = newSingleThreadExecutor(daemonThreadsNamed("test-%s"));
+        try {
+            // the first writer is stuck in the shared sink, as in a long flush
+            Future<?> firstAppend = executor.submit(() -> first.appendPage(createPage(1)));
+            shared.awaitAppendStarted();
+
+            // the second writer queues its page and continues
+            assertTrue(second.appendPage(createPage(2)).isDone());
+            assertEquals(shared.getRowCount(), 0);
+
+            // the first writer appends the queued page after its own
+            shared.releaseAppend();
+            firstAppend.get(10, SECONDS);
+            assertEquals(shared.getRowCount(), 3);
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testFullQueueBlocksWriter()
+            throws Exception
+    {
+        SharedPageSinkManager manager = new SharedPageSinkManager(1);
+        BlockingPageSink shared = new BlockingPageSink();
+
+        ConnectorPageSink first = manager.createPageSink(1, () -> shared);
+        ConnectorPageSink second = manager.createPageSink(1, () -> shared);
+
+        ExecutorService executor = newSingleThreadExecutor(daemonThreadsNamed("test-%s"));
+        try {
+            Future<?> firstAppend = executor.submit(() -> first.appendPage(createPage(1)));
+            shared.awaitAppendStarted();
+
+            CompletableFuture<?> blocked = second.appendPage(createPage(2));
+            assertFalse(blocked.isDone());
+
+            shared.releaseAppend();
+            firstAppend.get(10, SECONDS);
+            blocked.get(10, SECONDS);
+            assertEquals(shared.getRowCount(), 3);
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static TestingPageSink createSink(List<TestingPageSink> created)
+    {
+        TestingPageSink sink = new TestingPageSink();
+        created.add(sink);
+        return sink;
+    }
+
+    private static Page createPage(int rows)
+    {
+        return new Page(createLongSequenceBlock(0, rows));
+    }
+
+    private static class BlockingPageSink
+            extends TestingPageSink
+    {
+        private final CountDownLatch appendStarted = new CountDownLatch(1);
+        private final CountDownLatch appendReleased = new CountDownLatch(1);
+
+        @Override
+        public CompletableFuture<?> appendPage(Page page)
+        {
+            appendStarted.countDown();
+            try {
+                appendReleased.await();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            }
+            return super.appendPage(page);
+        }
+
+        public void awaitAppendStarted()
+                throws InterruptedException
+        {
+            assertTrue(appendStarted.await(10, SECONDS));
+        }
+
+        public void releaseAppend()
+        {
+            appendReleased.countDown();
+        }
+    }
+
+    private static class TestingPageSink
+            implements ConnectorPageSink
+    {
+        private long rowCount;
+        private boolean finished;
+        private int abortCount;
+
+        @Override
+        public long getSystemMemoryUsage()
+        {
+            return rowCount * 100;
+        }
+
+        @Override
+        public CompletableFuture<?> appendPage(Page page)
+        {
+            rowCount += page.getPositionCount();
+            return NOT_BLOCKED;
+        }
+
+        @Override
+        public CompletableFuture<Collection<Slice>> finish()
+        {
+            finished = true;
+            return completedFuture(ImmutableList.of(Slices.utf8Slice(String.valueOf(rowCount))));
+        }
+
+        @Override
+        public void abort()
+        {
+            abortCount++;
+        }
+
+        public long getRowCount()
+        {
+            return rowCount;
+        }
+
+        public boolean isFinished()
+        {
+            return finished;
+        }
+
+        public boolean isAborted()
+        {
+            return abortCount > 0;
+        }
+
+        public int getAbortCount()
+        {
+            return abortCount;
+        }
+    }
+}
@@ -577,10 +577,18 @@ public class TestDatabaseShardManager
         shardAssertion(tableId).range(c6, lessThan(BOOLEAN, true)).expected(shards);
         shardAssertion(tableId).range(c6, lessThan(BOOLEAN, false)).expected(shard1, shard3);
 
-        // TODO: support multiple ranges
         shardAssertion(tableId)
                 .domain(c1, createDomain(lessThan(BIGINT, 0L), greaterThan(BIGINT, 25L)))
-                .expected(shards);
+                .expected();
+        shardAssertion(tableId)
+                .domain(c1, createDomain(lessThan(BIGINT, 3L), greaterThan(BIGINT, 18L)))
+                .expected(shard2, shard3);
+        shardAssertion(tableId)
+                .domain(c1, createDomain(Range.equal(BIGINT, 3L), Range.equal(BIGINT, 13L), Range.equal(BIGINT, 16L)))
+                .expected(shard2, shard3);
+        shardAssertion(tableId)
+                .domain(c5, createDomain(Range.equal(createVarcharType(10), utf8Slice("cat")), Range.equal(createVarcharType(10), utf8Slice("pear"))))
+                .expected(shard1, shard2);
     }
 
     @Test
@@ -623,6 +631,33 @@ public class TestDatabaseShardManager
         shardAssertion(tableId).range(c1, greaterThan(createVarcharType(10), shorter)).expected(shards);
     }
 
+    @Test
+    public void testShardPruningAfterReplaceShards()
+            throws Exception
+    {
+        ShardInfo shard1 = shardInfo(UUID.randomUUID(), "node1", ImmutableList.of(new ColumnStats(1, 1L, 10L)));
+        ShardInfo shard2 = shardInfo(UUID.randomUUID(), "node1", ImmutableList.of(new ColumnStats(1, 20L, 30L)));
+
+        long tableId = createTable("test");
+        List<ColumnInfo> columns = ImmutableList.of(new ColumnInfo(1, BIGINT));
+        RaptorColumnHandle c1 = new RaptorColumnHandle("raptor", "c1", 1, BIGINT);
+
+        shardManager.createTable(tableId, columns, false, OptionalLong.empty());
+        shardManager.commitShards(shardManager.beginTransaction(), tableId, columns, ImmutableList.of(shard1, shard2), Optional.empty(), 0);
+
+        shardAssertion(tableId).equal(c1, BIGINT, 15L).expected();
+        shardAssertion(tableId).equal(c1, BIGINT, 25L).expected(shard2);
+
+        // the shard written by compaction is indexed with its own column stats
+        ShardInfo compacted = shardInfo(UUID.randomUUID(), "node1", ImmutableList.of(new ColumnStats(1, 1L, 30L)));
+        Set<UUID> oldShards = ImmutableSet.of(shard1.getShardUuid(), shard2.getShardUuid());
+        shardManager.replaceShardUuids(shardManager.beginTransaction(), tableId, columns, oldShards, ImmutableList.of(compacted), OptionalLong.of(0));
+
+        shardAssertion(tableId).equal(c1, BIGINT, 15L).expected(compacted);
+        shardAssertion(tableId).equal(c1, BIGINT, 40L).expected();
+        shardAssertion(tableId).domain(c1, createDomain(Range.equal(BIGINT, 5L), Range.equal(BIGINT, 25L))).expected(compacted);
+    }
+
     @Test
     public void testShardPruningNoStats()
             throws Exception
@@ -14,6 +14,7 @@
 package com.facebook.presto.raptor.metadata;
 
 import com.facebook.presto.raptor.RaptorColumnHandle;
+import com.facebook.presto.spi.predicate.Range;
 import com.facebook.presto.spi.predicate.SortedRangeSet;
 import com.facebook.presto.spi.predicate.TupleDomain;
 import com.google.common.collect.ImmutableList;
@@ -22,6 +23,10 @@ import com.google.common.collect.ImmutableSet;
 import io.airlift.slice.Slice;
 import org.testng.annotations.Test;
 
+import java.sql.JDBCType;
+import java.util.List;
+import java.util.stream.LongStream;
+
 import static com.facebook.presto.raptor.RaptorColumnHandle.bucketNumberColumnHandle;
 import static com.facebook.presto.raptor.RaptorColumnHandle.shardUuidColumnHandle;
 import static com.facebook.presto.raptor.util.UuidUtil.uuidStringToBytes;
@@ -30,11 +35,13 @@ import static com.facebook.presto.spi.predicate.Domain.singleValue;
 import static com.facebook.presto.spi.predicate.Range.equal;
 import static com.facebook.presto.spi.predicate.Range.greaterThanOrEqual;
 import static com.facebook.presto.spi.predicate.TupleDomain.withColumnDomains;
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
 import static com.facebook.presto.spi.type.IntegerType.INTEGER;
 import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
 import static io.airlift.slice.Slices.utf8Slice;
 import static java.sql.JDBCType.VARBINARY;
 import static java.util.UUID.randomUUID;
+import static java.util.stream.Collectors.toList;
 import static org.testng.Assert.assertEquals;
 
 public class TestShardPredicate
@@ -113,6 +120,40 @@ public class TestShardPredicate
         assertEquals(shardPredicate.getPredicate(), "(bucket_number >= ? OR bucket_number IS NULL) AND (bucket_number <= ? OR bucket_number IS NULL)");
     }
 
+    @Test
+    public void testMultipleRanges()
+            throws Exception
+    {
+        RaptorColumnHandle column = new RaptorColumnHandle("raptor", "c1", 1, BIGINT);
+        TupleDomain<RaptorColumnHandle> tupleDomain = withColumnDomains(ImmutableMap.of(
+                column,
+                create(SortedRangeSet.copyOf(BIGINT, ImmutableList.of(equal(BIGINT, 3L), greaterThanOrEqual(BIGINT, 10L))), false)));
+
+        ShardPredicate shardPredicate = ShardPredicate.create(tupleDomain, bucketed);
+        assertEquals(shardPredicate.getPredicate(), "(" +
+                "((c1_max >= ? OR c1_max IS NULL) AND (c1_min <= ? OR c1_min IS NULL)) OR " +
+                "((c1_max >= ? OR c1_max IS NULL)))");
+        assertEquals(shardPredicate.getTypes(), ImmutableList.of(JDBCType.BIGINT, JDBCType.BIGINT, JDBCType.BIGINT));
+        assertEquals(shardPredicate.getValues(), ImmutableList.of(3L, 3L, 10L));
+    }
+
+    @Test
+    public void testManyRangesUseSpan()
+            throws Exception
+    {
+        RaptorColumnHandle column = new RaptorColumnHandle("raptor", "c1", 1, BIGINT);
+        List<Range> ranges = LongStream.range(0, ShardPredicate.MAX_RANGE_COUNT + 1)
+                .mapToObj(value -> equal(BIGINT, value * 2))
+                .collect(toList());
+        TupleDomain<RaptorColumnHandle> tupleDomain = withColumnDomains(ImmutableMap.of(
+                column,
+                create(SortedRangeSet.copyOf(BIGINT, ranges), false)));
+
+        ShardPredicate shardPredicate = ShardPredicate.create(tupleDomain, bucketed);
+        assertEquals(shardPredicate.getPredicate(), "(c1_max >= ? OR c1_max IS NULL) AND (c1_min <= ? OR c1_min IS NULL)");
+        assertEquals(shardPredicate.getValues(), ImmutableList.of(0L, ShardPredicate.MAX_RANGE_COUNT * 2L));
+    }
+
     @Test
     public void testBucketNumberForNonBucketed()
             throws Exception
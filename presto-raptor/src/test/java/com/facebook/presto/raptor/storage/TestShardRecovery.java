@@ -15,11 +15,17 @@ package com.facebook.presto.raptor.storage;
 
 import com.facebook.presto.raptor.backup.BackupStore;
 import com.facebook.presto.raptor.backup.FileBackupStore;
+import com.facebook.presto.raptor.metadata.ColumnInfo;
+import com.facebook.presto.raptor.metadata.MetadataDao;
+import com.facebook.presto.raptor.metadata.ShardInfo;
 import com.facebook.presto.raptor.metadata.ShardManager;
+import com.facebook.presto.raptor.metadata.ShardMetadata;
 import com.facebook.presto.spi.PrestoException;
 import com.facebook.presto.testing.TestingNodeManager;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.io.Files;
+import io.airlift.units.DataSize;
 import io.airlift.units.Duration;
 import org.skife.jdbi.v2.DBI;
 import org.skife.jdbi.v2.Handle;
@@ -31,6 +37,7 @@ import org.testng.annotations.Test;
 import java.io.File;
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalInt;
 import java.util.OptionalLong;
 import java.util.UUID;
 
@@ -38,13 +45,21 @@ import static com.facebook.presto.raptor.RaptorErrorCode.RAPTOR_BACKUP_CORRUPTIO
 import static com.facebook.presto.raptor.metadata.SchemaDaoUtil.createTablesWithRetry;
 import static com.facebook.presto.raptor.metadata.TestDatabaseShardManager.createShardManager;
 import static com.facebook.presto.raptor.storage.OrcStorageManager.xxhash64;
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.collect.Iterables.getOnlyElement;
 import static com.google.common.io.Files.createTempDir;
 import static com.google.common.io.MoreFiles.deleteRecursively;
 import static com.google.common.io.RecursiveDeleteOption.ALLOW_INSECURE;
+import static io.airlift.testing.Assertions.assertGreaterThanOrEqual;
+import static io.airlift.testing.Assertions.assertLessThan;
+import static io.airlift.units.DataSize.Unit.BYTE;
+import static io.airlift.units.Duration.nanosSince;
 import static java.io.File.createTempFile;
 import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertNotEquals;
@@ -55,8 +70,12 @@ import static org.testng.Assert.fail;
 @Test(singleThreaded = true)
 public class TestShardRecovery
 {
+    private static final String SHARD_DATA = "test data";
+
     private StorageService storageService;
+    private ShardManager shardManager;
     private ShardRecoveryManager recoveryManager;
+    private IDBI dbi;
     private Handle dummyHandle;
     private File temporary;
     private FileBackupStore backupStore;
@@ -73,10 +92,10 @@ public class TestShardRecovery
         storageService = new FileStorageService(directory);
         storageService.start();
 
-        IDBI dbi = new DBI("jdbc:h2:mem:test" + System.nanoTime());
+        dbi = new DBI("jdbc:h2:mem:test" + System.nanoTime());
         dummyHandle = dbi.open();
         createTablesWithRetry(dbi);
-        ShardManager shardManager = createShardManager(dbi);
+        shardManager = createShardManager(dbi);
         recoveryManager = createShardRecoveryManager(storageService, Optional.of(backupStore), shardManager);
     }
 
@@ -245,6 +264,153 @@ public class TestShardRecovery
         recoveryManager.restoreFromBackup(UUID.randomUUID(), 0, OptionalLong.empty());
     }
 
+    @Test
+    public void testPrioritizeMissingShards()
+    {
+        ShardMetadata older = shardMetadata(1);
+        ShardMetadata newest = shardMetadata(7);
+        ShardMetadata newer = shardMetadata(3);
+
+        assertEquals(ShardRecoveryManager.prioritizeMissingShards(ImmutableList.of(older, newest, newer)), ImmutableList.of(newest, newer, older));
+    }
+
+    @Test
+    public void testBackgroundRecoveryRateLimit()
+            throws Exception
+    {
+        List<UUID> shards = createMissingShards(3);
+
+        // each shard uses half a second of the rate
+        ShardRecoveryManager manager = createShardRecoveryManager(new DataSize(SHARD_DATA.length() * 2, BYTE), 10);
+        try {
+            manager.start();
+            long start = System.nanoTime();
+            manager.enqueueMissingShards();
+            awaitBackgroundRecovery(manager);
+            assertGreaterThanOrEqual(nanosSince(start).toMillis(), 800L);
+        }
+        finally {
+            manager.shutdown();
+        }
+
+        for (UUID shard : shards) {
+            assertTrue(storageService.getStorageFile(shard).exists());
+        }
+    }
+
+    @Test
+    public void testBackgroundRecoveryQueuesShardOnce()
+            throws Exception
+    {
+        List<UUID> shards = createMissingShards(3);
+
+        // each shard uses a second of the rate, so the later shards are still queued when they are discovered again
+        ShardRecoveryManager manager = createShardRecoveryManager(new DataSize(SHARD_DATA.length(), BYTE), 10);
+        ShardRecoveryStats stats = manager.getStats();
+        try {
+            manager.start();
+            manager.enqueueMissingShards();
+            assertGreaterThanOrEqual(stats.getQueuedBackgroundShards(), 2L);
+            assertGreaterThanOrEqual(stats.getQueuedBackgroundBytes(), 2L * SHARD_DATA.length());
+
+            manager.enqueueMissingShards();
+            assertEquals(stats.getBackgroundShardRecovery().getTotalCount(), 3);
+
+            awaitBackgroundRecovery(manager);
+            assertEquals(stats.getBackgroundShardRecovery().getTotalCount(), 3);
+            assertEquals(stats.getQueuedBackgroundShards(), 0);
+            assertEquals(stats.getQueuedBackgroundBytes(), 0);
+        }
+        finally {
+            manager.shutdown();
+        }
+
+        for (UUID shard : shards) {
+            assertTrue(storageService.getStorageFile(shard).exists());
+        }
+    }
+
+    @Test
+    public void testActiveRecoveryNotDelayedByRateLimit()
+            throws Exception
+    {
+        // the newest shard is recovered first, the oldest one last
+        List<UUID> shards = createMissingShards(3);
+
+        // each shard uses a second of the rate, with a single recovery thread
+        ShardRecoveryManager manager = createShardRecoveryManager(new DataSize(SHARD_DATA.length(), BYTE), 1);
+        try {
+            manager.start();
+            manager.enqueueMissingShards();
+
+            // let background recovery wait for the rate limit
+            MILLISECONDS.sleep(200);
+
+            long start = System.nanoTime();
+            manager.recoverShard(shards.get(0)).get(10, SECONDS);
+            assertLessThan(nanosSince(start), new Duration(500, MILLISECONDS));
+
+            awaitBackgroundRecovery(manager);
+        }
+        finally {
+            manager.shutdown();
+        }
+
+        for (UUID shard : shards) {
+            assertTrue(storageService.getStorageFile(shard).exists());
+        }
+    }
+
+    private List<UUID> createMissingShards(int count)
+            throws Exception
+    {
+        String nodeIdentifier = new TestingNodeManager().getCurrentNode().getNodeIdentifier();
+        ImmutableList.Builder<ShardInfo> shards = ImmutableList.builder();
+        for (int i = 0; i < count; i++) {
+            UUID shardUuid = UUID.randomUUID();
+            File tempFile = createTempFile("tmp", null, temporary);
+            Files.write(SHARD_DATA, tempFile, UTF_8);
+            backupStore.backupShard(shardUuid, tempFile);
+            shards.add(new ShardInfo(shardUuid, OptionalInt.empty(), ImmutableSet.of(nodeIdentifier), ImmutableList.of(), 1, tempFile.length(), tempFile.length(), xxhash64(tempFile)));
+        }
+
+        long tableId = dbi.onDemand(MetadataDao.class).insertTable("test", "test_" + System.nanoTime(), false, false, null, 0);
+        List<ColumnInfo> columns = ImmutableList.of(new ColumnInfo(1, BIGINT));
+        shardManager.createTable(tableId, columns, false, OptionalLong.empty());
+        shardManager.commitShards(shardManager.beginTransaction(), tableId, columns, shards.build(), Optional.empty(), 0);
+
+        return shards.build().stream()
+                .map(ShardInfo::getShardUuid)
+                .collect(toImmutableList());
+    }
+
+    private ShardRecoveryManager createShardRecoveryManager(DataSize maxBackgroundRecoveryRate, int recoveryThreads)
+    {
+        return new ShardRecoveryManager(
+                storageService,
+                Optional.of(backupStore),
+                new TestingNodeManager(),
+                shardManager,
+                new Duration(5, MINUTES),
+                recoveryThreads,
+                Optional.of(maxBackgroundRecoveryRate));
+    }
+
+    private static void awaitBackgroundRecovery(ShardRecoveryManager recoveryManager)
+            throws InterruptedException
+    {
+        long start = System.nanoTime();
+        while (recoveryManager.getStats().getQueuedBackgroundShards() > 0) {
+            assertLessThan(nanosSince(start), new Duration(30, SECONDS), "background recovery did not finish");
+            MILLISECONDS.sleep(10);
+        }
+    }
+
+    private static ShardMetadata shardMetadata(long shardId)
+    {
+        return new ShardMetadata(1, shardId, UUID.randomUUID(), OptionalInt.empty(), 10, 100, 200, OptionalLong.empty(), OptionalLong.empty(), OptionalLong.empty());
+    }
+
     public static ShardRecoveryManager createShardRecoveryManager(
             StorageService storageService,
             Optional<BackupStore> backupStore,
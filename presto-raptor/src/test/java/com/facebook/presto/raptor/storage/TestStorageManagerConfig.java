@@ -56,6 +56,7 @@ public class TestStorageManagerConfig
                 .setCompactionInterval(new Duration(1, HOURS))
                 .setShardEjectorInterval(new Duration(4, HOURS))
                 .setRecoveryThreads(10)
+                .setMaxBackgroundRecoveryRate(null)
                 .setOrganizationThreads(5)
                 .setCompactionEnabled(true)
                 .setOrganizationEnabled(true)
@@ -63,6 +64,7 @@ public class TestStorageManagerConfig
                 .setMaxShardRows(1_000_000)
                 .setMaxShardSize(new DataSize(256, MEGABYTE))
                 .setMaxBufferSize(new DataSize(256, MEGABYTE))
+                .setSharedWriterBufferEnabled(false)
                 .setOneSplitPerBucketThreshold(0));
     }
 
@@ -85,10 +87,12 @@ public class TestStorageManagerConfig
                 .put("storage.organization-interval", "4h")
                 .put("storage.ejector-interval", "9h")
                 .put("storage.max-recovery-threads", "12")
+                .put("storage.max-background-recovery-rate", "50MB")
                 .put("storage.max-organization-threads", "12")
                 .put("storage.max-shard-rows", "10000")
                 .put("storage.max-shard-size", "10MB")
                 .put("storage.max-buffer-size", "512MB")
+                .put("storage.shared-writer-buffer-enabled", "true")
                 .put("storage.one-split-per-bucket-threshold", "4")
                 .build();
 
@@ -108,10 +112,12 @@ public class TestStorageManagerConfig
                 .setOrganizationInterval(new Duration(4, HOURS))
                 .setShardEjectorInterval(new Duration(9, HOURS))
                 .setRecoveryThreads(12)
+                .setMaxBackgroundRecoveryRate(new DataSize(50, MEGABYTE))
                 .setOrganizationThreads(12)
                 .setMaxShardRows(10_000)
                 .setMaxShardSize(new DataSize(10, MEGABYTE))
                 .setMaxBufferSize(new DataSize(512, MEGABYTE))
+                .setSharedWriterBufferEnabled(true)
                 .setOneSplitPerBucketThreshold(4);
 
         assertFullMapping(properties, expected);
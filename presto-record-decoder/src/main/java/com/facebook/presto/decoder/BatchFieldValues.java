@@ -0,0 +1,145 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.decoder;
+
+import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.block.BlockBuilder;
+import com.facebook.presto.spi.block.BlockBuilderStatus;
+import com.facebook.presto.spi.type.Type;
+import io.airlift.slice.Slice;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Values of the columns of a record cursor that are decoded in batches by a {@link BatchRowDecoder}.
+ * The cursor decodes the rows it has fetched at once, and then reads the values of the current row
+ * by position, instead of through {@link FieldValueProvider}s.
+ */
+public class BatchFieldValues
+{
+    private final BatchRowDecoder decoder;
+    private final List<Type> decodedTypes;
+    private final int[] decodedFields;
+    private final Type[] fieldTypes;
+    private final Block[] blocks;
+
+    private boolean[] corrupt = new boolean[0];
+    private int position;
+
+    private BatchFieldValues(BatchRowDecoder decoder, List<DecoderColumnHandle> columnHandles, List<DecoderColumnHandle> decodedColumns)
+    {
+        this.decoder = requireNonNull(decoder, "decoder is null");
+        this.decodedTypes = decodedColumns.stream()
+                .map(DecoderColumnHandle::getType)
+                .collect(toImmutableList());
+
+        decodedFields = new int[decodedColumns.size()];
+        fieldTypes = new Type[columnHandles.size()];
+        int decoded = 0;
+        for (int field = 0; field < columnHandles.size(); field++) {
+            if (decoded < decodedColumns.size() && columnHandles.get(field) == decodedColumns.get(decoded)) {
+                decodedFields[decoded] = field;
+                fieldTypes[field] = decodedColumns.get(decoded).getType();
+                decoded++;
+            }
+        }
+        checkArgument(decoded == decodedColumns.size(), "decodedColumns is not a subsequence of columnHandles");
+        blocks = new Block[columnHandles.size()];
+    }
+
+    /**
+     * Returns the batch field values for the columns that have a field decoder, or empty if
+     * there are no such columns or the row decoder can not decode all of them in batches.
+     */
+    public static Optional<BatchFieldValues> create(RowDecoder rowDecoder, List<DecoderColumnHandle> columnHandles, Map<DecoderColumnHandle, FieldDecoder<?>> fieldDecoders)
+    {
+        List<DecoderColumnHandle> decodedColumns = columnHandles.stream()
+                .filter(fieldDecoders::containsKey)
+                .collect(toImmutableList());
+        if (decodedColumns.isEmpty()) {
+            return Optional.empty();
+        }
+        return rowDecoder.createBatchRowDecoder(decodedColumns)
+                .map(decoder -> new BatchFieldValues(decoder, columnHandles, decodedColumns));
+    }
+
+    /**
+     * Decodes the given rows, and moves to the first of them.
+     */
+    public void decode(List<byte[]> rows)
+    {
+        BlockBuilder[] blockBuilders = new BlockBuilder[decodedFields.length];
+        for (int i = 0; i < decodedFields.length; i++) {
+            blockBuilders[i] = decodedTypes.get(i).createBlockBuilder(new BlockBuilderStatus(), rows.size());
+        }
+        corrupt = decoder.decodeRows(rows, blockBuilders);
+        for (int i = 0; i < decodedFields.length; i++) {
+            blocks[decodedFields[i]] = blockBuilders[i].build();
+        }
+        position = 0;
+    }
+
+    public void setPosition(int position)
+    {
+        checkArgument(position >= 0 && position < corrupt.length, "Invalid position %s in batch of %s rows", position, corrupt.length);
+        this.position = position;
+    }
+
+    /**
+     * Returns true if the current row could not be decoded.
+     */
+    public boolean isCorrupt()
+    {
+        return corrupt[position];
+    }
+
+    /**
+     * Returns true if the field is one of the columns decoded in batches.
+     */
+    public boolean isDecoded(int field)
+    {
+        return fieldTypes[field] != null;
+    }
+
+    public boolean isNull(int field)
+    {
+        return blocks[field].isNull(position);
+    }
+
+    public boolean getBoolean(int field)
+    {
+        return fieldTypes[field].getBoolean(blocks[field], position);
+    }
+
+    public long getLong(int field)
+    {
+        return fieldTypes[field].getLong(blocks[field], position);
+    }
+
+    public double getDouble(int field)
+    {
+        return fieldTypes[field].getDouble(blocks[field], position);
+    }
+
+    public Slice getSlice(int field)
+    {
+        return fieldTypes[field].getSlice(blocks[field], position);
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.decoder;
+
+import com.facebook.presto.spi.block.BlockBuilder;
+
+import java.util.List;
+
+/**
+ * Implementations decode many rows at once, and write the values of the columns they
+ * were created for straight into block builders. Unlike {@link RowDecoder}, no
+ * {@link FieldValueProvider} is created for the fields.
+ */
+public interface BatchRowDecoder
+{
+    /**
+     * Decodes the given rows. One position is appended to every block builder for each row.
+     * A row that can not be decoded produces a null in every column.
+     *
+     * @param rows The data of the rows to decode.
+     * @param output One block builder for each column, in the order of the columns of this decoder.
+     * @return for every row, true if it could not be decoded (was corrupt)
+     */
+    boolean[] decodeRows(List<byte[]> rows, BlockBuilder[] output);
+}
@@ -15,6 +15,7 @@ package com.facebook.presto.decoder;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 
 /**
@@ -42,4 +43,13 @@ public interface RowDecoder
             Set<FieldValueProvider> fieldValueProviders,
             List<DecoderColumnHandle> columnHandles,
             Map<DecoderColumnHandle, FieldDecoder<?>> fieldDecoders);
+
+    /**
+     * Returns a decoder that decodes the given columns of many rows at once, or empty if
+     * this row decoder can not decode all of the columns in batches.
+     */
+    default Optional<BatchRowDecoder> createBatchRowDecoder(List<DecoderColumnHandle> columnHandles)
+    {
+        return Optional.empty();
+    }
 }
@@ -0,0 +1,126 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.decoder.csv;
+
+import au.com.bytecode.opencsv.CSVParser;
+import com.facebook.presto.decoder.BatchRowDecoder;
+import com.facebook.presto.decoder.DecoderColumnHandle;
+import com.facebook.presto.spi.block.BlockBuilder;
+import com.facebook.presto.spi.type.Type;
+import com.google.common.collect.ImmutableList;
+import io.airlift.slice.Slice;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static com.facebook.presto.decoder.FieldDecoder.DEFAULT_FIELD_DECODER_NAME;
+import static com.facebook.presto.spi.type.Varchars.isVarcharType;
+import static com.facebook.presto.spi.type.Varchars.truncateToLength;
+import static com.google.common.base.Preconditions.checkArgument;
+import static io.airlift.slice.Slices.utf8Slice;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * CSV batch row decoder. The fields of every row are written straight into the
+ * block builders, with the same values as {@link CsvRowDecoder} and the default
+ * {@link CsvFieldDecoder}.
+ */
+public class CsvBatchRowDecoder
+        implements BatchRowDecoder
+{
+    private final CSVParser parser = new CSVParser();
+    private final List<Type> types;
+    private final int[] fieldIndexes;
+
+    public CsvBatchRowDecoder(List<DecoderColumnHandle> columnHandles)
+    {
+        requireNonNull(columnHandles, "columnHandles is null");
+
+        ImmutableList.Builder<Type> types = ImmutableList.builder();
+        fieldIndexes = new int[columnHandles.size()];
+        for (int i = 0; i < columnHandles.size(); i++) {
+            DecoderColumnHandle columnHandle = columnHandles.get(i);
+            checkArgument(isSupported(columnHandle), "Column %s can not be decoded in batches", columnHandle.getName());
+            types.add(columnHandle.getType());
+            fieldIndexes[i] = Integer.parseInt(columnHandle.getMapping());
+        }
+        this.types = types.build();
+    }
+
+    /**
+     * Returns true if the column is decoded by the default CSV field decoder.
+     */
+    public static boolean isSupported(DecoderColumnHandle columnHandle)
+    {
+        if (columnHandle.isInternal() || columnHandle.getMapping() == null) {
+            return false;
+        }
+        if (columnHandle.getDataFormat() != null && !columnHandle.getDataFormat().equals(DEFAULT_FIELD_DECODER_NAME)) {
+            return false;
+        }
+        Class<?> javaType = columnHandle.getType().getJavaType();
+        return javaType == boolean.class || javaType == long.class || javaType == double.class || javaType == Slice.class;
+    }
+
+    @Override
+    public boolean[] decodeRows(List<byte[]> rows, BlockBuilder[] output)
+    {
+        checkArgument(output.length == types.size(), "expected %s block builders, but got %s", types.size(), output.length);
+
+        boolean[] corrupt = new boolean[rows.size()];
+        for (int row = 0; row < rows.size(); row++) {
+            String[] fields;
+            try {
+                fields = parser.parseLine(new String(rows.get(row), StandardCharsets.UTF_8));
+            }
+            catch (Exception e) {
+                corrupt[row] = true;
+                fields = new String[0];
+            }
+
+            for (int column = 0; column < fieldIndexes.length; column++) {
+                int fieldIndex = fieldIndexes[column];
+                String value = fieldIndex < fields.length ? fields[fieldIndex] : null;
+                writeValue(types.get(column), value, output[column]);
+            }
+        }
+        return corrupt;
+    }
+
+    private static void writeValue(Type type, String value, BlockBuilder output)
+    {
+        if (value == null || value.isEmpty()) {
+            output.appendNull();
+            return;
+        }
+
+        Class<?> javaType = type.getJavaType();
+        if (javaType == boolean.class) {
+            type.writeBoolean(output, Boolean.parseBoolean(value.trim()));
+        }
+        else if (javaType == long.class) {
+            type.writeLong(output, Long.parseLong(value.trim()));
+        }
+        else if (javaType == double.class) {
+            type.writeDouble(output, Double.parseDouble(value.trim()));
+        }
+        else {
+            Slice slice = utf8Slice(value);
+            if (isVarcharType(type)) {
+                slice = truncateToLength(slice, type);
+            }
+            type.writeSlice(output, slice);
+        }
+    }
+}
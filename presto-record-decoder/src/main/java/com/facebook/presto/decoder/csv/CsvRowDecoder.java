@@ -14,6 +14,7 @@
 package com.facebook.presto.decoder.csv;
 
 import au.com.bytecode.opencsv.CSVParser;
+import com.facebook.presto.decoder.BatchRowDecoder;
 import com.facebook.presto.decoder.DecoderColumnHandle;
 import com.facebook.presto.decoder.FieldDecoder;
 import com.facebook.presto.decoder.FieldValueProvider;
@@ -24,6 +25,7 @@ import javax.inject.Inject;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 
 import static com.google.common.base.Preconditions.checkState;
@@ -89,4 +91,13 @@ public class CsvRowDecoder
         }
         return false;
     }
+
+    @Override
+    public Optional<BatchRowDecoder> createBatchRowDecoder(List<DecoderColumnHandle> columnHandles)
+    {
+        if (!columnHandles.stream().allMatch(CsvBatchRowDecoder::isSupported)) {
+            return Optional.empty();
+        }
+        return Optional.of(new CsvBatchRowDecoder(columnHandles));
+    }
 }
@@ -0,0 +1,345 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.decoder.json;
+
+import com.facebook.presto.decoder.BatchRowDecoder;
+import com.facebook.presto.decoder.DecoderColumnHandle;
+import com.facebook.presto.spi.block.BlockBuilder;
+import com.facebook.presto.spi.type.Type;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.google.common.base.Splitter;
+import io.airlift.slice.Slice;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.facebook.presto.decoder.FieldDecoder.DEFAULT_FIELD_DECODER_NAME;
+import static com.facebook.presto.spi.type.Varchars.isVarcharType;
+import static com.facebook.presto.spi.type.Varchars.truncateToLength;
+import static com.google.common.base.Preconditions.checkArgument;
+import static io.airlift.slice.Slices.utf8Slice;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * JSON batch row decoder. Messages are read with a streaming parser, and only the
+ * fields that are mapped to a column are materialized. Fields that are not mapped
+ * are skipped without being parsed into a tree.
+ * <p>
+ * The values are the same as the ones produced by {@link JsonRowDecoder} with the
+ * default {@link JsonFieldDecoder}.
+ */
+public class JsonBatchRowDecoder
+        implements BatchRowDecoder
+{
+    private final ObjectMapper objectMapper;
+    private final PathNode root = new PathNode();
+    private final ColumnValue[] values;
+
+    public JsonBatchRowDecoder(ObjectMapper objectMapper, List<DecoderColumnHandle> columnHandles)
+    {
+        this.objectMapper = requireNonNull(objectMapper, "objectMapper is null");
+        requireNonNull(columnHandles, "columnHandles is null");
+
+        values = new ColumnValue[columnHandles.size()];
+        for (int i = 0; i < columnHandles.size(); i++) {
+            DecoderColumnHandle columnHandle = columnHandles.get(i);
+            checkArgument(isSupported(columnHandle), "Column %s can not be decoded in batches", columnHandle.getName());
+            values[i] = new ColumnValue(columnHandle.getType());
+
+            PathNode node = root;
+            for (String pathElement : Splitter.on('/').omitEmptyStrings().split(columnHandle.getMapping())) {
+                node = node.getOrAddChild(pathElement);
+            }
+            node.addColumn(i);
+        }
+    }
+
+    /**
+     * Returns true if the column is decoded by the default JSON field decoder.
+     */
+    public static boolean isSupported(DecoderColumnHandle columnHandle)
+    {
+        if (columnHandle.isInternal() || columnHandle.getMapping() == null) {
+            return false;
+        }
+        if (columnHandle.getDataFormat() != null && !columnHandle.getDataFormat().equals(DEFAULT_FIELD_DECODER_NAME)) {
+            return false;
+        }
+        Class<?> javaType = columnHandle.getType().getJavaType();
+        return javaType == boolean.class || javaType == long.class || javaType == double.class || javaType == Slice.class;
+    }
+
+    @Override
+    public boolean[] decodeRows(List<byte[]> rows, BlockBuilder[] output)
+    {
+        checkArgument(output.length == values.length, "expected %s block builders, but got %s", values.length, output.length);
+
+        boolean[] corrupt = new boolean[rows.size()];
+        for (int row = 0; row < rows.size(); row++) {
+            for (ColumnValue value : values) {
+                value.setNull();
+            }
+
+            try (JsonParser parser = objectMapper.getFactory().createParser(rows.get(row))) {
+                JsonToken token = parser.nextToken();
+                if (token == null) {
+                    throw new IOException("No content");
+                }
+                readValue(parser, token, root);
+            }
+            catch (IOException e) {
+                corrupt[row] = true;
+                for (ColumnValue value : values) {
+                    value.setNull();
+                }
+            }
+
+            for (int column = 0; column < values.length; column++) {
+                values[column].write(output[column]);
+            }
+        }
+        return corrupt;
+    }
+
+    private void readValue(JsonParser parser, JsonToken token, PathNode node)
+            throws IOException
+    {
+        if (node.hasChildren()) {
+            if (node.hasColumns()) {
+                // the value is needed as a whole, in addition to its fields
+                readTree(readValueAsTree(parser), node);
+            }
+            else if (token == JsonToken.START_OBJECT) {
+                readObject(parser, node);
+            }
+            else {
+                // only objects have fields
+                parser.skipChildren();
+            }
+            return;
+        }
+
+        List<Integer> columns = node.getColumns();
+        if (columns.size() == 1 && values[columns.get(0)].readScalar(parser, token)) {
+            return;
+        }
+
+        JsonNode tree = readValueAsTree(parser);
+        for (int column : columns) {
+            values[column].set(tree);
+        }
+    }
+
+    private void readObject(JsonParser parser, PathNode node)
+            throws IOException
+    {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            PathNode child = node.getChild(parser.getCurrentName());
+            JsonToken token = parser.nextToken();
+            if (child == null) {
+                parser.skipChildren();
+            }
+            else {
+                readValue(parser, token, child);
+            }
+        }
+    }
+
+    private static JsonNode readValueAsTree(JsonParser parser)
+            throws IOException
+    {
+        JsonNode tree = parser.readValueAsTree();
+        return tree == null ? NullNode.getInstance() : tree;
+    }
+
+    private void readTree(JsonNode tree, PathNode node)
+    {
+        for (int column : node.getColumns()) {
+            values[column].set(tree);
+        }
+        for (Map.Entry<String, PathNode> child : node.getChildren().entrySet()) {
+            if (tree.has(child.getKey())) {
+                readTree(tree.path(child.getKey()), child.getValue());
+            }
+        }
+    }
+
+    private static final class PathNode
+    {
+        private final Map<String, PathNode> children = new HashMap<>();
+        private final List<Integer> columns = new ArrayList<>();
+
+        public PathNode getOrAddChild(String name)
+        {
+            return children.computeIfAbsent(name, key -> new PathNode());
+        }
+
+        public PathNode getChild(String name)
+        {
+            return children.get(name);
+        }
+
+        public Map<String, PathNode> getChildren()
+        {
+            return children;
+        }
+
+        public boolean hasChildren()
+        {
+            return !children.isEmpty();
+        }
+
+        public void addColumn(int column)
+        {
+            columns.add(column);
+        }
+
+        public List<Integer> getColumns()
+        {
+            return columns;
+        }
+
+        public boolean hasColumns()
+        {
+            return !columns.isEmpty();
+        }
+    }
+
+    /**
+     * The value of a column in the current row.
+     */
+    private static final class ColumnValue
+    {
+        private final Type type;
+        private final Class<?> javaType;
+
+        private boolean isNull;
+        private boolean booleanValue;
+        private long longValue;
+        private double doubleValue;
+        private Slice sliceValue;
+
+        public ColumnValue(Type type)
+        {
+            this.type = requireNonNull(type, "type is null");
+            this.javaType = type.getJavaType();
+        }
+
+        public void setNull()
+        {
+            isNull = true;
+            sliceValue = null;
+        }
+
+        /**
+         * Reads the current token without building a tree, if that gives the same
+         * value as the tree would. Returns false if the value has not been read.
+         */
+        public boolean readScalar(JsonParser parser, JsonToken token)
+                throws IOException
+        {
+            if (token == JsonToken.VALUE_NULL) {
+                setNull();
+                return true;
+            }
+            if (javaType == boolean.class) {
+                if (token == JsonToken.VALUE_TRUE || token == JsonToken.VALUE_FALSE) {
+                    isNull = false;
+                    booleanValue = token == JsonToken.VALUE_TRUE;
+                    return true;
+                }
+            }
+            else if (javaType == long.class) {
+                if (token == JsonToken.VALUE_NUMBER_INT) {
+                    JsonParser.NumberType numberType = parser.getNumberType();
+                    if (numberType == JsonParser.NumberType.INT || numberType == JsonParser.NumberType.LONG) {
+                        isNull = false;
+                        longValue = parser.getLongValue();
+                        return true;
+                    }
+                }
+            }
+            else if (javaType == double.class) {
+                if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+                    isNull = false;
+                    doubleValue = parser.getDoubleValue();
+                    return true;
+                }
+            }
+            else if (javaType == Slice.class) {
+                if (token == JsonToken.VALUE_STRING) {
+                    isNull = false;
+                    sliceValue = utf8Slice(parser.getText());
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Sets the value the same way {@link JsonFieldDecoder.JsonValueProvider} converts a node.
+         */
+        public void set(JsonNode node)
+        {
+            if (node.isMissingNode() || node.isNull()) {
+                setNull();
+                return;
+            }
+
+            isNull = false;
+            if (javaType == boolean.class) {
+                booleanValue = node.asBoolean();
+            }
+            else if (javaType == long.class) {
+                longValue = node.asLong();
+            }
+            else if (javaType == double.class) {
+                doubleValue = node.asDouble();
+            }
+            else {
+                sliceValue = utf8Slice(node.isValueNode() ? node.asText() : node.toString());
+            }
+        }
+
+        public void write(BlockBuilder output)
+        {
+            if (isNull) {
+                output.appendNull();
+            }
+            else if (javaType == boolean.class) {
+                type.writeBoolean(output, booleanValue);
+            }
+            else if (javaType == long.class) {
+                type.writeLong(output, longValue);
+            }
+            else if (javaType == double.class) {
+                type.writeDouble(output, doubleValue);
+            }
+            else {
+                Slice slice = sliceValue;
+                if (isVarcharType(type)) {
+                    slice = truncateToLength(slice, type);
+                }
+                type.writeSlice(output, slice);
+            }
+        }
+    }
+}
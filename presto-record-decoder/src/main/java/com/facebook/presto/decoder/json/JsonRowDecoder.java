@@ -13,6 +13,7 @@
  */
 package com.facebook.presto.decoder.json;
 
+import com.facebook.presto.decoder.BatchRowDecoder;
 import com.facebook.presto.decoder.DecoderColumnHandle;
 import com.facebook.presto.decoder.FieldDecoder;
 import com.facebook.presto.decoder.FieldValueProvider;
@@ -26,6 +27,7 @@ import javax.inject.Inject;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 
 import static com.google.common.base.Preconditions.checkState;
@@ -83,6 +85,15 @@ public class JsonRowDecoder
         return false;
     }
 
+    @Override
+    public Optional<BatchRowDecoder> createBatchRowDecoder(List<DecoderColumnHandle> columnHandles)
+    {
+        if (!columnHandles.stream().allMatch(JsonBatchRowDecoder::isSupported)) {
+            return Optional.empty();
+        }
+        return Optional.of(new JsonBatchRowDecoder(objectMapper, columnHandles));
+    }
+
     private static JsonNode locateNode(JsonNode tree, DecoderColumnHandle columnHandle)
     {
         String mapping = columnHandle.getMapping();
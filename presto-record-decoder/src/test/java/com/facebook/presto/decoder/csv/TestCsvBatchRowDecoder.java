@@ -0,0 +1,107 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.decoder.csv;
+
+import com.facebook.presto.decoder.DecoderColumnHandle;
+import com.facebook.presto.decoder.DecoderTestColumnHandle;
+import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.block.BlockBuilder;
+import com.facebook.presto.spi.block.BlockBuilderStatus;
+import com.facebook.presto.spi.type.Type;
+import com.google.common.collect.ImmutableList;
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.spi.type.BooleanType.BOOLEAN;
+import static com.facebook.presto.spi.type.DoubleType.DOUBLE;
+import static com.facebook.presto.spi.type.VarcharType.createVarcharType;
+import static io.airlift.slice.Slices.utf8Slice;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestCsvBatchRowDecoder
+{
+    @Test
+    public void testDecodeRows()
+    {
+        List<DecoderColumnHandle> columns = ImmutableList.of(
+                column(0, createVarcharType(2), "0"),
+                column(1, BIGINT, "1"),
+                column(2, DOUBLE, "2"),
+                column(3, BOOLEAN, "3"),
+                column(4, BIGINT, "4"));
+
+        List<byte[]> rows = ImmutableList.of(
+                "\"row 1\",\" 100\",4.5,true,7".getBytes(UTF_8),
+                "ab,,,False".getBytes(UTF_8),
+                "\"unterminated,1".getBytes(UTF_8),
+                "x".getBytes(UTF_8));
+
+        BlockBuilder[] blockBuilders = new BlockBuilder[columns.size()];
+        for (int i = 0; i < columns.size(); i++) {
+            blockBuilders[i] = columns.get(i).getType().createBlockBuilder(new BlockBuilderStatus(), rows.size());
+        }
+
+        boolean[] corrupt = new CsvBatchRowDecoder(columns).decodeRows(rows, blockBuilders);
+        assertEquals(corrupt.length, rows.size());
+        assertFalse(corrupt[0]);
+        assertFalse(corrupt[1]);
+        assertTrue(corrupt[2]);
+        assertFalse(corrupt[3]);
+
+        Block varchars = blockBuilders[0].build();
+        Block longs = blockBuilders[1].build();
+        Block doubles = blockBuilders[2].build();
+        Block booleans = blockBuilders[3].build();
+        Block missing = blockBuilders[4].build();
+
+        assertEquals(createVarcharType(2).getSlice(varchars, 0), utf8Slice("ro"));
+        assertEquals(BIGINT.getLong(longs, 0), 100);
+        assertEquals(DOUBLE.getDouble(doubles, 0), 4.5);
+        assertTrue(BOOLEAN.getBoolean(booleans, 0));
+        assertEquals(BIGINT.getLong(missing, 0), 7);
+
+        assertEquals(createVarcharType(2).getSlice(varchars, 1), utf8Slice("ab"));
+        assertTrue(longs.isNull(1));
+        assertTrue(doubles.isNull(1));
+        assertFalse(BOOLEAN.getBoolean(booleans, 1));
+        assertTrue(missing.isNull(1));
+
+        for (Block block : ImmutableList.of(varchars, longs, doubles, booleans, missing)) {
+            assertEquals(block.getPositionCount(), rows.size());
+            assertTrue(block.isNull(2));
+        }
+
+        assertEquals(createVarcharType(2).getSlice(varchars, 3), utf8Slice("x"));
+        assertTrue(longs.isNull(3));
+        assertTrue(missing.isNull(3));
+    }
+
+    @Test
+    public void testIsSupported()
+    {
+        assertTrue(CsvBatchRowDecoder.isSupported(column(0, BIGINT, "0")));
+        assertFalse(CsvBatchRowDecoder.isSupported(new DecoderTestColumnHandle("", 0, "row0", BIGINT, "0", "custom", null, false, false, false)));
+        assertFalse(CsvBatchRowDecoder.isSupported(new DecoderTestColumnHandle("", 0, "row0", BIGINT, "0", null, null, false, false, true)));
+    }
+
+    private static DecoderTestColumnHandle column(int ordinal, Type type, String mapping)
+    {
+        return new DecoderTestColumnHandle("", ordinal, "row" + ordinal, type, mapping, null, null, false, false, false);
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.decoder.json;
+
+import com.facebook.presto.decoder.DecoderColumnHandle;
+import com.facebook.presto.decoder.DecoderTestColumnHandle;
+import com.facebook.presto.decoder.FieldDecoder;
+import com.facebook.presto.decoder.FieldValueProvider;
+import com.facebook.presto.spi.block.BlockBuilder;
+import com.facebook.presto.spi.block.BlockBuilderStatus;
+import com.facebook.presto.spi.type.Type;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.airlift.json.ObjectMapperProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.VerboseMode;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.spi.type.DoubleType.DOUBLE;
+import static com.facebook.presto.spi.type.VarcharType.createUnboundedVarcharType;
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@BenchmarkMode(Mode.AverageTime)
+public class BenchmarkJsonDecoder
+{
+    private static final int ROWS = 10_000;
+
+    @Benchmark
+    public BlockBuilder[] rowDecoder(Data data)
+    {
+        BlockBuilder[] blockBuilders = data.createBlockBuilders();
+        for (byte[] row : data.rows) {
+            Set<FieldValueProvider> providers = new HashSet<>();
+            data.rowDecoder.decodeRow(row, null, providers, data.columns, data.fieldDecoders);
+
+            for (int column = 0; column < data.columns.size(); column++) {
+                DecoderColumnHandle columnHandle = data.columns.get(column);
+                Type type = columnHandle.getType();
+                for (FieldValueProvider provider : providers) {
+                    if (!provider.accept(columnHandle)) {
+                        continue;
+                    }
+                    if (provider.isNull()) {
+                        blockBuilders[column].appendNull();
+                    }
+                    else if (type.getJavaType() == long.class) {
+                        type.writeLong(blockBuilders[column], provider.getLong());
+                    }
+                    else if (type.getJavaType() == double.class) {
+                        type.writeDouble(blockBuilders[column], provider.getDouble());
+                    }
+                    else {
+                        type.writeSlice(blockBuilders[column], provider.getSlice());
+                    }
+                }
+            }
+        }
+        return blockBuilders;
+    }
+
+    @Benchmark
+    public BlockBuilder[] batchRowDecoder(Data data)
+    {
+        BlockBuilder[] blockBuilders = data.createBlockBuilders();
+        data.batchDecoder.decodeRows(data.rows, blockBuilders);
+        return blockBuilders;
+    }
+
+    @State(Scope.Thread)
+    public static class Data
+    {
+        private final ObjectMapper objectMapper = new ObjectMapperProvider().get();
+
+        private List<DecoderColumnHandle> columns;
+        private Map<DecoderColumnHandle, FieldDecoder<?>> fieldDecoders;
+        private List<byte[]> rows;
+        private JsonRowDecoder rowDecoder;
+        private JsonBatchRowDecoder batchDecoder;
+
+        @Setup
+        public void setup()
+        {
+            columns = ImmutableList.of(
+                    new DecoderTestColumnHandle("", 0, "id", BIGINT, "id", null, null, false, false, false),
+                    new DecoderTestColumnHandle("", 1, "name", createUnboundedVarcharType(), "user/name", null, null, false, false, false),
+                    new DecoderTestColumnHandle("", 2, "price", DOUBLE, "price", null, null, false, false, false));
+
+            ImmutableMap.Builder<DecoderColumnHandle, FieldDecoder<?>> fieldDecoders = ImmutableMap.builder();
+            for (DecoderColumnHandle column : columns) {
+                fieldDecoders.put(column, new JsonFieldDecoder());
+            }
+            this.fieldDecoders = fieldDecoders.build();
+
+            ImmutableList.Builder<byte[]> rows = ImmutableList.builder();
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < ROWS; i++) {
+                String row = format("{\"id\": %s, \"text\": \"message %s\", \"tags\": [\"a\", \"b\", \"c\"], " +
+                                "\"user\": {\"name\": \"user%s\", \"followers\": %s, \"verified\": false}, \"price\": %s}",
+                        i,
+                        random.nextLong(),
+                        random.nextInt(1000),
+                        random.nextInt(),
+                        random.nextDouble());
+                rows.add(row.getBytes(UTF_8));
+            }
+            this.rows = rows.build();
+
+            rowDecoder = new JsonRowDecoder(objectMapper);
+            batchDecoder = new JsonBatchRowDecoder(objectMapper, columns);
+        }
+
+        public BlockBuilder[] createBlockBuilders()
+        {
+            BlockBuilder[] blockBuilders = new BlockBuilder[columns.size()];
+            for (int i = 0; i < columns.size(); i++) {
+                blockBuilders[i] = columns.get(i).getType().createBlockBuilder(new BlockBuilderStatus(), ROWS);
+            }
+            return blockBuilders;
+        }
+    }
+
+    public static void main(String[] args)
+            throws RunnerException
+    {
+        Options options = new OptionsBuilder()
+                .verbosity(VerboseMode.NORMAL)
+                .include(".*" + BenchmarkJsonDecoder.class.getSimpleName() + ".*")
+                .build();
+        new Runner(options).run();
+    }
+}
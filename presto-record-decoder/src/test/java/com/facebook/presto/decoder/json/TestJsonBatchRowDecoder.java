@@ -0,0 +1,230 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.decoder.json;
+
+import com.facebook.presto.decoder.BatchFieldValues;
+import com.facebook.presto.decoder.DecoderColumnHandle;
+import com.facebook.presto.decoder.DecoderTestColumnHandle;
+import com.facebook.presto.decoder.FieldDecoder;
+import com.facebook.presto.decoder.FieldValueProvider;
+import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.block.BlockBuilder;
+import com.facebook.presto.spi.block.BlockBuilderStatus;
+import com.facebook.presto.spi.type.Type;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.io.ByteStreams;
+import io.airlift.json.ObjectMapperProvider;
+import io.airlift.slice.Slice;
+import org.testng.annotations.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.spi.type.BooleanType.BOOLEAN;
+import static com.facebook.presto.spi.type.DoubleType.DOUBLE;
+import static com.facebook.presto.spi.type.VarcharType.createUnboundedVarcharType;
+import static com.facebook.presto.spi.type.VarcharType.createVarcharType;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestJsonBatchRowDecoder
+{
+    private static final JsonFieldDecoder DEFAULT_FIELD_DECODER = new JsonFieldDecoder();
+    private static final ObjectMapperProvider PROVIDER = new ObjectMapperProvider();
+
+    @Test
+    public void testMessage()
+            throws Exception
+    {
+        byte[] json = ByteStreams.toByteArray(TestJsonBatchRowDecoder.class.getResourceAsStream("/decoder/json/message.json"));
+
+        List<DecoderColumnHandle> columns = ImmutableList.of(
+                column(0, createVarcharType(100), "source"),
+                column(1, createVarcharType(10), "user/screen_name"),
+                column(2, BIGINT, "id"),
+                column(3, BIGINT, "user/statuses_count"),
+                column(4, BOOLEAN, "user/geo_enabled"),
+                column(5, createUnboundedVarcharType(), "user"),
+                column(6, createUnboundedVarcharType(), "entities/hashtags"),
+                column(7, BIGINT, "id_str"),
+                column(8, createUnboundedVarcharType(), "does_not_exist"));
+
+        assertMatchesRowDecoder(columns, ImmutableList.of(json));
+    }
+
+    @Test
+    public void testValues()
+    {
+        List<DecoderColumnHandle> columns = ImmutableList.of(
+                column(0, BIGINT, "a"),
+                column(1, DOUBLE, "b"),
+                column(2, BOOLEAN, "c"),
+                column(3, createVarcharType(3), "d"),
+                column(4, BIGINT, "e/f"),
+                column(5, createUnboundedVarcharType(), "e"),
+                column(6, createUnboundedVarcharType(), "a"));
+
+        assertMatchesRowDecoder(columns, ImmutableList.of(
+                "{\"a\": 1, \"b\": 2.5, \"c\": true, \"d\": \"abcdef\", \"e\": {\"f\": 3, \"g\": [1, 2]}}".getBytes(UTF_8),
+                "{\"a\": \"12\", \"b\": \"4\", \"c\": \"true\", \"d\": 123456, \"e\": 17}".getBytes(UTF_8),
+                "{\"a\": 3.7, \"b\": 1, \"c\": 0, \"d\": [1, 2], \"e\": {\"f\": \"x\"}}".getBytes(UTF_8),
+                "{\"a\": 18446744073709551616, \"b\": null, \"c\": null, \"d\": null, \"e\": null}".getBytes(UTF_8),
+                "{\"x\": {\"a\": 1}, \"y\": [{\"e\": 1}]}".getBytes(UTF_8),
+                "[1, 2, 3]".getBytes(UTF_8),
+                "42".getBytes(UTF_8)));
+    }
+
+    @Test
+    public void testCorruptRows()
+    {
+        List<DecoderColumnHandle> columns = ImmutableList.of(
+                column(0, BIGINT, "a"),
+                column(1, createUnboundedVarcharType(), "b"));
+
+        List<byte[]> rows = ImmutableList.of(
+                "{\"a\": 1, \"b\": \"x\"}".getBytes(UTF_8),
+                "{\"a\": 2, \"b\": ".getBytes(UTF_8),
+                "{\"a\": 3, \"c\": [1, }".getBytes(UTF_8),
+                "{\"a\": 4, \"b\": \"y\"}".getBytes(UTF_8));
+
+        boolean[] corrupt = assertMatchesRowDecoder(columns, rows);
+        assertFalse(corrupt[0]);
+        assertTrue(corrupt[1]);
+        assertTrue(corrupt[2]);
+        assertFalse(corrupt[3]);
+    }
+
+    @Test
+    public void testIsSupported()
+    {
+        assertTrue(JsonBatchRowDecoder.isSupported(column(0, BIGINT, "a")));
+        assertFalse(JsonBatchRowDecoder.isSupported(new DecoderTestColumnHandle("", 0, "row0", BIGINT, "a", "iso8601", null, false, false, false)));
+        assertFalse(JsonBatchRowDecoder.isSupported(new DecoderTestColumnHandle("", 0, "row0", BIGINT, "a", null, null, false, false, true)));
+        assertFalse(JsonBatchRowDecoder.isSupported(new DecoderTestColumnHandle("", 0, "row0", BIGINT, null, null, null, false, false, false)));
+    }
+
+    @Test
+    public void testCreateBatchRowDecoder()
+    {
+        JsonRowDecoder rowDecoder = new JsonRowDecoder(PROVIDER.get());
+        assertTrue(rowDecoder.createBatchRowDecoder(ImmutableList.of(column(0, BIGINT, "a"))).isPresent());
+        assertFalse(rowDecoder.createBatchRowDecoder(ImmutableList.of(
+                column(0, BIGINT, "a"),
+                new DecoderTestColumnHandle("", 1, "row1", BIGINT, "b", "iso8601", null, false, false, false))).isPresent());
+    }
+
+    @Test
+    public void testBatchFieldValues()
+    {
+        DecoderTestColumnHandle internal = new DecoderTestColumnHandle("", 0, "row0", BIGINT, null, null, null, false, false, true);
+        DecoderTestColumnHandle a = column(1, BIGINT, "a");
+        DecoderTestColumnHandle b = column(2, createUnboundedVarcharType(), "b");
+        List<DecoderColumnHandle> columns = ImmutableList.of(internal, a, b);
+
+        BatchFieldValues values = BatchFieldValues.create(
+                new JsonRowDecoder(PROVIDER.get()),
+                columns,
+                ImmutableMap.of(a, DEFAULT_FIELD_DECODER, b, DEFAULT_FIELD_DECODER)).get();
+        assertFalse(values.isDecoded(0));
+        assertTrue(values.isDecoded(1));
+        assertTrue(values.isDecoded(2));
+
+        values.decode(ImmutableList.of(
+                "{\"a\": 1, \"b\": \"x\"}".getBytes(UTF_8),
+                "{\"a\": ".getBytes(UTF_8),
+                "{\"b\": \"y\"}".getBytes(UTF_8)));
+
+        assertFalse(values.isCorrupt());
+        assertEquals(values.getLong(1), 1);
+        assertEquals(values.getSlice(2).toStringUtf8(), "x");
+
+        values.setPosition(1);
+        assertTrue(values.isCorrupt());
+        assertTrue(values.isNull(1));
+        assertTrue(values.isNull(2));
+
+        values.setPosition(2);
+        assertFalse(values.isCorrupt());
+        assertTrue(values.isNull(1));
+        assertEquals(values.getSlice(2).toStringUtf8(), "y");
+    }
+
+    private static DecoderTestColumnHandle column(int ordinal, Type type, String mapping)
+    {
+        return new DecoderTestColumnHandle("", ordinal, "row" + ordinal, type, mapping, null, null, false, false, false);
+    }
+
+    private static boolean[] assertMatchesRowDecoder(List<DecoderColumnHandle> columns, List<byte[]> rows)
+    {
+        BlockBuilder[] blockBuilders = new BlockBuilder[columns.size()];
+        for (int i = 0; i < columns.size(); i++) {
+            blockBuilders[i] = columns.get(i).getType().createBlockBuilder(new BlockBuilderStatus(), rows.size());
+        }
+
+        JsonBatchRowDecoder batchDecoder = new JsonBatchRowDecoder(PROVIDER.get(), columns);
+        boolean[] corrupt = batchDecoder.decodeRows(rows, blockBuilders);
+        assertEquals(corrupt.length, rows.size());
+
+        JsonRowDecoder rowDecoder = new JsonRowDecoder(PROVIDER.get());
+        ImmutableMap.Builder<DecoderColumnHandle, FieldDecoder<?>> fieldDecoders = ImmutableMap.builder();
+        for (DecoderColumnHandle column : columns) {
+            fieldDecoders.put(column, DEFAULT_FIELD_DECODER);
+        }
+        Map<DecoderColumnHandle, FieldDecoder<?>> decoders = fieldDecoders.build();
+
+        for (int row = 0; row < rows.size(); row++) {
+            Set<FieldValueProvider> providers = new HashSet<>();
+            boolean rowCorrupt = rowDecoder.decodeRow(rows.get(row), null, providers, columns, decoders);
+            assertEquals(corrupt[row], rowCorrupt);
+
+            for (int column = 0; column < columns.size(); column++) {
+                DecoderColumnHandle columnHandle = columns.get(column);
+                Block block = blockBuilders[column].build();
+                assertEquals(block.getPositionCount(), rows.size());
+
+                FieldValueProvider provider = providers.stream()
+                        .filter(candidate -> candidate.accept(columnHandle))
+                        .findFirst()
+                        .orElse(null);
+                if (provider == null || provider.isNull()) {
+                    assertTrue(block.isNull(row), "expected null for " + columnHandle.getName());
+                    continue;
+                }
+
+                Type type = columnHandle.getType();
+                assertFalse(block.isNull(row), "unexpected null for " + columnHandle.getName());
+                if (type.getJavaType() == boolean.class) {
+                    assertEquals(type.getBoolean(block, row), provider.getBoolean());
+                }
+                else if (type.getJavaType() == long.class) {
+                    assertEquals(type.getLong(block, row), provider.getLong());
+                }
+                else if (type.getJavaType() == double.class) {
+                    assertEquals(type.getDouble(block, row), provider.getDouble());
+                }
+                else {
+                    Slice slice = type.getSlice(block, row);
+                    assertEquals(slice, provider.getSlice());
+                }
+            }
+        }
+        return corrupt;
+    }
+}
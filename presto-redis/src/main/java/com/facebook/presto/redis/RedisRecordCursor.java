@@ -13,6 +13,7 @@
  */
 package com.facebook.presto.redis;
 
+import com.facebook.presto.decoder.BatchFieldValues;
 import com.facebook.presto.decoder.DecoderColumnHandle;
 import com.facebook.presto.decoder.FieldDecoder;
 import com.facebook.presto.decoder.FieldValueProvider;
@@ -20,6 +21,7 @@ import com.facebook.presto.decoder.RowDecoder;
 import com.facebook.presto.spi.RecordCursor;
 import com.facebook.presto.spi.type.Type;
 import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableList;
 import io.airlift.log.Logger;
 import io.airlift.slice.Slice;
 import io.airlift.slice.Slices;
@@ -30,9 +32,9 @@ import redis.clients.jedis.ScanResult;
 
 import java.nio.charset.StandardCharsets;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -64,7 +66,12 @@ public class RedisRecordCursor
     private final ScanParams scanParms;
 
     private ScanResult<String> redisCursor;
-    private Iterator<String> keysIterator;
+    private List<String> keys;
+    private int keyIndex;
+
+    // decodes the string values of all fetched keys at once, if the value decoder supports it
+    private final Optional<BatchFieldValues> batchValues;
+    private List<byte[]> batchValueData = ImmutableList.of();
 
     private final AtomicBoolean reported = new AtomicBoolean();
 
@@ -94,6 +101,12 @@ public class RedisRecordCursor
         this.redisJedisManager = redisJedisManager;
         this.jedisPool = redisJedisManager.getJedisPool(split.getNodes().get(0));
         this.scanParms = setScanParms();
+        if (split.getValueDataType() == RedisDataType.STRING) {
+            this.batchValues = BatchFieldValues.create(valueDecoder, columnHandles, valueFieldDecoders);
+        }
+        else {
+            this.batchValues = Optional.empty();
+        }
 
         fetchKeys();
     }
@@ -131,14 +144,15 @@ public class RedisRecordCursor
     @Override
     public boolean advanceNextPosition()
     {
-        while (!keysIterator.hasNext()) {
+        while (keyIndex >= keys.size()) {
             if (!hasUnscannedData()) {
                 return endOfData();
             }
             fetchKeys();
         }
 
-        return nextRow(keysIterator.next());
+        keyIndex++;
+        return nextRow(keys.get(keyIndex - 1));
     }
 
     private boolean endOfData()
@@ -151,13 +165,18 @@ public class RedisRecordCursor
 
     private boolean nextRow(String keyString)
     {
-        fetchData(keyString);
-
         byte[] keyData = keyString.getBytes(StandardCharsets.UTF_8);
 
         byte[] valueData = EMPTY_BYTE_ARRAY;
-        if (valueString != null) {
-            valueData = valueString.getBytes(StandardCharsets.UTF_8);
+        if (batchValues.isPresent()) {
+            batchValues.get().setPosition(keyIndex - 1);
+            valueData = batchValueData.get(keyIndex - 1);
+        }
+        else {
+            fetchData(keyString);
+            if (valueString != null) {
+                valueData = valueString.getBytes(StandardCharsets.UTF_8);
+            }
         }
 
         totalBytes += valueData.length;
@@ -175,12 +194,17 @@ public class RedisRecordCursor
                 fieldValueProviders,
                 columnHandles,
                 keyFieldDecoders)));
-        fieldValueProviders.add(VALUE_CORRUPT_FIELD.forBooleanValue(valueDecoder.decodeRow(
-                valueData,
-                valueMap,
-                fieldValueProviders,
-                columnHandles,
-                valueFieldDecoders)));
+        if (batchValues.isPresent()) {
+            fieldValueProviders.add(VALUE_CORRUPT_FIELD.forBooleanValue(batchValues.get().isCorrupt()));
+        }
+        else {
+            fieldValueProviders.add(VALUE_CORRUPT_FIELD.forBooleanValue(valueDecoder.decodeRow(
+                    valueData,
+                    valueMap,
+                    fieldValueProviders,
+                    columnHandles,
+                    valueFieldDecoders)));
+        }
 
         this.fieldValueProviders = new FieldValueProvider[columnHandles.size()];
 
@@ -208,7 +232,13 @@ public class RedisRecordCursor
         checkArgument(field < columnHandles.size(), "Invalid field index");
 
         checkFieldType(field, boolean.class);
-        return isNull(field) ? false : fieldValueProviders[field].getBoolean();
+        if (isNull(field)) {
+            return false;
+        }
+        if (isBatchDecoded(field)) {
+            return batchValues.get().getBoolean(field);
+        }
+        return fieldValueProviders[field].getBoolean();
     }
 
     @Override
@@ -217,7 +247,13 @@ public class RedisRecordCursor
         checkArgument(field < columnHandles.size(), "Invalid field index");
 
         checkFieldType(field, long.class);
-        return isNull(field) ? 0L : fieldValueProviders[field].getLong();
+        if (isNull(field)) {
+            return 0L;
+        }
+        if (isBatchDecoded(field)) {
+            return batchValues.get().getLong(field);
+        }
+        return fieldValueProviders[field].getLong();
     }
 
     @Override
@@ -226,7 +262,13 @@ public class RedisRecordCursor
         checkArgument(field < columnHandles.size(), "Invalid field index");
 
         checkFieldType(field, double.class);
-        return isNull(field) ? 0.0d : fieldValueProviders[field].getDouble();
+        if (isNull(field)) {
+            return 0.0d;
+        }
+        if (isBatchDecoded(field)) {
+            return batchValues.get().getDouble(field);
+        }
+        return fieldValueProviders[field].getDouble();
     }
 
     @Override
@@ -235,7 +277,13 @@ public class RedisRecordCursor
         checkArgument(field < columnHandles.size(), "Invalid field index");
 
         checkFieldType(field, Slice.class);
-        return isNull(field) ? Slices.EMPTY_SLICE : fieldValueProviders[field].getSlice();
+        if (isNull(field)) {
+            return Slices.EMPTY_SLICE;
+        }
+        if (isBatchDecoded(field)) {
+            return batchValues.get().getSlice(field);
+        }
+        return fieldValueProviders[field].getSlice();
     }
 
     @Override
@@ -243,9 +291,17 @@ public class RedisRecordCursor
     {
         checkArgument(field < columnHandles.size(), "Invalid field index");
 
+        if (isBatchDecoded(field)) {
+            return batchValues.get().isNull(field);
+        }
         return fieldValueProviders[field] == null || fieldValueProviders[field].isNull();
     }
 
+    private boolean isBatchDecoded(int field)
+    {
+        return batchValues.isPresent() && batchValues.get().isDecoded(field);
+    }
+
     @Override
     public Object getObject(int field)
     {
@@ -310,18 +366,20 @@ public class RedisRecordCursor
                     log.debug("Scanning new Redis keys from cursor %s . %d values read so far", cursor, totalValues);
 
                     redisCursor = jedis.scan(cursor, scanParms);
-                    List<String> keys = redisCursor.getResult();
-                    keysIterator = keys.iterator();
+                    keys = ImmutableList.copyOf(redisCursor.getResult());
                 }
                 break;
                 case ZSET:
-                    Set<String> keys = jedis.zrange(split.getKeyName(), split.getStart(), split.getEnd());
-                    keysIterator = keys.iterator();
+                    keys = ImmutableList.copyOf(jedis.zrange(split.getKeyName(), split.getStart(), split.getEnd()));
                     break;
                 default:
                     log.debug("Redis type of key %s is unsupported", split.getKeyDataFormat());
                     return false;
             }
+            keyIndex = 0;
+            if (batchValues.isPresent()) {
+                fetchValues(jedis);
+            }
         }
         catch (Exception e) {
             throw Throwables.propagate(e);
@@ -329,6 +387,28 @@ public class RedisRecordCursor
         return true;
     }
 
+    // reads the string values of all fetched keys with one round trip, and decodes them together
+    private void fetchValues(Jedis jedis)
+    {
+        List<String> values = ImmutableList.of();
+        if (!keys.isEmpty()) {
+            values = jedis.mget(keys.toArray(new String[0]));
+        }
+
+        ImmutableList.Builder<byte[]> valueData = ImmutableList.builder();
+        for (int i = 0; i < values.size(); i++) {
+            if (values.get(i) == null) {
+                log.warn("Redis data modified while query was running, string value at key %s deleted", keys.get(i));
+                valueData.add(EMPTY_BYTE_ARRAY);
+            }
+            else {
+                valueData.add(values.get(i).getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        batchValueData = valueData.build();
+        batchValues.get().decode(batchValueData);
+    }
+
     private boolean fetchData(String keyString)
     {
         valueString = null;
@@ -0,0 +1,70 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.spi;
+
+import com.facebook.presto.spi.type.Type;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Collections.unmodifiableList;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A call to an aggregate function that the engine offers to a connector, such as
+ * {@code count(*)} or {@code max(x)}. The connector must produce the value in the
+ * intermediate type of the function, so that the engine can combine the values
+ * from all splits.
+ */
+public class AggregateFunction
+{
+    private final String name;
+    private final List<ColumnHandle> arguments;
+    private final Type intermediateType;
+
+    public AggregateFunction(String name, List<ColumnHandle> arguments, Type intermediateType)
+    {
+        this.name = requireNonNull(name, "name is null");
+        this.arguments = unmodifiableList(new ArrayList<>(requireNonNull(arguments, "arguments is null")));
+        this.intermediateType = requireNonNull(intermediateType, "intermediateType is null");
+    }
+
+    public String getName()
+    {
+        return name;
+    }
+
+    public List<ColumnHandle> getArguments()
+    {
+        return arguments;
+    }
+
+    public Type getIntermediateType()
+    {
+        return intermediateType;
+    }
+
+    @Override
+    public String toString()
+    {
+        StringBuilder builder = new StringBuilder(name).append('(');
+        for (int i = 0; i < arguments.size(); i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(arguments.get(i));
+        }
+        return builder.append(')').toString();
+    }
+}
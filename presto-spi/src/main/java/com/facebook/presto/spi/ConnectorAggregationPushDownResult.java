@@ -0,0 +1,45 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.spi;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Collections.unmodifiableList;
+import static java.util.Objects.requireNonNull;
+
+public class ConnectorAggregationPushDownResult
+{
+    private final ConnectorTableLayoutHandle layoutHandle;
+    private final List<ColumnHandle> aggregateColumns;
+
+    /**
+     * @param aggregateColumns the columns of the new layout that hold the aggregates, in the order they were requested
+     */
+    public ConnectorAggregationPushDownResult(ConnectorTableLayoutHandle layoutHandle, List<ColumnHandle> aggregateColumns)
+    {
+        this.layoutHandle = requireNonNull(layoutHandle, "layoutHandle is null");
+        this.aggregateColumns = unmodifiableList(new ArrayList<>(requireNonNull(aggregateColumns, "aggregateColumns is null")));
+    }
+
+    public ConnectorTableLayoutHandle getLayoutHandle()
+    {
+        return layoutHandle;
+    }
+
+    public List<ColumnHandle> getAggregateColumns()
+    {
+        return aggregateColumns;
+    }
+}
@@ -229,6 +229,15 @@ public interface Block
      */
     boolean isNull(int position);
 
+    /**
+     * Returns false if the block is known to contain no nulls, in which case
+     * callers may skip checking each position with {@link #isNull(int)}.
+     */
+    default boolean mayHaveNull()
+    {
+        return true;
+    }
+
     /**
      * Assures that all data for the block is in memory.
      * <p>
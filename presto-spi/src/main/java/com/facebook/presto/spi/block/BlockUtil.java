@@ -46,6 +46,16 @@ final class BlockUtil
         }
     }
 
+    static boolean hasNull(boolean[] valueIsNull, int offset, int length)
+    {
+        for (int i = offset; i < offset + length; i++) {
+            if (valueIsNull[i]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     static int calculateNewArraySize(int currentSize)
     {
         // grow array by 50%
@@ -20,6 +20,7 @@ import java.util.List;
 import java.util.function.BiConsumer;
 
 import static com.facebook.presto.spi.block.BlockUtil.checkValidRegion;
+import static com.facebook.presto.spi.block.BlockUtil.hasNull;
 import static io.airlift.slice.SizeOf.sizeOf;
 
 public class ByteArrayBlock
@@ -114,6 +115,12 @@ public class ByteArrayBlock
         return valueIsNull[position + arrayOffset];
     }
 
+    @Override
+    public boolean mayHaveNull()
+    {
+        return hasNull(valueIsNull, arrayOffset, positionCount);
+    }
+
     @Override
     public void writePositionTo(int position, BlockBuilder blockBuilder)
     {
@@ -36,6 +36,7 @@ public class ByteArrayBlockBuilder
     private int initialEntryCount;
 
     private int positionCount;
+    private boolean hasNullValue;
 
     // it is assumed that these arrays are the same length
     private boolean[] valueIsNull = new boolean[0];
@@ -81,6 +82,7 @@ public class ByteArrayBlockBuilder
         }
 
         valueIsNull[positionCount] = true;
+        hasNullValue = true;
 
         positionCount++;
         if (blockBuilderStatus != null) {
@@ -174,6 +176,12 @@ public class ByteArrayBlockBuilder
         return valueIsNull[position];
     }
 
+    @Override
+    public boolean mayHaveNull()
+    {
+        return hasNullValue;
+    }
+
     @Override
     public void writePositionTo(int position, BlockBuilder blockBuilder)
     {
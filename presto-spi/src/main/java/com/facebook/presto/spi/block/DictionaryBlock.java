@@ -309,6 +309,12 @@ public class DictionaryBlock
         return dictionary.isNull(getId(position));
     }
 
+    @Override
+    public boolean mayHaveNull()
+    {
+        return dictionary.mayHaveNull();
+    }
+
     @Override
     public String toString()
     {
@@ -228,6 +228,13 @@ public class LazyBlock
         return block.isNull(position);
     }
 
+    @Override
+    public boolean mayHaveNull()
+    {
+        assureLoaded();
+        return block.mayHaveNull();
+    }
+
     public Block getBlock()
     {
         assureLoaded();
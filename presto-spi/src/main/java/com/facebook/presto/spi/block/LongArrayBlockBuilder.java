@@ -38,6 +38,7 @@ public class LongArrayBlockBuilder
     private int initialEntryCount;
 
     private int positionCount;
+    private boolean hasNullValue;
 
     // it is assumed that these arrays are the same length
     private boolean[] valueIsNull = new boolean[0];
@@ -83,6 +84,7 @@ public class LongArrayBlockBuilder
         }
 
         valueIsNull[positionCount] = true;
+        hasNullValue = true;
 
         positionCount++;
         if (blockBuilderStatus != null) {
@@ -222,6 +224,12 @@ public class LongArrayBlockBuilder
         return valueIsNull[position];
     }
 
+    @Override
+    public boolean mayHaveNull()
+    {
+        return hasNullValue;
+    }
+
     @Override
     public void writePositionTo(int position, BlockBuilder blockBuilder)
     {
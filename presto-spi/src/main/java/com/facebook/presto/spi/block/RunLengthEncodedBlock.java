@@ -220,6 +220,12 @@ public class RunLengthEncodedBlock
         return value.isNull(0);
     }
 
+    @Override
+    public boolean mayHaveNull()
+    {
+        return positionCount > 0 && value.isNull(0);
+    }
+
     @Override
     public String toString()
     {
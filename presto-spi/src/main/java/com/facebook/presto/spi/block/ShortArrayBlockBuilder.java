@@ -37,6 +37,7 @@ public class ShortArrayBlockBuilder
     private int initialEntryCount;
 
     private int positionCount;
+    private boolean hasNullValue;
 
     // it is assumed that these arrays are the same length
     private boolean[] valueIsNull = new boolean[0];
@@ -82,6 +83,7 @@ public class ShortArrayBlockBuilder
         }
 
         valueIsNull[positionCount] = true;
+        hasNullValue = true;
 
         positionCount++;
         if (blockBuilderStatus != null) {
@@ -175,6 +177,12 @@ public class ShortArrayBlockBuilder
         return valueIsNull[position];
     }
 
+    @Override
+    public boolean mayHaveNull()
+    {
+        return hasNullValue;
+    }
+
     @Override
     public void writePositionTo(int position, BlockBuilder blockBuilder)
     {
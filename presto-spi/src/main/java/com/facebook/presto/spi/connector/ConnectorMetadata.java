@@ -13,9 +13,11 @@
  */
 package com.facebook.presto.spi.connector;
 
+import com.facebook.presto.spi.AggregateFunction;
 import com.facebook.presto.spi.ColumnHandle;
 import com.facebook.presto.spi.ColumnIdentity;
 import com.facebook.presto.spi.ColumnMetadata;
+import com.facebook.presto.spi.ConnectorAggregationPushDownResult;
 import com.facebook.presto.spi.ConnectorInsertTableHandle;
 import com.facebook.presto.spi.ConnectorNewTableLayout;
 import com.facebook.presto.spi.ConnectorOutputTableHandle;
@@ -31,6 +33,7 @@ import com.facebook.presto.spi.Constraint;
 import com.facebook.presto.spi.PrestoException;
 import com.facebook.presto.spi.SchemaTableName;
 import com.facebook.presto.spi.SchemaTablePrefix;
+import com.facebook.presto.spi.SortingProperty;
 import com.facebook.presto.spi.TableIdentity;
 import com.facebook.presto.spi.predicate.TupleDomain;
 import com.facebook.presto.spi.security.GrantInfo;
@@ -87,6 +90,63 @@ public interface ConnectorMetadata
 
     ConnectorTableLayout getTableLayout(ConnectorSession session, ConnectorTableLayoutHandle handle);
 
+    /**
+     * Return a table layout handle whose partitioning is converted to the provided partitioning handle,
+     * but otherwise identical to the provided table layout handle.
+     * The provided table layout handle must be one that the connector can transparently convert to from
+     * the original partitioning handle associated with the provided table layout handle,
+     * as promised by {@link #getCommonPartitioningHandle}.
+     */
+    default ConnectorTableLayoutHandle getAlternativeLayoutHandle(ConnectorSession session, ConnectorTableLayoutHandle tableLayoutHandle, ConnectorPartitioningHandle partitioningHandle)
+    {
+        throw new PrestoException(GENERIC_INTERNAL_ERROR, "ConnectorMetadata getCommonPartitioningHandle() is implemented without getAlternativeLayoutHandle()");
+    }
+
+    /**
+     * Return a partitioning handle which the connector can transparently convert both {@code left} and {@code right} into.
+     */
+    default Optional<ConnectorPartitioningHandle> getCommonPartitioningHandle(ConnectorSession session, ConnectorPartitioningHandle left, ConnectorPartitioningHandle right)
+    {
+        if (left.equals(right)) {
+            return Optional.of(left);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Return a table layout handle whose splits each produce at most {@code limit} rows,
+     * but otherwise identical to the provided table layout handle, or empty if the
+     * connector can not limit the splits. The engine still applies the limit to the
+     * rows of all splits.
+     */
+    default Optional<ConnectorTableLayoutHandle> pushDownLimit(ConnectorSession session, ConnectorTableLayoutHandle tableLayoutHandle, long limit)
+    {
+        return Optional.empty();
+    }
+
+    /**
+     * Return a table layout handle whose splits each produce only their first {@code count} rows
+     * in the provided ordering, but otherwise identical to the provided table layout handle,
+     * or empty if the connector can not order the splits. The engine still applies the top N
+     * to the rows of all splits.
+     */
+    default Optional<ConnectorTableLayoutHandle> pushDownTopN(ConnectorSession session, ConnectorTableLayoutHandle tableLayoutHandle, long count, List<SortingProperty<ColumnHandle>> ordering)
+    {
+        return Optional.empty();
+    }
+
+    /**
+     * Return a table layout handle whose splits each produce one row per distinct value of
+     * {@code groupingColumns} with the partial result of every aggregate, or empty if the
+     * connector can not compute all of the aggregates. The engine combines the partial results
+     * of all splits, so a split must produce a single row when there are no grouping columns,
+     * even if it has no input rows.
+     */
+    default Optional<ConnectorAggregationPushDownResult> pushDownPartialAggregation(ConnectorSession session, ConnectorTableLayoutHandle tableLayoutHandle, List<ColumnHandle> groupingColumns, List<AggregateFunction> aggregates)
+    {
+        return Optional.empty();
+    }
+
     /**
      * Return the metadata for the specified table handle.
      *
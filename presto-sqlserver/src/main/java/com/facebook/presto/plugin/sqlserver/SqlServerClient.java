@@ -15,17 +15,27 @@ package com.facebook.presto.plugin.sqlserver;
 
 import com.facebook.presto.plugin.jdbc.BaseJdbcClient;
 import com.facebook.presto.plugin.jdbc.BaseJdbcConfig;
+import com.facebook.presto.plugin.jdbc.JdbcColumnHandle;
 import com.facebook.presto.plugin.jdbc.JdbcConnectorId;
 import com.facebook.presto.plugin.jdbc.JdbcOutputTableHandle;
+import com.facebook.presto.plugin.jdbc.JdbcTableLayoutHandle;
+import com.facebook.presto.spi.AggregateFunction;
+import com.facebook.presto.spi.ColumnHandle;
 import com.facebook.presto.spi.PrestoException;
+import com.facebook.presto.spi.SortingProperty;
 import com.microsoft.sqlserver.jdbc.SQLServerDriver;
 
 import javax.inject.Inject;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
 
 import static com.facebook.presto.plugin.jdbc.JdbcErrorCode.JDBC_ERROR;
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.google.common.collect.Iterables.getOnlyElement;
+import static java.lang.String.format;
 
 public class SqlServerClient
         extends BaseJdbcClient
@@ -54,6 +64,37 @@ public class SqlServerClient
         }
     }
 
+    @Override
+    public Optional<JdbcTableLayoutHandle> pushDownLimit(JdbcTableLayoutHandle layoutHandle, long limit)
+    {
+        // SQL Server has no LIMIT clause
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<JdbcTableLayoutHandle> pushDownTopN(JdbcTableLayoutHandle layoutHandle, long count, List<SortingProperty<ColumnHandle>> ordering)
+    {
+        return Optional.empty();
+    }
+
+    @Override
+    protected Optional<String> toAggregateSql(AggregateFunction aggregate)
+    {
+        Optional<String> expression = super.toAggregateSql(aggregate);
+        if (!expression.isPresent() || !aggregate.getIntermediateType().equals(BIGINT)) {
+            return expression;
+        }
+        // count and sum of an integer column return int, which overflows long before bigint
+        if (aggregate.getName().equals("count")) {
+            return Optional.of("count_big" + expression.get().substring("count".length()));
+        }
+        if (aggregate.getName().equals("sum")) {
+            JdbcColumnHandle argument = (JdbcColumnHandle) getOnlyElement(aggregate.getArguments());
+            return Optional.of(format("sum(CAST(%s AS BIGINT))", quoted(argument.getColumnName())));
+        }
+        return expression;
+    }
+
     private static String singleQuote(String catalog, String schema, String table)
     {
         return singleQuote(catalog + "." + schema + "." + table);
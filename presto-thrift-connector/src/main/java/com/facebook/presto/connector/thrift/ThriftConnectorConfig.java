@@ -28,6 +28,7 @@ public class ThriftConnectorConfig
     private DataSize maxResponseSize = new DataSize(16, MEGABYTE);
     private int metadataRefreshThreads = 1;
     private int retryDriverThreads = 8;
+    private int maxBufferedPagesPerSplit = 2;
 
     @NotNull
     @MinDataSize("1MB")
@@ -69,4 +70,17 @@ public class ThriftConnectorConfig
         this.retryDriverThreads = retryDriverThreads;
         return this;
     }
+
+    @Min(1)
+    public int getMaxBufferedPagesPerSplit()
+    {
+        return maxBufferedPagesPerSplit;
+    }
+
+    @Config("presto-thrift.max-buffered-pages-per-split")
+    public ThriftConnectorConfig setMaxBufferedPagesPerSplit(int maxBufferedPagesPerSplit)
+    {
+        this.maxBufferedPagesPerSplit = maxBufferedPagesPerSplit;
+        return this;
+    }
 }
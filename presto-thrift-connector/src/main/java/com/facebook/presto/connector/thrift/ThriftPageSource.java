@@ -23,20 +23,30 @@ import com.facebook.presto.spi.ConnectorPageSource;
 import com.facebook.presto.spi.Page;
 import com.facebook.presto.spi.type.Type;
 import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 
+import javax.annotation.concurrent.GuardedBy;
+
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.List;
+import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicLong;
 
 import static com.google.common.base.Preconditions.checkArgument;
-import static com.google.common.util.concurrent.Futures.nonCancellationPropagating;
+import static com.google.common.base.Throwables.throwIfUnchecked;
 import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
-import static io.airlift.concurrent.MoreFutures.getFutureValue;
-import static io.airlift.concurrent.MoreFutures.toCompletableFuture;
 import static java.util.Objects.requireNonNull;
 
+/**
+ * Reads the pages of a split. The next data request is sent as soon as a response
+ * arrives, so that the Thrift server keeps producing data while the engine consumes
+ * the previous pages. At most {@code maxBufferedPages} pages are fetched ahead of
+ * the consumer.
+ */
 public class ThriftPageSource
         implements ConnectorPageSource
 {
@@ -45,18 +55,34 @@ public class ThriftPageSource
     private final List<String> columnNames;
     private final List<Type> columnTypes;
     private final long maxBytesPerResponse;
+    private final int maxBufferedPages;
     private final AtomicLong readTimeNanos = new AtomicLong(0);
 
+    @GuardedBy("this")
+    private final Queue<Page> bufferedPages = new ArrayDeque<>();
+    @GuardedBy("this")
+    private long bufferedBytes;
+    @GuardedBy("this")
+    private long completedBytes;
+    @GuardedBy("this")
     private PrestoThriftId nextToken;
+    @GuardedBy("this")
     private boolean firstCall = true;
-    private CompletableFuture<PrestoThriftPageResult> future;
-    private long completedBytes;
+    @GuardedBy("this")
+    private ListenableFuture<PrestoThriftPageResult> request;
+    @GuardedBy("this")
+    private CompletableFuture<?> dataAvailable = CompletableFuture.completedFuture(null);
+    @GuardedBy("this")
+    private Throwable failure;
+    @GuardedBy("this")
+    private boolean closed;
 
     public ThriftPageSource(
             PrestoThriftServiceProvider clientProvider,
             ThriftConnectorSplit split,
             List<ColumnHandle> columns,
-            long maxBytesPerResponse)
+            long maxBytesPerResponse,
+            int maxBufferedPages)
     {
         // init columns
         requireNonNull(columns, "columns is null");
@@ -70,10 +96,12 @@ public class ThriftPageSource
         this.columnNames = columnNames.build();
         this.columnTypes = columnTypes.build();
 
-        // this parameter is read from config, so it should be checked by config validation
-        // however, here it's a raw constructor parameter, so adding this safety check
+        // these parameters are read from config, so they should be checked by config validation
+        // however, here they are raw constructor parameters, so adding these safety checks
         checkArgument(maxBytesPerResponse > 0, "maxBytesPerResponse is zero or negative");
         this.maxBytesPerResponse = maxBytesPerResponse;
+        checkArgument(maxBufferedPages > 0, "maxBufferedPages is zero or negative");
+        this.maxBufferedPages = maxBufferedPages;
 
         // init split
         requireNonNull(split, "split is null");
@@ -90,7 +118,7 @@ public class ThriftPageSource
     }
 
     @Override
-    public long getCompletedBytes()
+    public synchronized long getCompletedBytes()
     {
         return completedBytes;
     }
@@ -102,46 +130,33 @@ public class ThriftPageSource
     }
 
     @Override
-    public long getSystemMemoryUsage()
+    public synchronized long getSystemMemoryUsage()
     {
-        return 0;
+        return bufferedBytes;
     }
 
     @Override
-    public boolean isFinished()
+    public synchronized boolean isFinished()
     {
-        return !firstCall && !canGetMoreData(nextToken);
+        return !firstCall && request == null && bufferedPages.isEmpty() && !canGetMoreData(nextToken);
     }
 
     @Override
-    public Page getNextPage()
+    public synchronized Page getNextPage()
     {
-        if (future == null) {
-            // no data request in progress
-            if (firstCall || canGetMoreData(nextToken)) {
-                // no data in the current batch, but can request more; will send a request
-                future = sendDataRequestInternal();
-            }
-            return null;
-        }
-
-        if (!future.isDone()) {
-            // data request is in progress
-            return null;
+        if (failure != null) {
+            throwIfUnchecked(failure);
+            throw new RuntimeException(failure);
         }
 
-        // response for data request is ready
-        Page result = processBatch(getFutureValue(future));
-
-        // immediately try sending a new request
-        if (canGetMoreData(nextToken)) {
-            future = sendDataRequestInternal();
-        }
-        else {
-            future = null;
+        Page page = bufferedPages.poll();
+        if (page != null) {
+            bufferedBytes -= page.getSizeInBytes();
         }
 
-        return result;
+        // a page was consumed or no request was sent yet, so there may be room for another response
+        sendDataRequestIfNeeded();
+        return page;
     }
 
     private static boolean canGetMoreData(PrestoThriftId nextToken)
@@ -149,41 +164,110 @@ public class ThriftPageSource
         return nextToken != null;
     }
 
-    private CompletableFuture<PrestoThriftPageResult> sendDataRequestInternal()
+    @GuardedBy("this")
+    private void sendDataRequestIfNeeded()
     {
+        if (closed || request != null || bufferedPages.size() >= maxBufferedPages) {
+            return;
+        }
+        if (!firstCall && !canGetMoreData(nextToken)) {
+            return;
+        }
+
         long start = System.nanoTime();
         ListenableFuture<PrestoThriftPageResult> rowsBatchFuture = client.getRows(
                 splitId,
                 columnNames,
                 maxBytesPerResponse,
                 new PrestoThriftNullableToken(nextToken));
+        request = rowsBatchFuture;
+        if (dataAvailable.isDone()) {
+            dataAvailable = new CompletableFuture<>();
+        }
+
         rowsBatchFuture.addListener(() -> readTimeNanos.addAndGet(System.nanoTime() - start), directExecutor());
-        return toCompletableFuture(nonCancellationPropagating(rowsBatchFuture));
+        Futures.addCallback(rowsBatchFuture, new FutureCallback<PrestoThriftPageResult>()
+        {
+            @Override
+            public void onSuccess(PrestoThriftPageResult result)
+            {
+                processBatch(result);
+            }
+
+            @Override
+            public void onFailure(Throwable t)
+            {
+                processFailure(t);
+            }
+        }, directExecutor());
     }
 
-    private Page processBatch(PrestoThriftPageResult rowsBatch)
+    private void processBatch(PrestoThriftPageResult rowsBatch)
     {
-        firstCall = false;
-        nextToken = rowsBatch.getNextToken();
-        Page page = rowsBatch.toPage(columnTypes);
-        if (page != null) {
-            completedBytes += page.getSizeInBytes();
+        CompletableFuture<?> completed;
+        synchronized (this) {
+            request = null;
+            if (closed) {
+                return;
+            }
+            // the pipelined request below must not be waited on with the future completed here
+            completed = dataAvailable;
+            dataAvailable = new CompletableFuture<>();
+            firstCall = false;
+            nextToken = rowsBatch.getNextToken();
+            try {
+                Page page = rowsBatch.toPage(columnTypes);
+                if (page != null) {
+                    completedBytes += page.getSizeInBytes();
+                    bufferedBytes += page.getSizeInBytes();
+                    bufferedPages.add(page);
+                }
+                // pipeline the next request while the engine consumes the buffered pages
+                sendDataRequestIfNeeded();
+            }
+            catch (RuntimeException e) {
+                failure = e;
+            }
         }
-        return page;
+        // complete outside of the lock, as this runs the listeners of the engine
+        completed.complete(null);
+    }
+
+    private void processFailure(Throwable t)
+    {
+        CompletableFuture<?> completed;
+        synchronized (this) {
+            request = null;
+            if (!closed) {
+                failure = t;
+            }
+            completed = dataAvailable;
+        }
+        completed.complete(null);
     }
 
     @Override
-    public CompletableFuture<?> isBlocked()
+    public synchronized CompletableFuture<?> isBlocked()
     {
-        return future == null ? NOT_BLOCKED : future;
+        if (request == null || !bufferedPages.isEmpty() || failure != null) {
+            return NOT_BLOCKED;
+        }
+        return dataAvailable;
     }
 
     @Override
     public void close()
             throws IOException
     {
-        if (future != null) {
-            future.cancel(true);
+        ListenableFuture<PrestoThriftPageResult> request;
+        synchronized (this) {
+            closed = true;
+            request = this.request;
+            bufferedPages.clear();
+            bufferedBytes = 0;
+        }
+        if (request != null) {
+            request.cancel(true);
         }
         client.close();
     }
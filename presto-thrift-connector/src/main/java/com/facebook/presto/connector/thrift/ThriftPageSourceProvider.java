@@ -32,12 +32,15 @@ public class ThriftPageSourceProvider
 {
     private final PrestoThriftServiceProvider clientProvider;
     private final long maxBytesPerResponse;
+    private final int maxBufferedPages;
 
     @Inject
     public ThriftPageSourceProvider(PrestoThriftServiceProvider clientProvider, ThriftConnectorConfig config)
     {
         this.clientProvider = requireNonNull(clientProvider, "clientProvider is null");
-        this.maxBytesPerResponse = requireNonNull(config, "config is null").getMaxResponseSize().toBytes();
+        requireNonNull(config, "config is null");
+        this.maxBytesPerResponse = config.getMaxResponseSize().toBytes();
+        this.maxBufferedPages = config.getMaxBufferedPagesPerSplit();
     }
 
     @Override
@@ -47,6 +50,6 @@ public class ThriftPageSourceProvider
             ConnectorSplit split,
             List<ColumnHandle> columns)
     {
-        return new ThriftPageSource(clientProvider, (ThriftConnectorSplit) split, columns, maxBytesPerResponse);
+        return new ThriftPageSource(clientProvider, (ThriftConnectorSplit) split, columns, maxBytesPerResponse, maxBufferedPages);
     }
 }
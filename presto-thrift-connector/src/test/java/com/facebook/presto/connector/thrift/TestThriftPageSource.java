@@ -0,0 +1,247 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.connector.thrift;
+
+import com.facebook.presto.connector.thrift.api.PrestoThriftId;
+import com.facebook.presto.connector.thrift.api.PrestoThriftNullableColumnSet;
+import com.facebook.presto.connector.thrift.api.PrestoThriftNullableSchemaName;
+import com.facebook.presto.connector.thrift.api.PrestoThriftNullableTableMetadata;
+import com.facebook.presto.connector.thrift.api.PrestoThriftNullableToken;
+import com.facebook.presto.connector.thrift.api.PrestoThriftPageResult;
+import com.facebook.presto.connector.thrift.api.PrestoThriftSchemaTableName;
+import com.facebook.presto.connector.thrift.api.PrestoThriftService;
+import com.facebook.presto.connector.thrift.api.PrestoThriftSplitBatch;
+import com.facebook.presto.connector.thrift.api.PrestoThriftTupleDomain;
+import com.facebook.presto.connector.thrift.clientproviders.PrestoThriftServiceProvider;
+import com.facebook.presto.spi.HostAddress;
+import com.facebook.presto.spi.Page;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+public class TestThriftPageSource
+{
+    private static final long MAX_BYTES_PER_RESPONSE = 16_000_000;
+
+    @Test
+    public void testPipelinedRequests()
+            throws Exception
+    {
+        TestingThriftService client = new TestingThriftService();
+        ThriftPageSource pageSource = createPageSource(client, 2);
+
+        // nothing is requested until the first page is asked for
+        assertTrue(pageSource.isBlocked().isDone());
+        assertNull(pageSource.getNextPage());
+        assertEquals(client.getRequestCount(), 1);
+        assertNull(client.getRequestToken(0));
+        CompletableFuture<?> blocked = pageSource.isBlocked();
+        assertFalse(blocked.isDone());
+
+        // the second request is sent as soon as the first response arrives
+        client.respond(0, 10, id(1));
+        assertTrue(blocked.isDone());
+        assertEquals(client.getRequestCount(), 2);
+        assertEquals(client.getRequestToken(1), id(1));
+
+        // once the first page is consumed, the source waits for the outstanding second request
+        assertPage(pageSource.getNextPage(), 10);
+        assertEquals(client.getRequestCount(), 2);
+        blocked = pageSource.isBlocked();
+        assertFalse(blocked.isDone());
+
+        client.respond(1, 20, id(2));
+        assertTrue(blocked.isDone());
+        assertEquals(client.getRequestCount(), 3);
+        assertEquals(client.getRequestToken(2), id(2));
+
+        // two responses are buffered, so no more requests are sent
+        client.respond(2, 30, id(3));
+        assertEquals(client.getRequestCount(), 3);
+
+        assertPage(pageSource.getNextPage(), 20);
+        assertEquals(client.getRequestCount(), 4);
+        assertEquals(client.getRequestToken(3), id(3));
+
+        client.respond(3, 40, null);
+        assertPage(pageSource.getNextPage(), 30);
+        assertFalse(pageSource.isFinished());
+        assertPage(pageSource.getNextPage(), 40);
+        assertTrue(pageSource.isFinished());
+        assertEquals(client.getRequestCount(), 4);
+
+        pageSource.close();
+        assertTrue(client.isClosed());
+    }
+
+    @Test
+    public void testSingleBufferedPage()
+            throws Exception
+    {
+        TestingThriftService client = new TestingThriftService();
+        ThriftPageSource pageSource = createPageSource(client, 1);
+
+        assertNull(pageSource.getNextPage());
+        client.respond(0, 10, id(1));
+        // the response is not consumed yet
+        assertEquals(client.getRequestCount(), 1);
+
+        assertPage(pageSource.getNextPage(), 10);
+        assertEquals(client.getRequestCount(), 2);
+        client.respond(1, 0, null);
+        assertNull(pageSource.getNextPage());
+        assertTrue(pageSource.isFinished());
+        pageSource.close();
+    }
+
+    @Test
+    public void testFailure()
+            throws Exception
+    {
+        TestingThriftService client = new TestingThriftService();
+        ThriftPageSource pageSource = createPageSource(client, 2);
+
+        assertNull(pageSource.getNextPage());
+        CompletableFuture<?> blocked = pageSource.isBlocked();
+        client.fail(0, new IllegalStateException("request failed"));
+        assertTrue(blocked.isDone());
+        try {
+            pageSource.getNextPage();
+            throw new AssertionError("expected failure");
+        }
+        catch (IllegalStateException e) {
+            assertEquals(e.getMessage(), "request failed");
+        }
+        pageSource.close();
+    }
+
+    private static ThriftPageSource createPageSource(TestingThriftService client, int maxBufferedPages)
+    {
+        PrestoThriftServiceProvider clientProvider = new PrestoThriftServiceProvider()
+        {
+            @Override
+            public PrestoThriftService anyHostClient()
+            {
+                return client;
+            }
+
+            @Override
+            public PrestoThriftService selectedHostClient(List<HostAddress> hosts)
+            {
+                return client;
+            }
+        };
+        ThriftConnectorSplit split = new ThriftConnectorSplit(id(0), ImmutableList.of());
+        return new ThriftPageSource(clientProvider, split, ImmutableList.of(), MAX_BYTES_PER_RESPONSE, maxBufferedPages);
+    }
+
+    private static void assertPage(Page page, int positionCount)
+    {
+        assertNotNull(page);
+        assertEquals(page.getPositionCount(), positionCount);
+    }
+
+    private static PrestoThriftId id(int id)
+    {
+        return new PrestoThriftId(new byte[] {(byte) id});
+    }
+
+    private static class TestingThriftService
+            implements PrestoThriftService
+    {
+        private final List<PrestoThriftId> requestTokens = new ArrayList<>();
+        private final List<SettableFuture<PrestoThriftPageResult>> requests = new ArrayList<>();
+        private boolean closed;
+
+        public int getRequestCount()
+        {
+            return requests.size();
+        }
+
+        public PrestoThriftId getRequestToken(int request)
+        {
+            return requestTokens.get(request);
+        }
+
+        public void respond(int request, int rowCount, PrestoThriftId nextToken)
+        {
+            requests.get(request).set(new PrestoThriftPageResult(ImmutableList.of(), rowCount, nextToken));
+        }
+
+        public void fail(int request, Throwable failure)
+        {
+            requests.get(request).setException(failure);
+        }
+
+        public boolean isClosed()
+        {
+            return closed;
+        }
+
+        @Override
+        public ListenableFuture<PrestoThriftPageResult> getRows(PrestoThriftId splitId, List<String> columns, long maxBytes, PrestoThriftNullableToken nextToken)
+        {
+            SettableFuture<PrestoThriftPageResult> request = SettableFuture.create();
+            requestTokens.add(nextToken.getToken());
+            requests.add(request);
+            return request;
+        }
+
+        @Override
+        public List<String> listSchemaNames()
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<PrestoThriftSchemaTableName> listTables(PrestoThriftNullableSchemaName schemaNameOrNull)
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public PrestoThriftNullableTableMetadata getTableMetadata(PrestoThriftSchemaTableName schemaTableName)
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ListenableFuture<PrestoThriftSplitBatch> getSplits(
+                PrestoThriftSchemaTableName schemaTableName,
+                PrestoThriftNullableColumnSet desiredColumns,
+                PrestoThriftTupleDomain outputConstraint,
+                int maxSplitCount,
+                PrestoThriftNullableToken nextToken)
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void close()
+        {
+            closed = true;
+        }
+    }
+}